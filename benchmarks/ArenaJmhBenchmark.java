@@ -0,0 +1,121 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import texteditor.FormattingPipeline;
+import texteditor.OutputManager;
+import texteditor.ParagraphArena;
+import texteditor.RopeDocument;
+
+import java.io.OutputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ArenaJmhBenchmark class compares a document which keeps every paragraph
+ * as String with a document which stores the texts in a ParagraphArena. An
+ * edit replaces, inserts or removes a random paragraph, the arena is
+ * compacted every 100000 edits. The whole document is printed in the fixed
+ * format with the FormattingPipeline like PRINT of a session, which reads the
+ * paragraphs of the arena through views of the segments. The output is
+ * discarded.
+ * The garbage collections are reported by the GC profiler of the JmhRunner.
+ * The heap and direct memory which are used after a full collection are not a
+ * time per operation, so they are printed together with the duration of the
+ * full collection at the end of every trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArenaJmhBenchmark {
+	@Param({ "heap", "arena" })
+	private String store;
+	@Param({ "1000000" })
+	private int paragraphCount;
+	private ParagraphArena arena;
+	private RopeDocument document;
+	private CorpusGenerator generator;
+	private Random random;
+	private long editCount;
+	private OutputManager outputManager;
+	private FormattingPipeline formattingPipeline;
+
+	@Setup
+	public void setUp() {
+		arena = store.equals("arena") ? new ParagraphArena() : null;
+		document = arena != null ? new RopeDocument(arena) : new RopeDocument();
+		generator = new CorpusGenerator(20_000, 1.0, 1);
+		for (int loaded = 0; loaded < paragraphCount; loaded += 100_000) {
+			document.insertParagraphs(loaded,
+					generator.createParagraphs(Math.min(100_000, paragraphCount - loaded), 12));
+		}
+		random = new Random(3);
+		WritableByteChannel channel = Channels.newChannel(OutputStream.nullOutputStream());
+		outputManager = new OutputManager(channel, channel);
+		formattingPipeline = new FormattingPipeline();
+	}
+
+	@TearDown
+	public void tearDown() {
+		long start = System.nanoTime();
+		System.gc();
+		long fullCollection = (System.nanoTime() - start) / 1_000_000;
+		long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		long direct = 0;
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct")) {
+				direct = pool.getMemoryUsed();
+			}
+		}
+		System.out.printf("%n%s: heap %d MB, direct %d MB, full collection %d ms%n", store, heap >> 20,
+				direct >> 20, fullCollection);
+		if (arena != null) {
+			System.out.printf("arena: %d segments, %d MB allocated, %d MB live%n", arena.getSegmentCount(),
+					arena.getAllocatedBytes() >> 20, arena.getLiveBytes() >> 20);
+		}
+	}
+
+	@Benchmark
+	public int edit() {
+		int index = random.nextInt(document.size());
+		switch ((int) (editCount % 3)) {
+		case 0:
+			document.set(index, generator.createParagraph(12));
+			break;
+		case 1:
+			document.add(index, generator.createParagraph(12));
+			break;
+		default:
+			document.remove(index);
+		}
+		editCount++;
+		if (arena != null && editCount % 100_000 == 0) {
+			document.compact();
+		}
+		return document.size();
+	}
+
+	@Benchmark
+	public long printDocument() {
+		formattingPipeline.print(document.snapshot().texts(), 80, outputManager);
+		outputManager.flush();
+		return outputManager.getByteCount();
+	}
+}
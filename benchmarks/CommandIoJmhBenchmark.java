@@ -0,0 +1,102 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import texteditor.Document;
+import texteditor.InputManager;
+import texteditor.OutputManager;
+import texteditor.PostingList;
+import texteditor.RopeDocument;
+import texteditor.TextProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CommandIoJmhBenchmark class measures parsing commands with the
+ * InputManager and printing the text and the word index with the
+ * OutputManager. The output is written to a channel which discards it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommandIoJmhBenchmark {
+	private static final int COMMAND_COUNT = 10_000;
+	private static final String[] COMMANDS = { "ADD 3", "Deep Thought is a computer", "DEL 12", "print",
+			"REPLACE 7", "Deep", "Shallow", "FORMAT FIX 80", "INDEX", "FIND \"Deep Thought\"", "DUMMY" };
+	private byte[] commands;
+	private Document document;
+	private TreeMap<String, PostingList> wordIndex;
+	private OutputManager outputManager;
+
+	@Setup
+	public void setUp() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < COMMAND_COUNT; i++) {
+			text.append(COMMANDS[i % COMMANDS.length]).append('\n');
+		}
+		commands = text.toString().getBytes(StandardCharsets.UTF_8);
+		document = new RopeDocument(new CorpusGenerator(50_000, 1.1, 1).createParagraphs(10_000, 15));
+		wordIndex = new TextProcessor().getWordIndex(document);
+		WritableByteChannel discardingChannel = new WritableByteChannel() {
+			@Override
+			public int write(ByteBuffer buffer) {
+				int length = buffer.remaining();
+				buffer.position(buffer.limit());
+				return length;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		outputManager = new OutputManager(discardingChannel, discardingChannel);
+	}
+
+	/**
+	 * Parses every line as command, including the lines which are paragraph
+	 * texts in a real script.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(COMMAND_COUNT)
+	public void parseCommands(Blackhole blackhole) {
+		InputManager inputManager = new InputManager(new ByteArrayInputStream(commands));
+		for (int i = 0; i < COMMAND_COUNT; i++) {
+			blackhole.consume(inputManager.getCommandInput());
+		}
+	}
+
+	@Benchmark
+	public void printParagraphsRaw() {
+		outputManager.printParagraphsRaw(document);
+		outputManager.flush();
+	}
+
+	@Benchmark
+	public void printIndex() {
+		outputManager.printIndex(wordIndex);
+		outputManager.flush();
+	}
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The CorpusGenerator class creates synthetic paragraphs for benchmarks. The
+ * words are drawn from a generated vocabulary with Zipf distributed
+ * frequencies, a skew of 0 uses every word equally often, larger skews make
+ * the first words more frequent. A quarter of the words start with an
+ * uppercase letter, every seventh word ends a sentence. The same seed always
+ * creates the same corpus.
+ */
+public class CorpusGenerator {
+	private final String[] vocabulary;
+	private final double[] cumulativeFrequencies;
+	private final Random random;
+
+	/**
+	 * Constructor with the size of the vocabulary, the skew of the word
+	 * frequencies and the seed.
+	 *
+	 * @param vocabularySize
+	 * @param skew           exponent of the Zipf distribution, 0 or larger
+	 * @param seed
+	 */
+	public CorpusGenerator(int vocabularySize, double skew, long seed) {
+		vocabulary = new String[vocabularySize];
+		cumulativeFrequencies = new double[vocabularySize];
+		double sum = 0;
+		for (int rank = 0; rank < vocabularySize; rank++) {
+			vocabulary[rank] = createWord(rank);
+			sum += 1 / Math.pow(rank + 1, skew);
+			cumulativeFrequencies[rank] = sum;
+		}
+		for (int rank = 0; rank < vocabularySize; rank++) {
+			cumulativeFrequencies[rank] /= sum;
+		}
+		random = new Random(seed);
+	}
+
+	/**
+	 * Creates paragraphs with the same number of words.
+	 *
+	 * @param paragraphCount
+	 * @param paragraphLength number of words per paragraph
+	 * @return paragraphs
+	 */
+	public List<String> createParagraphs(int paragraphCount, int paragraphLength) {
+		List<String> paragraphs = new ArrayList<>(paragraphCount);
+		for (int i = 0; i < paragraphCount; i++) {
+			paragraphs.add(createParagraph(paragraphLength));
+		}
+		return paragraphs;
+	}
+
+	/**
+	 * Creates one paragraph.
+	 *
+	 * @param paragraphLength number of words
+	 * @return paragraph
+	 */
+	public String createParagraph(int paragraphLength) {
+		StringBuilder paragraph = new StringBuilder();
+		for (int i = 0; i < paragraphLength; i++) {
+			if (i > 0) {
+				paragraph.append(' ');
+			}
+			paragraph.append(nextWord());
+			if (i % 7 == 6) {
+				paragraph.append('.');
+			}
+		}
+		return paragraph.toString();
+	}
+
+	/**
+	 * @return a random word of the vocabulary
+	 */
+	public String nextWord() {
+		int rank = Arrays.binarySearch(cumulativeFrequencies, random.nextDouble());
+		return vocabulary[Math.min(rank < 0 ? -rank - 1 : rank, vocabulary.length - 1)];
+	}
+
+	private static String createWord(int rank) {
+		StringBuilder word = new StringBuilder();
+		int number = rank;
+		word.append((char) ((rank % 4 == 0 ? 'A' : 'a') + number % 26));
+		do {
+			number /= 26;
+			word.append((char) ('a' + number % 26));
+		} while (number > 0);
+		return word.toString();
+	}
+}
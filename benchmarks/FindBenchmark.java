@@ -0,0 +1,77 @@
+package benchmarks;
+
+import texteditor.RopeDocument;
+import texteditor.SearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * The FindBenchmark class compares searching a rare word and a phrase with the
+ * SearchIndex to a linear scan of all paragraphs with String.indexOf. It also
+ * prints the time and the memory needed to build the index.
+ *
+ * Usage: java benchmarks.FindBenchmark [paragraphs]
+ */
+public class FindBenchmark {
+	private static final int ROUNDS = 5;
+	private static final int QUERIES = 1000;
+
+	public static void main(String[] args) {
+		int paragraphCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		Random random = new Random(1);
+		String[] vocabulary = new String[50_000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			vocabulary[i] = (i % 4 == 0 ? "W" : "w") + Integer.toString(i, 36);
+		}
+		List<String> paragraphs = new ArrayList<>(paragraphCount);
+		for (int i = 0; i < paragraphCount; i++) {
+			StringBuilder paragraph = new StringBuilder();
+			for (int j = 0; j < 15; j++) {
+				int rank = (int) Math.pow(vocabulary.length, random.nextDouble()) - 1;
+				paragraph.append(vocabulary[rank]).append(j % 7 == 6 ? ". " : " ");
+			}
+			paragraphs.add(paragraph.toString().trim());
+		}
+		RopeDocument document = new RopeDocument(paragraphs);
+		paragraphs = null;
+
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+		long start = System.nanoTime();
+		SearchIndex searchIndex = new SearchIndex(document);
+		double buildMillis = (System.nanoTime() - start) / 1e6;
+		System.gc();
+		long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+		System.out.printf("index of %d paragraphs built in %.2f ms, about %d MB%n", paragraphCount, buildMillis,
+				(usedAfter - usedBefore) >> 20);
+
+		String word = vocabulary[vocabulary.length - 2];
+		String phrase = document.get(paragraphCount / 2).substring(0, document.get(paragraphCount / 2).indexOf(' ',
+				document.get(paragraphCount / 2).indexOf(' ') + 1));
+		for (int round = 1; round <= ROUNDS; round++) {
+			for (String query : new String[] { word, phrase }) {
+				start = System.nanoTime();
+				int found = 0;
+				for (int i = 0; i < QUERIES; i++) {
+					TreeMap<Integer, int[]> matches = searchIndex.find(query);
+					found = matches.size();
+				}
+				double indexMicros = (System.nanoTime() - start) / 1e3 / QUERIES;
+				start = System.nanoTime();
+				int scanned = 0;
+				for (String paragraph : document) {
+					if (paragraph.indexOf(query) >= 0) {
+						scanned++;
+					}
+				}
+				double scanMillis = (System.nanoTime() - start) / 1e6;
+				System.out.printf("round %d \"%s\": index %10.2f us (%d paragraphs), indexOf scan %10.2f ms (%d)%n",
+						round, query, indexMicros, found, scanMillis, scanned);
+			}
+		}
+	}
+}
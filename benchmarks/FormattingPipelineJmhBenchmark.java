@@ -0,0 +1,124 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import texteditor.FormattingPipeline;
+import texteditor.LineLayout;
+import texteditor.OutputManager;
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * The FormattingPipelineJmhBenchmark class compares printing a document in the
+ * fixed format paragraph by paragraph on one thread with the
+ * FormattingPipeline for 1, 2, 4 and 8 threads. The output is written to a
+ * channel which only checksums the bytes, so the time of the formatting and
+ * encoding is measured. The setup checks once that the pipeline prints the
+ * same bytes. Threads beyond the number of cores can not speed up the
+ * printing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormattingPipelineJmhBenchmark {
+	@Param({ "1000000" })
+	private int paragraphCount;
+	@Param({ "80" })
+	private int maxLineLength;
+	@Param({ "1", "2", "4", "8" })
+	private int threads;
+	private RopeDocument document;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setUp() {
+		document = new RopeDocument();
+		CorpusGenerator generator = new CorpusGenerator(20_000, 1.0, 1);
+		for (int loaded = 0; loaded < paragraphCount; loaded += 100_000) {
+			document.insertParagraphs(loaded, generator.createParagraphs(Math.min(100_000, paragraphCount - loaded), 12));
+		}
+		pool = new ForkJoinPool(threads);
+		if (printSequential() != printPipeline()) {
+			throw new IllegalStateException("pipeline output differs");
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Formats and prints every paragraph on the benchmark thread with a new
+	 * formatter, like PRINT of a single session. The number of threads does
+	 * not change this variant.
+	 *
+	 * @return checksum of the output
+	 */
+	@Benchmark
+	public long printSequential() {
+		ChecksumChannel channel = new ChecksumChannel();
+		OutputManager outputManager = new OutputManager(channel, channel);
+		TextFormatter textFormatter = new TextFormatter(maxLineLength);
+		for (CharSequence paragraph : document.texts()) {
+			LineLayout layout = textFormatter.getLineLayout(paragraph);
+			outputManager.printLines(paragraph, layout, 0, layout.getLineCount());
+		}
+		outputManager.flush();
+		return channel.checksum.getValue();
+	}
+
+	/**
+	 * Prints the document with the pipeline in chunks of 512 paragraphs and
+	 * at most four chunks per thread ahead of the output.
+	 *
+	 * @return checksum of the output
+	 */
+	@Benchmark
+	public long printPipeline() {
+		ChecksumChannel channel = new ChecksumChannel();
+		OutputManager outputManager = new OutputManager(channel, channel);
+		new FormattingPipeline(pool, 512, 4 * threads).print(document.texts(), maxLineLength, outputManager);
+		outputManager.flush();
+		return channel.checksum.getValue();
+	}
+
+	private static class ChecksumChannel implements WritableByteChannel {
+		private final CRC32 checksum = new CRC32();
+
+		@Override
+		public int write(ByteBuffer source) {
+			int count = source.remaining();
+			checksum.update(source);
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
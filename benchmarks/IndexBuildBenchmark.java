@@ -0,0 +1,79 @@
+package benchmarks;
+
+import texteditor.ParallelIndexBuilder;
+import texteditor.PostingList;
+import texteditor.RopeDocument;
+import texteditor.TextProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The IndexBuildBenchmark class compares the sequential word index of the
+ * TextProcessor with the ParallelIndexBuilder for 1, 2, 4, 8 and 16 threads
+ * on a synthetic corpus. Threads beyond the number of cores can not speed up
+ * the build, so the number of available cores is printed as well.
+ *
+ * Usage: java benchmarks.IndexBuildBenchmark [paragraphs]
+ */
+public class IndexBuildBenchmark {
+	private static final int ROUNDS = 5;
+	private static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+	public static void main(String[] args) {
+		int paragraphCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		System.out.println("available cores: " + Runtime.getRuntime().availableProcessors());
+		RopeDocument document = new RopeDocument(generateParagraphs(paragraphCount, new Random(1)));
+		TreeMap<String, PostingList> expected = new TextProcessor().getWordIndex(document);
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			System.out.println("round " + round);
+			long start = System.nanoTime();
+			new TextProcessor().getWordIndex(document);
+			double sequentialMillis = (System.nanoTime() - start) / 1e6;
+			System.out.printf("%-12s %10.2f ms%n", "sequential", sequentialMillis);
+			for (int threads : THREADS) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				start = System.nanoTime();
+				TreeMap<String, PostingList> wordIndex = new ParallelIndexBuilder(pool, 4096).getWordIndex(document);
+				double millis = (System.nanoTime() - start) / 1e6;
+				pool.shutdown();
+				if (!wordIndex.equals(expected)) {
+					throw new IllegalStateException("parallel index differs");
+				}
+				System.out.printf("%-12s %10.2f ms %6.2fx%n", threads + " threads", millis, sequentialMillis / millis);
+			}
+		}
+	}
+
+	/**
+	 * Generates paragraphs from a vocabulary of 50000 words with Zipf-like
+	 * frequencies, a quarter of them starting with an uppercase letter.
+	 */
+	private static List<String> generateParagraphs(int count, Random random) {
+		String[] vocabulary = new String[50_000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			StringBuilder word = new StringBuilder();
+			int number = i;
+			word.append((char) ((i % 4 == 0 ? 'A' : 'a') + number % 26));
+			do {
+				number /= 26;
+				word.append((char) ('a' + number % 26));
+			} while (number > 0);
+			vocabulary[i] = word.toString();
+		}
+		List<String> paragraphs = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			StringBuilder paragraph = new StringBuilder();
+			for (int j = 0; j < 15; j++) {
+				int rank = (int) Math.pow(vocabulary.length, random.nextDouble()) - 1;
+				paragraph.append(vocabulary[rank]).append(j % 7 == 6 ? ". " : " ");
+			}
+			paragraphs.add(paragraph.toString().trim());
+		}
+		return paragraphs;
+	}
+}
@@ -0,0 +1,31 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The JmhRunner class runs the JMH benchmarks with the GC profiler, which
+ * adds the allocation rate and the allocated bytes per operation to every
+ * result. The results are written as JSON, so the files of two commits can be
+ * compared, for example with a JMH result visualizer.
+ *
+ * Usage: java benchmarks.JmhRunner [result file] [benchmark regex]
+ */
+public class JmhRunner {
+
+	public static void main(String[] args) throws RunnerException {
+		String resultFile = args.length > 0 ? args[0] : "jmh-result.json";
+		String include = args.length > 1 ? args[1] : "benchmarks\\..*JmhBenchmark";
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,142 @@
+package benchmarks;
+
+import texteditor.Document;
+import texteditor.LineLayout;
+import texteditor.OutputManager;
+import texteditor.PostingList;
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+import texteditor.TextProcessor;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * The OutputThroughputBenchmark class compares the buffered output of the
+ * OutputManager with the former output, which called an autoflushing
+ * System.out.println for every line and concatenated the index rows.
+ * Both write to the same target file, by default a temporary file. The lines
+ * of the fixed format are computed before, the buffered output prints them
+ * with their layouts like PRINT does. The former index
+ * output is quadratic in the number of paragraphs per word, so INDEX only
+ * uses the first paragraphs of the document.
+ *
+ * Usage: java benchmarks.OutputThroughputBenchmark [paragraphs] [target]
+ */
+public class OutputThroughputBenchmark {
+	private static final int ROUNDS = 5;
+	private static final int INDEX_PARAGRAPHS = 10_000;
+	private static final String[] WORDS = { "Deep", "Thought", "computer", "the", "Answer", "is", "42,", "Galaxy",
+			"question", "Universe", "Everything", "Life", "and", "of" };
+
+	public static void main(String[] args) throws IOException {
+		int paragraphCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		Path target;
+		if (args.length > 1) {
+			target = Path.of(args[1]);
+		} else {
+			target = Files.createTempFile("output-benchmark", ".txt");
+			target.toFile().deleteOnExit();
+		}
+
+		Document document = generateDocument(paragraphCount);
+		TextFormatter textFormatter = new TextFormatter(80);
+		LineLayout[] layouts = new LineLayout[document.size()];
+		List<String> lines = new ArrayList<>();
+		int paragraphNumber = 0;
+		for (CharSequence paragraph : document.texts()) {
+			LineLayout layout = textFormatter.getLineLayout(paragraph);
+			for (int line = 0; line < layout.getLineCount(); line++) {
+				lines.add(paragraph.subSequence(layout.getLineStart(line), layout.getLineEnd(line)).toString());
+			}
+			layouts[paragraphNumber++] = layout;
+		}
+		TreeMap<String, PostingList> wordIndex = new TextProcessor()
+				.getWordIndex(document.subList(0, Math.min(paragraphCount, INDEX_PARAGRAPHS)));
+
+		try (PrintStream printStream = new PrintStream(new FileOutputStream(target.toFile()), true);
+				FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+			OutputManager outputManager = new OutputManager(channel, channel);
+			for (int round = 1; round <= ROUNDS; round++) {
+				System.out.println("round " + round);
+				report("PRINT raw   println", document.size(), measure(() -> printRawLegacy(printStream, document)));
+				report("PRINT raw   sink   ", document.size(), measure(() -> {
+					outputManager.printParagraphsRaw(document);
+					outputManager.flush();
+				}));
+				report("PRINT fixed println", lines.size(), measure(() -> printFixedLegacy(printStream, lines)));
+				report("PRINT fixed sink   ", lines.size(), measure(() -> {
+					int i = 0;
+					for (CharSequence paragraph : document.texts()) {
+						outputManager.printLines(paragraph, layouts[i], 0, layouts[i++].getLineCount());
+					}
+					outputManager.flush();
+				}));
+				report("INDEX       println", wordIndex.size(), measure(() -> printIndexLegacy(printStream, wordIndex)));
+				report("INDEX       sink   ", wordIndex.size(), measure(() -> {
+					outputManager.printIndex(wordIndex);
+					outputManager.flush();
+				}));
+			}
+		}
+	}
+
+	private static Document generateDocument(int paragraphCount) {
+		Random random = new Random(42);
+		ArrayList<String> paragraphs = new ArrayList<>(paragraphCount);
+		for (int i = 0; i < paragraphCount; i++) {
+			StringBuilder paragraph = new StringBuilder();
+			int length = 20 + random.nextInt(60);
+			for (int j = 0; j < length; j++) {
+				paragraph.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			paragraphs.add(paragraph.toString().trim());
+		}
+		return new RopeDocument(paragraphs);
+	}
+
+	private static long measure(Runnable command) {
+		long start = System.nanoTime();
+		command.run();
+		return System.nanoTime() - start;
+	}
+
+	private static void report(String name, int rows, long nanos) {
+		System.out.printf("%s %8d rows %8.1f ms %12.0f rows/s%n", name, rows, nanos / 1e6, rows / (nanos / 1e9));
+	}
+
+	private static void printRawLegacy(PrintStream printStream, Document paragraphs) {
+		for (int i = 0; i < paragraphs.size(); i++) {
+			int paragraphNumber = i;
+			printStream.println(++paragraphNumber + ": " + paragraphs.get(i));
+		}
+	}
+
+	private static void printFixedLegacy(PrintStream printStream, List<String> lines) {
+		for (String line : lines) {
+			printStream.println(line);
+		}
+	}
+
+	private static void printIndexLegacy(PrintStream printStream, TreeMap<String, PostingList> wordIndex) {
+		String paragraphNumbers = "";
+		for (Entry<String, PostingList> map : wordIndex.entrySet()) {
+			for (Integer set : map.getValue()) {
+				paragraphNumbers += ++set + ",";
+			}
+			paragraphNumbers = paragraphNumbers.substring(0, paragraphNumbers.length() - 1);
+			printStream.println(map.getKey() + " " + paragraphNumbers);
+			paragraphNumbers = "";
+		}
+	}
+}
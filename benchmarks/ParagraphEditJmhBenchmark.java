@@ -0,0 +1,64 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import texteditor.Document;
+import texteditor.RopeDocument;
+import texteditor.TextProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ParagraphEditJmhBenchmark class measures adding and deleting a
+ * paragraph at the head, the middle and the tail of a document. Every
+ * invocation adds a paragraph and deletes it again, so the document keeps
+ * its size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParagraphEditJmhBenchmark {
+	@Param({ "1000", "1000000" })
+	private int paragraphCount;
+	@Param({ "HEAD", "MIDDLE", "TAIL" })
+	private String position;
+	private final TextProcessor textProcessor = new TextProcessor();
+	private Document document;
+	private String paragraph;
+	private int paragraphNumber;
+
+	@Setup
+	public void setUp() {
+		CorpusGenerator corpusGenerator = new CorpusGenerator(50_000, 1.1, 1);
+		document = new RopeDocument(corpusGenerator.createParagraphs(paragraphCount, 15));
+		paragraph = corpusGenerator.createParagraph(15);
+		switch (position) {
+		case "HEAD":
+			paragraphNumber = 0;
+			break;
+		case "MIDDLE":
+			paragraphNumber = paragraphCount / 2;
+			break;
+		default:
+			paragraphNumber = paragraphCount;
+		}
+	}
+
+	@Benchmark
+	public Document addAndDeleteParagraph() {
+		textProcessor.addParagraph(document, paragraphNumber, paragraph);
+		return textProcessor.deleteParagraph(document, paragraphNumber);
+	}
+}
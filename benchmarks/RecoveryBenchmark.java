@@ -0,0 +1,90 @@
+package benchmarks;
+
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+import texteditor.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The RecoveryBenchmark class measures how long it takes to recover a session
+ * with a large document. The session contains a snapshot of the document and
+ * a log with the edits made after the snapshot. The session is written to a
+ * temporary directory by default.
+ *
+ * Usage: java benchmarks.RecoveryBenchmark [paragraphs] [edits after snapshot] [directory]
+ */
+public class RecoveryBenchmark {
+	private static final int ROUNDS = 5;
+	private static final String[] WORDS = { "Deep", "Thought", "computer", "the", "Answer", "is", "42,", "Galaxy",
+			"question", "Universe", "Everything", "Life", "and", "of" };
+
+	public static void main(String[] args) throws IOException {
+		int paragraphCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		int editCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+		boolean temporary = args.length <= 2;
+		Path directory = temporary ? Files.createTempDirectory("recovery-benchmark") : Path.of(args[2]);
+
+		Random random = new Random(1);
+		RopeDocument document = new RopeDocument();
+		WriteAheadLog writeAheadLog = new WriteAheadLog(directory, document, new TextFormatter(), Long.MAX_VALUE, 20);
+		writeAheadLog.recover();
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < paragraphCount; i++) {
+			paragraphs.add(randomParagraph(random));
+		}
+		document.insertParagraphs(document.size(), paragraphs);
+		long start = System.nanoTime();
+		writeAheadLog.snapshot();
+		System.out.printf("snapshot of %d paragraphs %10.2f ms%n", document.size(), (System.nanoTime() - start) / 1e6);
+		for (int i = 0; i < editCount; i++) {
+			int operation = random.nextInt(3);
+			if (operation == 0) {
+				document.add(random.nextInt(document.size() + 1), randomParagraph(random));
+			} else if (operation == 1) {
+				document.remove(random.nextInt(document.size()));
+			} else {
+				document.set(random.nextInt(document.size()), randomParagraph(random));
+			}
+			writeAheadLog.commit();
+		}
+		writeAheadLog.close();
+		int expectedSize = document.size();
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			RopeDocument recovered = new RopeDocument();
+			WriteAheadLog recoveredLog = new WriteAheadLog(directory, recovered, new TextFormatter(), Long.MAX_VALUE,
+					20);
+			start = System.nanoTime();
+			recoveredLog.recover();
+			long nanos = System.nanoTime() - start;
+			recoveredLog.close();
+			if (recovered.size() != expectedSize) {
+				throw new IllegalStateException("recovered " + recovered.size() + " of " + expectedSize);
+			}
+			System.out.printf("recovery with %d edits in log %10.2f ms%n", editCount, nanos / 1e6);
+		}
+		if (temporary) {
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+
+	private static String randomParagraph(Random random) {
+		StringBuilder paragraph = new StringBuilder();
+		for (int i = 0; i < 12; i++) {
+			paragraph.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return paragraph.toString().trim();
+	}
+}
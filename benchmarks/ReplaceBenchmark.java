@@ -0,0 +1,72 @@
+package benchmarks;
+
+import texteditor.DictionaryReplacer;
+import texteditor.ReplaceResult;
+import texteditor.RopeDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The ReplaceBenchmark class compares applying a replacement dictionary with
+ * one String.replace per search string and paragraph to the DictionaryReplacer,
+ * which reads every paragraph once.
+ *
+ * Usage: java benchmarks.ReplaceBenchmark [paragraphs] [search strings]
+ */
+public class ReplaceBenchmark {
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		int paragraphCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int patternCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		Random random = new Random(1);
+		List<String> replacees = new ArrayList<>();
+		List<String> replacements = new ArrayList<>();
+		for (int i = 0; i < patternCount; i++) {
+			replacees.add(randomWord(random));
+			replacements.add("W" + i);
+		}
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < paragraphCount; i++) {
+			StringBuilder paragraph = new StringBuilder();
+			for (int j = 0; j < 15; j++) {
+				paragraph.append(randomWord(random)).append(' ');
+			}
+			paragraphs.add(paragraph.toString().trim());
+		}
+		RopeDocument document = new RopeDocument(paragraphs);
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			long start = System.nanoTime();
+			int changed = 0;
+			for (String paragraph : document) {
+				String replaced = paragraph;
+				for (int i = 0; i < patternCount; i++) {
+					replaced = replaced.replace(replacees.get(i), replacements.get(i));
+				}
+				if (!replaced.equals(paragraph)) {
+					changed++;
+				}
+			}
+			double replaceMillis = (System.nanoTime() - start) / 1e6;
+
+			start = System.nanoTime();
+			DictionaryReplacer replacer = new DictionaryReplacer(replacees, replacements);
+			ReplaceResult result = replacer.replaceAll(document);
+			double dictionaryMillis = (System.nanoTime() - start) / 1e6;
+			System.out.printf("round %d: String.replace %10.2f ms (%d changed), Aho-Corasick %10.2f ms (%d changed)%n",
+					round, replaceMillis, changed, dictionaryMillis, result.getParagraphNumbers().length);
+		}
+	}
+
+	private static String randomWord(Random random) {
+		int length = 3 + random.nextInt(6);
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			word.append((char) ('a' + random.nextInt(26)));
+		}
+		return word.toString();
+	}
+}
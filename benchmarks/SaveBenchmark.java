@@ -0,0 +1,70 @@
+package benchmarks;
+
+import texteditor.DocumentStore;
+import texteditor.RopeDocument;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The SaveBenchmark class measures how long SAVE takes for a whole document
+ * and for a document where only one paragraph was replaced since the last
+ * save. The file is written to a temporary directory by default.
+ *
+ * Usage: java benchmarks.SaveBenchmark [paragraphs] [target]
+ */
+public class SaveBenchmark {
+	private static final int ROUNDS = 20;
+	private static final String[] WORDS = { "Deep", "Thought", "computer", "the", "Answer", "is", "42,", "Galaxy",
+			"question", "Universe", "Everything", "Life", "and", "of" };
+
+	public static void main(String[] args) throws IOException {
+		int paragraphCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		Path target;
+		if (args.length > 1) {
+			target = Path.of(args[1]);
+		} else {
+			Path directory = Files.createTempDirectory("save-benchmark");
+			target = directory.resolve("document.txed");
+			directory.toFile().deleteOnExit();
+			target.toFile().deleteOnExit();
+		}
+
+		Random random = new Random(1);
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < paragraphCount; i++) {
+			paragraphs.add(randomParagraph(random));
+		}
+		RopeDocument document = new RopeDocument();
+		DocumentStore documentStore = new DocumentStore(document);
+		document.insertParagraphs(0, paragraphs);
+
+		long start = System.nanoTime();
+		documentStore.save(target);
+		report("full save", System.nanoTime() - start, Files.size(target));
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			long size = Files.size(target);
+			document.set(random.nextInt(document.size()), randomParagraph(random));
+			start = System.nanoTime();
+			documentStore.save(target);
+			report("save after one REPLACE", System.nanoTime() - start, Files.size(target) - size);
+		}
+	}
+
+	private static String randomParagraph(Random random) {
+		StringBuilder paragraph = new StringBuilder();
+		for (int i = 0; i < 12; i++) {
+			paragraph.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return paragraph.toString().trim();
+	}
+
+	private static void report(String name, long nanos, long bytes) {
+		System.out.printf("%-24s %8.2f ms %12d bytes written%n", name, nanos / 1e6, bytes);
+	}
+}
@@ -0,0 +1,133 @@
+package benchmarks;
+
+import texteditor.EditorServer;
+import texteditor.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The SessionLoadTest class opens many concurrent sessions to an EditorServer
+ * and sends commands as fast as the server answers them. Every session opens
+ * one of a few shared documents and repeats ADD, FIND and DEL. A command is
+ * finished when the next input request "> " arrives, paragraphs can not
+ * contain '>'. All sessions are driven by one thread with a selector, so the
+ * client does not need a thread per session. At the end the throughput and
+ * the latency percentiles of all commands are printed.
+ * Without an address a server is started in the same JVM on a free port.
+ * Every session needs a file descriptor on both sides then, so the limit of
+ * open files must be larger than twice the number of sessions.
+ *
+ * Usage: java benchmarks.SessionLoadTest [sessions] [commands per session] [documents] [port or socket file]
+ */
+public class SessionLoadTest {
+	private static final String[] COMMANDS = { "ADD 1\nLoad test paragraph of W%d with Red and Blue\n", "FIND W%d\n",
+			"DEL 1\n" };
+
+	public static void main(String[] args) throws IOException {
+		int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int commandCount = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		int documentCount = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		EditorServer server = null;
+		SocketAddress address;
+		if (args.length > 3) {
+			address = EditorServer.parseAddress(args[3]);
+		} else {
+			server = new EditorServer(EditorServer.parseAddress("0"));
+			server.start();
+			address = server.getLocalAddress();
+		}
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		Selector selector = Selector.open();
+		long connectStart = System.nanoTime();
+		for (int i = 0; i < sessionCount; i++) {
+			SocketChannel channel = SocketChannel.open(address);
+			channel.configureBlocking(false);
+			channel.register(selector, SelectionKey.OP_READ, new Session(i, documentCount));
+		}
+		System.out.printf("%d sessions connected in %.2f s%n", sessionCount, (System.nanoTime() - connectStart) / 1e9);
+
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		int openSessions = sessionCount;
+		long start = System.nanoTime();
+		while (openSessions > 0) {
+			selector.select();
+			for (SelectionKey key : selector.selectedKeys()) {
+				SocketChannel channel = (SocketChannel) key.channel();
+				Session session = (Session) key.attachment();
+				buffer.clear();
+				int read = channel.read(buffer);
+				if (read < 0) {
+					key.cancel();
+					channel.close();
+					openSessions--;
+					continue;
+				}
+				for (int i = 0; i < read; i++) {
+					if (buffer.get(i) == '>') {
+						session.promptReceived(channel, histogram, commandCount);
+					}
+				}
+			}
+			selector.selectedKeys().clear();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		selector.close();
+		if (server != null) {
+			server.close();
+		}
+
+		System.out.printf("%d commands in %.2f s (%.0f commands/s)%n", histogram.getCount(), seconds,
+				histogram.getCount() / seconds);
+		System.out.printf("latency p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+				histogram.getValueAtPercentile(50) / 1000, histogram.getValueAtPercentile(99) / 1000,
+				histogram.getValueAtPercentile(99.9) / 1000, histogram.getMax() / 1000);
+	}
+
+	private static void send(SocketChannel channel, String text) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static class Session {
+		private final int number;
+		private final String document;
+		private int sentCommands;
+		private long sentAt;
+
+		private Session(int number, int documentCount) {
+			this.number = number;
+			this.document = "load" + number % documentCount;
+		}
+
+		/**
+		 * The first input request opens the document, every further one
+		 * finishes a command and the next one is sent.
+		 */
+		private void promptReceived(SocketChannel channel, LatencyHistogram histogram, int commandCount)
+				throws IOException {
+			if (sentAt == 0) {
+				send(channel, "OPEN " + document + "\n");
+			} else {
+				if (sentCommands > 0) {
+					histogram.record(System.nanoTime() - sentAt);
+				}
+				if (sentCommands == commandCount) {
+					send(channel, "EXIT\n");
+					return;
+				}
+				send(channel, String.format(COMMANDS[sentCommands % COMMANDS.length], number));
+				sentCommands++;
+			}
+			sentAt = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import texteditor.Document;
+import texteditor.EditorDocument;
+import texteditor.FormattingPipeline;
+import texteditor.OutputManager;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * The SnapshotReadJmhBenchmark class measures the latency of single edits on a
+ * large shared document while two other threads print it with FORMAT FIX 80.
+ * The printing threads either read a snapshot without the lock of the
+ * document, like the sessions of the server, or hold the lock while they
+ * print. They print with the FormattingPipeline like PRINT of a session does
+ * for a document of more than one chunk. As a baseline the edits are measured without printing threads.
+ * An edit inserts a paragraph at a random position and removes another one
+ * while it holds the lock, so the word index and the other listeners are
+ * updated as well. The sampled times give the percentiles of the edits.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotReadJmhBenchmark {
+	@Param({ "1000000" })
+	private int paragraphCount;
+	private EditorDocument document;
+	private FormattingPipeline formattingPipeline;
+
+	@Setup
+	public void setUp() {
+		document = new EditorDocument();
+		document.getParagraphs().insertParagraphs(0, new CorpusGenerator(20_000, 1.0, 1).createParagraphs(
+				paragraphCount, 12));
+		formattingPipeline = new FormattingPipeline();
+	}
+
+	@Benchmark
+	public int edit() {
+		Document paragraphs = document.getParagraphs();
+		Lock lock = document.getLock();
+		lock.lock();
+		try {
+			paragraphs.add(ThreadLocalRandom.current().nextInt(paragraphs.size() + 1),
+					"Edited paragraph with New words");
+			paragraphs.remove(ThreadLocalRandom.current().nextInt(paragraphs.size()));
+			return paragraphs.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Benchmark
+	@Group("printSnapshots")
+	@GroupThreads(1)
+	public int editWhilePrintingSnapshots() {
+		return edit();
+	}
+
+	@Benchmark
+	@Group("printSnapshots")
+	@GroupThreads(2)
+	public long printSnapshot() {
+		return print(false);
+	}
+
+	@Benchmark
+	@Group("printWithLock")
+	@GroupThreads(1)
+	public int editWhilePrintingWithLock() {
+		return edit();
+	}
+
+	@Benchmark
+	@Group("printWithLock")
+	@GroupThreads(2)
+	public long printWithLock() {
+		return print(true);
+	}
+
+	private long print(boolean locked) {
+		WritableByteChannel channel = Channels.newChannel(OutputStream.nullOutputStream());
+		OutputManager outputManager = new OutputManager(channel, channel);
+		Lock lock = document.getLock();
+		if (locked) {
+			lock.lock();
+		}
+		try {
+			formattingPipeline.print(document.getParagraphs().snapshot().texts(), 80, outputManager);
+			outputManager.flush();
+			return outputManager.getByteCount();
+		} finally {
+			if (locked) {
+				lock.unlock();
+			}
+		}
+	}
+}
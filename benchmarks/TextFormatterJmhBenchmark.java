@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import texteditor.Document;
+import texteditor.LineLayout;
+import texteditor.OutputManager;
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TextFormatterJmhBenchmark class measures PRINT of a document in the
+ * fixed format with different line lengths, like a session prints a document
+ * which fits into one chunk of the FormattingPipeline. The lines are written
+ * to an OutputManager which discards the bytes. The cached variant reuses the
+ * formatter and its cached line layouts, the uncached variant breaks every
+ * paragraph into lines again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextFormatterJmhBenchmark {
+	@Param({ "10000" })
+	private int paragraphCount;
+	@Param({ "10", "100" })
+	private int paragraphLength;
+	@Param({ "20", "80", "200" })
+	private int maxLineLength;
+	private Document document;
+	private TextFormatter textFormatter;
+	private OutputManager outputManager;
+
+	@Setup
+	public void setUp() {
+		document = new RopeDocument(new CorpusGenerator(50_000, 1.1, 1).createParagraphs(paragraphCount,
+				paragraphLength));
+		textFormatter = new TextFormatter(maxLineLength);
+		WritableByteChannel channel = Channels.newChannel(OutputStream.nullOutputStream());
+		outputManager = new OutputManager(channel, channel);
+	}
+
+	@Benchmark
+	public long printCached() {
+		return print(textFormatter);
+	}
+
+	@Benchmark
+	public long printUncached() {
+		return print(new TextFormatter(maxLineLength));
+	}
+
+	private long print(TextFormatter formatter) {
+		for (CharSequence paragraph : document.texts()) {
+			LineLayout layout = formatter.getLineLayout(paragraph);
+			outputManager.printLines(paragraph, layout, 0, layout.getLineCount());
+		}
+		outputManager.flush();
+		return outputManager.getByteCount();
+	}
+}
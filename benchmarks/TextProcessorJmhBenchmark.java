@@ -0,0 +1,69 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import texteditor.Document;
+import texteditor.PostingList;
+import texteditor.RopeDocument;
+import texteditor.TextProcessor;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TextProcessorJmhBenchmark class measures generating the word index and
+ * replacing a word in one paragraph for corpora of different sizes and word
+ * frequencies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextProcessorJmhBenchmark {
+	@Param({ "1000", "100000" })
+	private int paragraphCount;
+	@Param({ "10", "100" })
+	private int paragraphLength;
+	@Param({ "0.0", "1.1" })
+	private double skew;
+	private final TextProcessor textProcessor = new TextProcessor();
+	private List<String> paragraphs;
+	private Document document;
+	private String replacee;
+	private int paragraphNumber;
+
+	@Setup
+	public void setUp() {
+		CorpusGenerator corpusGenerator = new CorpusGenerator(50_000, skew, 1);
+		paragraphs = corpusGenerator.createParagraphs(paragraphCount, paragraphLength);
+		document = new RopeDocument(paragraphs);
+		replacee = corpusGenerator.nextWord();
+	}
+
+	@Benchmark
+	public TreeMap<String, PostingList> getWordIndex() {
+		return textProcessor.getWordIndex(paragraphs);
+	}
+
+	/**
+	 * Replaces a word with itself, so the document stays the same in every
+	 * invocation. Every invocation uses the next paragraph.
+	 */
+	@Benchmark
+	public Document replaceString() {
+		paragraphNumber = (paragraphNumber + 1) % paragraphCount;
+		return textProcessor.replaceString(document, paragraphNumber, replacee, replacee);
+	}
+}
@@ -0,0 +1,93 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import texteditor.Command;
+import texteditor.CommandStatistics;
+import texteditor.LatencyHistogram;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The CommandStatisticsTest class contains JUnit tests for the latency
+ * histogram and the statistics of the commands.
+ * The equivalence classes that are being tested are the following:
+ * 1. percentiles of many values
+ * 2. empty histograms, small, negative and very large values
+ * 3. bytes and allocated memory per command
+ */
+class CommandStatisticsTest {
+
+	/**
+	 * Equivalence class 1: percentiles of many values
+	 * type: positive test
+	 * input: the values from 1 to 1000000
+	 * output: percentiles at most 1/32 larger than the exact value, never smaller, exact maximum
+	 */
+	@Test
+	void percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1_000_000; value >= 1; value--) {
+			histogram.record(value);
+		}
+		assertEquals(1_000_000, histogram.getCount());
+		assertEquals(1_000_000, histogram.getMax());
+		for (double percentile : new double[] { 1, 25, 50, 90, 99, 99.9 }) {
+			long exact = (long) (percentile * 10_000);
+			long value = histogram.getValueAtPercentile(percentile);
+			assertTrue(value >= exact && value <= exact + exact / 32, percentile + ": " + value);
+		}
+		assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+	}
+
+	/**
+	 * Equivalence class 2: empty histograms, small, negative and very large values
+	 * type: positive test
+	 * input: no value, the values 0 to 63, -5 and Long.MAX_VALUE
+	 * output: 0 for an empty histogram, small values are exact, negative values count as 0
+	 */
+	@Test
+	void edgeValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		assertEquals(0, histogram.getMax());
+		for (int value = 0; value < 64; value++) {
+			histogram.record(value);
+		}
+		assertEquals(31, histogram.getValueAtPercentile(50));
+		histogram.record(-5);
+		assertEquals(0, histogram.getValueAtPercentile(0));
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+	}
+
+	/**
+	 * Equivalence class 3: bytes and allocated memory per command
+	 * type: positive test
+	 * input: recorded commands with and without allocated memory, a measured command
+	 * output: the sums per command, -1 once the memory of a call was unknown
+	 */
+	@Test
+	void bytesAndAllocations() {
+		CommandStatistics statistics = new CommandStatistics();
+		statistics.record(Command.INDEX, 2000, 100, 4096);
+		statistics.record(Command.INDEX, 3000, 50, 1024);
+		statistics.record(Command.PRINT, 1000, 10, -1);
+		statistics.record(Command.PRINT, 1000, 10, 512);
+		assertEquals(2, statistics.getHistogram(Command.INDEX).getCount());
+		assertEquals(3000, statistics.getHistogram(Command.INDEX).getMax());
+		assertEquals(150, statistics.getBytes(Command.INDEX));
+		assertEquals(5120, statistics.getAllocatedBytes(Command.INDEX));
+		assertEquals(-1, statistics.getAllocatedBytes(Command.PRINT));
+		assertEquals(0, statistics.getHistogram(Command.ADD).getCount());
+
+		statistics.start(1000, 0);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			text.append(i);
+		}
+		statistics.stop(Command.ADD, 1000, text.length());
+		assertEquals(1, statistics.getHistogram(Command.ADD).getCount());
+		assertEquals(text.length(), statistics.getBytes(Command.ADD));
+		assertTrue(statistics.getAllocatedBytes(Command.ADD) != 0);
+	}
+}
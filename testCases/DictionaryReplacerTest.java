@@ -0,0 +1,171 @@
+package testCases;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import texteditor.DictionaryReplacer;
+import texteditor.ReplaceResult;
+import texteditor.RopeDocument;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The DictionaryReplacerTest class contains JUnit tests for replacing many
+ * search strings at once.
+ * The equivalence classes that are being tested are the following:
+ * 1. one search string behaves like String.replace
+ * 2. search strings which overlap or contain each other
+ * 3. paragraphs without a match
+ * 4. many paragraphs in parallel ranges
+ * 5. dictionary files with and without errors
+ */
+class DictionaryReplacerTest {
+	@TempDir
+	Path directory;
+	private ForkJoinPool pool;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Equivalence class 1: one search string behaves like String.replace
+	 * type: positive test
+	 * input: random paragraphs of the letters a and b, search strings "a", "aa", "aba"
+	 * output: same text and number of replacements as String.replace
+	 */
+	@Test
+	void singleSearchString() {
+		Random random = new Random(1);
+		for (String replacee : List.of("a", "aa", "aba")) {
+			DictionaryReplacer replacer = new DictionaryReplacer(List.of(replacee), List.of("<" + replacee + ">"));
+			for (int i = 0; i < 1000; i++) {
+				String paragraph = randomText(random, 12);
+				long[] counts = new long[1];
+				String replaced = replacer.replace(paragraph, counts);
+				String expected = paragraph.replace(replacee, "<" + replacee + ">");
+				assertEquals(expected, replaced != null ? replaced : paragraph);
+				assertEquals((expected.length() - paragraph.length()) / 2, counts[0]);
+			}
+		}
+	}
+
+	/**
+	 * Equivalence class 2: search strings which overlap or contain each other
+	 * type: positive test
+	 * input: "he", "she", "hers", "his" in "ushers and his", "bc" and "abcd" in "abcde"
+	 * output: the leftmost match is replaced, the longest one if several start there
+	 */
+	@Test
+	void overlappingSearchStrings() {
+		DictionaryReplacer replacer = new DictionaryReplacer(List.of("he", "she", "hers", "his"),
+				List.of("1", "2", "3", "4"));
+		long[] counts = new long[4];
+		assertEquals("u2rs and 4", replacer.replace("ushers and his", counts));
+		assertArrayEquals(new long[] { 0, 1, 0, 1 }, counts);
+
+		replacer = new DictionaryReplacer(List.of("bc", "abcd", "e", "a"), List.of("1", "2", "3", "4"));
+		counts = new long[4];
+		assertEquals("23 41", replacer.replace("abcde abc", counts));
+		assertArrayEquals(new long[] { 1, 1, 1, 1 }, counts);
+	}
+
+	/**
+	 * Equivalence class 3: paragraphs without a match
+	 * type: negative test
+	 * input: document where no paragraph contains a search string
+	 * output: no changed paragraphs, no replacements
+	 */
+	@Test
+	void noMatch() {
+		DictionaryReplacer replacer = new DictionaryReplacer(List.of("Purple", "Orange"), List.of("Red", "Blue"),
+				pool, 2);
+		assertNull(replacer.replace("Red and Blue", new long[2]));
+		ReplaceResult result = replacer.replaceAll(new RopeDocument(List.of("Red", "Blue", "Green")));
+		assertEquals(0, result.getParagraphNumbers().length);
+		assertArrayEquals(new long[2], result.getCounts());
+	}
+
+	/**
+	 * Equivalence class 4: many paragraphs in parallel ranges
+	 * type: positive test
+	 * input: document with 5000 random paragraphs, 200 search strings and a range size of 7
+	 * output: the same paragraphs and counts as replacing every paragraph on its own
+	 */
+	@Test
+	void parallelRanges() {
+		Random random = new Random(4);
+		List<String> replacees = new ArrayList<>();
+		List<String> replacements = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			replacees.add(randomText(random, 2 + random.nextInt(5)));
+			replacements.add(Integer.toString(i));
+		}
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			paragraphs.add(randomText(random, 30));
+		}
+		DictionaryReplacer replacer = new DictionaryReplacer(replacees, replacements, pool, 7);
+		List<Integer> expectedNumbers = new ArrayList<>();
+		List<String> expectedParagraphs = new ArrayList<>();
+		long[] expectedCounts = new long[replacees.size()];
+		for (int i = 0; i < paragraphs.size(); i++) {
+			String replaced = replacer.replace(paragraphs.get(i), expectedCounts);
+			if (replaced != null) {
+				expectedNumbers.add(i);
+				expectedParagraphs.add(replaced);
+			}
+		}
+
+		ReplaceResult result = replacer.replaceAll(new RopeDocument(paragraphs));
+		int[] paragraphNumbers = result.getParagraphNumbers();
+		assertEquals(expectedNumbers.size(), paragraphNumbers.length);
+		for (int i = 0; i < paragraphNumbers.length; i++) {
+			assertEquals(expectedNumbers.get(i), paragraphNumbers[i]);
+			assertEquals(expectedParagraphs.get(i), result.getParagraph(i));
+		}
+		assertArrayEquals(expectedCounts, result.getCounts());
+	}
+
+	/**
+	 * Equivalence class 5: dictionary files with and without errors
+	 * type: positive and negative test
+	 * input: file with tab separated pairs and a blank line, file with a line without tab
+	 * output: replacements of the file, IOException for the line without tab
+	 */
+	@Test
+	void loadDictionary() throws IOException {
+		Path file = directory.resolve("colors.tsv");
+		Files.write(file, List.of("Red\tRot", "", "Blue\tBlau", "Äpfel\tApples"), StandardCharsets.UTF_8);
+		DictionaryReplacer replacer = DictionaryReplacer.load(file);
+		assertEquals(List.of("Red", "Blue", "Äpfel"), replacer.getReplacees());
+		assertEquals("Rot Blau Apples", replacer.replace("Red Blue Äpfel", new long[3]));
+
+		Files.write(file, List.of("Red\tRot", "Blue Blau"), StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> DictionaryReplacer.load(file));
+	}
+
+	private String randomText(Random random, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append(random.nextInt(3) == 0 ? 'b' : 'a');
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,189 @@
+package testCases;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import texteditor.DocumentStore;
+import texteditor.RopeDocument;
+import texteditor.TextFileLoader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The DocumentStoreTest class contains JUnit tests for saving documents.
+ * Every test loads the saved file again and compares it with the document.
+ * The equivalence classes that are being tested are the following:
+ * 1. empty document and paragraphs with non ASCII characters
+ * 2. a second save only appends the changed paragraph
+ * 3. random edits between saves, including compaction of the file
+ * 4. saving to another file
+ * 5. damaged file
+ * 6. save which was interrupted while appending
+ */
+class DocumentStoreTest {
+	@TempDir
+	Path directory;
+	private RopeDocument document;
+	private DocumentStore documentStore;
+	private Path file;
+
+	@BeforeEach
+	void setUp() {
+		document = new RopeDocument();
+		documentStore = new DocumentStore(document);
+		file = directory.resolve("document.txed");
+	}
+
+	/**
+	 * Equivalence class 1: empty document and paragraphs with non ASCII characters
+	 * type: positive test
+	 * input: empty document, then paragraphs with umlauts and long paragraphs
+	 * output: same paragraphs after loading, with small and large windows
+	 */
+	@Test
+	void saveAndLoad() throws IOException {
+		documentStore.save(file);
+		assertEquals(List.of(), load(file, 1 << 20));
+		document.add("Äpfel und Birnen");
+		document.add("A paragraph which is longer than half of the window");
+		document.add(0, "Short");
+		documentStore.save(file);
+		assertEquals(document, load(file, 16));
+		assertEquals(document, load(file, 1 << 20));
+	}
+
+	/**
+	 * Equivalence class 2: a second save only appends the changed paragraph
+	 * type: positive test
+	 * input: 100000 paragraphs, one of them is replaced
+	 * output: file grows by the paragraph, one page table and the root
+	 */
+	@Test
+	void incrementalSave() throws IOException {
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			paragraphs.add("Paragraph number " + i);
+		}
+		document.insertParagraphs(0, paragraphs);
+		documentStore.save(file);
+		long fullSize = Files.size(file);
+		document.set(54_321, "Replaced paragraph");
+		documentStore.save(file);
+		long appendedSize = Files.size(file) - fullSize;
+		assertTrue(appendedSize < 20_000, "appended " + appendedSize + " bytes");
+		assertEquals(document, load(file, 1 << 20));
+	}
+
+	/**
+	 * Equivalence class 3: random edits between saves, including compaction of the file
+	 * type: positive test
+	 * input: 300 rounds of random insertions, deletions and replacements
+	 * output: same paragraphs after every save, file stays smaller than three
+	 * times the text
+	 */
+	@Test
+	void randomEdits() throws IOException {
+		Random random = new Random(11);
+		for (int round = 0; round < 300; round++) {
+			for (int i = 0; i < 20; i++) {
+				int operation = random.nextInt(5);
+				if (operation < 2 || document.isEmpty()) {
+					document.add(random.nextInt(document.size() + 1), "Added " + round + " " + i);
+				} else if (operation == 2) {
+					document.remove(random.nextInt(document.size()));
+				} else if (operation == 3) {
+					document.set(random.nextInt(document.size()), "Replaced " + round + " " + i);
+				} else {
+					List<String> paragraphs = new ArrayList<>();
+					for (int j = random.nextInt(3000); j > 0; j--) {
+						paragraphs.add("Bulk " + round + " " + j);
+					}
+					document.insertParagraphs(random.nextInt(document.size() + 1), paragraphs);
+				}
+			}
+			documentStore.save(file);
+			if (round % 30 == 0) {
+				assertEquals(document, load(file, 1 << 12));
+			}
+		}
+		assertEquals(document, load(file, 1 << 12));
+		long textSize = 0;
+		for (String paragraph : document) {
+			textSize += paragraph.length() + 12;
+		}
+		assertTrue(Files.size(file) < 3 * textSize + 100_000);
+	}
+
+	/**
+	 * Equivalence class 4: saving to another file
+	 * type: positive test
+	 * input: save to a file, change a paragraph, save to another file
+	 * output: both files contain their own state
+	 */
+	@Test
+	void saveToOtherFile() throws IOException {
+		document.add("First");
+		document.add("Second");
+		documentStore.save(file);
+		document.set(1, "Changed");
+		Path otherFile = directory.resolve("other.txed");
+		documentStore.save(otherFile);
+		assertEquals(List.of("First", "Second"), load(file, 1 << 20));
+		assertEquals(List.of("First", "Changed"), load(otherFile, 1 << 20));
+	}
+
+	/**
+	 * Equivalence class 5: damaged file
+	 * type: negative test
+	 * input: saved file without its last bytes
+	 * output: IOException
+	 */
+	@Test
+	void damagedFile() throws IOException {
+		document.add("First");
+		documentStore.save(file);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 4);
+		}
+		assertThrows(IOException.class, () -> load(file, 1 << 20));
+	}
+
+	/**
+	 * Equivalence class 6: save which was interrupted while appending
+	 * type: positive test
+	 * input: saved file followed by part of the paragraphs of a second save
+	 * output: state of the first save, the next save writes the file again
+	 */
+	@Test
+	void interruptedSave() throws IOException {
+		document.add("First");
+		document.add("Second");
+		documentStore.save(file);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			channel.write(ByteBuffer.wrap("Changed".getBytes(StandardCharsets.UTF_8)));
+		}
+		assertEquals(List.of("First", "Second"), load(file, 1 << 20));
+		document.set(1, "Changed");
+		documentStore.save(file);
+		assertEquals(List.of("First", "Changed"), load(file, 1 << 20));
+	}
+
+	private List<String> load(Path path, int windowSize) throws IOException {
+		List<String> paragraphs = new ArrayList<>();
+		for (CharSequence paragraph : new TextFileLoader(windowSize).load(path)) {
+			paragraphs.add(paragraph.toString());
+		}
+		return paragraphs;
+	}
+}
@@ -0,0 +1,208 @@
+package testCases;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.EditJournal;
+import texteditor.RopeDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The EditJournalTest class contains JUnit tests for undoing and redoing edits.
+ * The equivalence classes that are being tested are the following:
+ * 1. insertions, deletions and replacements are undone and redone
+ * 2. replacements where the matches change their length or contain each other
+ * 3. nothing to undo or redo, a new edit drops the undone edits
+ * 4. random edits are undone and redone completely
+ * 5. the memory limit drops the oldest edits
+ * 6. replacements in several paragraphs at once
+ */
+class EditJournalTest {
+	private RopeDocument document;
+	private EditJournal editJournal;
+
+	@BeforeEach
+	void setUp() {
+		document = new RopeDocument();
+		editJournal = new EditJournal(document, 1 << 20);
+	}
+
+	/**
+	 * Equivalence class 1: insertions, deletions and replacements are undone and redone
+	 * type: positive test
+	 * input: ADD, bulk insert, DEL and REPLACE
+	 * output: the state before and after every edit
+	 */
+	@Test
+	void undoAndRedoEveryEdit() {
+		add(0, "Red and Blue");
+		document.insertParagraphs(1, List.of("Green", "Yellow", "Red"));
+		editJournal.recordInsert(1, 3);
+		editJournal.recordDelete(2, document.getText(2));
+		document.remove(2);
+		replace(0, "Red", "Purple");
+		List<String> finalState = new ArrayList<>(document);
+		assertEquals(List.of("Purple and Blue", "Green", "Red"), finalState);
+
+		assertTrue(editJournal.undo());
+		assertEquals(List.of("Red and Blue", "Green", "Red"), document);
+		assertTrue(editJournal.undo());
+		assertEquals(List.of("Red and Blue", "Green", "Yellow", "Red"), document);
+		assertTrue(editJournal.undo());
+		assertEquals(List.of("Red and Blue"), document);
+		assertTrue(editJournal.undo());
+		assertEquals(List.of(), document);
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(editJournal.redo());
+		}
+		assertEquals(finalState, document);
+	}
+
+	/**
+	 * Equivalence class 2: replacements where the matches change their length or contain each other
+	 * type: positive test
+	 * input: "a" replaced by "aa", "aa" in "aaaaa" replaced by "b", match at both ends
+	 * output: the old paragraph after undo, the new paragraph after redo
+	 */
+	@Test
+	void replacementsChangingLength() {
+		add(0, "a banana");
+		add(1, "aaaaa");
+		add(2, "xyx");
+		replace(0, "a", "aa");
+		replace(1, "aa", "b");
+		replace(2, "x", "");
+		assertEquals(List.of("aa baanaanaa", "bba", "y"), document);
+		for (int i = 0; i < 3; i++) {
+			editJournal.undo();
+		}
+		assertEquals(List.of("a banana", "aaaaa", "xyx"), document);
+		for (int i = 0; i < 3; i++) {
+			editJournal.redo();
+		}
+		assertEquals(List.of("aa baanaanaa", "bba", "y"), document);
+	}
+
+	/**
+	 * Equivalence class 3: nothing to undo or redo, a new edit drops the undone edits
+	 * type: negative test
+	 * input: empty journal, edit after undo
+	 * output: undo and redo return false
+	 */
+	@Test
+	void nothingToUndoOrRedo() {
+		assertFalse(editJournal.undo());
+		assertFalse(editJournal.redo());
+		add(0, "First");
+		assertTrue(editJournal.undo());
+		add(0, "Second");
+		assertFalse(editJournal.redo());
+		assertTrue(editJournal.undo());
+		assertFalse(editJournal.undo());
+		assertEquals(List.of(), document);
+	}
+
+	/**
+	 * Equivalence class 4: random edits are undone and redone completely
+	 * type: positive test
+	 * input: 2000 random insertions, deletions and replacements
+	 * output: every earlier state when undoing, the final state after redoing.
+	 * Replacements without a match are not recorded.
+	 */
+	@Test
+	void randomEdits() {
+		Random random = new Random(5);
+		List<List<String>> states = new ArrayList<>();
+		states.add(new ArrayList<>(document));
+		for (int i = 0; i < 2000; i++) {
+			int operation = random.nextInt(3);
+			if (operation == 0 || document.isEmpty()) {
+				add(random.nextInt(document.size() + 1), "Red Blue " + i);
+			} else if (operation == 1) {
+				int paragraphNumber = random.nextInt(document.size());
+				editJournal.recordDelete(paragraphNumber, document.getText(paragraphNumber));
+				document.remove(paragraphNumber);
+			} else {
+				replace(random.nextInt(document.size()), random.nextBoolean() ? "Red" : "e", "Green");
+			}
+			if (!document.equals(states.get(states.size() - 1))) {
+				states.add(new ArrayList<>(document));
+			}
+		}
+		for (int i = states.size() - 1; i > 0; i--) {
+			assertEquals(states.get(i), document);
+			editJournal.undo();
+		}
+		assertEquals(states.get(0), document);
+		while (editJournal.redo()) {
+		}
+		assertEquals(states.get(states.size() - 1), document);
+	}
+
+	/**
+	 * Equivalence class 5: the memory limit drops the oldest edits
+	 * type: positive test
+	 * input: 1000 deletions of long paragraphs with a limit of 10000 bytes
+	 * output: journal stays below the limit, only the last deletions can be undone
+	 */
+	@Test
+	void memoryLimit() {
+		editJournal = new EditJournal(document, 10_000);
+		String paragraph = "x".repeat(1000);
+		for (int i = 0; i < 1000; i++) {
+			document.add(paragraph);
+			editJournal.recordDelete(0, document.getText(0));
+			document.remove(0);
+			assertTrue(editJournal.getSize() <= 10_000);
+		}
+		int undoCount = 0;
+		while (editJournal.undo()) {
+			undoCount++;
+		}
+		assertTrue(undoCount > 0 && undoCount < 10);
+		assertEquals(undoCount, document.size());
+	}
+
+	/**
+	 * Equivalence class 6: replacements in several paragraphs at once
+	 * type: positive test
+	 * input: two of three paragraphs replaced as a whole, then a deletion
+	 * output: all replaced paragraphs change back with one undo and again with one redo
+	 */
+	@Test
+	void replaceAll() {
+		add(0, "Red");
+		add(1, "Blue");
+		add(2, "Red and Blue");
+		int[] paragraphNumbers = { 0, 2 };
+		CharSequence[] oldParagraphs = { document.getText(0), document.getText(2) };
+		document.set(0, "Green");
+		document.set(2, "Green and Blue");
+		editJournal.recordReplaceAll(paragraphNumbers, oldParagraphs);
+		editJournal.recordDelete(1, document.getText(1));
+		document.remove(1);
+
+		assertTrue(editJournal.undo());
+		assertTrue(editJournal.undo());
+		assertEquals(List.of("Red", "Blue", "Red and Blue"), document);
+		assertTrue(editJournal.redo());
+		assertEquals(List.of("Green", "Blue", "Green and Blue"), document);
+		assertTrue(editJournal.redo());
+		assertEquals(List.of("Green", "Green and Blue"), document);
+	}
+
+	private void add(int paragraphNumber, String paragraph) {
+		document.add(paragraphNumber, paragraph);
+		editJournal.recordInsert(paragraphNumber, 1);
+	}
+
+	private void replace(int paragraphNumber, String replacee, String replacement) {
+		editJournal.recordReplace(paragraphNumber, document.get(paragraphNumber), replacee, replacement);
+		document.set(paragraphNumber, document.get(paragraphNumber).replace(replacee, replacement));
+	}
+}
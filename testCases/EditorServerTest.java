@@ -0,0 +1,182 @@
+package testCases;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import texteditor.EditorServer;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The EditorServerTest class contains JUnit tests for sessions of the server.
+ * The equivalence classes that are being tested are the following:
+ * 1. sessions share documents by name
+ * 2. commands and text lines sent at once, also for invalid commands
+ * 3. many concurrent sessions editing one document over a Unix domain socket
+ * 4. a session which does not read the large output of a command
+ */
+class EditorServerTest {
+	private EditorServer server;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	/**
+	 * Equivalence class 1: sessions share documents by name
+	 * type: positive test
+	 * input: one session adds to the document "notes", two other sessions print "notes" and "default"
+	 * output: the text is printed in "notes" and not in "default"
+	 */
+	@Test
+	void sharedDocuments() throws IOException {
+		server = new EditorServer(EditorServer.parseAddress("0"));
+		server.start();
+		try (SocketChannel writer = SocketChannel.open(server.getLocalAddress());
+				SocketChannel reader = SocketChannel.open(server.getLocalAddress());
+				SocketChannel other = SocketChannel.open(server.getLocalAddress())) {
+			readUntilPrompts(writer, 1);
+			send(writer, "OPEN notes\nADD\nShared text\n");
+			readUntilPrompts(writer, 2);
+			readUntilPrompts(reader, 1);
+			send(reader, "OPEN notes\nPRINT\n");
+			assertTrue(readUntilPrompts(reader, 2).contains("Shared text"));
+			readUntilPrompts(other, 1);
+			send(other, "PRINT\n");
+			assertFalse(readUntilPrompts(other, 1).contains("Shared text"));
+		}
+		assertEquals(2, server.getDocumentRegistry().size());
+	}
+
+	/**
+	 * Equivalence class 2: commands and text lines sent at once, also for invalid commands
+	 * type: positive and negative test
+	 * input: ADD with text, invalid ADD 9 followed by PRINT as its text, PRINT, EXIT
+	 * output: the text line of the invalid ADD is not processed as command, exit message
+	 */
+	@Test
+	void pipelinedCommands() throws IOException {
+		server = new EditorServer(EditorServer.parseAddress("0"));
+		server.start();
+		try (SocketChannel client = SocketChannel.open(server.getLocalAddress())) {
+			send(client, "OPEN pipeline\nADD\nfirst\nADD 9\nPRINT\nPRINT\nEXIT\n");
+			String output = readToEnd(client);
+			assertTrue(output.contains("InvalidArgument"));
+			assertEquals(1, output.split("first", -1).length - 1);
+			assertFalse(output.contains("InvalidCommand"));
+			assertTrue(output.endsWith("Text processing is closed" + System.lineSeparator()));
+		}
+	}
+
+	/**
+	 * Equivalence class 3: many concurrent sessions editing one document over a Unix domain socket
+	 * type: positive test
+	 * input: 40 sessions, each adds 25 paragraphs and deletes 5 of them
+	 * output: the document has 800 paragraphs
+	 */
+	@Test
+	void concurrentSessions(@TempDir Path directory) throws Exception {
+		UnixDomainSocketAddress address = UnixDomainSocketAddress.of(directory.resolve("editor.sock"));
+		server = new EditorServer(address);
+		server.start();
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		List<Future<?>> results = new ArrayList<>();
+		for (int session = 0; session < 40; session++) {
+			int sessionNumber = session;
+			results.add(clients.submit(() -> {
+				try (SocketChannel client = SocketChannel.open(address)) {
+					StringBuilder commands = new StringBuilder("OPEN shared\n");
+					for (int i = 0; i < 25; i++) {
+						commands.append("ADD 1\nSession ").append(sessionNumber).append('\n');
+						if (i % 5 == 0) {
+							commands.append("DEL 1\n");
+						}
+					}
+					send(client, commands.append("EXIT\n").toString());
+					return readToEnd(client);
+				}
+			}));
+		}
+		for (Future<?> result : results) {
+			assertFalse(((String) result.get()).contains("Invalid"));
+		}
+		clients.shutdown();
+		try (SocketChannel client = SocketChannel.open(address)) {
+			send(client, "OPEN shared\nINDEX\nEXIT\n");
+			assertTrue(readToEnd(client).contains("Session 1,2,3"));
+		}
+		assertEquals(800, server.getDocumentRegistry().open("shared").getParagraphs().size());
+	}
+
+	/**
+	 * Equivalence class 4: a session which does not read the large output of a command
+	 * type: positive test
+	 * input: FIND with 2000000 results in 100000 paragraphs which are not read, then ADD in another session
+	 * output: the ADD is processed while the results are still unread
+	 */
+	@Test
+	void unreadOutput() throws IOException {
+		server = new EditorServer(EditorServer.parseAddress("0"));
+		server.start();
+		List<String> paragraphs = new ArrayList<>();
+		String paragraph = "Needle ".repeat(20).trim();
+		for (int i = 0; i < 100_000; i++) {
+			paragraphs.add(paragraph);
+		}
+		server.getDocumentRegistry().open("large").getParagraphs().insertParagraphs(0, paragraphs);
+		try (SocketChannel finder = SocketChannel.open(server.getLocalAddress());
+				SocketChannel writer = SocketChannel.open(server.getLocalAddress())) {
+			send(finder, "OPEN large\nFIND Needle\n");
+			readUntilPrompts(finder, 2);
+			readUntilPrompts(writer, 1);
+			send(writer, "OPEN large\nADD\nAdded\n");
+			assertTimeoutPreemptively(Duration.ofSeconds(30), () -> readUntilPrompts(writer, 2));
+		}
+		assertEquals(100_001, server.getDocumentRegistry().open("large").getParagraphs().size());
+	}
+
+	private static void send(SocketChannel channel, String text) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static String readUntilPrompts(SocketChannel channel, int promptCount) throws IOException {
+		StringBuilder output = new StringBuilder();
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		int prompts = 0;
+		while (prompts < promptCount && channel.read(buffer) >= 0) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				char character = (char) buffer.get();
+				output.append(character);
+				if (character == '>') {
+					prompts++;
+				}
+			}
+			buffer.clear();
+		}
+		return output.toString();
+	}
+
+	private static String readToEnd(SocketChannel channel) throws IOException {
+		return readUntilPrompts(channel, Integer.MAX_VALUE);
+	}
+}
@@ -0,0 +1,63 @@
+package testCases;
+
+import texteditor.LineLayout;
+import texteditor.OutputManager;
+import texteditor.TextFormatter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.List;
+
+/**
+ * The FixedFormatOutput class prints paragraphs in the fixed format the way
+ * PRINT does on the thread of a session, with the line layouts of a
+ * TextFormatter and OutputManager.printLines. The expected output of a test
+ * is built from its lines with the line separator of the OutputManager.
+ */
+class FixedFormatOutput {
+	private FixedFormatOutput() {
+	}
+
+	/**
+	 * Prints the lines of every paragraph.
+	 *
+	 * @param paragraphs
+	 * @param textFormatter with the maxLineLength of the fixed format
+	 * @param outputManager
+	 */
+	static void print(Iterable<? extends CharSequence> paragraphs, TextFormatter textFormatter,
+			OutputManager outputManager) {
+		for (CharSequence paragraph : paragraphs) {
+			LineLayout layout = textFormatter.getLineLayout(paragraph);
+			outputManager.printLines(paragraph, layout, 0, layout.getLineCount());
+		}
+	}
+
+	/**
+	 * Prints the lines of every paragraph and returns the output.
+	 *
+	 * @param paragraphs
+	 * @param textFormatter with the maxLineLength of the fixed format
+	 * @return output decoded with the charset of the OutputManager
+	 */
+	static String print(Iterable<? extends CharSequence> paragraphs, TextFormatter textFormatter) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		OutputManager outputManager = new OutputManager(Channels.newChannel(bytes),
+				Channels.newChannel(new ByteArrayOutputStream()));
+		print(paragraphs, textFormatter, outputManager);
+		outputManager.flush();
+		return bytes.toString(outputManager.getCharset());
+	}
+
+	/**
+	 * @param lines
+	 * @return output of the lines
+	 */
+	static String lines(List<String> lines) {
+		StringBuilder output = new StringBuilder();
+		for (String line : lines) {
+			output.append(line).append(System.lineSeparator());
+		}
+		return output.toString();
+	}
+}
@@ -0,0 +1,114 @@
+package testCases;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.FormattingPipeline;
+import texteditor.OutputManager;
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The FormattingPipelineTest class contains JUnit tests for printing the fixed format in parallel.
+ * Every test compares the output with printing the lines of the TextFormatter paragraph by paragraph.
+ * The equivalence classes that are being tested are the following:
+ * 1. no paragraphs, fewer paragraphs than one chunk and many chunks
+ * 2. paragraphs with characters which are not ASCII
+ * 3. a paragraph which can not be read
+ */
+class FormattingPipelineTest {
+	private final static String[] WORDS = { "Red", "Blue", "and", "averyveryverylongword", "the", "", "a" };
+	private ForkJoinPool pool;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Equivalence class 1: no paragraphs, fewer paragraphs than one chunk and many chunks
+	 * type: positive test
+	 * input: 0, 3 and 5000 random paragraphs, chunks of 7 paragraphs, 1 or 3 chunks ahead, line lengths 1, 20 and 80
+	 * output: same lines in the same order as printed paragraph by paragraph
+	 */
+	@Test
+	void sameLinesAsTextFormatter() {
+		RandomParagraphs randomParagraphs = new RandomParagraphs(WORDS, "  ", 5);
+		for (int paragraphCount : new int[] { 0, 3, 5000 }) {
+			RopeDocument document = new RopeDocument(randomParagraphs.next(paragraphCount, 11));
+			for (int maxLineLength : new int[] { 1, 20, 80 }) {
+				for (int maxChunksAhead : new int[] { 1, 3 }) {
+					assertEquals(FixedFormatOutput.print(document.texts(), new TextFormatter(maxLineLength)),
+							print(document, new FormattingPipeline(pool, 7, maxChunksAhead), maxLineLength),
+							paragraphCount + " paragraphs, maxLineLength " + maxLineLength);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Equivalence class 2: paragraphs with characters which are not ASCII
+	 * type: positive test
+	 * input: paragraphs with umlauts, line length 5
+	 * output: same lines as printed paragraph by paragraph
+	 */
+	@Test
+	void nonAsciiCharacters() {
+		RopeDocument document = new RopeDocument(List.of("Äpfel über Öl", "größer als", "ÄÖÜ äöü ß"));
+		assertEquals(FixedFormatOutput.print(document.texts(), new TextFormatter(5)), print(document, new FormattingPipeline(pool, 1, 2), 5));
+	}
+
+	/**
+	 * Equivalence class 3: a paragraph which can not be read
+	 * type: negative test
+	 * input: 100 paragraphs of which the 50th throws an exception when it is formatted
+	 * output: the exception of the paragraph
+	 */
+	@Test
+	void failingParagraph() {
+		List<CharSequence> paragraphs = new ArrayList<>(new RandomParagraphs(WORDS, "  ", 6).next(100, 11));
+		paragraphs.set(49, new CharSequence() {
+			@Override
+			public int length() {
+				return 6;
+			}
+
+			@Override
+			public char charAt(int index) {
+				throw new IllegalStateException("unreadable");
+			}
+
+			@Override
+			public CharSequence subSequence(int start, int end) {
+				throw new IllegalStateException("unreadable");
+			}
+		});
+		OutputManager outputManager = new OutputManager(Channels.newChannel(new ByteArrayOutputStream()),
+				Channels.newChannel(new ByteArrayOutputStream()));
+		RuntimeException exception = assertThrows(RuntimeException.class,
+				() -> new FormattingPipeline(pool, 10, 2).print(paragraphs, 20, outputManager));
+		assertTrue(exception instanceof IllegalStateException || exception.getCause() instanceof IllegalStateException);
+	}
+
+	private String print(RopeDocument document, FormattingPipeline pipeline, int maxLineLength) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		OutputManager outputManager = new OutputManager(Channels.newChannel(bytes),
+				Channels.newChannel(new ByteArrayOutputStream()));
+		pipeline.print(document.texts(), maxLineLength, outputManager);
+		outputManager.flush();
+		return bytes.toString(outputManager.getCharset());
+	}
+}
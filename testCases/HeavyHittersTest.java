@@ -0,0 +1,112 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import texteditor.CountMinSketch;
+import texteditor.HeavyHitters;
+import texteditor.HeavyHitters.WordCount;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The HeavyHittersTest class contains JUnit tests for the approximate counts of the most frequent words.
+ * The equivalence classes that are being tested are the following:
+ * 1. fewer distinct words than counters
+ * 2. many more distinct words than counters and cells of the sketch
+ */
+class HeavyHittersTest {
+
+	/**
+	 * Equivalence class 1: fewer distinct words than counters
+	 * type: positive test
+	 * input: "Red" 5 times, "red" 3 times, "Blue" 2 times, with and without case folding
+	 * output: exact counts in order of the counts, no bound for words which are not listed
+	 */
+	@Test
+	void exactCounts() {
+		HeavyHitters heavyHitters = new HeavyHitters(16, new CountMinSketch(1024, 4));
+		String text = "Red red Blue";
+		for (int i = 0; i < 5; i++) {
+			add(heavyHitters, text, 0, 3, false);
+		}
+		for (int i = 0; i < 3; i++) {
+			add(heavyHitters, text, 4, 7, false);
+		}
+		add(heavyHitters, text, 8, 12, false);
+		add(heavyHitters, text, 8, 12, false);
+		List<WordCount> top = heavyHitters.getTop(2, 1);
+		assertEquals(2, top.size());
+		assertEquals("Red", top.get(0).getWord());
+		assertEquals(5, top.get(0).getCount());
+		assertEquals(5, top.get(0).getMinCount());
+		assertEquals("red", top.get(1).getWord());
+		assertEquals(0, heavyHitters.getUncountedBound());
+		assertEquals(10, heavyHitters.getSketch().getTotal());
+		assertEquals(1, heavyHitters.getTop(10, 4).size());
+
+		HeavyHitters folded = new HeavyHitters(16, new CountMinSketch(1024, 4));
+		add(folded, text, 0, 3, true);
+		add(folded, text, 4, 7, true);
+		assertEquals("red", folded.getTop(1, 1).get(0).getWord());
+		assertEquals(2, folded.getTop(1, 1).get(0).getCount());
+	}
+
+	/**
+	 * Equivalence class 2: many more distinct words than counters and cells of the sketch
+	 * type: positive test
+	 * input: 200000 words of a skewed vocabulary of 50000 words, 64 counters, 256 cells per row
+	 * output: the ten most frequent words in the right order, bounds which contain the real counts,
+	 *         a counter for every word which occurs more often than the bound of the uncounted words
+	 */
+	@Test
+	void skewedStream() {
+		HeavyHitters heavyHitters = new HeavyHitters(64, new CountMinSketch(256, 5));
+		Map<String, Integer> counts = new HashMap<>();
+		Random random = new Random(7);
+		for (int i = 0; i < 200_000; i++) {
+			String word = word((int) Math.pow(50_000, random.nextDouble() * random.nextDouble()));
+			counts.merge(word, 1, Integer::sum);
+			add(heavyHitters, word, 0, word.length(), false);
+		}
+		List<String> expected = new ArrayList<>(counts.keySet());
+		expected.sort((first, second) -> counts.get(first).equals(counts.get(second)) ? first.compareTo(second)
+				: counts.get(second) - counts.get(first));
+		List<WordCount> top = heavyHitters.getTop(10, 1);
+		assertEquals(10, top.size());
+		for (int i = 0; i < top.size(); i++) {
+			WordCount word = top.get(i);
+			int count = counts.get(word.getWord());
+			assertEquals(expected.get(i), word.getWord());
+			assertTrue(word.getMinCount() <= count && count <= word.getCount(), word.getWord());
+		}
+		long uncountedBound = heavyHitters.getUncountedBound();
+		assertTrue(uncountedBound > 0 && uncountedBound <= 200_000 / 64);
+		Set<String> counted = new HashSet<>();
+		for (WordCount word : heavyHitters.getTop(64, 1)) {
+			counted.add(word.getWord());
+		}
+		for (Map.Entry<String, Integer> count : counts.entrySet()) {
+			assertTrue(count.getValue() <= uncountedBound || counted.contains(count.getKey()), count.getKey());
+		}
+	}
+
+	private static String word(int number) {
+		StringBuilder word = new StringBuilder("W");
+		do {
+			word.append((char) ('a' + number % 26));
+			number /= 26;
+		} while (number > 0);
+		return word.toString();
+	}
+
+	private static void add(HeavyHitters heavyHitters, String text, int start, int end, boolean caseFolded) {
+		heavyHitters.add(HeavyHitters.hash(text, start, end, caseFolded), text, start, end, caseFolded);
+	}
+}
@@ -0,0 +1,232 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import texteditor.Command;
+import texteditor.IndexOptions;
+import texteditor.InputManager;
+import texteditor.UserInput;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The InputManagerTest class contains JUnit tests for reading and parsing commands.
+ * The equivalence classes that are being tested are the following:
+ * 1. commands in any case with tabs and multiple spaces
+ * 2. paragraph numbers are mapped from 1-based to 0-based
+ * 3. invalid numbers and unknown commands
+ * 4. FORMAT arguments
+ * 5. line endings and end of input
+ * 6. illegal characters in paragraph text
+ * 7. REPLACE arguments
+ * 8. regular expressions
+ * 9. STATS and the number of characters read
+ * 10. PRINT of a range of paragraphs or lines
+ * 11. INDEX options
+ */
+class InputManagerTest {
+
+	/**
+	 * Equivalence class 1: commands in any case with tabs and multiple spaces
+	 * type: positive test
+	 * input: commands with mixed case and whitespace
+	 * output: matching commands
+	 */
+	@Test
+	void commandsIgnoreCaseAndWhitespace() {
+		InputManager inputManager = createInputManager("print\n \tAdD\t \n  Index  \nexit\n");
+		assertEquals(Command.PRINT, inputManager.getCommandInput().getCommand());
+		assertEquals(Command.ADD, inputManager.getCommandInput().getCommand());
+		assertEquals(Command.INDEX, inputManager.getCommandInput().getCommand());
+		assertEquals(Command.EXIT, inputManager.getCommandInput().getCommand());
+	}
+
+	/**
+	 * Equivalence class 2: paragraph numbers are mapped from 1-based to 0-based
+	 * type: positive test
+	 * input: commands with paragraph numbers
+	 * output: paragraph number minus one
+	 */
+	@Test
+	void paragraphNumbersAreZeroBased() {
+		InputManager inputManager = createInputManager("DEL 1\nDUMMY +3\nREPLACE 0\nADD\n");
+		assertUserInput(Command.DEL, 0, inputManager.getCommandInput());
+		assertUserInput(Command.DUMMY, 2, inputManager.getCommandInput());
+		assertUserInput(Command.REPLACE, -1, inputManager.getCommandInput());
+		assertUserInput(Command.ADD, null, inputManager.getCommandInput());
+	}
+
+	/**
+	 * Equivalence class 3: invalid numbers and unknown commands
+	 * type: negative test
+	 * input: not a number, too large number, unknown command, empty line
+	 * output: no paragraph number or ERROR
+	 */
+	@Test
+	void invalidInput() {
+		InputManager inputManager = createInputManager("DEL x\nADD 99999999999\nADDX\n\nDELETE 1\n");
+		assertUserInput(Command.DEL, null, inputManager.getCommandInput());
+		assertUserInput(Command.ADD, null, inputManager.getCommandInput());
+		assertEquals(Command.ERROR, inputManager.getCommandInput().getCommand());
+		assertEquals(Command.ERROR, inputManager.getCommandInput().getCommand());
+		assertEquals(Command.ERROR, inputManager.getCommandInput().getCommand());
+	}
+
+	/**
+	 * Equivalence class 4: FORMAT arguments
+	 * type: positive and negative test
+	 * input: FORMAT with and without valid arguments
+	 * output: FORMAT_FIX with unmapped line length, FORMAT_RAW or ERROR
+	 */
+	@Test
+	void formatArguments() {
+		InputManager inputManager = createInputManager("format fix 20\nFORMAT RAW\nFORMAT\nFORMAT FIXED 2\n");
+		assertUserInput(Command.FORMAT_FIX, 20, inputManager.getCommandInput());
+		assertEquals(Command.FORMAT_RAW, inputManager.getCommandInput().getCommand());
+		assertEquals(Command.ERROR, inputManager.getCommandInput().getCommand());
+		assertEquals(Command.ERROR, inputManager.getCommandInput().getCommand());
+	}
+
+	/**
+	 * Equivalence class 5: line endings and end of input
+	 * type: positive test
+	 * input: \r\n and \r line endings, last line without line ending
+	 * output: same lines as Scanner.nextLine, EXIT and empty text at the end
+	 */
+	@Test
+	void lineEndingsAndEndOfInput() {
+		InputManager inputManager = createInputManager("ADD\r\nfirst\rsecond\r\nlast");
+		assertEquals(Command.ADD, inputManager.getCommandInput().getCommand());
+		assertEquals("first", inputManager.getPlainTextInput());
+		assertEquals("second", inputManager.getPlainTextInput());
+		assertEquals("last", inputManager.getPlainTextInput());
+		assertEquals("", inputManager.getPlainTextInput());
+		assertEquals(Command.EXIT, inputManager.getCommandInput().getCommand());
+	}
+
+	/**
+	 * Equivalence class 6: illegal characters in paragraph text
+	 * type: positive test
+	 * input: text with tab and illegal characters
+	 * output: text without illegal characters
+	 */
+	@Test
+	void paragraphTextIsFiltered() {
+		InputManager inputManager = createInputManager("Apfel\tund <Birnen> ~ 42%\n");
+		assertEquals("Apfelund Birnen  42%", inputManager.getPlainTextInput());
+	}
+
+	/**
+	 * Equivalence class 7: REPLACE arguments
+	 * type: positive test
+	 * input: REPLACE with paragraph number, ALL and MAP with a file
+	 * output: REPLACE, REPLACE_ALL or REPLACE_MAP with the file
+	 */
+	@Test
+	void replaceArguments() {
+		InputManager inputManager = createInputManager("REPLACE 2\nreplace all\nREPLACE MAP maps/colors.tsv\nREPLACE MAP\n");
+		assertUserInput(Command.REPLACE, 1, inputManager.getCommandInput());
+		assertEquals(Command.REPLACE_ALL, inputManager.getCommandInput().getCommand());
+		UserInput userInput = inputManager.getCommandInput();
+		assertEquals(Command.REPLACE_MAP, userInput.getCommand());
+		assertEquals("maps/colors.tsv", userInput.getArgumentText());
+		assertNull(inputManager.getCommandInput().getArgumentText());
+	}
+
+	/**
+	 * Equivalence class 8: regular expressions
+	 * type: positive test
+	 * input: FIND REGEX with spaces and backslashes, REPLACE REGEX with and without ALL, raw text
+	 * output: FIND_REGEX with the expression, REPLACE_REGEX or REPLACE_REGEX_ALL, unfiltered text
+	 */
+	@Test
+	void regexArguments() {
+		InputManager inputManager = createInputManager(
+				"find regex \\d+ [a|b]\nREPLACE REGEX 3\nREPLACE REGEX ALL\n^(\\w+)\\s'\n");
+		UserInput userInput = inputManager.getCommandInput();
+		assertEquals(Command.FIND_REGEX, userInput.getCommand());
+		assertEquals("\\d+ [a|b]", userInput.getArgumentText());
+		assertUserInput(Command.REPLACE_REGEX, 2, inputManager.getCommandInput());
+		assertEquals(Command.REPLACE_REGEX_ALL, inputManager.getCommandInput().getCommand());
+		assertEquals("^(\\w+)\\s'", inputManager.getRawTextInput());
+	}
+
+	/**
+	 * Equivalence class 9: STATS and the number of characters read
+	 * type: positive test
+	 * input: STATS in lower case, \r\n line ending, text without line ending
+	 * output: STATS, every line with its line end counted once
+	 */
+	@Test
+	void statsAndCharCount() {
+		InputManager inputManager = createInputManager("stats\r\nADD\nlast");
+		assertEquals(Command.STATS, inputManager.getCommandInput().getCommand());
+		assertEquals(6, inputManager.getCharCount());
+		assertEquals(Command.ADD, inputManager.getCommandInput().getCommand());
+		assertEquals("last", inputManager.getPlainTextInput());
+		assertEquals(14, inputManager.getCharCount());
+		assertTrue(inputManager.getWaitNanos() >= 0);
+	}
+
+	/**
+	 * Equivalence class 10: PRINT of a range of paragraphs or lines
+	 * type: positive and negative test
+	 * input: PRINT, PRINT 2 5, PRINT LINES 10 20, PRINT x, PRINT LINES 3
+	 * output: PRINT, PRINT_RANGE with 0-based paragraphs, PRINT_LINES with 0-based line and count, missing numbers
+	 */
+	@Test
+	void printArguments() {
+		InputManager inputManager = createInputManager("PRINT\nprint 2 5\nPRINT lines 10 20\nPRINT x\nPRINT LINES 3\n");
+		assertEquals(Command.PRINT, inputManager.getCommandInput().getCommand());
+		UserInput userInput = inputManager.getCommandInput();
+		assertUserInput(Command.PRINT_RANGE, 1, userInput);
+		assertEquals(4, userInput.getSecondArgumentNumber());
+		userInput = inputManager.getCommandInput();
+		assertUserInput(Command.PRINT_LINES, 9, userInput);
+		assertEquals(20, userInput.getSecondArgumentNumber());
+		userInput = inputManager.getCommandInput();
+		assertUserInput(Command.PRINT_RANGE, null, userInput);
+		assertNull(userInput.getSecondArgumentNumber());
+		userInput = inputManager.getCommandInput();
+		assertUserInput(Command.PRINT_LINES, 2, userInput);
+		assertNull(userInput.getSecondArgumentNumber());
+	}
+
+	/**
+	 * Equivalence class 11: INDEX options
+	 * type: positive and negative test
+	 * input: INDEX, INDEX fold TOP 5 MIN 2, INDEX APPROX, INDEX TOP 0, INDEX MIN, INDEX ALL
+	 * output: default options, the given options, 20 approximate words, no options for invalid numbers, error
+	 */
+	@Test
+	void indexOptions() {
+		InputManager inputManager = createInputManager(
+				"INDEX\nINDEX fold TOP 5 MIN 2\nINDEX APPROX\nINDEX TOP 0\nINDEX MIN\nINDEX ALL\n");
+		assertTrue(inputManager.getCommandInput().getIndexOptions().isDefault());
+		IndexOptions options = inputManager.getCommandInput().getIndexOptions();
+		assertTrue(options.isCaseFolded());
+		assertFalse(options.isApproximate());
+		assertEquals(5, options.getTopCount());
+		assertEquals(2, options.getMinParagraphCount());
+		options = inputManager.getCommandInput().getIndexOptions();
+		assertTrue(options.isApproximate());
+		assertEquals(IndexOptions.DEFAULT_APPROXIMATE_TOP_COUNT, options.getTopCount());
+		assertEquals(IndexOptions.DEFAULT_MIN_PARAGRAPH_COUNT, options.getMinParagraphCount());
+		UserInput userInput = inputManager.getCommandInput();
+		assertEquals(Command.INDEX, userInput.getCommand());
+		assertNull(userInput.getIndexOptions());
+		assertNull(inputManager.getCommandInput().getIndexOptions());
+		assertEquals(Command.ERROR, inputManager.getCommandInput().getCommand());
+	}
+
+	private InputManager createInputManager(String input) {
+		return new InputManager(new ByteArrayInputStream(input.getBytes(Charset.defaultCharset())));
+	}
+
+	private void assertUserInput(Command command, Integer argumentNumber, UserInput userInput) {
+		assertEquals(command, userInput.getCommand());
+		assertEquals(argumentNumber, userInput.getArgumentNumber());
+	}
+}
@@ -0,0 +1,145 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import texteditor.Document;
+import texteditor.EditorDocument;
+import texteditor.ParagraphArena;
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The ParagraphArenaTest class contains JUnit tests for paragraphs stored outside of the heap.
+ * The equivalence classes that are being tested are the following:
+ * 1. Latin-1 texts are stored and read back
+ * 2. texts with characters above Latin-1 stay String
+ * 3. random edits of a document in an arena behave like an ArrayList
+ * 4. compaction frees mostly unused segments and keeps snapshots readable
+ * 5. the background compaction stops when the document is closed
+ */
+class ParagraphArenaTest {
+
+	/**
+	 * Equivalence class 1: Latin-1 texts are stored and read back
+	 * type: positive test
+	 * input: text with umlauts, empty text
+	 * output: equal texts, subSequence and charAt work on the stored bytes
+	 */
+	@Test
+	void latin1Texts() {
+		ParagraphArena arena = new ParagraphArena(64);
+		CharSequence text = arena.store("Grüße aus Köln");
+		assertFalse(text instanceof String);
+		assertEquals("Grüße aus Köln", text.toString());
+		assertEquals('ü', text.charAt(2));
+		assertEquals("Köln", text.subSequence(10, 14).toString());
+		assertEquals("", arena.store("").toString());
+		assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(14));
+		assertEquals(14, arena.getLiveBytes());
+	}
+
+	/**
+	 * Equivalence class 2: texts with characters above Latin-1 stay String
+	 * type: negative test
+	 * input: text with a euro sign
+	 * output: the same text as String, no bytes are used
+	 */
+	@Test
+	void textAboveLatin1() {
+		ParagraphArena arena = new ParagraphArena();
+		CharSequence text = arena.store("10 €");
+		assertEquals("10 €", text);
+		assertEquals(0, arena.getLiveBytes());
+		assertEquals(0, arena.getSegmentCount());
+	}
+
+	/**
+	 * Equivalence class 3: random edits of a document in an arena behave like an ArrayList
+	 * type: positive test
+	 * input: 3000 random insertions, replacements and removals with small segments
+	 * output: same paragraphs and formatted lines as the list, live bytes are the length of all paragraphs
+	 */
+	@Test
+	void randomEdits() {
+		ParagraphArena arena = new ParagraphArena(256);
+		RopeDocument document = new RopeDocument(arena);
+		ArrayList<String> expected = new ArrayList<>();
+		Random random = new Random(21);
+		for (int i = 0; i < 3000; i++) {
+			String paragraph = "Paragraph " + i + " über " + "x".repeat(random.nextInt(40));
+			int operation = random.nextInt(4);
+			if (operation == 0 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.set(index, paragraph), document.set(index, paragraph));
+			} else if (operation == 1 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), document.remove(index));
+			} else {
+				int index = random.nextInt(expected.size() + 1);
+				expected.add(index, paragraph);
+				document.add(index, paragraph);
+			}
+		}
+		assertEquals(expected, document);
+		assertEquals(FixedFormatOutput.print(expected, new TextFormatter(20)),
+				FixedFormatOutput.print(document.texts(), new TextFormatter(20)));
+		assertEquals(expected.stream().mapToLong(String::length).sum(), arena.getLiveBytes());
+	}
+
+	/**
+	 * Equivalence class 4: compaction frees mostly unused segments and keeps snapshots readable
+	 * type: positive test
+	 * input: 1000 paragraphs, 900 of them removed, snapshot taken before compaction, text of the snapshot inserted again
+	 * output: fewer segments, same paragraphs in the document and the snapshot, the inserted text is copied
+	 */
+	@Test
+	void compaction() {
+		ParagraphArena arena = new ParagraphArena(1024);
+		RopeDocument document = new RopeDocument(arena);
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			paragraphs.add("Paragraph number " + i);
+		}
+		document.insertParagraphs(0, paragraphs);
+		for (int i = 999; i >= 0; i--) {
+			if (i % 10 != 0) {
+				document.remove(i);
+			}
+		}
+		Document snapshot = document.snapshot();
+		List<String> remaining = new ArrayList<>(document);
+		int segmentCount = arena.getSegmentCount();
+		assertTrue(arena.needsCompaction());
+		assertTrue(document.compact());
+		assertTrue(arena.getSegmentCount() < segmentCount);
+		assertFalse(arena.needsCompaction());
+		assertFalse(document.compact());
+		assertEquals(remaining, document);
+		assertEquals(remaining, snapshot);
+		assertEquals(remaining.stream().mapToLong(String::length).sum(), arena.getLiveBytes());
+		document.insertParagraphs(0, List.of(snapshot.getText(1)));
+		assertEquals("Paragraph number 10", document.get(0));
+		assertEquals(remaining.stream().mapToLong(String::length).sum() + 19, arena.getLiveBytes());
+	}
+
+	/**
+	 * Equivalence class 5: the background compaction stops when the document is closed
+	 * type: positive test
+	 * input: editor documents with and without arena, one of them closed
+	 * output: only the open document with arena is compacted in the background
+	 */
+	@Test
+	void closeStopsCompaction() {
+		EditorDocument document = new EditorDocument(new ReentrantLock(), new ParagraphArena());
+		assertTrue(document.isCompacting());
+		document.close();
+		assertFalse(document.isCompacting());
+		assertFalse(new EditorDocument(new ReentrantLock(), null).isCompacting());
+	}
+}
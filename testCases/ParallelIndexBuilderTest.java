@@ -0,0 +1,108 @@
+package testCases;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.IndexOptions;
+import texteditor.ParallelIndexBuilder;
+import texteditor.PostingList;
+import texteditor.RopeDocument;
+import texteditor.TextProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The ParallelIndexBuilderTest class contains JUnit tests for the parallel word
+ * index. Every test compares it with the index built by TextProcessor.
+ * The equivalence classes that are being tested are the following:
+ * 1. no paragraphs and fewer paragraphs than one range
+ * 2. many ranges with words in several ranges
+ * 3. words which are rare in every range but frequent in the document
+ * 4. index options for the minimum number of paragraphs, the most frequent words and case folding
+ */
+class ParallelIndexBuilderTest {
+	private final static String[] WORDS = { "Red", "Blue", "Green", "and", "or", "Yellow", "the", "Äpfel" };
+	private ForkJoinPool pool;
+	private TextProcessor textProcessor;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ForkJoinPool(4);
+		textProcessor = new TextProcessor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Equivalence class 1: no paragraphs and fewer paragraphs than one range
+	 * type: positive test
+	 * input: empty list and 50 paragraphs with a range size of 100
+	 * output: same index as TextProcessor
+	 */
+	@Test
+	void singleRange() {
+		ParallelIndexBuilder builder = new ParallelIndexBuilder(pool, 100);
+		assertTrue(builder.getWordIndex(new ArrayList<String>()).isEmpty());
+		List<String> paragraphs = new RandomParagraphs(WORDS, ", ", 1).next(50, 5);
+		assertEquals(textProcessor.getWordIndex(paragraphs), builder.getWordIndex(paragraphs));
+	}
+
+	/**
+	 * Equivalence class 2: many ranges with words in several ranges
+	 * type: positive test
+	 * input: document with 20000 paragraphs and a range size of 7
+	 * output: same index as TextProcessor
+	 */
+	@Test
+	void manyRanges() {
+		RopeDocument document = new RopeDocument(new RandomParagraphs(WORDS, ", ", 2).next(20_000, 5));
+		assertEquals(textProcessor.getWordIndex(document), new ParallelIndexBuilder(pool, 7).getWordIndex(document));
+	}
+
+	/**
+	 * Equivalence class 3: words which are rare in every range but frequent in the document
+	 * type: positive test
+	 * input: a word in one paragraph of each of four ranges, another one in three
+	 * output: the first word is listed with all four paragraphs, the second not
+	 */
+	@Test
+	void rareInEveryRange() {
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			paragraphs.add(i % 10 == 3 ? "Rare" : i % 10 == 5 && i < 30 ? "Rarer" : "nothing");
+		}
+		ParallelIndexBuilder builder = new ParallelIndexBuilder(pool, 10);
+		assertEquals(textProcessor.getWordIndex(paragraphs), builder.getWordIndex(paragraphs));
+		assertEquals(List.of(3, 13, 23, 33), builder.getWordIndex(paragraphs).get("Rare"));
+		assertFalse(builder.getWordIndex(paragraphs).containsKey("Rarer"));
+	}
+
+	/**
+	 * Equivalence class 4: index options for the minimum number of paragraphs, the most frequent words and case folding
+	 * type: positive test
+	 * input: "Blue" in 3 paragraphs, "Red" in 3, "red" in 2 and "green" in 1 of 5 paragraphs in ranges of 2
+	 * output: words of 2 paragraphs, the 2 words of the most paragraphs in that order, lowercase words of all cases
+	 */
+	@Test
+	void indexOptions() {
+		List<String> paragraphs = List.of("Red Blue", "red, Blue", "Red green", "Blue red", "Red");
+		ParallelIndexBuilder builder = new ParallelIndexBuilder(pool, 2);
+		Map<String, PostingList> wordIndex = builder.getWordIndex(paragraphs, new IndexOptions(2, 0, false, false));
+		assertEquals(List.of("Blue", "Red"), new ArrayList<>(wordIndex.keySet()));
+		assertEquals(List.of(0, 2, 4), wordIndex.get("Red"));
+
+		wordIndex = builder.getWordIndex(paragraphs, new IndexOptions(1, 2, true, false));
+		assertEquals(List.of("red", "blue"), new ArrayList<>(wordIndex.keySet()));
+		assertEquals(List.of(0, 1, 2, 3, 4), wordIndex.get("red"));
+		assertEquals(3, builder.getWordIndex(paragraphs, new IndexOptions(1, 10, true, false)).size());
+		assertEquals(builder.getWordIndex(paragraphs), builder.getWordIndex(paragraphs, new IndexOptions()));
+	}
+}
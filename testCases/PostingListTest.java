@@ -0,0 +1,152 @@
+package testCases;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.PostingList;
+import texteditor.TextProcessor;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The PostingListTest class contains JUnit tests for the compressed posting lists
+ * of the word index.
+ * The equivalence classes that are being tested are the following:
+ * 1. paragraph numbers with small and large differences survive sealing
+ * 2. paragraph numbers which are not ascending
+ * 3. appending to a sealed list
+ * 4. encoded size of the word index compared to int arrays
+ */
+class PostingListTest {
+	private final static int CORPUS_PARAGRAPHS = 100_000;
+	private final static int CORPUS_VOCABULARY = 1000;
+	private final static int WORDS_PER_PARAGRAPH = 5;
+	private PostingList postingList;
+
+	@BeforeEach
+	void setUp() {
+		postingList = new PostingList();
+	}
+
+	/**
+	 * Equivalence class 1: paragraph numbers with small and large differences survive sealing
+	 * type: positive test
+	 * input: ascending paragraph numbers
+	 * output: equal list of Integers before and after sealing
+	 */
+	@Test
+	void sealKeepsParagraphNumbers() {
+		ArrayList<Integer> expected = new ArrayList<>();
+		int[] paragraphNumbers = { 0, 1, 127, 128, 300, 16_384, 2_000_000, Integer.MAX_VALUE };
+		for (int paragraphNumber : paragraphNumbers) {
+			postingList.append(paragraphNumber);
+			expected.add(paragraphNumber);
+		}
+		assertEquals(expected, postingList);
+		postingList.seal();
+		assertTrue(postingList.isSealed());
+		assertEquals(expected, postingList);
+		assertEquals(Integer.valueOf(16_384), postingList.get(5));
+		PrimitiveIterator.OfInt iterator = postingList.iterator();
+		for (int paragraphNumber : paragraphNumbers) {
+			assertEquals(paragraphNumber, iterator.nextInt());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	/**
+	 * Equivalence class 2: paragraph numbers which are not ascending
+	 * type: negative test
+	 * input: same paragraph number twice
+	 * output: IllegalArgumentException
+	 */
+	@Test
+	void appendNotAscending() {
+		postingList.append(3);
+		assertThrows(IllegalArgumentException.class, () -> postingList.append(3));
+	}
+
+	/**
+	 * Equivalence class 3: appending to a sealed list
+	 * type: negative test
+	 * input: sealed posting list
+	 * output: IllegalStateException
+	 */
+	@Test
+	void appendSealed() {
+		postingList.append(1);
+		postingList.seal();
+		assertThrows(IllegalStateException.class, () -> postingList.append(2));
+	}
+
+	/**
+	 * Equivalence class 4: encoded size of the word index compared to int arrays
+	 * type: positive test
+	 * input: generated corpus with 100000 paragraphs and 1000 frequent words
+	 * output: same postings as boxed lists, getStorageSize is at most two bytes per posting and at most half of an int[]
+	 */
+	@Test
+	void storageSizeOfWordIndex() {
+		TreeMap<String, PostingList> compressedIndex = new TextProcessor().getWordIndex(generateCorpus());
+
+		long postings = 0;
+		long storageSize = 0;
+		for (PostingList paragraphNumbers : compressedIndex.values()) {
+			assertTrue(paragraphNumbers.isSealed());
+			postings += paragraphNumbers.size();
+			storageSize += paragraphNumbers.getStorageSize();
+		}
+
+		assertEquals(CORPUS_VOCABULARY, compressedIndex.size());
+		assertEquals(toBoxedIndex(compressedIndex), compressedIndex);
+		assertTrue(storageSize <= 2 * postings);
+		assertTrue(storageSize * 2 <= postings * Integer.BYTES);
+	}
+
+	private List<String> generateCorpus() {
+		return new AbstractList<>() {
+			@Override
+			public String get(int index) {
+				Random random = new Random(index);
+				StringBuilder paragraph = new StringBuilder();
+				for (int i = 0; i < WORDS_PER_PARAGRAPH; i++) {
+					paragraph.append(generateWord(random.nextInt(CORPUS_VOCABULARY))).append(" and ");
+				}
+				return paragraph.toString();
+			}
+
+			@Override
+			public int size() {
+				return CORPUS_PARAGRAPHS;
+			}
+		};
+	}
+
+	private String generateWord(int number) {
+		StringBuilder word = new StringBuilder("W");
+		do {
+			word.append((char) ('a' + number % 26));
+			number /= 26;
+		} while (number > 0);
+		return word.toString();
+	}
+
+	private TreeMap<String, ArrayList<Integer>> toBoxedIndex(TreeMap<String, PostingList> compressedIndex) {
+		TreeMap<String, ArrayList<Integer>> boxedIndex = new TreeMap<>();
+		for (Entry<String, PostingList> word : compressedIndex.entrySet()) {
+			ArrayList<Integer> paragraphNumbers = new ArrayList<>();
+			for (Integer paragraphNumber : word.getValue()) {
+				paragraphNumbers.add(paragraphNumber);
+			}
+			boxedIndex.put(word.getKey(), paragraphNumbers);
+		}
+		return boxedIndex;
+	}
+}
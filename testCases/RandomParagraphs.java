@@ -0,0 +1,62 @@
+package testCases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The RandomParagraphs class creates the random paragraphs of the tests which
+ * compare two ways of computing the same result. A paragraph consists of words
+ * of a small vocabulary. Between two words is a space, or for one in five words
+ * the separator of the test, like a comma or a second space.
+ */
+class RandomParagraphs {
+	private final String[] words;
+	private final String separator;
+	private final Random random;
+
+	/**
+	 * Constructor with the vocabulary, the other separator and the seed.
+	 *
+	 * @param words
+	 * @param separator used instead of a space for one in five words
+	 * @param seed
+	 */
+	RandomParagraphs(String[] words, String separator, long seed) {
+		this.words = words;
+		this.separator = separator;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Creates a paragraph with a number of words.
+	 *
+	 * @param wordCount
+	 * @return the paragraph
+	 */
+	String next(int wordCount) {
+		StringBuilder paragraph = new StringBuilder();
+		for (int i = 0; i < wordCount; i++) {
+			if (i > 0) {
+				paragraph.append(random.nextInt(5) == 0 ? separator : " ");
+			}
+			paragraph.append(words[random.nextInt(words.length)]);
+		}
+		return paragraph.toString();
+	}
+
+	/**
+	 * Creates paragraphs with a random number of words each.
+	 *
+	 * @param count        number of paragraphs
+	 * @param maxWordCount most words of a paragraph, which has at least none
+	 * @return the paragraphs
+	 */
+	List<String> next(int count, int maxWordCount) {
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			paragraphs.add(next(random.nextInt(maxWordCount + 1)));
+		}
+		return paragraphs;
+	}
+}
@@ -0,0 +1,135 @@
+package testCases;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.PatternCache;
+import texteditor.RegexProcessor;
+import texteditor.ReplaceResult;
+import texteditor.RopeDocument;
+import texteditor.StepBudgetExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The RegexProcessorTest class contains JUnit tests for finding and replacing
+ * regular expressions and for the pattern cache.
+ * The equivalence classes that are being tested are the following:
+ * 1. matches in many paragraphs and ranges
+ * 2. replacements with groups, in one paragraph or in all paragraphs
+ * 3. patterns with catastrophic backtracking
+ * 4. cached patterns, the least recently used pattern is dropped
+ */
+class RegexProcessorTest {
+	private final static String[] WORDS = { "Red", "Blue", "42", "and", "Green7", "or" };
+	private ForkJoinPool pool;
+	private RegexProcessor regexProcessor;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ForkJoinPool(4);
+		regexProcessor = new RegexProcessor(1_000_000, pool, 7);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Equivalence class 1: matches in many paragraphs and ranges
+	 * type: positive test
+	 * input: document with 2000 random paragraphs and a range size of 7
+	 * output: the same offsets as a Matcher on every paragraph
+	 */
+	@Test
+	void findInManyRanges() {
+		RandomParagraphs randomParagraphs = new RandomParagraphs(WORDS, " ", 1);
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			paragraphs.add(randomParagraphs.next(6));
+		}
+		Pattern pattern = Pattern.compile("[A-Z][a-z]+\\d|\\b42\\b");
+		TreeMap<Integer, List<Integer>> expected = new TreeMap<>();
+		for (int i = 0; i < paragraphs.size(); i++) {
+			Matcher matcher = pattern.matcher(paragraphs.get(i));
+			List<Integer> offsets = new ArrayList<>();
+			while (matcher.find()) {
+				offsets.add(matcher.start());
+			}
+			if (!offsets.isEmpty()) {
+				expected.put(i, offsets);
+			}
+		}
+		TreeMap<Integer, int[]> matches = regexProcessor.find(new RopeDocument(paragraphs), pattern);
+		assertEquals(expected.keySet(), matches.keySet());
+		for (Integer paragraphNumber : expected.keySet()) {
+			assertArrayEquals(expected.get(paragraphNumber).stream().mapToInt(Integer::intValue).toArray(),
+					matches.get(paragraphNumber));
+		}
+	}
+
+	/**
+	 * Equivalence class 2: replacements with groups, in one paragraph or in all paragraphs
+	 * type: positive test
+	 * input: swapping two words with groups, replacement equal to the match
+	 * output: only changed paragraphs are returned, every match is counted
+	 */
+	@Test
+	void replaceWithGroups() {
+		RopeDocument document = new RopeDocument(List.of("Red and Blue", "Green", "Red and Red", "Blue and Red"));
+		Pattern pattern = Pattern.compile("(\\w+) and (\\w+)");
+		ReplaceResult result = regexProcessor.replaceAll(document, pattern, "$2 and $1");
+		assertArrayEquals(new int[] { 0, 3 }, result.getParagraphNumbers());
+		assertEquals("Blue and Red", result.getParagraph(0));
+		assertEquals("Red and Blue", result.getParagraph(1));
+		assertArrayEquals(new long[] { 3 }, result.getCounts());
+
+		result = regexProcessor.replaceRange(document, 3, 4, pattern, "$2 and $1");
+		assertArrayEquals(new int[] { 3 }, result.getParagraphNumbers());
+		assertArrayEquals(new long[] { 1 }, result.getCounts());
+		assertThrows(IndexOutOfBoundsException.class, () -> regexProcessor.replaceAll(document, pattern, "$3"));
+	}
+
+	/**
+	 * Equivalence class 3: patterns with catastrophic backtracking
+	 * type: negative test
+	 * input: "(.*a){12}b" on paragraphs of 40 letters a, budget of 1000000 steps
+	 * output: StepBudgetExceededException for find and replace
+	 */
+	@Test
+	void catastrophicBacktracking() {
+		RopeDocument document = new RopeDocument(List.of("Red", "a".repeat(40), "a".repeat(40)));
+		Pattern pattern = Pattern.compile("(.*a){12}b");
+		assertThrows(StepBudgetExceededException.class, () -> regexProcessor.find(document, pattern));
+		assertThrows(StepBudgetExceededException.class, () -> regexProcessor.replaceAll(document, pattern, "x"));
+		assertTrue(regexProcessor.find(document, Pattern.compile("(.*a){2}b")).isEmpty());
+	}
+
+	/**
+	 * Equivalence class 4: cached patterns, the least recently used pattern is dropped
+	 * type: positive and negative test
+	 * input: cache with two patterns, three expressions, invalid expression
+	 * output: same pattern for a cached expression, PatternSyntaxException
+	 */
+	@Test
+	void patternCache() {
+		PatternCache patternCache = new PatternCache(2);
+		Pattern red = patternCache.get("Red");
+		Pattern blue = patternCache.get("Blue");
+		assertSame(red, patternCache.get("Red"));
+		patternCache.get("Green");
+		assertEquals(2, patternCache.size());
+		assertSame(red, patternCache.get("Red"));
+		assertNotSame(blue, patternCache.get("Blue"));
+		assertThrows(PatternSyntaxException.class, () -> patternCache.get("(Red"));
+	}
+}
@@ -0,0 +1,323 @@
+package testCases;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.Document;
+import texteditor.ParagraphMeasure;
+import texteditor.RopeDocument;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The RopeDocumentTest class contains JUnit tests for the balanced paragraph tree.
+ * The equivalence classes that are being tested are the following:
+ * 1. document is empty
+ * 2. paragraphs are inserted at the start, middle and end
+ * 3. paragraphs are deleted and replaced
+ * 4. paragraph number is out of range
+ * 5. random edits behave like an ArrayList
+ * 6. an iterator keeps the state it was created from
+ * 7. several paragraphs are inserted at once
+ * 8. snapshots are read while another thread edits the document
+ * 9. several threads edit the document without a lock
+ * 10. sums of a paragraph measure while the document is edited
+ */
+class RopeDocumentTest {
+	private RopeDocument document;
+	private ArrayList<String> expected;
+
+	@BeforeEach
+	void setUp() {
+		document = new RopeDocument();
+		expected = new ArrayList<>();
+	}
+
+	/**
+	 * Equivalence class 1: document is empty
+	 * type: positive test
+	 * input: no paragraphs
+	 * output: size 0 and no iteration
+	 */
+	@Test
+	void emptyDocument() {
+		assertEquals(0, document.size());
+		assertTrue(document.isEmpty());
+		assertFalse(document.iterator().hasNext());
+	}
+
+	/**
+	 * Equivalence class 2: paragraphs are inserted at the start, middle and end
+	 * type: positive test
+	 * input: three insertions
+	 * output: paragraphs in insertion order
+	 */
+	@Test
+	void insertStartMiddleEnd() {
+		document.add(0, "B");
+		document.add(0, "A");
+		document.add(2, "D");
+		document.add(2, "C");
+		expected.add("A");
+		expected.add("B");
+		expected.add("C");
+		expected.add("D");
+		assertEquals(expected, document);
+	}
+
+	/**
+	 * Equivalence class 3: paragraphs are deleted and replaced
+	 * type: positive test
+	 * input: document with three paragraphs
+	 * output: remove and set return the old paragraph
+	 */
+	@Test
+	void deleteAndReplace() {
+		document.add("A");
+		document.add("B");
+		document.add("C");
+		assertEquals("B", document.remove(1));
+		assertEquals("C", document.set(1, "X"));
+		expected.add("A");
+		expected.add("X");
+		assertEquals(expected, document);
+	}
+
+	/**
+	 * Equivalence class 4: paragraph number is out of range
+	 * type: negative test
+	 * input: invalid paragraph numbers
+	 * output: IndexOutOfBoundsException
+	 */
+	@Test
+	void indexOutOfRange() {
+		document.add("A");
+		assertThrows(IndexOutOfBoundsException.class, () -> document.get(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> document.remove(-1));
+		assertThrows(IndexOutOfBoundsException.class, () -> document.add(3, "B"));
+	}
+
+	/**
+	 * Equivalence class 5: random edits behave like an ArrayList
+	 * type: positive test
+	 * input: 5000 random insertions, deletions and replacements
+	 * output: same content as an ArrayList with the same edits
+	 */
+	@Test
+	void randomEditsMatchArrayList() {
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			int operation = random.nextInt(4);
+			if (operation < 2 || expected.isEmpty()) {
+				int index = random.nextInt(expected.size() + 1);
+				document.add(index, "P" + i);
+				expected.add(index, "P" + i);
+			} else if (operation == 2) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), document.remove(index));
+			} else {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.set(index, "R" + i), document.set(index, "R" + i));
+			}
+		}
+		assertEquals(expected, document);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), document.get(i));
+		}
+	}
+
+	/**
+	 * Equivalence class 6: an iterator keeps the state it was created from
+	 * type: positive test
+	 * input: edit while iterating
+	 * output: iterator returns the old paragraphs
+	 */
+	@Test
+	void iteratorKeepsState() {
+		document.add("A");
+		document.add("B");
+		Iterator<String> iterator = document.iterator();
+		document.remove(0);
+		document.add("C");
+		assertEquals("A", iterator.next());
+		assertEquals("B", iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	/**
+	 * Equivalence class 7: several paragraphs are inserted at once
+	 * type: positive test
+	 * input: 200 random insertions of up to 100 paragraphs and single deletions
+	 * output: same content as an ArrayList with the same edits
+	 */
+	@Test
+	void insertParagraphsMatchArrayList() {
+		Random random = new Random(9);
+		for (int i = 0; i < 200; i++) {
+			int index = random.nextInt(expected.size() + 1);
+			List<String> paragraphs = new ArrayList<>();
+			int count = random.nextInt(100);
+			for (int j = 0; j < count; j++) {
+				paragraphs.add("P" + i + "_" + j);
+			}
+			document.insertParagraphs(index, paragraphs);
+			expected.addAll(index, paragraphs);
+			if (!expected.isEmpty()) {
+				index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), document.remove(index));
+			}
+		}
+		assertEquals(expected, document);
+		assertEquals(expected.get(expected.size() / 2), document.getText(expected.size() / 2));
+	}
+
+	/**
+	 * Equivalence class 8: snapshots are read while another thread edits the document
+	 * type: positive test
+	 * input: 100000 paragraphs, 20000 random edits while two threads read snapshots
+	 * output: no exception, every snapshot keeps its size and content
+	 */
+	@Test
+	void snapshotsDuringEdits() throws Exception {
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			paragraphs.add("P" + i);
+		}
+		RopeDocument shared = new RopeDocument(paragraphs);
+		AtomicBoolean editing = new AtomicBoolean(true);
+		ExecutorService readers = Executors.newFixedThreadPool(2);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int reader = 0; reader < 2; reader++) {
+			results.add(readers.submit(() -> {
+				int rounds = 0;
+				while (editing.get() || rounds == 0) {
+					Document snapshot = shared.snapshot();
+					int size = snapshot.size();
+					int count = 0;
+					int hash = 1;
+					for (String paragraph : snapshot) {
+						count++;
+						hash = 31 * hash + paragraph.hashCode();
+					}
+					assertEquals(size, count);
+					assertEquals(hash, snapshot.hashCode());
+					assertEquals(snapshot.get(size - 1), snapshot.getText(size - 1).toString());
+					rounds++;
+				}
+				return rounds;
+			}));
+		}
+		Random random = new Random(11);
+		for (int i = 0; i < 20_000; i++) {
+			int operation = random.nextInt(3);
+			if (operation == 0) {
+				shared.add(random.nextInt(shared.size() + 1), "E" + i);
+			} else if (operation == 1) {
+				shared.remove(random.nextInt(shared.size()));
+			} else {
+				shared.set(random.nextInt(shared.size()), "S" + i);
+			}
+		}
+		editing.set(false);
+		for (Future<Integer> result : results) {
+			assertTrue(result.get() > 0);
+		}
+		readers.shutdown();
+		assertThrows(UnsupportedOperationException.class, () -> shared.snapshot().add("P"));
+		assertThrows(UnsupportedOperationException.class, () -> shared.snapshot().removeParagraphs(0, 1));
+	}
+
+	/**
+	 * Equivalence class 9: several threads edit the document without a lock
+	 * type: positive test
+	 * input: four threads which add 5000 paragraphs each at the start
+	 * output: no paragraph is lost, the paragraphs of every thread are in reverse order
+	 */
+	@Test
+	void concurrentWriters() throws Exception {
+		ExecutorService writers = Executors.newFixedThreadPool(4);
+		for (int writer = 0; writer < 4; writer++) {
+			int writerNumber = writer;
+			writers.execute(() -> {
+				for (int i = 0; i < 5000; i++) {
+					document.add(0, "W" + writerNumber + "_" + i);
+				}
+			});
+		}
+		writers.shutdown();
+		assertTrue(writers.awaitTermination(1, TimeUnit.MINUTES));
+		assertEquals(20_000, document.size());
+		for (int writer = 0; writer < 4; writer++) {
+			String prefix = "W" + writer + "_";
+			List<String> written = new ArrayList<>();
+			for (String paragraph : document) {
+				if (paragraph.startsWith(prefix)) {
+					written.add(paragraph);
+				}
+			}
+			assertEquals(5000, written.size());
+			assertEquals(prefix + "4999", written.get(0));
+			assertEquals(prefix + "0", written.get(4999));
+		}
+	}
+
+	/**
+	 * Equivalence class 10: sums of a paragraph measure while the document is edited
+	 * type: positive test
+	 * input: 2000 paragraphs of random length, random edits, a snapshot, the measure is the length
+	 * output: sums and found paragraphs like the linear computation, also for the snapshot
+	 */
+	@Test
+	void measureSums() {
+		ParagraphMeasure measure = CharSequence::length;
+		Random random = new Random(23);
+		for (int i = 0; i < 2000; i++) {
+			String paragraph = "x".repeat(random.nextInt(5));
+			document.add(i, paragraph);
+			expected.add(paragraph);
+		}
+		assertMeasure(document, expected, measure, random);
+		Document snapshot = document.snapshot();
+		List<String> snapshotParagraphs = new ArrayList<>(expected);
+		for (int i = 0; i < 500; i++) {
+			int index = random.nextInt(expected.size());
+			String paragraph = "y".repeat(random.nextInt(5));
+			if (i % 2 == 0) {
+				document.set(index, paragraph);
+				expected.set(index, paragraph);
+			} else {
+				document.remove(index);
+				expected.remove(index);
+			}
+		}
+		assertMeasure(document, expected, measure, random);
+		assertMeasure(snapshot, snapshotParagraphs, measure, random);
+		long total = expected.stream().mapToInt(String::length).sum();
+		assertEquals(expected.size(), document.findMeasure(total, measure));
+		assertThrows(IllegalArgumentException.class, () -> document.findMeasure(-1, measure));
+	}
+
+	private static void assertMeasure(Document document, List<String> paragraphs, ParagraphMeasure measure,
+			Random random) {
+		long[] sums = new long[paragraphs.size() + 1];
+		for (int i = 0; i < paragraphs.size(); i++) {
+			sums[i + 1] = sums[i] + paragraphs.get(i).length();
+		}
+		for (int i = 0; i < 200; i++) {
+			int index = random.nextInt(paragraphs.size() + 1);
+			assertEquals(sums[index], document.measureBefore(index, measure));
+			long offset = (long) (random.nextDouble() * sums[paragraphs.size()]);
+			int found = document.findMeasure(offset, measure);
+			assertTrue(sums[found] <= offset && offset < sums[found + 1]);
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package testCases;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.RopeDocument;
+import texteditor.SearchIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The SearchIndexTest class contains JUnit tests for finding words and phrases.
+ * The equivalence classes that are being tested are the following:
+ * 1. words and phrases with their offsets
+ * 2. words which are not in the document and queries without words
+ * 3. the index follows insertions, deletions and replacements
+ * 4. bulk edits which are larger than the limit
+ */
+class SearchIndexTest {
+	private final static String[] WORDS = { "Red", "Blue", "red", "Green", "and", "or", "the", "42" };
+	private RopeDocument document;
+	private SearchIndex searchIndex;
+
+	@BeforeEach
+	void setUp() {
+		document = new RopeDocument();
+		searchIndex = new SearchIndex(document);
+	}
+
+	/**
+	 * Equivalence class 1: words and phrases with their offsets
+	 * type: positive test
+	 * input: word with other case, word inside another word, phrase with punctuation between the words
+	 * output: paragraph numbers and offsets of the matches with the same case
+	 */
+	@Test
+	void wordsAndPhrases() {
+		document.add("Deep Thought is a computer");
+		document.add("deep thought, Deep. Thought");
+		document.add("Deeper Thoughts");
+		assertFindResult(searchIndex.find("Deep"), 0, new int[] { 0 }, 1, new int[] { 14 });
+		assertFindResult(searchIndex.find("Deep Thought"), 0, new int[] { 0 }, 1, new int[] { 14 });
+		assertFindResult(searchIndex.find("deep thought"), 1, new int[] { 0 });
+		assertFindResult(searchIndex.find("computer"), 0, new int[] { 18 });
+	}
+
+	/**
+	 * Equivalence class 2: words which are not in the document and queries without words
+	 * type: negative test
+	 * input: unknown word, phrase with words in the wrong order, empty query, only punctuation
+	 * output: nothing found
+	 */
+	@Test
+	void nothingFound() {
+		document.add("Red and Blue");
+		assertTrue(searchIndex.find("Green").isEmpty());
+		assertTrue(searchIndex.find("Blue and Red").isEmpty());
+		assertTrue(searchIndex.find("").isEmpty());
+		assertTrue(searchIndex.find(" ,. ").isEmpty());
+	}
+
+	/**
+	 * Equivalence class 3: the index follows insertions, deletions and replacements
+	 * type: positive test
+	 * input: 3000 random edits
+	 * output: every word and a phrase are found where a regular expression finds them
+	 */
+	@Test
+	void randomEdits() {
+		Random random = new Random(3);
+		RandomParagraphs randomParagraphs = new RandomParagraphs(WORDS, ", ", 3);
+		for (int i = 0; i < 3000; i++) {
+			int operation = random.nextInt(4);
+			if (operation < 2 || document.isEmpty()) {
+				document.add(random.nextInt(document.size() + 1), randomParagraphs.next(8));
+			} else if (operation == 2) {
+				document.remove(random.nextInt(document.size()));
+			} else {
+				document.set(random.nextInt(document.size()), randomParagraphs.next(8));
+			}
+			if (i % 500 == 0) {
+				assertIndexMatchesDocument();
+			}
+		}
+		document.removeParagraphs(0, document.size() / 2);
+		assertIndexMatchesDocument();
+	}
+
+	/**
+	 * Equivalence class 4: bulk edits which are larger than the limit
+	 * type: positive test
+	 * input: 100001 paragraphs inserted at once, then a single insertion
+	 * output: the index is built again by the next search and kept up to date afterwards
+	 */
+	@Test
+	void largeBulkInsert() {
+		document.insertParagraphs(0, Collections.nCopies(100_001, "Red and Blue"));
+		assertEquals(100_001, searchIndex.find("Red").size());
+		document.add(5, "Blue or Red");
+		TreeMap<Integer, int[]> matches = searchIndex.find("Red");
+		assertEquals(100_002, matches.size());
+		assertArrayEquals(new int[] { 8 }, matches.get(5));
+		assertArrayEquals(new int[] { 0 }, matches.get(6));
+	}
+
+	private void assertIndexMatchesDocument() {
+		for (String word : WORDS) {
+			assertEquals(findWithPattern(word), toLists(searchIndex.find(word)));
+		}
+		assertEquals(findWithPattern("Red and"), toLists(searchIndex.find("Red, and")));
+	}
+
+	private TreeMap<Integer, List<Integer>> findWithPattern(String query) {
+		Pattern pattern = Pattern.compile("(?<![A-Za-z0-9])" + query.replace(" ", "[^A-Za-z0-9]+")
+				+ "(?![A-Za-z0-9])");
+		TreeMap<Integer, List<Integer>> matches = new TreeMap<>();
+		for (int i = 0; i < document.size(); i++) {
+			Matcher matcher = pattern.matcher(document.get(i));
+			List<Integer> offsets = new ArrayList<>();
+			int start = 0;
+			while (matcher.find(start)) {
+				offsets.add(matcher.start());
+				start = matcher.start() + 1;
+			}
+			if (!offsets.isEmpty()) {
+				matches.put(i, offsets);
+			}
+		}
+		return matches;
+	}
+
+	private TreeMap<Integer, List<Integer>> toLists(TreeMap<Integer, int[]> matches) {
+		TreeMap<Integer, List<Integer>> lists = new TreeMap<>();
+		for (Integer paragraphNumber : matches.keySet()) {
+			List<Integer> offsets = new ArrayList<>();
+			for (int offset : matches.get(paragraphNumber)) {
+				offsets.add(offset);
+			}
+			lists.put(paragraphNumber, offsets);
+		}
+		return lists;
+	}
+
+	private void assertFindResult(TreeMap<Integer, int[]> matches, Object... expected) {
+		assertEquals(expected.length / 2, matches.size());
+		for (int i = 0; i < expected.length; i += 2) {
+			assertArrayEquals((int[]) expected[i + 1], matches.get(expected[i]));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import texteditor.MappedParagraph;
+import texteditor.TextFileLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The TextFileLoaderTest class contains JUnit tests for loading text files.
+ * The equivalence classes that are being tested are the following:
+ * 1. lines with different line endings and blank lines
+ * 2. lines with illegal or non ASCII characters
+ * 3. lines crossing the border of a mapped window
+ * 4. file does not exist
+ */
+class TextFileLoaderTest {
+	@TempDir
+	Path directory;
+
+	/**
+	 * Equivalence class 1: lines with different line endings and blank lines
+	 * type: positive test
+	 * input: \n, \r\n and \r line endings, empty and blank lines
+	 * output: one mapped paragraph per line which is not blank
+	 */
+	@Test
+	void lineEndingsAndBlankLines() throws IOException {
+		List<CharSequence> paragraphs = load("First line\r\n\r\n   \nSecond line\rThird line", 1 << 20);
+		assertEquals(List.of("First line", "Second line", "Third line"), toStrings(paragraphs));
+		assertInstanceOf(MappedParagraph.class, paragraphs.get(0));
+		assertEquals('S', paragraphs.get(1).charAt(0));
+	}
+
+	/**
+	 * Equivalence class 2: lines with illegal or non ASCII characters
+	 * type: positive test
+	 * input: lines with tab, illegal characters and umlauts
+	 * output: lines filtered like the input of ADD
+	 */
+	@Test
+	void illegalCharacters() throws IOException {
+		List<CharSequence> paragraphs = load("Apfel\tund <Birnen>\nÄpfel\n~~~\n", 1 << 20);
+		assertEquals(List.of("Apfelund Birnen", "Äpfel"), toStrings(paragraphs));
+	}
+
+	/**
+	 * Equivalence class 3: lines crossing the border of a mapped window
+	 * type: positive test
+	 * input: window of 8 bytes, lines shorter and longer than the window
+	 * output: lines shorter than the window are complete, longer lines are split
+	 */
+	@Test
+	void windowBorders() throws IOException {
+		List<CharSequence> paragraphs = load("abc def\nghi\njklmn\nopqrstuvwxyz\n", 8);
+		assertEquals(List.of("abc def", "ghi", "jklmn", "opqrstuv", "wxyz"), toStrings(paragraphs));
+	}
+
+	/**
+	 * Equivalence class 4: file does not exist
+	 * type: negative test
+	 * input: path of a missing file
+	 * output: IOException
+	 */
+	@Test
+	void missingFile() {
+		assertThrows(IOException.class, () -> new TextFileLoader().load(directory.resolve("missing.txt")));
+	}
+
+	private List<CharSequence> load(String content, int windowSize) throws IOException {
+		Path file = directory.resolve("text.txt");
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return new TextFileLoader(windowSize).load(file);
+	}
+
+	private List<String> toStrings(List<CharSequence> paragraphs) {
+		List<String> strings = new ArrayList<>();
+		for (CharSequence paragraph : paragraphs) {
+			strings.add(paragraph.toString());
+		}
+		return strings;
+	}
+}
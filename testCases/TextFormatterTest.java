@@ -0,0 +1,125 @@
+package testCases;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.LineLayout;
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The TextFormatterTest class contains JUnit tests for the fixed format.
+ * The printed lines are compared with the former implementation, which
+ * concatenated the words of a line.
+ * The equivalence classes that are being tested are the following:
+ * 1. paragraphs with normal, long and empty words for every line length
+ * 2. paragraph only containing spaces
+ * 3. unchanged paragraphs reuse their layout
+ * 4. changed paragraphs and line lengths get a new layout
+ */
+class TextFormatterTest {
+	private final static String[] PARAGRAPHS = { "", "a", "Red and Blue", "a  b", " leading space",
+			"trailing space ", "averyveryverylongword in a sentence", "x  y   z    anotherverylongword",
+			"42 is the Answer to the Ultimate Question of Life, the Universe, and Everything" };
+	private TextFormatter textFormatter;
+	private RopeDocument document;
+
+	@BeforeEach
+	void setUp() {
+		textFormatter = new TextFormatter();
+		document = new RopeDocument();
+	}
+
+	/**
+	 * Equivalence class 1: paragraphs with normal, long and empty words for every line length
+	 * type: positive test
+	 * input: paragraphs and line lengths 1 to 90
+	 * output: same printed lines as the former implementation
+	 */
+	@Test
+	void sameLinesAsBefore() {
+		for (String paragraph : PARAGRAPHS) {
+			document.add(paragraph);
+		}
+		for (int maxLineLength = 1; maxLineLength <= 90; maxLineLength++) {
+			textFormatter.setMaxLineLength(maxLineLength);
+			ArrayList<String> expected = new ArrayList<>();
+			for (String paragraph : PARAGRAPHS) {
+				expected.addAll(referenceLines(paragraph, maxLineLength));
+			}
+			assertEquals(FixedFormatOutput.lines(expected), FixedFormatOutput.print(document.texts(), textFormatter),
+					"maxLineLength: " + maxLineLength);
+		}
+	}
+
+	/**
+	 * Equivalence class 2: paragraph only containing spaces
+	 * type: positive test
+	 * input: paragraph with three spaces
+	 * output: one empty line
+	 */
+	@Test
+	void onlySpaces() {
+		document.add("   ");
+		textFormatter.setMaxLineLength(10);
+		assertEquals(FixedFormatOutput.lines(List.of("")), FixedFormatOutput.print(document.texts(), textFormatter));
+	}
+
+	/**
+	 * Equivalence class 3: unchanged paragraphs reuse their layout
+	 * type: positive test
+	 * input: same paragraph formatted twice
+	 * output: same layout object
+	 */
+	@Test
+	void layoutIsCached() {
+		String paragraph = PARAGRAPHS[8];
+		textFormatter.setMaxLineLength(20);
+		LineLayout layout = textFormatter.getLineLayout(paragraph);
+		assertSame(layout, textFormatter.getLineLayout(paragraph));
+		assertEquals(5, layout.getLineCount());
+	}
+
+	/**
+	 * Equivalence class 4: changed paragraphs and line lengths get a new layout
+	 * type: positive test
+	 * input: changed line length and changed paragraph
+	 * output: new layouts
+	 */
+	@Test
+	void layoutIsRenewed() {
+		String paragraph = PARAGRAPHS[8];
+		textFormatter.setMaxLineLength(20);
+		LineLayout layout = textFormatter.getLineLayout(paragraph);
+		textFormatter.setMaxLineLength(30);
+		LineLayout widerLayout = textFormatter.getLineLayout(paragraph);
+		assertNotSame(layout, widerLayout);
+		assertEquals(30, widerLayout.getMaxLineLength());
+		assertNotSame(widerLayout, textFormatter.getLineLayout(paragraph.replace("Life", "Death")));
+	}
+
+	private ArrayList<String> referenceLines(String paragraph, int maxLineLength) {
+		ArrayList<String> lines = new ArrayList<>();
+		String[] words = paragraph.split(" ");
+		String newLine = "";
+		for (String word : words) {
+			if (newLine.length() + word.length() > maxLineLength) {
+				if (!newLine.isEmpty()) {
+					lines.add(newLine.substring(0, newLine.length() - 1));
+					newLine = "";
+				}
+				while (word.length() > maxLineLength) {
+					lines.add(word.substring(0, maxLineLength));
+					word = word.substring(maxLineLength);
+				}
+			}
+			newLine += word + " ";
+		}
+		lines.add(newLine.substring(0, newLine.length() - 1));
+		return lines;
+	}
+}
@@ -0,0 +1,198 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import texteditor.OutputManager;
+import texteditor.RopeDocument;
+import texteditor.TextFormatter;
+import texteditor.TextProcessor;
+import texteditor.Tokenizer;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The TokenizerTest class contains JUnit tests for the shared tokenizer.
+ * The old regular expression based implementations are used as reference.
+ * The equivalence classes that are being tested are the following:
+ * 1. words are the same as with String.split(" ")
+ * 2. illegal characters are removed like with the old pattern
+ * 3. text without illegal characters is returned unchanged
+ * 4. INDEX on a large document allocates several times less
+ * 5. PRINT on a large document allocates several times less
+ */
+class TokenizerTest {
+	private final static String ILLEGAL_TEXT_CHARS_PATTERN = "[^a-zA-ZäöüÄÖÜ0-9.,:;\\-!?’()\"%@+*\\[\\]{}/&#$\s]";
+	private final static String[] SPLIT_CASES = { "", " ", "   ", "a", "a b", "a  b", " a", "a ", "  a  b  ",
+			"Red and Blue", "one" };
+	private final static int LARGE_DOCUMENT_PARAGRAPHS = 20_000;
+	private final static int MAX_LINE_LENGTH = 40;
+
+	/**
+	 * Equivalence class 1: words are the same as with String.split(" ")
+	 * type: positive test
+	 * input: texts with leading, trailing and multiple spaces
+	 * output: same words as String.split(" ")
+	 */
+	@Test
+	void tokensLikeSplit() {
+		Tokenizer tokenizer = new Tokenizer();
+		for (String text : SPLIT_CASES) {
+			ArrayList<String> tokens = new ArrayList<>();
+			tokenizer.reset(text);
+			while (tokenizer.nextToken()) {
+				tokens.add(text.substring(tokenizer.start(), tokenizer.end()));
+			}
+			assertArrayEquals(text.split(" "), tokens.toArray(new String[0]), "text: \"" + text + "\"");
+		}
+	}
+
+	/**
+	 * Equivalence class 2: illegal characters are removed like with the old pattern
+	 * type: positive test
+	 * input: every character up to 0x3000
+	 * output: same text as String.replaceAll with the old pattern
+	 */
+	@Test
+	void filterLikePattern() {
+		StringBuilder text = new StringBuilder();
+		for (char character = 0; character < 0x3000; character++) {
+			text.append(character);
+		}
+		String allCharacters = text.toString();
+		assertEquals(allCharacters.replaceAll(ILLEGAL_TEXT_CHARS_PATTERN, ""),
+				Tokenizer.filterIllegalChars(allCharacters));
+	}
+
+	/**
+	 * Equivalence class 3: text without illegal characters is returned unchanged
+	 * type: positive test
+	 * input: legal text
+	 * output: the same String object
+	 */
+	@Test
+	void filterLegalText() {
+		String text = "Äpfel, Birnen & Öl (42%) ’quoted’";
+		assertSame(text, Tokenizer.filterIllegalChars(text));
+	}
+
+	/**
+	 * Equivalence class 4: INDEX on a large document allocates several times less
+	 * type: positive test
+	 * input: generated document
+	 * output: same index with less than a third of the allocated bytes
+	 */
+	@Test
+	void indexAllocatesLess() {
+		RopeDocument document = generateDocument();
+		TextProcessor textProcessor = new TextProcessor();
+		assertEquals(referenceWordIndex(document), textProcessor.getWordIndex(document));
+
+		long before = allocatedBytes();
+		referenceWordIndex(document);
+		long referenceBytes = allocatedBytes() - before;
+		before = allocatedBytes();
+		textProcessor.getWordIndex(document);
+		long tokenizerBytes = allocatedBytes() - before;
+
+		assertTrue(tokenizerBytes * 3 < referenceBytes, "regex: " + referenceBytes + ", tokenizer: " + tokenizerBytes);
+	}
+
+	/**
+	 * Equivalence class 5: PRINT on a large document allocates several times less
+	 * type: positive test
+	 * input: generated document, printed with a new formatter
+	 * output: same lines with less than a third of the bytes the former lines allocate
+	 */
+	@Test
+	void printAllocatesLess() {
+		RopeDocument document = generateDocument();
+		assertEquals(FixedFormatOutput.lines(referenceFormat(document)),
+				FixedFormatOutput.print(document.texts(), new TextFormatter(MAX_LINE_LENGTH)));
+		WritableByteChannel channel = Channels.newChannel(OutputStream.nullOutputStream());
+		OutputManager outputManager = new OutputManager(channel, channel);
+
+		long before = allocatedBytes();
+		referenceFormat(document);
+		long referenceBytes = allocatedBytes() - before;
+		before = allocatedBytes();
+		FixedFormatOutput.print(document.texts(), new TextFormatter(MAX_LINE_LENGTH), outputManager);
+		outputManager.flush();
+		long tokenizerBytes = allocatedBytes() - before;
+
+		assertTrue(tokenizerBytes * 3 < referenceBytes, "split: " + referenceBytes + ", tokenizer: " + tokenizerBytes);
+	}
+
+	private RopeDocument generateDocument() {
+		String[] words = { "Deep", "Thought", "computer", "the", "Answer", "is", "42,", "Galaxy", "(Guide)",
+				"question", "Universe", "Everything", "verylongwordthatdoesnotfitintooneline" };
+		Random random = new Random(1);
+		RopeDocument document = new RopeDocument();
+		for (int i = 0; i < LARGE_DOCUMENT_PARAGRAPHS; i++) {
+			StringBuilder paragraph = new StringBuilder();
+			int length = 10 + random.nextInt(40);
+			for (int j = 0; j < length; j++) {
+				paragraph.append(words[random.nextInt(words.length)]).append(' ');
+			}
+			document.add(paragraph.toString().trim());
+		}
+		return document;
+	}
+
+	private long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+
+	private TreeMap<String, ArrayList<Integer>> referenceWordIndex(RopeDocument paragraphs) {
+		TreeMap<String, ArrayList<Integer>> wordIndexList = new TreeMap<>();
+		int paragraphNumber = 0;
+		for (String paragraph : paragraphs) {
+			String[] words = paragraph.split(" ");
+			for (int i = 0; i < words.length; i++) {
+				words[i] = words[i].replaceAll("[^a-zöäüA-ZÖÄÜ]", "");
+			}
+			HashSet<String> uniqueWords = new HashSet<>();
+			for (String word : words) {
+				if (!word.isBlank() && Character.isUpperCase(word.charAt(0))) {
+					uniqueWords.add(word);
+				}
+			}
+			for (String word : uniqueWords) {
+				wordIndexList.computeIfAbsent(word, key -> new ArrayList<>()).add(paragraphNumber);
+			}
+			paragraphNumber++;
+		}
+		wordIndexList.values().removeIf(paragraphNumbers -> paragraphNumbers.size() <= 3);
+		return wordIndexList;
+	}
+
+	private ArrayList<String> referenceFormat(RopeDocument paragraphs) {
+		ArrayList<String> lines = new ArrayList<>();
+		for (String paragraph : paragraphs) {
+			String[] words = paragraph.split(" ");
+			String newLine = "";
+			for (String word : words) {
+				if (newLine.length() + word.length() > MAX_LINE_LENGTH) {
+					if (!newLine.isEmpty()) {
+						lines.add(newLine.substring(0, newLine.length() - 1));
+						newLine = "";
+					}
+					while (word.length() > MAX_LINE_LENGTH) {
+						lines.add(word.substring(0, MAX_LINE_LENGTH));
+						word = word.substring(MAX_LINE_LENGTH);
+					}
+				}
+				newLine += word + " ";
+			}
+			lines.add(newLine.substring(0, newLine.length() - 1));
+		}
+		return lines;
+	}
+}
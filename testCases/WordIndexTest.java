@@ -0,0 +1,179 @@
+package testCases;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import texteditor.RopeDocument;
+import texteditor.TextProcessor;
+import texteditor.WordIndex;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The WordIndexTest class contains JUnit tests for the incrementally maintained
+ * word index. Every test compares it with the index built by TextProcessor.
+ * The equivalence classes that are being tested are the following:
+ * 1. paragraphs existing before the index is created
+ * 2. paragraphs inserted before indexed paragraphs are renumbered
+ * 3. deleted paragraphs are removed from the index
+ * 4. replaced paragraphs update their words
+ * 5. random edits give the same index as a full rebuild
+ * 6. more paragraphs than the limit are inserted at once
+ * 7. words which no longer occur are removed from the word table
+ */
+class WordIndexTest {
+	private final static String[] WORDS = { "Red", "Blue", "Green", "and", "or", "Yellow", "the" };
+	private TextProcessor textProcessor;
+	private RopeDocument document;
+
+	@BeforeEach
+	void setUp() {
+		textProcessor = new TextProcessor();
+		document = new RopeDocument();
+	}
+
+	/**
+	 * Equivalence class 1: paragraphs existing before the index is created
+	 * type: positive test
+	 * input: document with four paragraphs
+	 * output: same index as a full rebuild
+	 */
+	@Test
+	void existingParagraphs() {
+		for (int i = 0; i < 4; i++) {
+			document.add("Red and Blue");
+		}
+		WordIndex wordIndex = new WordIndex(document, textProcessor);
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+	}
+
+	/**
+	 * Equivalence class 2: paragraphs inserted before indexed paragraphs are renumbered
+	 * type: positive test
+	 * input: insertions at the start of the document
+	 * output: same index as a full rebuild
+	 */
+	@Test
+	void insertAtStart() {
+		WordIndex wordIndex = new WordIndex(document, textProcessor);
+		for (int i = 0; i < 4; i++) {
+			document.add("Red and Blue");
+			document.add(0, "Green");
+		}
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+	}
+
+	/**
+	 * Equivalence class 3: deleted paragraphs are removed from the index
+	 * type: positive test
+	 * input: four paragraphs with the same word, one deleted
+	 * output: empty index
+	 */
+	@Test
+	void deleteBelowMinimum() {
+		WordIndex wordIndex = new WordIndex(document, textProcessor);
+		for (int i = 0; i < 4; i++) {
+			document.add("Red");
+		}
+		assertEquals(1, wordIndex.getWordIndex().size());
+		document.remove(2);
+		assertTrue(wordIndex.getWordIndex().isEmpty());
+	}
+
+	/**
+	 * Equivalence class 4: replaced paragraphs update their words
+	 * type: positive test
+	 * input: replacement of a word in one paragraph
+	 * output: same index as a full rebuild
+	 */
+	@Test
+	void replaceWords() {
+		WordIndex wordIndex = new WordIndex(document, textProcessor);
+		for (int i = 0; i < 5; i++) {
+			document.add("Red and Blue");
+		}
+		document.set(3, "Green and Blue");
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+	}
+
+	/**
+	 * Equivalence class 5: random edits give the same index as a full rebuild
+	 * type: positive test
+	 * input: 3000 random insertions, deletions and replacements
+	 * output: same index as a full rebuild
+	 */
+	@Test
+	void randomEdits() {
+		WordIndex wordIndex = new WordIndex(document, textProcessor);
+		Random random = new Random(7);
+		RandomParagraphs randomParagraphs = new RandomParagraphs(WORDS, " ", 7);
+		for (int i = 0; i < 3000; i++) {
+			int operation = random.nextInt(4);
+			if (operation < 2 || document.isEmpty()) {
+				document.add(random.nextInt(document.size() + 1), randomParagraphs.next(3));
+			} else if (operation == 2) {
+				document.remove(random.nextInt(document.size()));
+			} else {
+				document.set(random.nextInt(document.size()), randomParagraphs.next(3));
+			}
+			if (i % 100 == 0) {
+				assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+			}
+		}
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+	}
+
+	/**
+	 * Equivalence class 6: more paragraphs than the limit are inserted at once
+	 * type: positive test
+	 * input: 100001 paragraphs inserted at once, edited while the document is large, then deleted again
+	 * output: same index as a full rebuild
+	 */
+	@Test
+	void largeBulkInsert() {
+		WordIndex wordIndex = new WordIndex(document, textProcessor);
+		RandomParagraphs randomParagraphs = new RandomParagraphs(WORDS, " ", 3);
+		ArrayList<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < 100_001; i++) {
+			paragraphs.add(randomParagraphs.next(3));
+		}
+		document.insertParagraphs(0, paragraphs);
+		document.remove(5);
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+		document.set(7, "Red Red Green");
+		document.add(3, "Blue");
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+		document.subList(10, document.size()).clear();
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+		document.add(0, "Red Blue");
+		assertEquals(textProcessor.getWordIndex(document), wordIndex.getWordIndex());
+	}
+
+	/**
+	 * Equivalence class 7: words which no longer occur are removed from the word table
+	 * type: positive test
+	 * input: 5000 replacements of a paragraph with a word which was not used before
+	 * output: same index as a full rebuild
+	 */
+	@Test
+	void unusedWords() {
+		for (int i = 0; i < 8; i++) {
+			document.add("Red and Blue");
+		}
+		WordIndex wordIndex = new WordIndex(document, textProcessor);
+		for (int i = 0; i < 5000; i++) {
+			document.set(i % 8, "Red and Word" + (char) ('a' + i % 26) + (char) ('a' + i / 26 % 26)
+					+ (char) ('a' + i / 676));
+			if (i % 500 == 0) {
+				assertEquals(new TextProcessor().getWordIndex(document), wordIndex.getWordIndex());
+			}
+		}
+		document.set(0, "Blue Green");
+		document.add(2, "Green Green");
+		document.add(5, "Green or Blue");
+		document.add("Green");
+		assertEquals(new TextProcessor().getWordIndex(document), wordIndex.getWordIndex());
+	}
+}
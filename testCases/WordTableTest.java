@@ -0,0 +1,119 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import texteditor.PostingList;
+import texteditor.WordTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The WordTableTest class contains JUnit tests for the ids of the words of the word index.
+ * The equivalence classes that are being tested are the following:
+ * 1. words are looked up by the letters of a range of a text
+ * 2. the sorted ids follow the alphabetical order of the words, also after more words were added
+ * 3. several threads add the same words at the same time
+ */
+class WordTableTest {
+
+	/**
+	 * Equivalence class 1: words are looked up by the letters of a range of a text
+	 * type: positive test
+	 * input: "Hitchhiker's" in a text, "Hitchhikers", "Thought"
+	 * output: the same id for the word with and without apostrophe, another id for "Thought"
+	 */
+	@Test
+	void lookupByRange() {
+		WordTable wordTable = new WordTable();
+		String text = "the Hitchhiker's Guide";
+		int id = wordTable.intern(text, 4, 16);
+		assertEquals("Hitchhikers", wordTable.getWord(id));
+		assertEquals(id, wordTable.intern("Hitchhikers"));
+		assertNotEquals(id, wordTable.intern("Thought"));
+		assertEquals(id, wordTable.intern(text, 4, 16));
+		assertEquals(2, wordTable.size());
+		assertThrows(IndexOutOfBoundsException.class, () -> wordTable.getWord(2));
+	}
+
+	/**
+	 * Equivalence class 2: the sorted ids follow the alphabetical order of the words, also after more words were added
+	 * type: positive test
+	 * input: 3000 words added in two parts, word index of posting lists by id
+	 * output: ascending words, index with the words of at least four paragraphs
+	 */
+	@Test
+	void sortedIds() {
+		WordTable wordTable = new WordTable();
+		for (int i = 0; i < 2000; i++) {
+			wordTable.intern(word("Word", i * 7919 % 2000));
+		}
+		assertSorted(wordTable);
+		for (int i = 0; i < 1000; i++) {
+			wordTable.intern(word("Aword", i));
+		}
+		assertSorted(wordTable);
+
+		PostingList[] postingLists = new PostingList[wordTable.size()];
+		for (int id = 0; id < 3; id++) {
+			postingLists[id] = new PostingList();
+			for (int paragraphNumber = 0; paragraphNumber < id + 3; paragraphNumber++) {
+				postingLists[id].append(paragraphNumber);
+			}
+		}
+		TreeMap<String, PostingList> wordIndex = wordTable.createWordIndex(postingLists, 4);
+		assertEquals(Set.of(wordTable.getWord(1), wordTable.getWord(2)), wordIndex.keySet());
+		assertEquals(List.of(0, 1, 2, 3, 4), wordIndex.get(wordTable.getWord(2)));
+	}
+
+	/**
+	 * Equivalence class 3: several threads add the same words at the same time
+	 * type: positive test
+	 * input: 4 threads intern the same 20000 words
+	 * output: every word has one id in all threads
+	 */
+	@Test
+	void concurrentIntern() throws Exception {
+		WordTable wordTable = new WordTable();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<int[]>> results = new ArrayList<>();
+		for (int thread = 0; thread < 4; thread++) {
+			results.add(executor.submit(() -> {
+				int[] ids = new int[20_000];
+				for (int i = 0; i < ids.length; i++) {
+					ids[i] = wordTable.intern(word("Word", i));
+				}
+				return ids;
+			}));
+		}
+		int[] expected = results.get(0).get();
+		for (Future<int[]> result : results) {
+			assertArrayEquals(expected, result.get());
+		}
+		executor.shutdown();
+		assertEquals(20_000, wordTable.size());
+	}
+
+	private static String word(String prefix, int number) {
+		StringBuilder word = new StringBuilder(prefix);
+		do {
+			word.append((char) ('a' + number % 26));
+			number /= 26;
+		} while (number > 0);
+		return word.toString();
+	}
+
+	private static void assertSorted(WordTable wordTable) {
+		int[] sortedIds = wordTable.getSortedIds();
+		assertEquals(wordTable.size(), sortedIds.length);
+		for (int i = 1; i < sortedIds.length; i++) {
+			assertTrue(wordTable.getWord(sortedIds[i - 1]).compareTo(wordTable.getWord(sortedIds[i])) < 0);
+		}
+	}
+}
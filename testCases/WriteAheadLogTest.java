@@ -0,0 +1,210 @@
+package testCases;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import texteditor.RopeDocument;
+import texteditor.TextEditor;
+import texteditor.TextFormatter;
+import texteditor.WriteAheadLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The WriteAheadLogTest class contains JUnit tests for recovering sessions.
+ * The equivalence classes that are being tested are the following:
+ * 1. session which was closed
+ * 2. last record was only partly written
+ * 3. snapshots during the session
+ * 4. process which was killed while running a script
+ */
+class WriteAheadLogTest {
+	@TempDir
+	Path directory;
+
+	/**
+	 * Equivalence class 1: session which was closed
+	 * type: positive test
+	 * input: insertions, deletions, replacements and format changes
+	 * output: same paragraphs and format after recovery
+	 */
+	@Test
+	void recoverClosedSession() throws IOException {
+		Session session = new Session(1 << 20);
+		session.document.add("Red and Blue");
+		session.document.insertParagraphs(1, List.of("Green", "Yellow", "Äpfel"));
+		session.document.remove(2);
+		session.document.set(0, "Red or Blue");
+		session.document.removeParagraphs(1, 1);
+		session.textFormatter.setMaxLineLength(30);
+		session.writeAheadLog.logFormat();
+		session.writeAheadLog.commit();
+		session.writeAheadLog.close();
+
+		Session recovered = new Session(1 << 20);
+		assertEquals(List.of("Red or Blue", "Äpfel"), recovered.document);
+		assertEquals(30, recovered.textFormatter.getMaxLineLength());
+		recovered.writeAheadLog.close();
+	}
+
+	/**
+	 * Equivalence class 2: last record was only partly written
+	 * type: negative test
+	 * input: log without its last byte, then a new change
+	 * output: all changes except the last one, the new change is kept
+	 */
+	@Test
+	void partlyWrittenRecord() throws IOException {
+		Session session = new Session(1 << 20);
+		session.document.add("First");
+		session.document.add("Second");
+		session.writeAheadLog.close();
+		try (FileChannel channel = FileChannel.open(directory.resolve("wal.log"), StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 1);
+		}
+
+		Session recovered = new Session(1 << 20);
+		assertEquals(List.of("First"), recovered.document);
+		recovered.document.add("Third");
+		recovered.writeAheadLog.close();
+		assertEquals(List.of("First", "Third"), new Session(1 << 20).document);
+	}
+
+	/**
+	 * Equivalence class 3: snapshots during the session
+	 * type: positive test
+	 * input: 2000 random changes with a snapshot size of 4096 bytes
+	 * output: one snapshot, same paragraphs after recovery
+	 */
+	@Test
+	void snapshots() throws IOException {
+		Session session = new Session(4096);
+		Random random = new Random(2);
+		for (int i = 0; i < 2000; i++) {
+			if (random.nextInt(3) > 0 || session.document.isEmpty()) {
+				session.document.add(random.nextInt(session.document.size() + 1), "Paragraph " + i);
+			} else if (random.nextBoolean()) {
+				session.document.remove(random.nextInt(session.document.size()));
+			} else {
+				session.document.set(random.nextInt(session.document.size()), "Replaced " + i);
+			}
+			session.writeAheadLog.commit();
+		}
+		session.writeAheadLog.close();
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(1, files.filter(file -> file.toString().endsWith(".txed")).count());
+		}
+		assertEquals(session.document, new Session(4096).document);
+	}
+
+	/**
+	 * Equivalence class 4: process which was killed while running a script
+	 * type: positive test
+	 * input: script with 500000 random commands, the editor is killed after the
+	 * first snapshot was written
+	 * output: the text after one of the commands of the script
+	 */
+	@Test
+	void recoverKilledProcess() throws Exception {
+		Path script = directory.resolve("script.txt");
+		Path sessionDirectory = directory.resolve("session");
+		List<List<String>> commands = writeScript(script, 500_000);
+		String classPath = new File(TextEditor.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+				.getPath();
+		Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"-Dtexteditor.snapshotSize=65536", "-cp", classPath, "texteditor.TextEditor", "--script",
+				script.toString(), "--session", sessionDirectory.toString())
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectError(ProcessBuilder.Redirect.DISCARD)
+				.start();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		while (process.isAlive() && !hasSnapshot(sessionDirectory) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(50);
+		process.destroyForcibly();
+		process.waitFor();
+
+		RopeDocument document = new RopeDocument();
+		WriteAheadLog writeAheadLog = new WriteAheadLog(sessionDirectory, document, new TextFormatter(), 65536, 20);
+		writeAheadLog.recover();
+		writeAheadLog.close();
+		assertTrue(document.size() > 0);
+		RopeDocument expected = new RopeDocument();
+		for (List<String> command : commands) {
+			if (expected.equals(document)) {
+				return;
+			}
+			apply(expected, command);
+		}
+		assertEquals(expected, document);
+	}
+
+	private boolean hasSnapshot(Path sessionDirectory) throws IOException {
+		if (!Files.isDirectory(sessionDirectory)) {
+			return false;
+		}
+		try (Stream<Path> files = Files.list(sessionDirectory)) {
+			return files.anyMatch(file -> file.toString().endsWith(".txed"));
+		}
+	}
+
+	private List<List<String>> writeScript(Path script, int commandCount) throws IOException {
+		List<List<String>> commands = new ArrayList<>();
+		Random random = new Random(4);
+		int size = 0;
+		try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(script))) {
+			for (int i = 0; i < commandCount; i++) {
+				int operation = random.nextInt(4);
+				List<String> command;
+				if (operation < 2 || size == 0) {
+					command = List.of("ADD " + (random.nextInt(size + 1) + 1), "Red Blue " + i);
+					size++;
+				} else if (operation == 2 && size > 20) {
+					command = List.of("DEL " + (random.nextInt(size) + 1));
+					size--;
+				} else {
+					command = List.of("REPLACE " + (random.nextInt(size) + 1), "Red", "Green" + i);
+				}
+				for (String line : command) {
+					writer.println(line);
+				}
+				commands.add(command);
+			}
+		}
+		return commands;
+	}
+
+	private void apply(RopeDocument document, List<String> command) {
+		int paragraphNumber = Integer.parseInt(command.get(0).substring(command.get(0).indexOf(' ') + 1)) - 1;
+		if (command.get(0).startsWith("ADD")) {
+			document.add(paragraphNumber, command.get(1));
+		} else if (command.get(0).startsWith("DEL")) {
+			document.remove(paragraphNumber);
+		} else {
+			document.set(paragraphNumber, document.get(paragraphNumber).replace(command.get(1), command.get(2)));
+		}
+	}
+
+	private class Session {
+		private final RopeDocument document = new RopeDocument();
+		private final TextFormatter textFormatter = new TextFormatter();
+		private final WriteAheadLog writeAheadLog;
+
+		private Session(long snapshotSize) throws IOException {
+			writeAheadLog = new WriteAheadLog(directory, document, textFormatter, snapshotSize, 20);
+			writeAheadLog.recover();
+		}
+	}
+}
@@ -12,6 +12,20 @@ public enum Command {
 	FORMAT_FIX,
 	INDEX,
 	REPLACE,
+	REPLACE_ALL,
+	REPLACE_MAP,
+	FIND,
+	FIND_REGEX,
+	REPLACE_REGEX,
+	REPLACE_REGEX_ALL,
 	PRINT,
+	PRINT_RANGE,
+	PRINT_LINES,
+	LOAD,
+	SAVE,
+	UNDO,
+	REDO,
+	STATS,
+	OPEN,
 	ERROR
 }
@@ -0,0 +1,143 @@
+package texteditor;
+
+import java.util.Arrays;
+
+/**
+ * The CommandLexer class splits a command line into its arguments.
+ * Arguments are separated by spaces and tabs, whitespace at the start and the
+ * end of the line is ignored. The arguments are stored as offsets into the
+ * line, keywords are compared without case and numbers are parsed without
+ * creating a String for them.
+ */
+public class CommandLexer {
+	private CharSequence line;
+	private int[] argumentStarts = new int[4];
+	private int[] argumentEnds = new int[4];
+	private int argumentCount;
+
+	/**
+	 * Splits a new command line into arguments.
+	 *
+	 * @param line
+	 * @return this lexer
+	 */
+	public CommandLexer reset(CharSequence line) {
+		this.line = line;
+		argumentCount = 0;
+		int start = 0;
+		int end = line.length();
+		while (start < end && line.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && line.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		int position = start;
+		while (position < end) {
+			int argumentStart = position;
+			while (position < end && !isSeparator(line.charAt(position))) {
+				position++;
+			}
+			addArgument(argumentStart, position);
+			while (position < end && isSeparator(line.charAt(position))) {
+				position++;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @return number of arguments
+	 */
+	public int getArgumentCount() {
+		return argumentCount;
+	}
+
+	/**
+	 * Checks if there is an argument at a position.
+	 *
+	 * @param index
+	 * @return true if the argument exists
+	 */
+	public boolean hasArgument(int index) {
+		return index < argumentCount;
+	}
+
+	/**
+	 * Compares an argument with an uppercase keyword, ignoring the case of the argument.
+	 *
+	 * @param index   position of the argument
+	 * @param keyword in uppercase letters
+	 * @return true if the argument is the keyword
+	 */
+	public boolean isKeyword(int index, String keyword) {
+		if (!hasArgument(index) || argumentEnds[index] - argumentStarts[index] != keyword.length()) {
+			return false;
+		}
+		int start = argumentStarts[index];
+		for (int i = 0; i < keyword.length(); i++) {
+			if (Character.toUpperCase(line.charAt(start + i)) != keyword.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses an argument as number.
+	 *
+	 * @param index position of the argument
+	 * @return the number or null if the argument does not exist or is no number
+	 */
+	public Integer getNumber(int index) {
+		if (!hasArgument(index)) {
+			return null;
+		}
+		try {
+			return Integer.parseInt(line, argumentStarts[index], argumentEnds[index], 10);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns an argument as it was entered.
+	 *
+	 * @param index position of the argument
+	 * @return the argument or null if it does not exist
+	 */
+	public String getArgument(int index) {
+		if (!hasArgument(index)) {
+			return null;
+		}
+		return line.subSequence(argumentStarts[index], argumentEnds[index]).toString();
+	}
+
+	/**
+	 * Returns the text from an argument to the end of the line, including the
+	 * spaces between the following arguments.
+	 *
+	 * @param index position of the first argument
+	 * @return the text or null if the argument does not exist
+	 */
+	public String getRemainder(int index) {
+		if (!hasArgument(index)) {
+			return null;
+		}
+		return line.subSequence(argumentStarts[index], argumentEnds[argumentCount - 1]).toString();
+	}
+
+	private boolean isSeparator(char character) {
+		return character == ' ' || character == '\t';
+	}
+
+	private void addArgument(int start, int end) {
+		if (argumentCount == argumentStarts.length) {
+			argumentStarts = Arrays.copyOf(argumentStarts, argumentCount * 2);
+			argumentEnds = Arrays.copyOf(argumentEnds, argumentCount * 2);
+		}
+		argumentStarts[argumentCount] = start;
+		argumentEnds[argumentCount] = end;
+		argumentCount++;
+	}
+}
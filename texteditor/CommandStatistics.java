@@ -0,0 +1,116 @@
+package texteditor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The CommandStatistics class measures every processed command: the number of
+ * calls, a histogram of the durations, the processed bytes and the memory
+ * allocated by the thread. The time spent waiting for input is not counted,
+ * so an ADD in the console is not as slow as the user types.
+ * The values are kept in arrays indexed by the command, measuring a command
+ * reads the clock and the allocation counter of the thread twice. The
+ * allocated memory is -1 if the JVM does not count it.
+ */
+public class CommandStatistics {
+	private final Command[] commands = Command.values();
+	private final LatencyHistogram[] histograms = new LatencyHistogram[commands.length];
+	private final long[] bytes = new long[commands.length];
+	private final long[] allocatedBytes = new long[commands.length];
+	private final com.sun.management.ThreadMXBean allocationCounter;
+	private long startNanos;
+	private long startWaitNanos;
+	private long startBytes;
+	private long startAllocatedBytes;
+
+	/**
+	 * Default constructor which counts the allocated memory if the JVM supports
+	 * it.
+	 */
+	public CommandStatistics() {
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = new LatencyHistogram();
+		}
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+				&& ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled()) {
+			allocationCounter = (com.sun.management.ThreadMXBean) threadBean;
+		} else {
+			allocationCounter = null;
+		}
+	}
+
+	/**
+	 * Starts measuring a command on the current thread.
+	 *
+	 * @param waitNanos total time spent waiting for input so far
+	 * @param byteCount total number of bytes read and written so far
+	 */
+	public void start(long waitNanos, long byteCount) {
+		startWaitNanos = waitNanos;
+		startBytes = byteCount;
+		startAllocatedBytes = getAllocatedBytes();
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Stops measuring a command which was started on the current thread.
+	 *
+	 * @param command
+	 * @param waitNanos total time spent waiting for input so far
+	 * @param byteCount total number of bytes read and written so far
+	 */
+	public void stop(Command command, long waitNanos, long byteCount) {
+		long nanos = System.nanoTime() - startNanos - (waitNanos - startWaitNanos);
+		long allocated = allocationCounter != null ? getAllocatedBytes() - startAllocatedBytes : -1;
+		record(command, nanos, byteCount - startBytes, allocated);
+	}
+
+	/**
+	 * Adds a measured command.
+	 *
+	 * @param command
+	 * @param nanos          duration
+	 * @param byteCount      bytes read and written
+	 * @param allocatedBytes memory allocated, -1 if unknown
+	 */
+	public void record(Command command, long nanos, long byteCount, long allocatedBytes) {
+		int index = command.ordinal();
+		histograms[index].record(nanos);
+		bytes[index] += byteCount;
+		if (allocatedBytes < 0 || this.allocatedBytes[index] < 0) {
+			this.allocatedBytes[index] = -1;
+		} else {
+			this.allocatedBytes[index] += allocatedBytes;
+		}
+	}
+
+	/**
+	 * @param command
+	 * @return histogram of the durations in nanoseconds
+	 */
+	public LatencyHistogram getHistogram(Command command) {
+		return histograms[command.ordinal()];
+	}
+
+	/**
+	 * @param command
+	 * @return number of bytes read and written by all calls
+	 */
+	public long getBytes(Command command) {
+		return bytes[command.ordinal()];
+	}
+
+	/**
+	 * @param command
+	 * @return memory allocated by all calls, -1 if it is not counted
+	 */
+	public long getAllocatedBytes(Command command) {
+		return allocatedBytes[command.ordinal()];
+	}
+
+	private long getAllocatedBytes() {
+		return allocationCounter != null ? allocationCounter.getCurrentThreadAllocatedBytes() : 0;
+	}
+}
@@ -0,0 +1,102 @@
+package texteditor;
+
+/**
+ * The CountMinSketch class estimates how often items were added without
+ * storing the items. Every item is counted in one cell of each row, chosen by
+ * a hash of the item, and its estimate is the smallest of its cells. Other
+ * items which share a cell can only make an estimate too high, never too low.
+ * With a width w and a depth d the estimate is at most e / w times the number
+ * of added items too high, with a probability of at least 1 - e^-d.
+ * Only the cells with the smallest count of an item are incremented, which
+ * keeps this bound and makes the estimates of rare items more exact.
+ */
+public class CountMinSketch {
+	private static final int DEFAULT_WIDTH = 1 << 16;
+	private static final int DEFAULT_DEPTH = 5;
+	private final int width;
+	private final int depth;
+	private final long[] cells;
+	private long total;
+
+	/**
+	 * Default constructor with 5 rows of 65536 cells.
+	 */
+	public CountMinSketch() {
+		this(DEFAULT_WIDTH, DEFAULT_DEPTH);
+	}
+
+	/**
+	 * Constructor with the number of cells per row, which is rounded up to a
+	 * power of two, and the number of rows.
+	 *
+	 * @param width
+	 * @param depth
+	 */
+	public CountMinSketch(int width, int depth) {
+		if (width <= 0 || width > 1 << 30 || depth <= 0) {
+			throw new IllegalArgumentException("width and depth must be positive");
+		}
+		int rounded = Integer.highestOneBit(width);
+		this.width = rounded < width ? rounded << 1 : rounded;
+		this.depth = depth;
+		cells = new long[Math.multiplyExact(this.width, depth)];
+	}
+
+	/**
+	 * Counts an item once.
+	 *
+	 * @param hash 64 bit hash of the item
+	 * @return the new estimate of the item
+	 */
+	public long add(long hash) {
+		long estimate = estimate(hash) + 1;
+		for (int row = 0; row < depth; row++) {
+			int cell = cell(hash, row);
+			if (cells[cell] < estimate) {
+				cells[cell] = estimate;
+			}
+		}
+		total++;
+		return estimate;
+	}
+
+	/**
+	 * @param hash 64 bit hash of the item
+	 * @return how often the item was added at most
+	 */
+	public long estimate(long hash) {
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, cells[cell(hash, row)]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * @return number of added items
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return how much an estimate is too high at most, with the probability
+	 *         of getConfidence
+	 */
+	public long getErrorBound() {
+		return (long) Math.ceil(Math.E / width * total);
+	}
+
+	/**
+	 * @return probability that an estimate is within the error bound
+	 */
+	public double getConfidence() {
+		return 1 - Math.exp(-depth);
+	}
+
+	private int cell(long hash, int row) {
+		int first = (int) hash;
+		int second = (int) (hash >>> 32) | 1;
+		return row * width + ((first + row * second) & (width - 1));
+	}
+}
@@ -0,0 +1,322 @@
+package texteditor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The DictionaryReplacer class replaces many search strings at once in all
+ * paragraphs of a document. The search strings are compiled into an
+ * Aho-Corasick automaton, so every paragraph is read only once, no matter how
+ * many search strings there are.
+ * Like String.replace, the matches are replaced from left to right without
+ * overlapping. When several search strings match at the same position, the
+ * longest one is replaced.
+ * The paragraphs are processed in parallel ranges in a ForkJoinPool. A new
+ * paragraph is only created when something matched.
+ */
+public class DictionaryReplacer {
+	private static final int DEFAULT_RANGE_SIZE = 4096;
+	private static final long EMPTY = -1;
+	private final List<String> replacees;
+	private final List<String> replacements;
+	private final ForkJoinPool pool;
+	private final int rangeSize;
+	private long[] transitionKeys;
+	private int[] transitionTargets;
+	private int[] failures;
+	private int[] depths;
+	private int[] matches;
+	private int stateCount;
+
+	/**
+	 * Constructor with the search strings and their replacements, which uses
+	 * the common pool.
+	 *
+	 * @param replacees    search strings, not empty
+	 * @param replacements replacement for the search string at the same position
+	 */
+	public DictionaryReplacer(List<String> replacees, List<String> replacements) {
+		this(replacees, replacements, ForkJoinPool.commonPool(), DEFAULT_RANGE_SIZE);
+	}
+
+	/**
+	 * Constructor with the search strings, their replacements, the pool and the
+	 * number of paragraphs which are processed by one task. When a search
+	 * string occurs more than once, the first replacement is used.
+	 *
+	 * @param replacees    search strings, not empty
+	 * @param replacements replacement for the search string at the same position
+	 * @param pool
+	 * @param rangeSize
+	 */
+	public DictionaryReplacer(List<String> replacees, List<String> replacements, ForkJoinPool pool,
+			int rangeSize) {
+		if (replacees.size() != replacements.size()) {
+			throw new IllegalArgumentException("every replacee needs a replacement");
+		}
+		if (rangeSize <= 0) {
+			throw new IllegalArgumentException("rangeSize must be positive");
+		}
+		this.replacees = List.copyOf(replacees);
+		this.replacements = List.copyOf(replacements);
+		this.pool = pool;
+		this.rangeSize = rangeSize;
+		buildAutomaton();
+	}
+
+	/**
+	 * Reads a replacement dictionary from a UTF-8 file. Every line contains a
+	 * search string and its replacement separated by a tab, blank lines are
+	 * skipped. Illegal characters are removed like in an entered text.
+	 *
+	 * @param file
+	 * @return replacer for the dictionary
+	 * @throws IOException if the file can not be read or a line has no search string
+	 */
+	public static DictionaryReplacer load(Path file) throws IOException {
+		List<String> replacees = new ArrayList<>();
+		List<String> replacements = new ArrayList<>();
+		int lineNumber = 0;
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+			int tab = line.indexOf('\t');
+			String replacee = tab > 0 ? Tokenizer.filterIllegalChars(line.substring(0, tab)) : "";
+			if (replacee.isEmpty()) {
+				throw new IOException("Line " + lineNumber + " has no search string");
+			}
+			replacees.add(replacee);
+			replacements.add(Tokenizer.filterIllegalChars(line.substring(tab + 1)));
+		}
+		return new DictionaryReplacer(replacees, replacements);
+	}
+
+	/**
+	 * @return search strings in the order they were given
+	 */
+	public List<String> getReplacees() {
+		return replacees;
+	}
+
+	/**
+	 * Replaces all search strings in one paragraph.
+	 *
+	 * @param paragraph
+	 * @param counts    number of replacements per search string, which is increased
+	 * @return the new paragraph or null if nothing matched
+	 */
+	public String replace(CharSequence paragraph, long[] counts) {
+		StringBuilder result = null;
+		int length = paragraph.length();
+		int copied = 0;
+		int position = 0;
+		int state = 0;
+		int candidate = -1;
+		int candidateStart = 0;
+		while (position < length || candidate >= 0) {
+			if (position < length) {
+				state = nextState(state, paragraph.charAt(position));
+				int match = matches[state];
+				position++;
+				if (match >= 0 && (candidate < 0 || position - replacees.get(match).length() <= candidateStart)) {
+					candidate = match;
+					candidateStart = position - replacees.get(match).length();
+				}
+				if (candidate < 0 || candidateStart >= position - depths[state]) {
+					continue;
+				}
+			}
+			// no longer or further left match is possible, the candidate is replaced
+			if (result == null) {
+				result = new StringBuilder(length + 16);
+			}
+			result.append(paragraph, copied, candidateStart).append(replacements.get(candidate));
+			counts[candidate]++;
+			copied = candidateStart + replacees.get(candidate).length();
+			position = copied;
+			state = 0;
+			candidate = -1;
+		}
+		if (result == null) {
+			return null;
+		}
+		return result.append(paragraph, copied, length).toString();
+	}
+
+	/**
+	 * Replaces all search strings in all paragraphs. The paragraphs are not
+	 * changed, the new texts are returned together with their positions and
+	 * the number of replacements per search string.
+	 *
+	 * @param paragraphs
+	 * @return the changed paragraphs and the number of replacements
+	 */
+	public ReplaceResult replaceAll(List<? extends CharSequence> paragraphs) {
+		return pool.invoke(new ReplaceTask(paragraphs, 0, paragraphs.size()));
+	}
+
+	private int nextState(int state, char character) {
+		while (true) {
+			int target = getTransition(state, character);
+			if (target >= 0) {
+				return target;
+			}
+			if (state == 0) {
+				return 0;
+			}
+			state = failures[state];
+		}
+	}
+
+	private void buildAutomaton() {
+		int maxStates = 1;
+		for (String replacee : replacees) {
+			if (replacee.isEmpty()) {
+				throw new IllegalArgumentException("replacee must not be empty");
+			}
+			maxStates += replacee.length();
+		}
+		int capacity = Integer.highestOneBit(Math.max(maxStates, 8) * 2 - 1) << 1;
+		transitionKeys = new long[capacity];
+		Arrays.fill(transitionKeys, EMPTY);
+		transitionTargets = new int[capacity];
+		int[] parents = new int[maxStates];
+		char[] characters = new char[maxStates];
+		depths = new int[maxStates];
+		matches = new int[maxStates];
+		Arrays.fill(matches, -1);
+		stateCount = 1;
+		for (int i = 0; i < replacees.size(); i++) {
+			String replacee = replacees.get(i);
+			int state = 0;
+			for (int j = 0; j < replacee.length(); j++) {
+				int target = getTransition(state, replacee.charAt(j));
+				if (target < 0) {
+					target = stateCount++;
+					parents[target] = state;
+					characters[target] = replacee.charAt(j);
+					depths[target] = j + 1;
+					putTransition(state, replacee.charAt(j), target);
+				}
+				state = target;
+			}
+			if (matches[state] < 0) {
+				matches[state] = i;
+			}
+		}
+		buildFailures(parents, characters);
+	}
+
+	/**
+	 * Links every state to the state of its longest proper suffix, visiting the
+	 * states by increasing depth. A state without a match of its own inherits the
+	 * match of this suffix, which is the longest search string ending there.
+	 */
+	private void buildFailures(int[] parents, char[] characters) {
+		failures = new int[stateCount];
+		int[] childCounts = new int[stateCount + 1];
+		for (int state = 1; state < stateCount; state++) {
+			childCounts[parents[state] + 1]++;
+		}
+		for (int state = 0; state < stateCount; state++) {
+			childCounts[state + 1] += childCounts[state];
+		}
+		int[] children = new int[stateCount];
+		int[] positions = Arrays.copyOf(childCounts, stateCount);
+		for (int state = 1; state < stateCount; state++) {
+			children[positions[parents[state]]++] = state;
+		}
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		queue.add(0);
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			for (int i = childCounts[state]; i < childCounts[state + 1]; i++) {
+				int child = children[i];
+				if (state != 0) {
+					failures[child] = nextState(failures[state], characters[child]);
+					if (matches[child] < 0) {
+						matches[child] = matches[failures[child]];
+					}
+				}
+				queue.add(child);
+			}
+		}
+	}
+
+	private int getTransition(int state, char character) {
+		long key = ((long) state << 16) | character;
+		int mask = transitionKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (transitionKeys[slot] != EMPTY) {
+			if (transitionKeys[slot] == key) {
+				return transitionTargets[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void putTransition(int state, char character, int target) {
+		long key = ((long) state << 16) | character;
+		int mask = transitionKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (transitionKeys[slot] != EMPTY) {
+			slot = (slot + 1) & mask;
+		}
+		transitionKeys[slot] = key;
+		transitionTargets[slot] = target;
+	}
+
+	private static int hash(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+	}
+
+	private class ReplaceTask extends RecursiveTask<ReplaceResult> {
+		private static final long serialVersionUID = 1L;
+		private final List<? extends CharSequence> paragraphs;
+		private final int from;
+		private final int to;
+
+		private ReplaceTask(List<? extends CharSequence> paragraphs, int from, int to) {
+			this.paragraphs = paragraphs;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected ReplaceResult compute() {
+			if (to - from <= rangeSize) {
+				return replaceRange();
+			}
+			int middle = (from + to) >>> 1;
+			ReplaceTask right = new ReplaceTask(paragraphs, middle, to);
+			right.fork();
+			ReplaceResult leftResult = new ReplaceTask(paragraphs, from, middle).compute();
+			return leftResult.append(right.join());
+		}
+
+		private ReplaceResult replaceRange() {
+			Document document = paragraphs instanceof Document ? (Document) paragraphs : null;
+			ReplaceResult result = new ReplaceResult(new long[replacees.size()]);
+			for (int paragraphNumber = from; paragraphNumber < to; paragraphNumber++) {
+				CharSequence paragraph = document != null ? document.getText(paragraphNumber)
+						: paragraphs.get(paragraphNumber);
+				String replaced = replace(paragraph, result.getCountArray());
+				if (replaced != null) {
+					result.add(paragraphNumber, replaced);
+				}
+			}
+			return result;
+		}
+	}
+}
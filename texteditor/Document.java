@@ -0,0 +1,125 @@
+package texteditor;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * The Document interface describes the paragraphs of a text.
+ * It is used like a list of paragraphs, but implementations are expected to
+ * insert, delete and look up a paragraph at a given position in O(log n),
+ * so that editing at the start of a large text is as cheap as at the end.
+ */
+public interface Document extends List<String> {
+
+	/**
+	 * Returns the text of a paragraph as it is stored. Unlike get, this does not
+	 * create a String for paragraphs which are not stored as String.
+	 *
+	 * @param index
+	 * @return text of the paragraph
+	 */
+	CharSequence getText(int index);
+
+	/**
+	 * Returns the texts of all paragraphs in order as they are stored, so
+	 * reading the whole document does not create a String per paragraph.
+	 *
+	 * @return texts of the paragraphs
+	 */
+	default Iterable<CharSequence> texts() {
+		return () -> new Iterator<CharSequence>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+
+			@Override
+			public CharSequence next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return getText(index++);
+			}
+		};
+	}
+
+	/**
+	 * Returns the sum of a measure of the paragraphs before a position. By
+	 * default every paragraph is measured, implementations may keep the sums.
+	 *
+	 * @param index   position after the last measured paragraph
+	 * @param measure
+	 * @return sum of the measure of the paragraphs 0 to index - 1
+	 */
+	default long measureBefore(int index, ParagraphMeasure measure) {
+		Objects.checkIndex(index, size() + 1);
+		long sum = 0;
+		for (int i = 0; i < index; i++) {
+			sum += measure.measure(getText(i));
+		}
+		return sum;
+	}
+
+	/**
+	 * Finds the paragraph which contains a unit of a measure, for example the
+	 * paragraph of a formatted line. By default every paragraph up to the
+	 * found one is measured, implementations may keep the sums.
+	 *
+	 * @param offset  position of the unit, starting at 0
+	 * @param measure
+	 * @return position of the paragraph, or size() if the offset is not below
+	 *         the sum of all paragraphs
+	 */
+	default int findMeasure(long offset, ParagraphMeasure measure) {
+		if (offset < 0) {
+			throw new IllegalArgumentException("offset " + offset + " is negative");
+		}
+		long sum = 0;
+		for (int i = 0; i < size(); i++) {
+			sum += measure.measure(getText(i));
+			if (offset < sum) {
+				return i;
+			}
+		}
+		return size();
+	}
+
+	/**
+	 * Returns the current paragraphs as a document which is never changed, so
+	 * it can be read on another thread while this document is edited.
+	 * Changing the snapshot is not supported.
+	 *
+	 * @return snapshot of the paragraphs
+	 */
+	Document snapshot();
+
+	/**
+	 * Inserts several paragraphs at once. The texts are stored as they are and
+	 * only turned into a String when they are read.
+	 *
+	 * @param index      position of the first new paragraph
+	 * @param paragraphs
+	 */
+	void insertParagraphs(int index, List<? extends CharSequence> paragraphs);
+
+	/**
+	 * Removes several following paragraphs at once.
+	 *
+	 * @param index position of the first paragraph
+	 * @param count number of paragraphs
+	 * @return texts of the removed paragraphs as they were stored
+	 */
+	List<CharSequence> removeParagraphs(int index, int count);
+
+	/**
+	 * Registers a listener which is notified after every inserted, removed or
+	 * replaced paragraph.
+	 *
+	 * @param listener
+	 */
+	void addDocumentListener(DocumentListener listener);
+}
@@ -0,0 +1,62 @@
+package texteditor;
+
+import java.util.List;
+
+/**
+ * The DocumentListener interface is notified after every change of a document.
+ * It allows structures which are derived from the paragraphs, like the word
+ * index, to be updated with the change instead of being rebuilt.
+ */
+public interface DocumentListener {
+
+	/**
+	 * Called after a paragraph was inserted.
+	 *
+	 * @param paragraphNumber position of the new paragraph
+	 * @param paragraph
+	 */
+	void paragraphInserted(int paragraphNumber, String paragraph);
+
+	/**
+	 * Called after several paragraphs were inserted at once. By default every
+	 * paragraph is handled like a single inserted paragraph.
+	 *
+	 * @param paragraphNumber position of the first new paragraph
+	 * @param paragraphs
+	 */
+	default void paragraphsInserted(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		for (int i = 0; i < paragraphs.size(); i++) {
+			paragraphInserted(paragraphNumber + i, paragraphs.get(i).toString());
+		}
+	}
+
+	/**
+	 * Called after a paragraph was removed.
+	 *
+	 * @param paragraphNumber position the paragraph had before it was removed
+	 * @param paragraph
+	 */
+	void paragraphRemoved(int paragraphNumber, String paragraph);
+
+	/**
+	 * Called after several following paragraphs were removed at once. By default
+	 * every paragraph is handled like a single removed paragraph.
+	 *
+	 * @param paragraphNumber position the first paragraph had before it was removed
+	 * @param paragraphs
+	 */
+	default void paragraphsRemoved(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		for (CharSequence paragraph : paragraphs) {
+			paragraphRemoved(paragraphNumber, paragraph.toString());
+		}
+	}
+
+	/**
+	 * Called after the text of a paragraph was replaced.
+	 *
+	 * @param paragraphNumber
+	 * @param oldParagraph
+	 * @param newParagraph
+	 */
+	void paragraphReplaced(int paragraphNumber, String oldParagraph, String newParagraph);
+}
@@ -0,0 +1,82 @@
+package texteditor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The DocumentRegistry class holds the documents of a server by name. A
+ * document is created when it is opened for the first time and shared by all
+ * sessions which open the same name.
+ * The documents are locked with a fixed number of lock stripes, a document
+ * uses the stripe of the hash of its name. So the number of locks does not
+ * grow with the documents, and commands on different documents seldom wait
+ * for each other.
+ */
+public class DocumentRegistry {
+	private static final int DEFAULT_STRIPE_COUNT = 64;
+	private final ConcurrentHashMap<String, EditorDocument> documents = new ConcurrentHashMap<>();
+	private final ReentrantLock[] locks;
+
+	/**
+	 * Default constructor with 64 lock stripes.
+	 */
+	public DocumentRegistry() {
+		this(DEFAULT_STRIPE_COUNT);
+	}
+
+	/**
+	 * Constructor with the number of lock stripes.
+	 *
+	 * @param stripeCount is rounded up to a power of two
+	 */
+	public DocumentRegistry(int stripeCount) {
+		if (stripeCount <= 0) {
+			throw new IllegalArgumentException("stripeCount must be positive");
+		}
+		int size = 1;
+		while (size < stripeCount) {
+			size <<= 1;
+		}
+		locks = new ReentrantLock[size];
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Returns the document with a name and creates it if it does not exist yet.
+	 *
+	 * @param name
+	 * @return the document
+	 */
+	public EditorDocument open(String name) {
+		return documents.computeIfAbsent(name, key -> new EditorDocument(locks[stripeOf(key)]));
+	}
+
+	/**
+	 * Removes a document from the registry and closes it. Sessions which still
+	 * use the document can finish their commands on it.
+	 *
+	 * @param name
+	 * @return true if a document with this name was open
+	 */
+	public boolean close(String name) {
+		EditorDocument document = documents.remove(name);
+		if (document != null) {
+			document.close();
+		}
+		return document != null;
+	}
+
+	/**
+	 * @return number of documents
+	 */
+	public int size() {
+		return documents.size();
+	}
+
+	private int stripeOf(String name) {
+		int hash = name.hashCode();
+		return (hash ^ (hash >>> 16)) & (locks.length - 1);
+	}
+}
@@ -0,0 +1,476 @@
+package texteditor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The DocumentStore class saves a document to a file. It listens to the
+ * changes of the document and remembers where every saved paragraph is stored
+ * in the file, so a later save to the same file only appends the paragraphs
+ * which changed since then.
+ * The file contains the paragraph texts as UTF-8 without separators, followed
+ * by tables with the offset and length of the paragraphs. There is one table
+ * for every page of about 1024 paragraphs and a root with the offsets of all
+ * page tables. The file starts with a magic number and the offset of the
+ * root. A save appends the changed paragraphs, the tables of the changed
+ * pages and a new root, forces them to the disk and only then writes the
+ * offset of the new root into the header. So a save which is interrupted
+ * leaves the file with the state of the previous save, and old data stays
+ * valid until it is overwritten.
+ * The page of a paragraph is found in a Fenwick tree of the paragraph counts
+ * of the pages, which is built again when pages are added or removed.
+ * When more than half of the file is no longer used, the file is written again
+ * into a temporary file, which then replaces the old one.
+ */
+public class DocumentStore implements DocumentListener {
+	private static final byte[] MAGIC = { 'T', 'X', 'E', 'D', 0, 0, 0, 2 };
+	private static final int PAGE_SIZE = 1024;
+	private static final int HEADER_SIZE = MAGIC.length + 8;
+	private final Document document;
+	private final ArrayList<Page> pages = new ArrayList<>();
+	private int[] pageTree;
+	private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+	private FileChannel channel;
+	private long position;
+	private int pageStart;
+	private Path savedPath;
+	private long savedSize;
+	private long unusedSize;
+	private long rootSize;
+
+	/**
+	 * Constructor which registers the store as listener of the document. All
+	 * current paragraphs are written by the first save.
+	 *
+	 * @param document
+	 */
+	public DocumentStore(Document document) {
+		this.document = document;
+		insertPages(0, document.size());
+		document.addDocumentListener(this);
+	}
+
+	/**
+	 * Saves the document. If it was saved to the same file before and the file
+	 * was not changed since then, only the changed paragraphs are appended.
+	 *
+	 * @param path
+	 * @throws IOException if the file can not be written
+	 */
+	public void save(Path path) throws IOException {
+		Path target = path.toAbsolutePath().normalize();
+		boolean incremental = target.equals(savedPath) && Files.isRegularFile(target)
+				&& Files.size(target) == savedSize && unusedSize * 2 <= savedSize;
+		savedPath = null;
+		if (incremental) {
+			try (FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+				write(fileChannel, savedSize);
+			}
+		} else {
+			rewrite(target);
+		}
+		savedPath = target;
+	}
+
+	/**
+	 * Checks if a file was written by a DocumentStore.
+	 *
+	 * @param channel
+	 * @return true if the file starts with the magic number
+	 * @throws IOException
+	 */
+	static boolean isStoreFile(FileChannel channel) throws IOException {
+		if (channel.size() < HEADER_SIZE) {
+			return false;
+		}
+		ByteBuffer header = read(channel, 0, MAGIC.length);
+		return Arrays.equals(header.array(), MAGIC);
+	}
+
+	/**
+	 * Reads the paragraphs of a file which was written by a DocumentStore. The
+	 * file is mapped in windows, which overlap by half of their size. Paragraphs
+	 * with only ASCII characters are returned as MappedParagraph.
+	 *
+	 * @param channel
+	 * @param windowSize in bytes
+	 * @return paragraphs in document order
+	 * @throws IOException if the file is damaged
+	 */
+	static List<CharSequence> readParagraphs(FileChannel channel, int windowSize) throws IOException {
+		long fileSize = channel.size();
+		long rootOffset = read(channel, MAGIC.length, 8).getLong();
+		if (rootOffset < HEADER_SIZE) {
+			throw new IOException("Save file is incomplete");
+		}
+		ByteBuffer root = read(channel, rootOffset, 4);
+		int pageCount = root.getInt();
+		root = read(channel, rootOffset + 4, pageCount * 12L);
+		long halfWindow = Math.max(windowSize / 2, 1);
+		HashMap<Long, MappedByteBuffer> windows = new HashMap<>();
+		ArrayList<CharSequence> paragraphs = new ArrayList<>();
+		for (int page = 0; page < pageCount; page++) {
+			long tableOffset = root.getLong();
+			int count = root.getInt();
+			ByteBuffer table = read(channel, tableOffset + 4, count * 12L);
+			for (int i = 0; i < count; i++) {
+				long offset = table.getLong();
+				int length = table.getInt();
+				if (length > halfWindow) {
+					paragraphs.add(new String(read(channel, offset, length).array(), StandardCharsets.UTF_8));
+					continue;
+				}
+				long windowStart = offset / halfWindow * halfWindow;
+				MappedByteBuffer window = windows.get(windowStart);
+				if (window == null) {
+					window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+							Math.min(2 * halfWindow, fileSize - windowStart));
+					windows.put(windowStart, window);
+				}
+				paragraphs.add(toParagraph(window, (int) (offset - windowStart), length));
+			}
+		}
+		return paragraphs;
+	}
+
+	@Override
+	public void paragraphInserted(int paragraphNumber, String paragraph) {
+		insertPages(paragraphNumber, 1);
+	}
+
+	@Override
+	public void paragraphsInserted(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		insertPages(paragraphNumber, paragraphs.size());
+	}
+
+	@Override
+	public void paragraphRemoved(int paragraphNumber, String paragraph) {
+		int index = findPage(paragraphNumber);
+		Page page = pages.get(index);
+		changePage(page);
+		unusedSize += page.lengths[paragraphNumber - pageStart];
+		page.remove(paragraphNumber - pageStart, 1);
+		changePageCount(index, -1);
+		if (page.count == 0) {
+			removePage(index);
+		}
+	}
+
+	@Override
+	public void paragraphsRemoved(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		int remaining = paragraphs.size();
+		int index = findPage(paragraphNumber);
+		int entry = paragraphNumber - pageStart;
+		while (remaining > 0) {
+			Page page = pages.get(index);
+			int count = Math.min(page.count - entry, remaining);
+			changePage(page);
+			for (int i = entry; i < entry + count; i++) {
+				unusedSize += page.lengths[i];
+			}
+			page.remove(entry, count);
+			changePageCount(index, -count);
+			remaining -= count;
+			if (page.count == 0) {
+				removePage(index);
+			} else {
+				index++;
+			}
+			entry = 0;
+		}
+	}
+
+	@Override
+	public void paragraphReplaced(int paragraphNumber, String oldParagraph, String newParagraph) {
+		Page page = pages.get(findPage(paragraphNumber));
+		changePage(page);
+		int entry = paragraphNumber - pageStart;
+		unusedSize += page.lengths[entry];
+		page.offsets[entry] = -1;
+		page.lengths[entry] = 0;
+	}
+
+	private void insertPages(int paragraphNumber, int count) {
+		if (count == 0) {
+			return;
+		}
+		int index = pages.size();
+		if (!pages.isEmpty()) {
+			index = findPage(Math.min(paragraphNumber, document.size() - count - 1));
+		}
+		if (count < PAGE_SIZE && index < pages.size()) {
+			Page page = pages.get(index);
+			changePage(page);
+			for (int i = 0; i < count; i++) {
+				page.insert(paragraphNumber - pageStart + i);
+			}
+			changePageCount(index, count);
+			if (page.count > 2 * PAGE_SIZE) {
+				addPage(index + 1, page.split(PAGE_SIZE));
+			}
+			return;
+		}
+		if (index < pages.size()) {
+			Page page = pages.get(index);
+			if (paragraphNumber >= pageStart + page.count) {
+				index++;
+			} else if (paragraphNumber > pageStart) {
+				changePage(page);
+				addPage(index + 1, page.split(paragraphNumber - pageStart));
+				index++;
+			}
+		}
+		for (int i = 0; i < count; i += PAGE_SIZE) {
+			Page page = new Page();
+			for (int j = 0; j < Math.min(PAGE_SIZE, count - i); j++) {
+				page.insert(j);
+			}
+			addPage(index++, page);
+		}
+	}
+
+	/**
+	 * Finds the page of a paragraph, or the last page if the paragraph is
+	 * after the last page, and sets pageStart to the number of its first
+	 * paragraph.
+	 */
+	private int findPage(int paragraphNumber) {
+		if (pageTree == null) {
+			pageTree = new int[pages.size() + 1];
+			for (int node = 1; node < pageTree.length; node++) {
+				pageTree[node] += pages.get(node - 1).count;
+				int parent = node + (node & -node);
+				if (parent < pageTree.length) {
+					pageTree[parent] += pageTree[node];
+				}
+			}
+		}
+		int index = 0;
+		pageStart = 0;
+		for (int step = Integer.highestOneBit(pages.size()); step > 0; step >>= 1) {
+			if (index + step <= pages.size() && pageStart + pageTree[index + step] <= paragraphNumber) {
+				index += step;
+				pageStart += pageTree[index];
+			}
+		}
+		if (index == pages.size()) {
+			index--;
+			pageStart -= pages.get(index).count;
+		}
+		return index;
+	}
+
+	private void changePageCount(int index, int change) {
+		if (pageTree != null) {
+			for (int node = index + 1; node < pageTree.length; node += node & -node) {
+				pageTree[node] += change;
+			}
+		}
+	}
+
+	private void addPage(int index, Page page) {
+		pages.add(index, page);
+		pageTree = null;
+	}
+
+	private void removePage(int index) {
+		pages.remove(index);
+		pageTree = null;
+	}
+
+	private void changePage(Page page) {
+		if (page.tableOffset >= 0) {
+			unusedSize += 4 + 12L * page.count;
+			page.tableOffset = -1;
+		}
+	}
+
+	private void rewrite(Path target) throws IOException {
+		for (Page page : pages) {
+			page.tableOffset = -1;
+			Arrays.fill(page.offsets, -1);
+		}
+		unusedSize = 0;
+		rootSize = 0;
+		Path parent = target.getParent();
+		Path temporary = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel fileChannel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				fileChannel.write(ByteBuffer.allocate(HEADER_SIZE).put(MAGIC).putLong(0).flip());
+				write(fileChannel, HEADER_SIZE);
+			}
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private void write(FileChannel fileChannel, long start) throws IOException {
+		channel = fileChannel;
+		channel.position(start);
+		position = start;
+		buffer.clear();
+		try {
+			int paragraphNumber = 0;
+			for (Page page : pages) {
+				if (page.tableOffset < 0) {
+					for (int i = 0; i < page.count; i++) {
+						if (page.offsets[i] < 0) {
+							page.offsets[i] = position;
+							page.lengths[i] = putText(document.getText(paragraphNumber + i));
+						}
+					}
+				}
+				paragraphNumber += page.count;
+			}
+			for (Page page : pages) {
+				if (page.tableOffset < 0) {
+					page.tableOffset = position;
+					putInt(page.count);
+					for (int i = 0; i < page.count; i++) {
+						putLong(page.offsets[i]);
+						putInt(page.lengths[i]);
+					}
+				}
+			}
+			unusedSize += rootSize;
+			long rootOffset = position;
+			putInt(pages.size());
+			for (Page page : pages) {
+				putLong(page.tableOffset);
+				putInt(page.count);
+			}
+			rootSize = position - rootOffset;
+			flushBuffer();
+			channel.force(false);
+			ByteBuffer header = ByteBuffer.allocate(8).putLong(0, rootOffset);
+			while (header.hasRemaining()) {
+				channel.write(header, MAGIC.length + header.position());
+			}
+			channel.force(false);
+			savedSize = position;
+		} finally {
+			channel = null;
+		}
+	}
+
+	private int putText(CharSequence text) throws IOException {
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(i) >= 0x80) {
+				byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+				for (byte character : bytes) {
+					putByte(character);
+				}
+				return bytes.length;
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			putByte((byte) text.charAt(i));
+		}
+		return length;
+	}
+
+	private void putByte(byte value) throws IOException {
+		if (!buffer.hasRemaining()) {
+			flushBuffer();
+		}
+		buffer.put(value);
+		position++;
+	}
+
+	private void putInt(int value) throws IOException {
+		if (buffer.remaining() < 4) {
+			flushBuffer();
+		}
+		buffer.putInt(value);
+		position += 4;
+	}
+
+	private void putLong(long value) throws IOException {
+		if (buffer.remaining() < 8) {
+			flushBuffer();
+		}
+		buffer.putLong(value);
+		position += 8;
+	}
+
+	private void flushBuffer() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private static ByteBuffer read(FileChannel channel, long offset, long length) throws IOException {
+		if (offset < 0 || length < 0 || length > Integer.MAX_VALUE || offset + length > channel.size()) {
+			throw new IOException("Save file is damaged");
+		}
+		ByteBuffer bytes = ByteBuffer.allocate((int) length);
+		while (bytes.hasRemaining()) {
+			if (channel.read(bytes, offset + bytes.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		bytes.flip();
+		return bytes;
+	}
+
+	private static CharSequence toParagraph(MappedByteBuffer window, int offset, int length) {
+		for (int i = offset; i < offset + length; i++) {
+			if (window.get(i) < 0) {
+				byte[] bytes = new byte[length];
+				window.get(offset, bytes);
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+		}
+		return new MappedParagraph(window, offset, length);
+	}
+
+	private static class Page {
+		private long[] offsets = new long[PAGE_SIZE];
+		private int[] lengths = new int[PAGE_SIZE];
+		private int count;
+		private long tableOffset = -1;
+
+		private void insert(int index) {
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+				lengths = Arrays.copyOf(lengths, count * 2);
+			}
+			System.arraycopy(offsets, index, offsets, index + 1, count - index);
+			System.arraycopy(lengths, index, lengths, index + 1, count - index);
+			offsets[index] = -1;
+			lengths[index] = 0;
+			count++;
+		}
+
+		private void remove(int index, int removedCount) {
+			System.arraycopy(offsets, index + removedCount, offsets, index, count - index - removedCount);
+			System.arraycopy(lengths, index + removedCount, lengths, index, count - index - removedCount);
+			count -= removedCount;
+		}
+
+		private Page split(int index) {
+			Page page = new Page();
+			page.offsets = Arrays.copyOfRange(offsets, index, Math.max(count, index + PAGE_SIZE));
+			page.lengths = Arrays.copyOfRange(lengths, index, Math.max(count, index + PAGE_SIZE));
+			page.count = count - index;
+			count = index;
+			return page;
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package texteditor;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The EditJournal class allows the edits of a document to be undone and
+ * redone. Instead of copying the document, every edit stores only what is
+ * needed to reverse it: an insertion stores its position and number of
+ * paragraphs, a deletion the deleted paragraph and a replacement the offsets
+ * of the replaced matches together with the searched and the new text.
+ * Undoing or redoing an edit therefore takes time proportional to the edit.
+ * The estimated memory of all stored edits is limited, when the limit is
+ * exceeded the oldest edits are dropped.
+ */
+public class EditJournal {
+	private static final int EDIT_SIZE = 48;
+	private static final int REFERENCE_SIZE = 8;
+	private final Document document;
+	private final long maxSize;
+	private final ArrayDeque<Edit> undoEdits = new ArrayDeque<>();
+	private final ArrayDeque<Edit> redoEdits = new ArrayDeque<>();
+	private long size;
+
+	/**
+	 * Constructor with the document and the memory limit of the journal.
+	 *
+	 * @param document
+	 * @param maxSize estimated memory of the stored edits in bytes
+	 */
+	public EditJournal(Document document, long maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive");
+		}
+		this.document = document;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Records that paragraphs were inserted.
+	 *
+	 * @param paragraphNumber position of the first new paragraph
+	 * @param count           number of new paragraphs
+	 */
+	public void recordInsert(int paragraphNumber, int count) {
+		if (count > 0) {
+			record(new InsertEdit(paragraphNumber, count));
+		}
+	}
+
+	/**
+	 * Records that a paragraph was deleted.
+	 *
+	 * @param paragraphNumber
+	 * @param paragraph       text of the deleted paragraph
+	 */
+	public void recordDelete(int paragraphNumber, CharSequence paragraph) {
+		record(new DeleteEdit(paragraphNumber, paragraph));
+	}
+
+	/**
+	 * Records a replacement before it is done. The offsets of all matches are
+	 * searched in the old paragraph the same way as String.replace does.
+	 *
+	 * @param paragraphNumber
+	 * @param oldParagraph    text before the replacement
+	 * @param replacee        searched text, not empty
+	 * @param replacement
+	 */
+	public void recordReplace(int paragraphNumber, String oldParagraph, String replacee, String replacement) {
+		int[] offsets = new int[4];
+		int count = 0;
+		int offset = oldParagraph.indexOf(replacee);
+		while (offset >= 0) {
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			offsets[count++] = offset;
+			offset = oldParagraph.indexOf(replacee, offset + replacee.length());
+		}
+		if (count > 0 && !replacee.equals(replacement)) {
+			record(new ReplaceEdit(paragraphNumber, Arrays.copyOf(offsets, count), replacee, replacement));
+		}
+	}
+
+	/**
+	 * Records that paragraphs were replaced as a whole, like by a replacement
+	 * in the whole document.
+	 *
+	 * @param paragraphNumbers positions of the replaced paragraphs
+	 * @param oldParagraphs    texts before the replacement
+	 */
+	public void recordReplaceAll(int[] paragraphNumbers, CharSequence[] oldParagraphs) {
+		if (paragraphNumbers.length > 0) {
+			record(new ReplaceAllEdit(paragraphNumbers, oldParagraphs));
+		}
+	}
+
+	/**
+	 * Undoes the last edit.
+	 *
+	 * @return false if there is no edit to undo
+	 */
+	public boolean undo() {
+		return move(undoEdits, redoEdits, true);
+	}
+
+	/**
+	 * Redoes the last undone edit.
+	 *
+	 * @return false if there is no edit to redo
+	 */
+	public boolean redo() {
+		return move(redoEdits, undoEdits, false);
+	}
+
+	/**
+	 * @return estimated memory of the stored edits in bytes
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	private void record(Edit edit) {
+		for (Edit redoEdit : redoEdits) {
+			size -= redoEdit.getSize();
+		}
+		redoEdits.clear();
+		undoEdits.push(edit);
+		size += edit.getSize();
+		limitSize();
+	}
+
+	private boolean move(ArrayDeque<Edit> from, ArrayDeque<Edit> to, boolean undo) {
+		Edit edit = from.poll();
+		if (edit == null) {
+			return false;
+		}
+		size -= edit.getSize();
+		if (undo) {
+			edit.undo(document);
+		} else {
+			edit.redo(document);
+		}
+		to.push(edit);
+		size += edit.getSize();
+		limitSize();
+		return true;
+	}
+
+	private void limitSize() {
+		while (size > maxSize && !undoEdits.isEmpty()) {
+			size -= undoEdits.removeLast().getSize();
+		}
+		while (size > maxSize && !redoEdits.isEmpty()) {
+			size -= redoEdits.removeLast().getSize();
+		}
+	}
+
+	private static long getTextSize(CharSequence text) {
+		return text instanceof String ? EDIT_SIZE + text.length() : EDIT_SIZE;
+	}
+
+	private interface Edit {
+		void undo(Document document);
+
+		void redo(Document document);
+
+		long getSize();
+	}
+
+	private static class InsertEdit implements Edit {
+		private final int paragraphNumber;
+		private final int count;
+		private List<CharSequence> paragraphs;
+		private long paragraphsSize;
+
+		private InsertEdit(int paragraphNumber, int count) {
+			this.paragraphNumber = paragraphNumber;
+			this.count = count;
+		}
+
+		@Override
+		public void undo(Document document) {
+			paragraphs = document.removeParagraphs(paragraphNumber, count);
+			paragraphsSize = 0;
+			for (CharSequence paragraph : paragraphs) {
+				paragraphsSize += REFERENCE_SIZE + getTextSize(paragraph);
+			}
+		}
+
+		@Override
+		public void redo(Document document) {
+			document.insertParagraphs(paragraphNumber, paragraphs);
+			paragraphs = null;
+			paragraphsSize = 0;
+		}
+
+		@Override
+		public long getSize() {
+			return EDIT_SIZE + paragraphsSize;
+		}
+	}
+
+	private static class DeleteEdit implements Edit {
+		private final int paragraphNumber;
+		private final CharSequence paragraph;
+
+		private DeleteEdit(int paragraphNumber, CharSequence paragraph) {
+			this.paragraphNumber = paragraphNumber;
+			this.paragraph = paragraph;
+		}
+
+		@Override
+		public void undo(Document document) {
+			document.insertParagraphs(paragraphNumber, List.of(paragraph));
+		}
+
+		@Override
+		public void redo(Document document) {
+			document.removeParagraphs(paragraphNumber, 1);
+		}
+
+		@Override
+		public long getSize() {
+			return EDIT_SIZE + getTextSize(paragraph);
+		}
+	}
+
+	private static class ReplaceAllEdit implements Edit {
+		private final int[] paragraphNumbers;
+		private final CharSequence[] paragraphs;
+		private long paragraphsSize;
+
+		private ReplaceAllEdit(int[] paragraphNumbers, CharSequence[] paragraphs) {
+			this.paragraphNumbers = paragraphNumbers;
+			this.paragraphs = paragraphs;
+			computeSize();
+		}
+
+		@Override
+		public void undo(Document document) {
+			exchange(document);
+		}
+
+		@Override
+		public void redo(Document document) {
+			exchange(document);
+		}
+
+		/**
+		 * Undoing and redoing are the same, the stored texts are exchanged with
+		 * the texts in the document.
+		 */
+		private void exchange(Document document) {
+			for (int i = 0; i < paragraphNumbers.length; i++) {
+				CharSequence paragraph = document.getText(paragraphNumbers[i]);
+				document.set(paragraphNumbers[i], paragraphs[i].toString());
+				paragraphs[i] = paragraph;
+			}
+			computeSize();
+		}
+
+		private void computeSize() {
+			paragraphsSize = 4L * paragraphNumbers.length;
+			for (CharSequence paragraph : paragraphs) {
+				paragraphsSize += REFERENCE_SIZE + getTextSize(paragraph);
+			}
+		}
+
+		@Override
+		public long getSize() {
+			return EDIT_SIZE + paragraphsSize;
+		}
+	}
+
+	private static class ReplaceEdit implements Edit {
+		private final int paragraphNumber;
+		private final int[] offsets;
+		private final String replacee;
+		private final String replacement;
+
+		private ReplaceEdit(int paragraphNumber, int[] offsets, String replacee, String replacement) {
+			this.paragraphNumber = paragraphNumber;
+			this.offsets = offsets;
+			this.replacee = replacee;
+			this.replacement = replacement;
+		}
+
+		@Override
+		public void undo(Document document) {
+			document.set(paragraphNumber, exchange(document.get(paragraphNumber), replacement, replacee,
+					replacement.length() - replacee.length()));
+		}
+
+		@Override
+		public void redo(Document document) {
+			document.set(paragraphNumber, exchange(document.get(paragraphNumber), replacee, replacement, 0));
+		}
+
+		/**
+		 * Exchanges the text at every match. The offsets are stored for the old
+		 * paragraph, so in the new paragraph every match is moved by the
+		 * difference of the lengths of all matches before it.
+		 */
+		private String exchange(String paragraph, String found, String exchanged, int shift) {
+			StringBuilder result = new StringBuilder(paragraph.length()
+					+ offsets.length * (exchanged.length() - found.length()));
+			int position = 0;
+			for (int i = 0; i < offsets.length; i++) {
+				int offset = offsets[i] + i * shift;
+				result.append(paragraph, position, offset).append(exchanged);
+				position = offset + found.length();
+			}
+			return result.append(paragraph, position, paragraph.length()).toString();
+		}
+
+		@Override
+		public long getSize() {
+			return EDIT_SIZE + 4L * offsets.length + getTextSize(replacee) + getTextSize(replacement);
+		}
+	}
+}
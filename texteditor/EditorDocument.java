@@ -0,0 +1,185 @@
+package texteditor;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The EditorDocument class keeps a document together with everything that
+ * follows its changes: the word index, the search index, the store for SAVE
+ * and the journal for UNDO. Editors which open the same document share all of
+ * it. A command holds the lock of the document while it is processed.
+ * With the system property texteditor.arena=true the texts are stored in a
+ * ParagraphArena outside of the heap. The arena is compacted in the
+ * background whenever the lock of the document is free. The compaction only
+ * refers to the document weakly and stops when the document is closed or no
+ * longer used.
+ */
+public class EditorDocument {
+	private static final ScheduledThreadPoolExecutor COMPACTION_EXECUTOR = new ScheduledThreadPoolExecutor(1,
+			runnable -> {
+				Thread thread = new Thread(runnable, "arena-compaction");
+				thread.setDaemon(true);
+				return thread;
+			});
+	static {
+		COMPACTION_EXECUTOR.setRemoveOnCancelPolicy(true);
+	}
+	private final Document paragraphs;
+	private final WordIndex wordIndex;
+	private final SearchIndex searchIndex;
+	private final DocumentStore documentStore;
+	private final EditJournal editJournal;
+	private final Lock lock;
+	private final ScheduledFuture<?> compaction;
+
+	/**
+	 * Default constructor for a document which is used by one editor.
+	 */
+	public EditorDocument() {
+		this(new ReentrantLock());
+	}
+
+	/**
+	 * Constructor with the lock of the document, which may be shared with
+	 * other documents.
+	 *
+	 * @param lock
+	 */
+	public EditorDocument(Lock lock) {
+		this(lock, Boolean.getBoolean("texteditor.arena") ? new ParagraphArena() : null);
+	}
+
+	/**
+	 * Constructor with the lock of the document and the arena of its texts.
+	 *
+	 * @param lock
+	 * @param arena arena of the texts, null to store them as String
+	 */
+	public EditorDocument(Lock lock, ParagraphArena arena) {
+		RopeDocument rope = arena == null ? new RopeDocument() : new RopeDocument(arena);
+		paragraphs = rope;
+		wordIndex = new WordIndex(paragraphs, new TextProcessor());
+		searchIndex = new SearchIndex(paragraphs);
+		documentStore = new DocumentStore(paragraphs);
+		editJournal = new EditJournal(paragraphs, Long.getLong("texteditor.journalSize", 64L << 20));
+		this.lock = lock;
+		if (arena != null) {
+			long interval = Long.getLong("texteditor.compactionInterval", 1000);
+			CompactionTask task = new CompactionTask(this);
+			compaction = COMPACTION_EXECUTOR.scheduleWithFixedDelay(task, interval, interval, TimeUnit.MILLISECONDS);
+			task.future = compaction;
+		} else {
+			compaction = null;
+		}
+	}
+
+	/**
+	 * Stops the background compaction of the arena. The document can still be
+	 * used, its arena is then only compacted by RopeDocument.compact.
+	 */
+	public void close() {
+		if (compaction != null) {
+			compaction.cancel(false);
+		}
+	}
+
+	/**
+	 * @return true if the arena of the document is compacted in the background
+	 */
+	public boolean isCompacting() {
+		return compaction != null && !compaction.isDone();
+	}
+
+	private void compact() {
+		RopeDocument rope = (RopeDocument) paragraphs;
+		if (rope.getArena().needsCompaction() && lock.tryLock()) {
+			try {
+				rope.compact();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Getter for paragraphs.
+	 *
+	 * @return
+	 */
+	public Document getParagraphs() {
+		return paragraphs;
+	}
+
+	/**
+	 * Getter for wordIndex.
+	 *
+	 * @return
+	 */
+	public WordIndex getWordIndex() {
+		return wordIndex;
+	}
+
+	/**
+	 * Getter for searchIndex.
+	 *
+	 * @return
+	 */
+	public SearchIndex getSearchIndex() {
+		return searchIndex;
+	}
+
+	/**
+	 * Getter for documentStore.
+	 *
+	 * @return
+	 */
+	public DocumentStore getDocumentStore() {
+		return documentStore;
+	}
+
+	/**
+	 * Getter for editJournal.
+	 *
+	 * @return
+	 */
+	public EditJournal getEditJournal() {
+		return editJournal;
+	}
+
+	/**
+	 * Getter for lock.
+	 *
+	 * @return
+	 */
+	public Lock getLock() {
+		return lock;
+	}
+
+	/**
+	 * Compacts the arena of a document as long as the document is used. The
+	 * executor does not keep the document reachable, the task cancels itself
+	 * once the document was collected.
+	 */
+	private static class CompactionTask implements Runnable {
+		private final WeakReference<EditorDocument> document;
+		private volatile ScheduledFuture<?> future;
+
+		private CompactionTask(EditorDocument document) {
+			this.document = new WeakReference<>(document);
+		}
+
+		@Override
+		public void run() {
+			EditorDocument editorDocument = document.get();
+			if (editorDocument != null) {
+				editorDocument.compact();
+			} else if (future != null) {
+				future.cancel(false);
+			}
+		}
+	}
+}
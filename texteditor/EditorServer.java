@@ -0,0 +1,183 @@
+package texteditor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The EditorServer class accepts editing sessions on a local TCP or Unix
+ * domain socket. Every connection is a TextEditor which reads the commands
+ * from the socket and writes its output back, like in the console. The
+ * documents are shared by name through a DocumentRegistry.
+ * Every session runs on its own thread and blocks while it waits for its
+ * client. On a JVM with virtual threads every session gets a virtual thread,
+ * so thousands of mostly idle sessions only need a few carrier threads. On
+ * older JVMs a cached pool of platform threads is used instead.
+ */
+public class EditorServer implements Closeable {
+	private static final int BACKLOG = 4096;
+	private final ServerSocketChannel serverChannel;
+	private final SocketAddress address;
+	private final DocumentRegistry documentRegistry = new DocumentRegistry();
+	private final ExecutorService sessionExecutor = newSessionExecutor();
+
+	/**
+	 * Constructor which binds the server to an address. A TCP port 0 binds to
+	 * any free port.
+	 *
+	 * @param address InetSocketAddress or UnixDomainSocketAddress
+	 * @throws IOException if the address can not be bound
+	 */
+	public EditorServer(SocketAddress address) throws IOException {
+		if (address instanceof UnixDomainSocketAddress) {
+			Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+			serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		} else {
+			serverChannel = ServerSocketChannel.open();
+		}
+		serverChannel.bind(address, BACKLOG);
+		this.address = serverChannel.getLocalAddress();
+	}
+
+	/**
+	 * Parses the address of the command line: a port number is a TCP port on
+	 * the loopback interface, anything else is the file of a Unix domain
+	 * socket.
+	 *
+	 * @param address
+	 * @return the socket address
+	 */
+	public static SocketAddress parseAddress(String address) {
+		if (!address.isEmpty() && address.chars().allMatch(character -> character >= '0' && character <= '9')) {
+			return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+		}
+		return UnixDomainSocketAddress.of(address);
+	}
+
+	/**
+	 * @return the bound address, with the actual port of port 0
+	 */
+	public SocketAddress getLocalAddress() {
+		return address;
+	}
+
+	/**
+	 * Getter for documentRegistry.
+	 *
+	 * @return
+	 */
+	public DocumentRegistry getDocumentRegistry() {
+		return documentRegistry;
+	}
+
+	/**
+	 * Accepts sessions until the server is closed.
+	 *
+	 * @throws IOException if a connection can not be accepted
+	 */
+	public void run() throws IOException {
+		while (true) {
+			SocketChannel channel;
+			try {
+				channel = serverChannel.accept();
+			} catch (ClosedChannelException e) {
+				return;
+			}
+			if (!(address instanceof UnixDomainSocketAddress)) {
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+			}
+			sessionExecutor.execute(() -> runSession(channel));
+		}
+	}
+
+	/**
+	 * Accepts sessions on a background thread until the server is closed.
+	 */
+	public void start() {
+		Thread thread = new Thread(() -> {
+			try {
+				run();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, "editor-server");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops accepting sessions and interrupts the running sessions, which closes
+	 * their connections.
+	 */
+	@Override
+	public void close() throws IOException {
+		serverChannel.close();
+		sessionExecutor.shutdownNow();
+		if (address instanceof UnixDomainSocketAddress) {
+			Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+		}
+	}
+
+	private void runSession(SocketChannel channel) {
+		try (channel) {
+			new TextEditor(new SessionInput(channel), channel, documentRegistry).start();
+		} catch (IOException | UncheckedIOException e) {
+			// the client closed the connection
+		}
+	}
+
+	private static ExecutorService newSessionExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | UnsupportedOperationException e) {
+			return Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "editor-session");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * The input side of a connection. Closing it at EXIT only shuts down the
+	 * input, so the exit message can still be written.
+	 */
+	private static class SessionInput implements ReadableByteChannel {
+		private final SocketChannel channel;
+
+		private SessionInput(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public int read(ByteBuffer buffer) throws IOException {
+			return channel.read(buffer);
+		}
+
+		@Override
+		public boolean isOpen() {
+			return channel.isOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (channel.isOpen()) {
+				channel.shutdownInput();
+			}
+		}
+	}
+}
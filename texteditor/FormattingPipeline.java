@@ -0,0 +1,147 @@
+package texteditor;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The FormattingPipeline class prints paragraphs in the fixed format with
+ * several threads. The calling thread splits the paragraphs into chunks and
+ * hands them to the workers of a ForkJoinPool, which break the paragraphs of
+ * a chunk into lines and encode the lines into bytes. The calling thread
+ * writes the bytes of the chunks in the order of the paragraphs, so the
+ * output is the same as formatting one paragraph after another.
+ * Only a bounded number of chunks is formatted ahead of the chunk which is
+ * written next. A slow output therefore holds the workers back instead of
+ * filling the memory, and the first lines are printed as soon as the first
+ * chunk is formatted, however large the document is.
+ */
+public class FormattingPipeline {
+	private static final int DEFAULT_CHUNK_SIZE = 512;
+	private final ForkJoinPool pool;
+	private final int chunkSize;
+	private final int maxChunksAhead;
+
+	/**
+	 * Default constructor which uses the common pool and formats up to four
+	 * chunks per thread of the pool ahead.
+	 */
+	public FormattingPipeline() {
+		this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, 4 * ForkJoinPool.getCommonPoolParallelism());
+	}
+
+	/**
+	 * Constructor with pool, the number of paragraphs of a chunk and the
+	 * number of chunks which are formatted ahead of the output at most.
+	 *
+	 * @param pool
+	 * @param chunkSize
+	 * @param maxChunksAhead
+	 */
+	public FormattingPipeline(ForkJoinPool pool, int chunkSize, int maxChunksAhead) {
+		if (chunkSize <= 0 || maxChunksAhead <= 0) {
+			throw new IllegalArgumentException("chunkSize and maxChunksAhead must be positive");
+		}
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+		this.maxChunksAhead = maxChunksAhead;
+	}
+
+	/**
+	 * Getter for chunkSize.
+	 *
+	 * @return
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Prints paragraphs broken into lines of at most maxLineLength characters,
+	 * like OutputManager.printLines does for every paragraph. The paragraphs
+	 * must not change while they are printed, like the paragraphs of a
+	 * snapshot.
+	 *
+	 * @param paragraphs
+	 * @param maxLineLength
+	 * @param outputManager
+	 */
+	public void print(Iterable<? extends CharSequence> paragraphs, int maxLineLength, OutputManager outputManager) {
+		Charset charset = outputManager.getCharset();
+		Iterator<? extends CharSequence> iterator = paragraphs.iterator();
+		ArrayDeque<ForkJoinTask<ByteBuffer>> chunks = new ArrayDeque<>();
+		try {
+			while (iterator.hasNext() || !chunks.isEmpty()) {
+				while (iterator.hasNext() && chunks.size() < maxChunksAhead) {
+					CharSequence[] chunk = nextChunk(iterator);
+					chunks.add(pool.submit(() -> formatChunk(chunk, maxLineLength, charset)));
+				}
+				outputManager.printEncoded(chunks.remove().join());
+			}
+		} finally {
+			for (ForkJoinTask<ByteBuffer> chunk : chunks) {
+				chunk.cancel(false);
+			}
+		}
+	}
+
+	private CharSequence[] nextChunk(Iterator<? extends CharSequence> iterator) {
+		CharSequence[] chunk = new CharSequence[chunkSize];
+		int count = 0;
+		while (count < chunkSize && iterator.hasNext()) {
+			chunk[count++] = iterator.next();
+		}
+		return count < chunkSize ? Arrays.copyOf(chunk, count) : chunk;
+	}
+
+	private static ByteBuffer formatChunk(CharSequence[] chunk, int maxLineLength, Charset charset) {
+		Tokenizer tokenizer = new Tokenizer();
+		ChunkChannel channel = new ChunkChannel();
+		OutputSink sink = new OutputSink(channel, charset, 1 << 14);
+		for (CharSequence paragraph : chunk) {
+			LineLayout layout = LineLayout.create(paragraph, maxLineLength, tokenizer);
+			for (int line = 0; line < layout.getLineCount(); line++) {
+				sink.append(paragraph, layout.getLineStart(line), layout.getLineEnd(line)).newLine();
+			}
+		}
+		sink.flush();
+		return channel.getBytes();
+	}
+
+	/**
+	 * Collects the bytes of one chunk in memory.
+	 */
+	private static class ChunkChannel implements WritableByteChannel {
+		private byte[] bytes = new byte[1 << 14];
+		private int size;
+
+		@Override
+		public int write(ByteBuffer source) {
+			int count = source.remaining();
+			if (size + count > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + count));
+			}
+			source.get(bytes, size, count);
+			size += count;
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		private ByteBuffer getBytes() {
+			return ByteBuffer.wrap(bytes, 0, size);
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package texteditor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The HeavyHitters class finds the most frequent words of a stream of words in
+ * bounded memory, without a map of every word. It combines the Space-Saving
+ * algorithm with a CountMinSketch: a fixed number of counters is kept for the
+ * words which are counted most often, in a heap ordered by their count. A
+ * word without a counter is estimated by the sketch and takes over the
+ * counter with the smallest count once its estimate is higher. The word then
+ * gets that count plus one and remembers the old count as its error.
+ * The count of a word is never lower than its real frequency, and at most its
+ * error higher. A word which has no counter occurs at most as often as the
+ * smallest count. The sketch gives a second upper bound for every word.
+ * Words are identified by a 64 bit hash of their letters, a String is only
+ * created when a word gets a counter.
+ */
+public class HeavyHitters {
+	private final CountMinSketch sketch;
+	private final int capacity;
+	private final long[] hashes;
+	private final String[] words;
+	private final long[] counts;
+	private final long[] errors;
+	private final int[] heap;
+	private final int[] heapPositions;
+	private final int[] slots;
+	private int size;
+
+	/**
+	 * Constructor with the number of counters and the sketch which estimates
+	 * the words without a counter.
+	 *
+	 * @param capacity
+	 * @param sketch
+	 */
+	public HeavyHitters(int capacity, CountMinSketch sketch) {
+		if (capacity <= 0 || capacity > 1 << 28) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.sketch = sketch;
+		hashes = new long[capacity];
+		words = new String[capacity];
+		counts = new long[capacity];
+		errors = new long[capacity];
+		heap = new int[capacity];
+		heapPositions = new int[capacity];
+		slots = new int[Integer.highestOneBit(capacity) << 2];
+	}
+
+	/**
+	 * Returns a 64 bit hash of the word which is formed by the letters of a
+	 * range of a text.
+	 *
+	 * @param text
+	 * @param start      offset of the first character of the range
+	 * @param end        offset after the last character of the range
+	 * @param caseFolded true to hash the letters in lowercase
+	 * @return hash of the word
+	 */
+	public static long hash(CharSequence text, int start, int end, boolean caseFolded) {
+		long hash = 0;
+		for (int i = start; i < end; i++) {
+			char character = text.charAt(i);
+			if (Tokenizer.isLetter(character)) {
+				hash = (hash + WordTable.fold(character, caseFolded)) * 0x9E3779B97F4A7C15L;
+			}
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	/**
+	 * Counts the word which is formed by the letters of a range of a text once.
+	 *
+	 * @param hash       the hash of the word
+	 * @param text
+	 * @param start      offset of the first character of the range
+	 * @param end        offset after the last character of the range
+	 * @param caseFolded true to count the word in lowercase
+	 */
+	public void add(long hash, CharSequence text, int start, int end, boolean caseFolded) {
+		long estimate = sketch.add(hash);
+		int counter = find(hash);
+		if (counter >= 0) {
+			counts[counter]++;
+			siftDown(heapPositions[counter]);
+		} else if (size < capacity) {
+			counter = size++;
+			hashes[counter] = hash;
+			words[counter] = WordTable.toWord(text, start, end, caseFolded);
+			counts[counter] = 1;
+			errors[counter] = 0;
+			heap[counter] = counter;
+			heapPositions[counter] = counter;
+			insert(counter);
+			siftUp(counter);
+		} else if (estimate > counts[heap[0]]) {
+			counter = heap[0];
+			remove(hashes[counter]);
+			hashes[counter] = hash;
+			words[counter] = WordTable.toWord(text, start, end, caseFolded);
+			errors[counter] = counts[counter];
+			counts[counter]++;
+			insert(counter);
+			siftDown(0);
+		}
+	}
+
+	/**
+	 * Returns the words with the highest counts. Words with the same count are
+	 * ordered alphabetically.
+	 *
+	 * @param topCount number of words to return at most
+	 * @param minCount count a word must have at least
+	 * @return counted words, highest count first
+	 */
+	public List<WordCount> getTop(int topCount, long minCount) {
+		ArrayList<WordCount> top = new ArrayList<>();
+		for (int counter = 0; counter < size; counter++) {
+			long count = Math.min(counts[counter], sketch.estimate(hashes[counter]));
+			if (count >= minCount) {
+				top.add(new WordCount(words[counter], count, Math.max(counts[counter] - errors[counter], 1)));
+			}
+		}
+		top.sort((first, second) -> first.count != second.count ? Long.compare(second.count, first.count)
+				: first.word.compareTo(second.word));
+		return new ArrayList<>(top.subList(0, Math.min(topCount, top.size())));
+	}
+
+	/**
+	 * @return how often a word without a counter occurs at most, 0 if every
+	 *         counted word still has its counter
+	 */
+	public long getUncountedBound() {
+		return size < capacity ? 0 : counts[heap[0]];
+	}
+
+	/**
+	 * Getter for sketch.
+	 *
+	 * @return
+	 */
+	public CountMinSketch getSketch() {
+		return sketch;
+	}
+
+	private int find(long hash) {
+		int mask = slots.length - 1;
+		for (int slot = (int) hash & mask;; slot = (slot + 1) & mask) {
+			int counter = slots[slot] - 1;
+			if (counter < 0) {
+				return -1;
+			}
+			if (hashes[counter] == hash) {
+				return counter;
+			}
+		}
+	}
+
+	private void insert(int counter) {
+		int mask = slots.length - 1;
+		int slot = (int) hashes[counter] & mask;
+		while (slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = counter + 1;
+	}
+
+	/**
+	 * Removes a hash from the slots and moves the following slots back, so no
+	 * lookup stops early at the emptied slot.
+	 */
+	private void remove(long hash) {
+		int mask = slots.length - 1;
+		int slot = (int) hash & mask;
+		while (hashes[slots[slot] - 1] != hash) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = 0;
+		for (int next = (slot + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+			int home = (int) hashes[slots[next] - 1] & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				slots[slot] = slots[next];
+				slots[next] = 0;
+				slot = next;
+			}
+		}
+	}
+
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (counts[heap[parent]] <= counts[heap[position]]) {
+				return;
+			}
+			swap(parent, position);
+			position = parent;
+		}
+	}
+
+	private void siftDown(int position) {
+		while (true) {
+			int smallest = position;
+			for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+				if (counts[heap[child]] < counts[heap[smallest]]) {
+					smallest = child;
+				}
+			}
+			if (smallest == position) {
+				return;
+			}
+			swap(smallest, position);
+			position = smallest;
+		}
+	}
+
+	private void swap(int first, int second) {
+		int counter = heap[first];
+		heap[first] = heap[second];
+		heap[second] = counter;
+		heapPositions[heap[first]] = first;
+		heapPositions[heap[second]] = second;
+	}
+
+	/**
+	 * A word with the bounds of its frequency.
+	 */
+	public static class WordCount {
+		private final String word;
+		private final long count;
+		private final long minCount;
+
+		/**
+		 * Constructor with the word and the bounds of its frequency.
+		 *
+		 * @param word
+		 * @param count    how often the word occurs at most
+		 * @param minCount how often the word occurs at least
+		 */
+		public WordCount(String word, long count, long minCount) {
+			this.word = word;
+			this.count = count;
+			this.minCount = minCount;
+		}
+
+		/**
+		 * Getter for word.
+		 *
+		 * @return
+		 */
+		public String getWord() {
+			return word;
+		}
+
+		/**
+		 * Getter for count.
+		 *
+		 * @return
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Getter for minCount.
+		 *
+		 * @return
+		 */
+		public long getMinCount() {
+			return minCount;
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package texteditor;
+
+/**
+ * The IndexOptions class holds the variant of the word index which is
+ * requested with INDEX. By default a word is listed if it starts with an
+ * uppercase letter and occurs in at least four paragraphs, and all listed
+ * words are printed in alphabetical order.
+ * The options can ask for another minimum number of paragraphs, for only the
+ * words of the most paragraphs, for words of any case folded to lowercase, and
+ * for an approximate count of the most frequent words which needs bounded
+ * memory instead of a posting list for every word.
+ */
+public class IndexOptions {
+	public static final int DEFAULT_MIN_PARAGRAPH_COUNT = 4;
+	public static final int DEFAULT_APPROXIMATE_TOP_COUNT = 20;
+	private final int minParagraphCount;
+	private final int topCount;
+	private final boolean caseFolded;
+	private final boolean approximate;
+
+	/**
+	 * Default constructor for the default word index.
+	 */
+	public IndexOptions() {
+		this(DEFAULT_MIN_PARAGRAPH_COUNT, 0, false, false);
+	}
+
+	/**
+	 * Constructor with all options.
+	 *
+	 * @param minParagraphCount number of paragraphs a word must occur in, at least 1
+	 * @param topCount          number of words with the most paragraphs to list, 0 for all words
+	 * @param caseFolded        true to index words of any case as lowercase words
+	 * @param approximate       true to estimate the counts of the most frequent words
+	 */
+	public IndexOptions(int minParagraphCount, int topCount, boolean caseFolded, boolean approximate) {
+		if (minParagraphCount <= 0 || topCount < 0) {
+			throw new IllegalArgumentException("minParagraphCount must be positive and topCount not negative");
+		}
+		this.minParagraphCount = minParagraphCount;
+		this.topCount = approximate && topCount == 0 ? DEFAULT_APPROXIMATE_TOP_COUNT : topCount;
+		this.caseFolded = caseFolded;
+		this.approximate = approximate;
+	}
+
+	/**
+	 * Getter for minParagraphCount.
+	 *
+	 * @return
+	 */
+	public int getMinParagraphCount() {
+		return minParagraphCount;
+	}
+
+	/**
+	 * Getter for topCount.
+	 *
+	 * @return
+	 */
+	public int getTopCount() {
+		return topCount;
+	}
+
+	/**
+	 * Getter for caseFolded.
+	 *
+	 * @return
+	 */
+	public boolean isCaseFolded() {
+		return caseFolded;
+	}
+
+	/**
+	 * Getter for approximate.
+	 *
+	 * @return
+	 */
+	public boolean isApproximate() {
+		return approximate;
+	}
+
+	/**
+	 * @return true if these options ask for the default word index
+	 */
+	public boolean isDefault() {
+		return minParagraphCount == DEFAULT_MIN_PARAGRAPH_COUNT && topCount == 0 && !caseFolded && !approximate;
+	}
+}
@@ -1,66 +1,164 @@
 package texteditor;
 
-import java.util.Scanner;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 
 /**
  * The InputManager class is responsible for the inputs in the application.
- * It creates a new input with a scanner object and validates the input.
+ * It reads the input line by line with a buffered line reader and validates the input.
  * It also checks a paragraph input for illegal characters.
  */
 public class InputManager {
-	private Scanner scanner;
-	private final String illegalTextCharsPattern = "[^a-zA-ZäöüÄÖÜ0-9.,:;\\-!?’()\"%@+*\\[\\]{}/&#$\s]";
+	private final String[] keywords = { "PRINT", "ADD", "INDEX", "EXIT", "DEL", "DUMMY", "FORMAT", "REPLACE", "LOAD", "SAVE", "UNDO",
+			"REDO", "FIND", "STATS", "OPEN" };
+	private final LineReader lineReader;
+	private final CommandLexer commandLexer = new CommandLexer();
+	private final ArrayDeque<String> prefetchedLines = new ArrayDeque<>();
 
 	/**
-	 * Constructor which creates a new scanner object.
+	 * Constructor which reads from the standard input.
 	 */
 	public InputManager() {
-		scanner = new Scanner(System.in);
+		this(System.in);
+	}
+
+	/**
+	 * Constructor which reads from an input stream.
+	 *
+	 * @param input
+	 */
+	public InputManager(InputStream input) {
+		this(input instanceof FileInputStream ? ((FileInputStream) input).getChannel() : Channels.newChannel(input));
+	}
+
+	/**
+	 * Constructor which reads from a channel.
+	 *
+	 * @param channel
+	 */
+	public InputManager(ReadableByteChannel channel) {
+		lineReader = new LineReader(channel);
+	}
+
+	/**
+	 * Constructor which reads from a channel with a smaller or larger buffer
+	 * than the default one, like for the many sessions of a server.
+	 *
+	 * @param channel
+	 * @param bufferSize in bytes
+	 */
+	public InputManager(ReadableByteChannel channel, int bufferSize) {
+		lineReader = new LineReader(channel, Charset.defaultCharset(), bufferSize);
 	}
 
-	
 	/**
 	 * Creates an input on the console for the command
-	 * and builds an UserInput object.
+	 * and builds an UserInput object. At the end of the input EXIT is returned.
 	 * @return user input
 	 */
 	public UserInput getCommandInput() {
-		String input = scanner.nextLine();
-		input = eliminateMultipleWhiteSpaces(input);
-		return buildUserInput(input.toUpperCase().split(" "));
-	}
-	
-	private String eliminateMultipleWhiteSpaces(String input) {
-		String inputFormatted = input.replaceAll("\t", " ").trim().replaceAll(" +", " ");
-		return inputFormatted;
+		if (!lineReader.readLine()) {
+			return new UserInput(Command.EXIT);
+		}
+		return buildUserInput(commandLexer.reset(lineReader));
 	}
 
 	/**
 	 * Creates an input on the console for the paragraph text
-	 * and filters out illegal characters.
+	 * and filters out illegal characters. At the end of the input the text is empty.
 	 * @return paragraph text
 	 */
 	public String getPlainTextInput() {
-		return this.filterIllegalChars(scanner.nextLine());
+		if (!prefetchedLines.isEmpty()) {
+			return this.filterIllegalChars(prefetchedLines.poll());
+		}
+		if (!lineReader.readLine()) {
+			return "";
+		}
+		return this.filterIllegalChars(lineReader);
 	}
 
-	private String filterIllegalChars(String text) {
-		return text.replaceAll(this.illegalTextCharsPattern, "");
+	/**
+	 * Creates an input on the console for a text which is not stored as
+	 * paragraph, like a regular expression, and keeps all characters.
+	 * At the end of the input the text is empty.
+	 * @return text as it was entered
+	 */
+	public String getRawTextInput() {
+		if (!prefetchedLines.isEmpty()) {
+			return prefetchedLines.poll();
+		}
+		if (!lineReader.readLine()) {
+			return "";
+		}
+		return lineReader.toString();
+	}
+
+	/**
+	 * Reads the text lines of a command before the command is processed, so it
+	 * does not wait for input while it holds the lock of a shared document.
+	 * The lines are returned by the next text inputs.
+	 *
+	 * @param lineCount number of lines, fewer are read at the end of the input
+	 */
+	public void prefetchLines(int lineCount) {
+		for (int i = 0; i < lineCount && lineReader.readLine(); i++) {
+			prefetchedLines.add(lineReader.toString());
+		}
+	}
+
+	/**
+	 * Drops the prefetched lines which were not used by the command.
+	 */
+	public void clearPrefetchedLines() {
+		prefetchedLines.clear();
+	}
+
+	/**
+	 * @return number of characters read so far, a line end is counted as one
+	 *         character
+	 */
+	public long getCharCount() {
+		return lineReader.getCharCount();
 	}
 
-	private UserInput buildUserInput(String[] input) {
+	/**
+	 * @return time spent waiting for input so far in nanoseconds
+	 */
+	public long getWaitNanos() {
+		return lineReader.getWaitNanos();
+	}
+
+	private String filterIllegalChars(CharSequence text) {
+		return Tokenizer.filterIllegalChars(text);
+	}
+
+	private String getKeyword(CommandLexer input) {
+		for (String keyword : keywords) {
+			if (input.isKeyword(0, keyword)) {
+				return keyword;
+			}
+		}
+		return "";
+	}
+
+	private UserInput buildUserInput(CommandLexer input) {
 		UserInput userInput;
 		Integer index;
-		switch (input[0]) {
+		switch (getKeyword(input)) {
 		case "PRINT":
-			userInput = new UserInput(Command.PRINT);
+			userInput = printInputValidation(input);
 			break;
 		case "ADD":
 			index = validateNumberArgument(input, 1);
 			userInput = new UserInput(Command.ADD, index != null ? mapUserIndexToLogicalIndex(index) : null);
 			break;
 		case "INDEX":
-			userInput = new UserInput(Command.INDEX);
+			userInput = indexInputValidation(input);
 			break;
 		case "EXIT":
 			userInput = new UserInput(Command.EXIT);
@@ -77,8 +175,32 @@ public class InputManager {
 			userInput = formatInputValidation(input);
 			break;
 		case "REPLACE":
-			index = validateNumberArgument(input, 1);
-			userInput = new UserInput(Command.REPLACE, index != null ? mapUserIndexToLogicalIndex(index) : null);
+			userInput = replaceInputValidation(input);
+			break;
+		case "LOAD":
+			userInput = new UserInput(Command.LOAD, null, input.getRemainder(1));
+			break;
+		case "SAVE":
+			userInput = new UserInput(Command.SAVE, null, input.getRemainder(1));
+			break;
+		case "UNDO":
+			userInput = new UserInput(Command.UNDO);
+			break;
+		case "REDO":
+			userInput = new UserInput(Command.REDO);
+			break;
+		case "STATS":
+			userInput = new UserInput(Command.STATS);
+			break;
+		case "OPEN":
+			userInput = new UserInput(Command.OPEN, null, input.getRemainder(1));
+			break;
+		case "FIND":
+			if (input.isKeyword(1, "REGEX")) {
+				userInput = new UserInput(Command.FIND_REGEX, null, input.getRemainder(2));
+			} else {
+				userInput = new UserInput(Command.FIND, null, input.getRemainder(1));
+			}
 			break;
 		default:
 			userInput = new UserInput(Command.ERROR);
@@ -87,30 +209,87 @@ public class InputManager {
 		return userInput;
 	}
 
-	private Integer validateNumberArgument(String[] input, int index) {
-		if (hasNthArgument(input, index)) {
-			try {
-				return Integer.parseInt((input[index]));
-			} catch (NumberFormatException e) {
-				return null;
-			}
-		}
-		return null;
+	private Integer validateNumberArgument(CommandLexer input, int index) {
+		return input.getNumber(index);
 	}
 
-	private boolean hasNthArgument(String[] input, int index) {
-		return input.length >= index+1;
+	private boolean hasNthArgument(CommandLexer input, int index) {
+		return input.hasArgument(index);
 	}
 	
 	private Integer mapUserIndexToLogicalIndex(Integer userIndex) {
 		return userIndex-1;
 	}
 
-	private UserInput formatInputValidation(String[] input) {
+	private UserInput replaceInputValidation(CommandLexer input) {
+		if (input.isKeyword(1, "ALL")) {
+			return new UserInput(Command.REPLACE_ALL);
+		} else if (input.isKeyword(1, "MAP")) {
+			return new UserInput(Command.REPLACE_MAP, null, input.getRemainder(2));
+		} else if (input.isKeyword(1, "REGEX")) {
+			if (input.isKeyword(2, "ALL")) {
+				return new UserInput(Command.REPLACE_REGEX_ALL);
+			}
+			Integer index = validateNumberArgument(input, 2);
+			return new UserInput(Command.REPLACE_REGEX, index != null ? mapUserIndexToLogicalIndex(index) : null);
+		}
+		Integer index = validateNumberArgument(input, 1);
+		return new UserInput(Command.REPLACE, index != null ? mapUserIndexToLogicalIndex(index) : null);
+	}
+
+	private UserInput printInputValidation(CommandLexer input) {
+		if (input.isKeyword(1, "LINES")) {
+			Integer line = validateNumberArgument(input, 2);
+			return new UserInput(Command.PRINT_LINES, line != null ? mapUserIndexToLogicalIndex(line) : null,
+					validateNumberArgument(input, 3));
+		} else if (hasNthArgument(input, 1)) {
+			Integer from = validateNumberArgument(input, 1);
+			Integer to = validateNumberArgument(input, 2);
+			return new UserInput(Command.PRINT_RANGE, from != null ? mapUserIndexToLogicalIndex(from) : null,
+					to != null ? mapUserIndexToLogicalIndex(to) : null);
+		}
+		return new UserInput(Command.PRINT);
+	}
+
+	/**
+	 * Reads the options of INDEX: FOLD, MIN <paragraphs>, TOP <words> and
+	 * APPROX in any order. Invalid numbers give index options of null.
+	 */
+	private UserInput indexInputValidation(CommandLexer input) {
+		int minParagraphCount = IndexOptions.DEFAULT_MIN_PARAGRAPH_COUNT;
+		int topCount = 0;
+		boolean caseFolded = false;
+		boolean approximate = false;
+		boolean valid = true;
+		for (int i = 1; hasNthArgument(input, i); i++) {
+			if (input.isKeyword(i, "FOLD")) {
+				caseFolded = true;
+			} else if (input.isKeyword(i, "APPROX")) {
+				approximate = true;
+			} else if (input.isKeyword(i, "MIN") || input.isKeyword(i, "TOP")) {
+				Integer number = validateNumberArgument(input, i + 1);
+				if (number == null || number <= 0) {
+					valid = false;
+				} else if (input.isKeyword(i, "MIN")) {
+					minParagraphCount = number;
+				} else {
+					topCount = number;
+				}
+				i++;
+			} else {
+				return new UserInput(Command.ERROR);
+			}
+		}
+		IndexOptions indexOptions = valid ? new IndexOptions(minParagraphCount, topCount, caseFolded, approximate)
+				: null;
+		return new UserInput(Command.INDEX, indexOptions);
+	}
+
+	private UserInput formatInputValidation(CommandLexer input) {
 		if (hasNthArgument(input, 1)) {
-			if (input[1].equals("FIX")) {
+			if (input.isKeyword(1, "FIX")) {
 				return new UserInput(Command.FORMAT_FIX, validateNumberArgument(input, 2));
-			} else if (input[1].equals("RAW")) {
+			} else if (input.isKeyword(1, "RAW")) {
 				return new UserInput(Command.FORMAT_RAW);
 			}
 		}
@@ -118,9 +297,9 @@ public class InputManager {
 	}
 
 	/**
-	 * close this objects scanner
+	 * close this objects input
 	 */
-	public void closeScanner() {
-		scanner.close();
+	public void closeInput() {
+		lineReader.close();
 	}
 }
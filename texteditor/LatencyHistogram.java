@@ -0,0 +1,93 @@
+package texteditor;
+
+import java.util.Arrays;
+
+/**
+ * The LatencyHistogram class counts durations in buckets like an HDR
+ * histogram. Values below 64 have a bucket each, larger values share a bucket
+ * with the values which have the same highest 6 bits, so every power of two is
+ * split into 32 buckets and a percentile is at most about 3 % too large.
+ * Recording a value only increments a counter in an array, which grows up to
+ * the bucket of the largest value, so a histogram of short durations is small.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (65 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+	private long[] counts = new long[2 * SUB_BUCKET_COUNT];
+	private long count;
+	private long max;
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value for example nanoseconds, negative values are counted as 0
+	 */
+	public void record(long value) {
+		value = Math.max(value, 0);
+		int bucket = bucketOf(value);
+		if (bucket >= counts.length) {
+			counts = Arrays.copyOf(counts, Math.min(Math.max(bucket + 1, counts.length * 2), BUCKET_COUNT));
+		}
+		counts[bucket]++;
+		count++;
+		if (value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * @return number of recorded values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return largest recorded value, 0 if nothing was recorded
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the value which is larger than or equal to a percentage of the
+	 * recorded values. The value is the largest value of its bucket, but not
+	 * larger than the maximum.
+	 *
+	 * @param percentile from 0 to 100
+	 * @return the value, 0 if nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+		long seen = 0;
+		for (int bucket = 0; bucket < counts.length; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank) {
+				return Math.min(highestValueOf(bucket), max);
+			}
+		}
+		return max;
+	}
+
+	private static int bucketOf(long value) {
+		if (value < 2 * SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+	}
+
+	private static long highestValueOf(int bucket) {
+		if (bucket < 2 * SUB_BUCKET_COUNT) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKET_COUNT - 1;
+		long subBucket = bucket - shift * SUB_BUCKET_COUNT;
+		long highestValue = ((subBucket + 1) << shift) - 1;
+		return highestValue >= 0 ? highestValue : Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,137 @@
+package texteditor;
+
+import java.util.Arrays;
+
+/**
+ * The LineLayout class contains the lines of one paragraph for a maximum line
+ * length. Every line of the fixed format is a part of the paragraph text, so
+ * a line is only stored as its start and end offset in the paragraph.
+ * The layout is computed in one pass over the words of the paragraph and does
+ * not reference the paragraph text itself.
+ */
+public class LineLayout {
+	private final int maxLineLength;
+	private final int[] lineBounds;
+	private final int lineCount;
+
+	private LineLayout(int maxLineLength, int[] lineBounds, int lineCount) {
+		this.maxLineLength = maxLineLength;
+		this.lineBounds = lineBounds;
+		this.lineCount = lineCount;
+	}
+
+	/**
+	 * Breaks a paragraph into lines. Words are put on a line as long as they fit,
+	 * words longer than maxLineLength are split into parts of maxLineLength.
+	 *
+	 * @param paragraph
+	 * @param maxLineLength must be greater than 0
+	 * @param tokenizer used to find the words of the paragraph
+	 * @return layout of the paragraph
+	 */
+	public static LineLayout create(CharSequence paragraph, int maxLineLength, Tokenizer tokenizer) {
+		Lines lines = new Lines(new int[8]);
+		breakLines(paragraph, maxLineLength, tokenizer, lines);
+		return new LineLayout(maxLineLength, Arrays.copyOf(lines.bounds, lines.count * 2), lines.count);
+	}
+
+	/**
+	 * Counts the lines of a paragraph like create, but without storing them.
+	 *
+	 * @param paragraph
+	 * @param maxLineLength must be greater than 0
+	 * @param tokenizer used to find the words of the paragraph
+	 * @return number of lines
+	 */
+	public static int countLines(CharSequence paragraph, int maxLineLength, Tokenizer tokenizer) {
+		Lines lines = new Lines(null);
+		breakLines(paragraph, maxLineLength, tokenizer, lines);
+		return lines.count;
+	}
+
+	private static void breakLines(CharSequence paragraph, int maxLineLength, Tokenizer tokenizer, Lines lines) {
+		if (maxLineLength <= 0) {
+			throw new IllegalArgumentException("maxLineLength " + maxLineLength + " is not a positive integer");
+		}
+		int lineStart = -1;
+		int lineEnd = 0;
+
+		tokenizer.reset(paragraph);
+		while (tokenizer.nextToken()) {
+			int wordStart = tokenizer.start();
+			int wordEnd = tokenizer.end();
+			int currentLength = lineStart < 0 ? 0 : lineEnd - lineStart + 1;
+			if (currentLength + (wordEnd - wordStart) > maxLineLength) {
+				if (lineStart >= 0) {
+					lines.add(lineStart, lineEnd);
+					lineStart = -1;
+				}
+				while (wordEnd - wordStart > maxLineLength) {
+					lines.add(wordStart, wordStart + maxLineLength);
+					wordStart += maxLineLength;
+				}
+			}
+			if (lineStart < 0) {
+				lineStart = wordStart;
+			}
+			lineEnd = wordEnd;
+		}
+		if (lineStart < 0) {
+			lineStart = 0;
+		}
+		lines.add(lineStart, lineEnd);
+	}
+
+	/**
+	 * @return maximum line length this layout was created for
+	 */
+	public int getMaxLineLength() {
+		return maxLineLength;
+	}
+
+	/**
+	 * @return number of lines
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @param line
+	 * @return offset of the first character of the line
+	 */
+	public int getLineStart(int line) {
+		return lineBounds[line * 2];
+	}
+
+	/**
+	 * @param line
+	 * @return offset after the last character of the line
+	 */
+	public int getLineEnd(int line) {
+		return lineBounds[line * 2 + 1];
+	}
+
+	/**
+	 * The lines found so far. Without bounds the lines are only counted.
+	 */
+	private static class Lines {
+		private int[] bounds;
+		private int count;
+
+		private Lines(int[] bounds) {
+			this.bounds = bounds;
+		}
+
+		private void add(int start, int end) {
+			if (bounds != null) {
+				if (count * 2 + 1 >= bounds.length) {
+					bounds = Arrays.copyOf(bounds, bounds.length * 2);
+				}
+				bounds[count * 2] = start;
+				bounds[count * 2 + 1] = end;
+			}
+			count++;
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package texteditor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * The LineReader class reads lines from a channel through one reused byte
+ * buffer and one reused char buffer. A line is kept in a growing char array
+ * and can be read as CharSequence without creating a String.
+ * Lines end with \n, \r\n, \r, U+2028, U+2029 or U+0085 like with
+ * Scanner.nextLine.
+ * The reader counts the characters of the lines and the time it waits for the
+ * channel, so the time a command needs can be measured without the input.
+ */
+public class LineReader implements CharSequence {
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+	private final ReadableByteChannel channel;
+	private final CharsetDecoder decoder;
+	private final ByteBuffer bytes;
+	private final CharBuffer chars;
+	private char[] line = new char[256];
+	private int lineLength;
+	private boolean endOfInput;
+	private boolean skipLineFeed;
+	private long charCount;
+	private long waitNanos;
+
+	/**
+	 * Constructor with the channel to read from, using the default charset.
+	 *
+	 * @param channel
+	 */
+	public LineReader(ReadableByteChannel channel) {
+		this(channel, Charset.defaultCharset());
+	}
+
+	/**
+	 * Constructor with channel and charset.
+	 *
+	 * @param channel
+	 * @param charset
+	 */
+	public LineReader(ReadableByteChannel channel, Charset charset) {
+		this(channel, charset, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor with channel, charset and buffer size.
+	 *
+	 * @param channel
+	 * @param charset
+	 * @param bufferSize in bytes and in characters
+	 */
+	public LineReader(ReadableByteChannel channel, Charset charset, int bufferSize) {
+		this.channel = channel;
+		this.bytes = ByteBuffer.allocate(Math.max(bufferSize, 16));
+		this.chars = CharBuffer.allocate(Math.max(bufferSize, 16));
+		this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		chars.flip();
+	}
+
+	/**
+	 * Reads the next line. Its characters can be read through this object until
+	 * the next call.
+	 *
+	 * @return false at the end of the input
+	 */
+	public boolean readLine() {
+		lineLength = 0;
+		boolean hasCharacters = false;
+		while (true) {
+			while (chars.hasRemaining()) {
+				char character = chars.get();
+				hasCharacters = true;
+				if (skipLineFeed) {
+					skipLineFeed = false;
+					if (character == '\n') {
+						hasCharacters = lineLength > 0;
+						continue;
+					}
+				}
+				if (character == '\n' || character == '\u2028' || character == '\u2029'
+						|| character == '\u0085') {
+					charCount += lineLength + 1;
+					return true;
+				} else if (character == '\r') {
+					skipLineFeed = true;
+					charCount += lineLength + 1;
+					return true;
+				}
+				if (lineLength == line.length) {
+					line = Arrays.copyOf(line, lineLength * 2);
+				}
+				line[lineLength++] = character;
+			}
+			if (!fill()) {
+				charCount += lineLength;
+				return hasCharacters;
+			}
+		}
+	}
+
+	/**
+	 * @return the current line as String
+	 */
+	@Override
+	public String toString() {
+		return new String(line, 0, lineLength);
+	}
+
+	@Override
+	public int length() {
+		return lineLength;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index >= lineLength) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return line[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new String(line, start, end - start);
+	}
+
+	/**
+	 * @return number of characters of all lines read so far, a line end is
+	 *         counted as one character
+	 */
+	public long getCharCount() {
+		return charCount;
+	}
+
+	/**
+	 * @return time spent waiting for the channel so far in nanoseconds
+	 */
+	public long getWaitNanos() {
+		return waitNanos;
+	}
+
+	/**
+	 * Closes the channel.
+	 */
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private boolean fill() {
+		if (endOfInput) {
+			return false;
+		}
+		chars.clear();
+		long start = System.nanoTime();
+		try {
+			while (chars.position() == 0) {
+				int read = channel.read(bytes);
+				if (read < 0) {
+					endOfInput = true;
+					bytes.flip();
+					decoder.decode(bytes, chars, true);
+					decoder.flush(chars);
+					break;
+				}
+				bytes.flip();
+				decoder.decode(bytes, chars, false);
+				bytes.compact();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			waitNanos += System.nanoTime() - start;
+		}
+		chars.flip();
+		return chars.hasRemaining();
+	}
+}
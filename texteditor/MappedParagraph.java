@@ -0,0 +1,61 @@
+package texteditor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The MappedParagraph class is a paragraph which stays in a memory-mapped file.
+ * It only refers to its bytes in the mapped buffer, so a loaded file is not
+ * copied into the heap. The bytes must be ASCII characters which are allowed
+ * in a paragraph, then every byte is exactly one character. A String is only
+ * created when toString is called.
+ */
+public class MappedParagraph implements CharSequence {
+	private final ByteBuffer buffer;
+	private final int offset;
+	private final int length;
+
+	/**
+	 * Constructor with the mapped buffer and the position of the paragraph.
+	 *
+	 * @param buffer shared buffer, which is only read with absolute positions
+	 * @param offset position of the first byte
+	 * @param length number of bytes
+	 */
+	public MappedParagraph(ByteBuffer buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return (char) buffer.get(offset + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || start > end || end > length) {
+			throw new IndexOutOfBoundsException();
+		}
+		return new MappedParagraph(buffer, offset + start, end - start);
+	}
+
+	/**
+	 * @return the paragraph as String
+	 */
+	@Override
+	public String toString() {
+		byte[] bytes = new byte[length];
+		buffer.get(offset, bytes);
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
@@ -1,5 +1,12 @@
 package texteditor;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.time.Instant;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -7,6 +14,8 @@ import java.util.Map.Entry;
  * The OutputManager class is responsible for printing texts in the console. It
  * contains all messages stored in data fields and for very message a specific
  * method for printing. It also prints out the paragraphs.
+ * The output is collected in buffered sinks, which are written to the console
+ * when a command is finished, input is requested or the buffer is full.
  */
 public class OutputManager {
 	private final String greetingMessage = "Welcome to text processing";
@@ -17,94 +26,321 @@ public class OutputManager {
 	private final String replaceeRequest = "find: ";
 	private final String replacementRequest = "replacement: ";
 	private final String nothingToReplaceError = "There is no text";
+	private final String replacementsMessage = " replacements in ";
+	private final String paragraphsMessage = " paragraphs";
 	private final String argumentRequest = ": ";
-	private String paragraphNumbers = "";
+	private final String loadError = "File could not be loaded";
+	private final String saveError = "File could not be saved";
+	private final String nothingToUndoError = "Nothing to undo";
+	private final String nothingToRedoError = "Nothing to redo";
+	private final String sessionError = "Session could not be written";
+	private final String notFoundMessage = "Not found";
+	private final String invalidPatternError = "Invalid regular expression";
+	private final String stepBudgetError = "The regular expression needs too many steps";
+	private final String statisticsHeader = "command calls p50[us] p99[us] max[us] bytes allocated";
+	private final String statisticsTimeMessage = "statistics at ";
+	private final String statisticsError = "Statistics could not be written";
+	private final String emptyIndexMessage = "The index is empty";
+	private final String estimateMessage = "Estimated from ";
+	private final String errorBoundMessage = " words of paragraphs, counts are at most ";
+	private final String confidenceMessage = " too high with a probability of ";
+	private final String uncountedMessage = "Words which are not listed occur in at most ";
+	private final OutputSink out;
+	private final OutputSink err;
+	private boolean inputRequestsEnabled = true;
+
 	/**
-	 * Print paragraphs in the fixed format
-	 * 
-	 * @param paragraphs contains an arraylist from the type string with all
-	 *                   paragraphs
+	 * Default constructor which writes to the standard output and error stream.
 	 */
-	public void printParagraphsFixed(List<String> paragraphs) {
-		for (String paragraph : paragraphs) {
-			System.out.println(paragraph);
-		}
+	public OutputManager() {
+		this(Channels.newChannel(new FileOutputStream(FileDescriptor.out)),
+				Channels.newChannel(new FileOutputStream(FileDescriptor.err)));
+	}
+
+	/**
+	 * Constructor with the channels for normal output and for error messages.
+	 *
+	 * @param outChannel
+	 * @param errChannel
+	 */
+	public OutputManager(WritableByteChannel outChannel, WritableByteChannel errChannel) {
+		out = new OutputSink(outChannel);
+		err = new OutputSink(errChannel);
+	}
+
+	/**
+	 * Constructor with the channels and the size of the output buffer. Error
+	 * messages are rare and get a small buffer.
+	 *
+	 * @param outChannel
+	 * @param errChannel
+	 * @param bufferSize in bytes
+	 */
+	public OutputManager(WritableByteChannel outChannel, WritableByteChannel errChannel, int bufferSize) {
+		out = new OutputSink(outChannel, Charset.defaultCharset(), bufferSize);
+		err = new OutputSink(errChannel, Charset.defaultCharset(), 256);
+	}
+
+	/**
+	 * Enables or disables the input requests, like "> ". They are disabled when
+	 * commands are read from a script.
+	 *
+	 * @param inputRequestsEnabled
+	 */
+	public void setInputRequestsEnabled(boolean inputRequestsEnabled) {
+		this.inputRequestsEnabled = inputRequestsEnabled;
+	}
+
+	/**
+	 * Writes all buffered output to the console.
+	 */
+	public void flush() {
+		out.flush();
+		err.flush();
+	}
+
+	/**
+	 * Keeps all output in the buffers until releaseOutput is called, also if
+	 * it is flushed or larger than the buffers.
+	 */
+	public void holdOutput() {
+		out.hold();
+		err.hold();
+	}
+
+	/**
+	 * Writes the output which was held to the console.
+	 */
+	public void releaseOutput() {
+		out.release();
+		err.release();
 	}
 
 	/**
 	 * Print paragraphs in the raw format
 	 * 
-	 * @param paragraphs contains an arraylist from the type string with all
-	 *                   paragraphs
+	 * @param paragraphs contains the document with all paragraphs
 	 */
-	public void printParagraphsRaw(List<String> paragraphs) {
-		for (int i = 0; i < paragraphs.size(); i++) {
-			int paragraphNumber = i;
-			System.out.println(++paragraphNumber + ": " + paragraphs.get(i));
+	public void printParagraphsRaw(Document paragraphs) {
+		int paragraphNumber = 0;
+		for (CharSequence paragraph : paragraphs.texts()) {
+			out.append(++paragraphNumber).append(": ").append(paragraph).newLine();
 		}
 	}
 
+	/**
+	 * Print the paragraphs of a range in the raw format
+	 *
+	 * @param paragraphs contains the document with all paragraphs
+	 * @param from       position of the first printed paragraph
+	 * @param to         position after the last printed paragraph
+	 */
+	public void printParagraphsRaw(Document paragraphs, int from, int to) {
+		for (int paragraphNumber = from; paragraphNumber < to; paragraphNumber++) {
+			out.append(paragraphNumber + 1).append(": ").append(paragraphs.getText(paragraphNumber)).newLine();
+		}
+	}
+
+	/**
+	 * Print lines of a paragraph in the fixed format
+	 *
+	 * @param paragraph
+	 * @param layout    layout of the paragraph for the current format
+	 * @param fromLine  first printed line
+	 * @param toLine    line after the last printed line
+	 */
+	public void printLines(CharSequence paragraph, LineLayout layout, int fromLine, int toLine) {
+		for (int line = fromLine; line < toLine; line++) {
+			out.append(paragraph, layout.getLineStart(line), layout.getLineEnd(line)).newLine();
+		}
+	}
+
+	/**
+	 * Print lines which were already encoded with the charset of the output
+	 *
+	 * @param bytes
+	 */
+	public void printEncoded(ByteBuffer bytes) {
+		out.append(bytes);
+	}
+
+	/**
+	 * @return the charset of the normal output
+	 */
+	public Charset getCharset() {
+		return out.getCharset();
+	}
+
 	/**
 	 * Print greeting Message
 	 */
 	public void printGreeting() {
-		System.out.println(greetingMessage);
+		out.append(greetingMessage).newLine();
 	}
 
 	/**
 	 * Print invalid argument error
 	 */
 	public void printInvalidArgumentError() {
-		System.err.println(errorMessageInvalidArgument);
+		printError(errorMessageInvalidArgument);
 	}
 
 	/**
 	 * Print invalid command error
 	 */
 	public void printInvalidCommandError() {
-		System.err.println(errorMessageInvalidCommand);
+		printError(errorMessageInvalidCommand);
 	}
 
 	/**
 	 * Print the line for the input (line for command) with a >
 	 */
 	public void printInputRequest() {
-		System.out.print(inputRequest);
+		printRequest(inputRequest);
 	}
 
 	/**
 	 * Print the line for the input (line for argument) with a :
 	 */
 	public void printArgumentRequest() {
-		System.out.print(argumentRequest);
+		printRequest(argumentRequest);
 	}
 
 	/**
 	 * Print exit message
 	 */
 	public void printExitMessage() {
-		System.out.println(exitMessage);
+		out.append(exitMessage).newLine();
+		out.flush();
+	}
+
+	/**
+	 * Print the number of processed commands and commands per second of a
+	 * script to the error stream, so it does not mix with the text output.
+	 *
+	 * @param commandCount
+	 * @param nanos        time used for all commands
+	 */
+	public void printBatchSummary(long commandCount, long nanos) {
+		out.flush();
+		long millis = nanos / 1_000_000;
+		long commandsPerSecond = nanos > 0 ? (long) (commandCount * 1e9 / nanos) : commandCount;
+		err.append(Long.toString(commandCount)).append(" commands in ").append(Long.toString(millis))
+				.append(" ms (").append(Long.toString(commandsPerSecond)).append(" commands/s)").newLine();
+		err.flush();
+	}
+
+	/**
+	 * @return number of bytes printed so far to the output and error stream
+	 */
+	public long getByteCount() {
+		return out.getByteCount() + err.getByteCount();
+	}
+
+	/**
+	 * Print the number of calls, the median, 99th percentile and maximum
+	 * duration in microseconds, the processed bytes and the allocated memory of
+	 * every command which was used.
+	 *
+	 * @param statistics
+	 */
+	public void printCommandStatistics(CommandStatistics statistics) {
+		out.append(statisticsHeader).newLine();
+		for (Command command : Command.values()) {
+			LatencyHistogram histogram = statistics.getHistogram(command);
+			if (histogram.getCount() > 0) {
+				out.append(command.name()).append(' ').append(Long.toString(histogram.getCount())).append(' ')
+						.append(Long.toString(histogram.getValueAtPercentile(50) / 1000)).append(' ')
+						.append(Long.toString(histogram.getValueAtPercentile(99) / 1000)).append(' ')
+						.append(Long.toString(histogram.getMax() / 1000)).append(' ')
+						.append(Long.toString(statistics.getBytes(command))).append(' ')
+						.append(Long.toString(statistics.getAllocatedBytes(command))).newLine();
+			}
+		}
+	}
+
+	/**
+	 * Print the time of a statistics dump
+	 *
+	 * @param time
+	 */
+	public void printStatisticsTime(Instant time) {
+		out.append(statisticsTimeMessage).append(time.toString()).newLine();
 	}
 
 	/**
 	 * Print the index of all paragraphs
 	 * 
-	 * @param treeMap contains a string for the words and an arraylist in which
-	 *                paragraphs the words are found
+	 * @param wordIndex contains a string for the words and a posting list in which
+	 *                  paragraphs the words are found, in the order of printing
+	 */
+	public void printIndex(Map<String, PostingList> wordIndex) {
+		if (wordIndex.isEmpty()) {
+			out.append(emptyIndexMessage).newLine();
+		} else {
+			for (Entry<String, PostingList> map : wordIndex.entrySet()) {
+				out.append(map.getKey()).append(' ');
+				PrimitiveIterator.OfInt iterator = map.getValue().iterator();
+				while (iterator.hasNext()) {
+					out.append(iterator.nextInt() + 1);
+					if (iterator.hasNext()) {
+						out.append(',');
+					}
+				}
+				out.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Print the estimated number of paragraphs of the most frequent words. A
+	 * count which is not exact is printed as range from the lowest to the
+	 * highest possible count. The error bound of the sketch and the highest
+	 * count of the words which are not listed follow.
+	 *
+	 * @param words        the most frequent words, highest count first
+	 * @param heavyHitters the counters the words were taken from
+	 */
+	public void printApproximateIndex(List<HeavyHitters.WordCount> words, HeavyHitters heavyHitters) {
+		if (words.isEmpty()) {
+			out.append(emptyIndexMessage).newLine();
+		}
+		for (HeavyHitters.WordCount word : words) {
+			out.append(word.getWord()).append(' ');
+			if (word.getMinCount() < word.getCount()) {
+				out.append(Long.toString(word.getMinCount())).append('-');
+			}
+			out.append(Long.toString(word.getCount())).newLine();
+		}
+		CountMinSketch sketch = heavyHitters.getSketch();
+		out.append(estimateMessage).append(Long.toString(sketch.getTotal())).append(errorBoundMessage)
+				.append(Long.toString(sketch.getErrorBound())).append(confidenceMessage)
+				.append(String.format(Locale.ROOT, "%.1f%%", sketch.getConfidence() * 100)).newLine();
+		out.append(uncountedMessage).append(Long.toString(heavyHitters.getUncountedBound()))
+				.append(paragraphsMessage).newLine();
+	}
+
+	/**
+	 * Print the paragraphs in which a word or phrase was found
+	 *
+	 * @param matches contains the paragraph numbers starting at 0 and the
+	 *                character offsets of the matches in the paragraph
 	 */
-	public void printIndex(TreeMap<String, ArrayList<Integer>> treeMap) {
-		if (treeMap.isEmpty()) {
-			System.out.println("The index is empty");
+	public void printFindResults(TreeMap<Integer, int[]> matches) {
+		if (matches.isEmpty()) {
+			out.append(notFoundMessage).newLine();
 		} else {
-			for (Entry<String, ArrayList<Integer>> map : treeMap.entrySet()) {
-				for (Integer set : map.getValue()) {
-					paragraphNumbers += ++set + ",";
+			for (Entry<Integer, int[]> match : matches.entrySet()) {
+				out.append(match.getKey() + 1).append(": ");
+				int[] offsets = match.getValue();
+				for (int i = 0; i < offsets.length; i++) {
+					if (i > 0) {
+						out.append(',');
+					}
+					out.append(offsets[i]);
 				}
-				paragraphNumbers = paragraphNumbers.substring(0, paragraphNumbers.length() - 1);
-				System.out.println(map.getKey() + " " + paragraphNumbers);
-				paragraphNumbers = "";
+				out.newLine();
 			}
-			paragraphNumbers = "";
 		}
 	}
 
@@ -112,20 +348,109 @@ public class OutputManager {
 	 * Print the line for input (line for word to replace)
 	 */
 	public void printReplaceeRequest() {
-		System.out.print(replaceeRequest);
+		printRequest(replaceeRequest);
 	}
 
 	/**
 	 * Print the line for input ( line for replacement)
 	 */
 	public void printReplacementRequest() {
-		System.out.print(replacementRequest);
+		printRequest(replacementRequest);
+	}
+
+	/**
+	 * Print the number of replacements of every search string which was found
+	 * and the total number of replacements.
+	 *
+	 * @param replacees       search strings
+	 * @param counts          number of replacements per search string
+	 * @param paragraphCount  number of changed paragraphs
+	 */
+	public void printReplacementCounts(List<String> replacees, long[] counts, int paragraphCount) {
+		long total = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				out.append(replacees.get(i)).append(": ").append(Long.toString(counts[i])).newLine();
+				total += counts[i];
+			}
+		}
+		out.append(Long.toString(total)).append(replacementsMessage).append(paragraphCount).append(paragraphsMessage)
+				.newLine();
 	}
 
 	/**
 	 * Print nothing to replace error
 	 */
 	public void printNothingToReplaceError() {
-		System.err.println(nothingToReplaceError);
+		printError(nothingToReplaceError);
+	}
+
+	/**
+	 * Print load error
+	 */
+	public void printLoadError() {
+		printError(loadError);
+	}
+
+	/**
+	 * Print save error
+	 */
+	public void printSaveError() {
+		printError(saveError);
+	}
+
+	/**
+	 * Print nothing to undo error
+	 */
+	public void printNothingToUndoError() {
+		printError(nothingToUndoError);
+	}
+
+	/**
+	 * Print nothing to redo error
+	 */
+	public void printNothingToRedoError() {
+		printError(nothingToRedoError);
+	}
+
+	/**
+	 * Print session error
+	 */
+	public void printSessionError() {
+		printError(sessionError);
+	}
+
+	/**
+	 * Print invalid pattern error
+	 */
+	public void printInvalidPatternError() {
+		printError(invalidPatternError);
+	}
+
+	/**
+	 * Print step budget error
+	 */
+	public void printStepBudgetError() {
+		printError(stepBudgetError);
+	}
+
+	/**
+	 * Print statistics error
+	 */
+	public void printStatisticsError() {
+		printError(statisticsError);
+	}
+
+	private void printRequest(String request) {
+		if (inputRequestsEnabled) {
+			out.append(request);
+			out.flush();
+		}
+	}
+
+	private void printError(String message) {
+		out.flush();
+		err.append(message).newLine();
+		err.flush();
 	}
 }
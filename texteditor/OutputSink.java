@@ -0,0 +1,268 @@
+package texteditor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * The OutputSink class collects console output in one large, reused buffer
+ * and writes it to a channel when the buffer is full or flush is called.
+ * Characters are encoded directly into the buffer, ASCII characters without
+ * calling the encoder. Numbers are written digit by digit without creating a
+ * String. This replaces one synchronized and flushed System.out.println per
+ * line with a few large writes per command.
+ * While the output is held, the buffer grows instead of being written, so a
+ * command which holds a lock does not wait for a slow reader of the channel.
+ */
+public class OutputSink {
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+	private final WritableByteChannel channel;
+	private final int bufferSize;
+	private ByteBuffer buffer;
+	private final CharsetEncoder encoder;
+	private final CharBuffer pendingChars = CharBuffer.allocate(2);
+	private final String lineSeparator = System.lineSeparator();
+	private final char[] digits = new char[11];
+	private final char[] chars = new char[1024];
+	private long writtenBytes;
+	private boolean held;
+
+	/**
+	 * Constructor with the channel the output is written to, using the default
+	 * charset and buffer size.
+	 *
+	 * @param channel
+	 */
+	public OutputSink(WritableByteChannel channel) {
+		this(channel, Charset.defaultCharset(), DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor with channel, charset and buffer size.
+	 *
+	 * @param channel
+	 * @param charset must be compatible with ASCII
+	 * @param bufferSize in bytes
+	 */
+	public OutputSink(WritableByteChannel channel, Charset charset, int bufferSize) {
+		this.channel = channel;
+		this.bufferSize = Math.max(bufferSize, 16);
+		this.buffer = ByteBuffer.allocate(this.bufferSize);
+		this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Appends a text.
+	 *
+	 * @param text
+	 * @return this sink
+	 */
+	public OutputSink append(CharSequence text) {
+		return append(text, 0, text.length());
+	}
+
+	/**
+	 * Appends a part of a text.
+	 *
+	 * @param text
+	 * @param start offset of the first character
+	 * @param end offset after the last character
+	 * @return this sink
+	 */
+	public OutputSink append(CharSequence text, int start, int end) {
+		if (text instanceof String) {
+			String string = (String) text;
+			while (start < end) {
+				int count = Math.min(end - start, chars.length);
+				string.getChars(start, start + count, chars, 0);
+				if (count < end - start && Character.isHighSurrogate(chars[count - 1])) {
+					count--;
+				}
+				appendChars(count);
+				start += count;
+			}
+		} else {
+			for (int i = start; i < end; i++) {
+				append(text.charAt(i));
+			}
+		}
+		return this;
+	}
+
+	private void appendChars(int count) {
+		byte[] bytes = buffer.array();
+		int position = buffer.position();
+		for (int i = 0; i < count; i++) {
+			char character = chars[i];
+			if (character < 0x80) {
+				if (position == bytes.length) {
+					buffer.position(position);
+					flushBuffer();
+					bytes = buffer.array();
+					position = buffer.position();
+				}
+				bytes[position++] = (byte) character;
+			} else {
+				buffer.position(position);
+				if (Character.isHighSurrogate(character) && i + 1 < count) {
+					encode(character, chars[++i]);
+				} else {
+					encode(character, '\0');
+				}
+				position = buffer.position();
+			}
+		}
+		buffer.position(position);
+	}
+
+	/**
+	 * Appends a single character.
+	 *
+	 * @param character
+	 * @return this sink
+	 */
+	public OutputSink append(char character) {
+		if (character < 0x80) {
+			if (!buffer.hasRemaining()) {
+				flushBuffer();
+			}
+			buffer.put((byte) character);
+		} else {
+			encode(character, '\0');
+		}
+		return this;
+	}
+
+	/**
+	 * Appends the decimal digits of a number without creating a String.
+	 *
+	 * @param number
+	 * @return this sink
+	 */
+	public OutputSink append(int number) {
+		if (number == Integer.MIN_VALUE) {
+			return append(Integer.toString(number));
+		}
+		if (number < 0) {
+			append('-');
+			number = -number;
+		}
+		int position = digits.length;
+		do {
+			digits[--position] = (char) ('0' + number % 10);
+			number /= 10;
+		} while (number > 0);
+		while (position < digits.length) {
+			append(digits[position++]);
+		}
+		return this;
+	}
+
+	/**
+	 * Appends bytes which were already encoded with the charset of this sink.
+	 *
+	 * @param bytes the remaining bytes are appended
+	 * @return this sink
+	 */
+	public OutputSink append(ByteBuffer bytes) {
+		while (bytes.hasRemaining()) {
+			if (!buffer.hasRemaining()) {
+				flushBuffer();
+			}
+			int count = Math.min(bytes.remaining(), buffer.remaining());
+			buffer.put(buffer.position(), bytes, bytes.position(), count);
+			buffer.position(buffer.position() + count);
+			bytes.position(bytes.position() + count);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the charset the characters are encoded with
+	 */
+	public Charset getCharset() {
+		return encoder.charset();
+	}
+
+	/**
+	 * Appends the line separator of the system.
+	 *
+	 * @return this sink
+	 */
+	public OutputSink newLine() {
+		return append(lineSeparator);
+	}
+
+	/**
+	 * @return number of bytes appended so far, written or buffered
+	 */
+	public long getByteCount() {
+		return writtenBytes + buffer.position();
+	}
+
+	/**
+	 * Writes the buffered output to the channel, unless the output is held.
+	 */
+	public void flush() {
+		if (!held) {
+			flushBuffer();
+		}
+	}
+
+	/**
+	 * Holds the output until release is called. Nothing is written to the
+	 * channel in the meantime, the buffer grows as needed.
+	 */
+	public void hold() {
+		held = true;
+	}
+
+	/**
+	 * Writes the held output to the channel and returns to the buffer size
+	 * given to the constructor.
+	 */
+	public void release() {
+		held = false;
+		flushBuffer();
+		if (buffer.capacity() > bufferSize) {
+			buffer = ByteBuffer.allocate(bufferSize);
+		}
+	}
+
+	private void encode(char character, char lowSurrogate) {
+		pendingChars.clear();
+		pendingChars.put(character);
+		if (lowSurrogate != '\0') {
+			pendingChars.put(lowSurrogate);
+		}
+		pendingChars.flip();
+		encoder.reset();
+		while (encoder.encode(pendingChars, buffer, true).isOverflow()) {
+			flushBuffer();
+		}
+	}
+
+	private void flushBuffer() {
+		if (held) {
+			buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+			return;
+		}
+		buffer.flip();
+		writtenBytes += buffer.remaining();
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			buffer.clear();
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package texteditor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * The ParagraphArena class stores the text of paragraphs outside of the heap.
+ * The characters are packed as Latin-1 bytes, one byte per character, into
+ * large direct buffers called segments, and a paragraph is a small
+ * CharSequence view on its bytes. Millions of paragraphs therefore cost a few
+ * large buffers instead of millions of Strings the garbage collector has to
+ * mark and copy. Texts with a character above Latin-1 are kept as String.
+ * Removed paragraphs leave unused bytes in their segment. Compaction copies
+ * the paragraphs of mostly unused segments to the current segment, so the old
+ * segments are no longer referenced by the document. A segment is freed by
+ * the garbage collector once no view refers to it any more, so snapshots and
+ * the undo journal can keep using old views safely.
+ */
+public class ParagraphArena {
+	private static final int DEFAULT_SEGMENT_SIZE = 4 << 20;
+	private final int segmentSize;
+	private final ArrayList<Segment> segments = new ArrayList<>();
+	private Segment current;
+
+	/**
+	 * Default constructor with segments of 4 MB.
+	 */
+	public ParagraphArena() {
+		this(DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Constructor with the size of the segments in bytes. Longer texts get a
+	 * segment of their own.
+	 *
+	 * @param segmentSize
+	 */
+	public ParagraphArena(int segmentSize) {
+		if (segmentSize <= 0) {
+			throw new IllegalArgumentException("segmentSize must be positive");
+		}
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Stores a text which becomes part of a document. A view of this arena is
+	 * not copied again, it is only counted as used.
+	 *
+	 * @param text
+	 * @return a view on the stored bytes, or the text as String if it can not
+	 *         be stored as Latin-1
+	 */
+	public synchronized CharSequence store(CharSequence text) {
+		if (text instanceof ArenaParagraph) {
+			ArenaParagraph paragraph = (ArenaParagraph) text;
+			if (paragraph.segment.arena == this && !paragraph.segment.freed) {
+				paragraph.segment.liveBytes += paragraph.length;
+				return paragraph;
+			}
+		}
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(i) > 0xFF) {
+				return text.toString();
+			}
+		}
+		return copy(text);
+	}
+
+	/**
+	 * Marks the text of a paragraph which was removed from a document as
+	 * unused.
+	 *
+	 * @param text a text returned by store
+	 */
+	public synchronized void release(CharSequence text) {
+		if (text instanceof ArenaParagraph) {
+			ArenaParagraph paragraph = (ArenaParagraph) text;
+			if (paragraph.segment.arena == this) {
+				paragraph.segment.liveBytes -= paragraph.length;
+			}
+		}
+	}
+
+	/**
+	 * Starts a compaction. Every segment except the current one which is less
+	 * than half used is selected to be emptied.
+	 *
+	 * @return true if a segment was selected
+	 */
+	synchronized boolean beginCompaction() {
+		boolean selected = false;
+		for (Segment segment : segments) {
+			if (segment != current && segment.liveBytes * 2 < segment.usedBytes) {
+				segment.evacuated = true;
+				selected = true;
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Moves a text out of a segment which is emptied by the compaction.
+	 *
+	 * @param text a text returned by store
+	 * @return the moved text, or the same text if it does not need to be moved
+	 */
+	CharSequence relocate(CharSequence text) {
+		if (!(text instanceof ArenaParagraph) || !((ArenaParagraph) text).segment.evacuated) {
+			return text;
+		}
+		synchronized (this) {
+			ArenaParagraph paragraph = (ArenaParagraph) text;
+			paragraph.segment.liveBytes -= paragraph.length;
+			return copy(paragraph);
+		}
+	}
+
+	/**
+	 * Finishes a compaction. The emptied segments are removed, so texts which
+	 * still refer to them are copied when they are stored again.
+	 */
+	synchronized void finishCompaction() {
+		for (Iterator<Segment> iterator = segments.iterator(); iterator.hasNext();) {
+			Segment segment = iterator.next();
+			if (segment.evacuated) {
+				segment.freed = true;
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return true if a compaction would empty a segment
+	 */
+	public synchronized boolean needsCompaction() {
+		for (Segment segment : segments) {
+			if (segment != current && segment.liveBytes * 2 < segment.usedBytes) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of segments of the arena
+	 */
+	public synchronized int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * @return the capacity of all segments in bytes
+	 */
+	public synchronized long getAllocatedBytes() {
+		long bytes = 0;
+		for (Segment segment : segments) {
+			bytes += segment.buffer.capacity();
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the bytes of the texts which are part of a document
+	 */
+	public synchronized long getLiveBytes() {
+		long bytes = 0;
+		for (Segment segment : segments) {
+			bytes += segment.liveBytes;
+		}
+		return bytes;
+	}
+
+	private ArenaParagraph copy(CharSequence text) {
+		int length = text.length();
+		if (current == null || current.buffer.capacity() - current.usedBytes < length) {
+			current = new Segment(this, ByteBuffer.allocateDirect(Math.max(segmentSize, length)));
+			segments.add(current);
+		}
+		ByteBuffer buffer = current.buffer;
+		int offset = current.usedBytes;
+		if (text instanceof ArenaParagraph) {
+			ArenaParagraph paragraph = (ArenaParagraph) text;
+			buffer.put(offset, paragraph.segment.buffer, paragraph.offset, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				buffer.put(offset + i, (byte) text.charAt(i));
+			}
+		}
+		current.usedBytes += length;
+		current.liveBytes += length;
+		return new ArenaParagraph(current, offset, length);
+	}
+
+	private static class Segment {
+		private final ParagraphArena arena;
+		private final ByteBuffer buffer;
+		private int usedBytes;
+		private long liveBytes;
+		private volatile boolean evacuated;
+		private boolean freed;
+
+		private Segment(ParagraphArena arena, ByteBuffer buffer) {
+			this.arena = arena;
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * A paragraph stored in a segment. The bytes of a view are never changed,
+	 * so it can be read on any thread without a lock.
+	 */
+	private static class ArenaParagraph implements CharSequence {
+		private final Segment segment;
+		private final int offset;
+		private final int length;
+
+		private ArenaParagraph(Segment segment, int offset, int length) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return (char) (segment.buffer.get(offset + index) & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || end > length || start > end) {
+				throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+			}
+			return new ArenaParagraph(segment, offset + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[length];
+			segment.buffer.get(offset, bytes);
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package texteditor;
+
+/**
+ * The ParagraphMeasure interface gives every paragraph a size, like its number
+ * of formatted lines. A document can sum the measure of its paragraphs, so the
+ * paragraph which contains a given formatted line is found without formatting
+ * the paragraphs before it.
+ * A RopeDocument keeps the sums in its nodes while the measure is equal to the
+ * one they were computed with. A measure must therefore give the same size
+ * for the same text, and equal measures must give equal sizes.
+ */
+@FunctionalInterface
+public interface ParagraphMeasure {
+
+	/**
+	 * @param paragraph
+	 * @return size of the paragraph, not negative
+	 */
+	int measure(CharSequence paragraph);
+}
@@ -0,0 +1,198 @@
+package texteditor;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * The ParagraphOrder class keeps one entry per paragraph in document order.
+ * An entry stays the same object while paragraphs before it are inserted or
+ * deleted, and its current paragraph number can be asked for at any time.
+ * This allows structures like the word index to refer to paragraphs without
+ * renumbering them after every edit.
+ * The entries are stored in a treap with parent links, all operations run in
+ * O(log n).
+ *
+ * @param <T> type of the value stored with each paragraph
+ */
+public class ParagraphOrder<T> {
+	private final Random random = new Random();
+	private Entry<T> root;
+
+	/**
+	 * Inserts a new entry at the specific paragraph number.
+	 *
+	 * @param paragraphNumber
+	 * @param value
+	 * @return the new entry
+	 */
+	public Entry<T> insert(int paragraphNumber, T value) {
+		Objects.checkIndex(paragraphNumber, size() + 1);
+		Entry<T> entry = new Entry<>(value, random.nextInt());
+		Entry<T>[] parts = split(root, paragraphNumber);
+		root = merge(merge(parts[0], entry), parts[1]);
+		root.parent = null;
+		return entry;
+	}
+
+	/**
+	 * Removes the entry at the specific paragraph number.
+	 *
+	 * @param paragraphNumber
+	 * @return the removed entry
+	 */
+	public Entry<T> remove(int paragraphNumber) {
+		Objects.checkIndex(paragraphNumber, size());
+		Entry<T>[] head = split(root, paragraphNumber);
+		Entry<T>[] tail = split(head[1], 1);
+		root = merge(head[0], tail[1]);
+		if (root != null) {
+			root.parent = null;
+		}
+		Entry<T> entry = tail[0];
+		entry.parent = null;
+		return entry;
+	}
+
+	/**
+	 * Returns the entry at the specific paragraph number.
+	 *
+	 * @param paragraphNumber
+	 * @return entry
+	 */
+	public Entry<T> get(int paragraphNumber) {
+		Objects.checkIndex(paragraphNumber, size());
+		Entry<T> entry = root;
+		while (true) {
+			int leftSize = size(entry.left);
+			if (paragraphNumber < leftSize) {
+				entry = entry.left;
+			} else if (paragraphNumber == leftSize) {
+				return entry;
+			} else {
+				paragraphNumber -= leftSize + 1;
+				entry = entry.right;
+			}
+		}
+	}
+
+	/**
+	 * Returns the current paragraph number of an entry in this order.
+	 *
+	 * @param entry
+	 * @return paragraph number starting at 0
+	 */
+	public int paragraphNumberOf(Entry<T> entry) {
+		int paragraphNumber = size(entry.left);
+		while (entry.parent != null) {
+			if (entry == entry.parent.right) {
+				paragraphNumber += size(entry.parent.left) + 1;
+			}
+			entry = entry.parent;
+		}
+		return paragraphNumber;
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Entry<T>[] split(Entry<T> entry, int count) {
+		Entry<T>[] parts = (Entry<T>[]) new Entry<?>[2];
+		if (entry == null) {
+			return parts;
+		}
+		int leftSize = size(entry.left);
+		if (count <= leftSize) {
+			Entry<T>[] leftParts = split(entry.left, count);
+			entry.left = leftParts[1];
+			update(entry);
+			parts[0] = leftParts[0];
+			parts[1] = entry;
+		} else {
+			Entry<T>[] rightParts = split(entry.right, count - leftSize - 1);
+			entry.right = rightParts[0];
+			update(entry);
+			parts[0] = entry;
+			parts[1] = rightParts[1];
+		}
+		if (parts[0] != null) {
+			parts[0].parent = null;
+		}
+		if (parts[1] != null) {
+			parts[1].parent = null;
+		}
+		return parts;
+	}
+
+	private Entry<T> merge(Entry<T> left, Entry<T> right) {
+		if (left == null) {
+			return right;
+		} else if (right == null) {
+			return left;
+		} else if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			update(left);
+			return left;
+		} else {
+			right.left = merge(left, right.left);
+			update(right);
+			return right;
+		}
+	}
+
+	private static <T> void update(Entry<T> entry) {
+		entry.size = size(entry.left) + size(entry.right) + 1;
+		if (entry.left != null) {
+			entry.left.parent = entry;
+		}
+		if (entry.right != null) {
+			entry.right.parent = entry;
+		}
+	}
+
+	private static int size(Entry<?> entry) {
+		return entry == null ? 0 : entry.size;
+	}
+
+	/**
+	 * One paragraph in the order together with its value.
+	 *
+	 * @param <T> type of the value
+	 */
+	public static class Entry<T> {
+		private T value;
+		private final int priority;
+		private Entry<T> left;
+		private Entry<T> right;
+		private Entry<T> parent;
+		private int size;
+
+		private Entry(T value, int priority) {
+			this.value = value;
+			this.priority = priority;
+			this.size = 1;
+		}
+
+		/**
+		 * Getter for value.
+		 *
+		 * @return
+		 */
+		public T getValue() {
+			return value;
+		}
+
+		/**
+		 * Setter for value.
+		 *
+		 * @param value
+		 */
+		public void setValue(T value) {
+			this.value = value;
+		}
+	}
+}
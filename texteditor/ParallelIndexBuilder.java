@@ -0,0 +1,218 @@
+package texteditor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The ParallelIndexBuilder class generates the same word index as
+ * TextProcessor.getWordIndex, but splits the paragraphs into ranges which are
+ * indexed in parallel in a ForkJoinPool. Every range collects the posting
+ * lists of its own words and finds them by the id of the word in the WordTable,
+ * so its size does not depend on the number of words in the table. Two ranges
+ * are merged by appending the postings of the right range to the left one, so
+ * the paragraph numbers stay ascending. Words
+ * occurring in three paragraphs or less are only removed after all ranges were
+ * merged. Unless a table is given, every index is built with a new WordTable.
+ * The paragraphs of a Document are read with getText, so loaded paragraphs are
+ * not turned into Strings.
+ */
+public class ParallelIndexBuilder {
+	private static final int DEFAULT_RANGE_SIZE = 4096;
+	private final ForkJoinPool pool;
+	private final int rangeSize;
+	private final WordTable wordTable;
+
+	/**
+	 * Default constructor which uses the common pool.
+	 */
+	public ParallelIndexBuilder() {
+		this(ForkJoinPool.commonPool(), DEFAULT_RANGE_SIZE);
+	}
+
+	/**
+	 * Constructor with pool and the number of paragraphs which are indexed by
+	 * one task.
+	 *
+	 * @param pool
+	 * @param rangeSize
+	 */
+	public ParallelIndexBuilder(ForkJoinPool pool, int rangeSize) {
+		this(pool, rangeSize, null);
+	}
+
+	/**
+	 * Constructor with pool, the number of paragraphs which are indexed by one
+	 * task and the table which gives the words their ids.
+	 *
+	 * @param pool
+	 * @param rangeSize
+	 * @param wordTable table for all indexes, or null for a new table per index
+	 */
+	public ParallelIndexBuilder(ForkJoinPool pool, int rangeSize, WordTable wordTable) {
+		if (rangeSize <= 0) {
+			throw new IllegalArgumentException("rangeSize must be positive");
+		}
+		this.pool = pool;
+		this.rangeSize = rangeSize;
+		this.wordTable = wordTable;
+	}
+
+	/**
+	 * Generates a collection of word index, in which paragraphs the word occur.
+	 * Only words, which occur more than three times will be listed.
+	 *
+	 * @param paragraphs
+	 * @return tree map with word index
+	 */
+	public TreeMap<String, PostingList> getWordIndex(List<? extends CharSequence> paragraphs) {
+		WordTable table = getWordTable();
+		RangeIndex words = pool.invoke(new IndexTask(paragraphs, 0, paragraphs.size(), false, table));
+		return table.createWordIndex(words.toPostingLists(table.size()), IndexOptions.DEFAULT_MIN_PARAGRAPH_COUNT);
+	}
+
+	/**
+	 * Generates a word index with the minimum number of paragraphs, the case
+	 * folding and the number of listed words of the options. If only the words
+	 * of the most paragraphs are listed, they are ordered by their number of
+	 * paragraphs, otherwise alphabetically.
+	 *
+	 * @param paragraphs
+	 * @param options
+	 * @return map with word index in the order of the words
+	 */
+	public Map<String, PostingList> getWordIndex(List<? extends CharSequence> paragraphs, IndexOptions options) {
+		WordTable table = getWordTable();
+		RangeIndex words = pool
+				.invoke(new IndexTask(paragraphs, 0, paragraphs.size(), options.isCaseFolded(), table));
+		PostingList[] postingLists = words.toPostingLists(table.size());
+		if (options.getTopCount() > 0) {
+			return table.createTopWordIndex(postingLists, options.getMinParagraphCount(), options.getTopCount());
+		}
+		return table.createWordIndex(postingLists, options.getMinParagraphCount());
+	}
+
+	private WordTable getWordTable() {
+		return wordTable != null ? wordTable : new WordTable();
+	}
+
+	private class IndexTask extends RecursiveTask<RangeIndex> {
+		private static final long serialVersionUID = 1L;
+		private final List<? extends CharSequence> paragraphs;
+		private final int from;
+		private final int to;
+		private final boolean caseFolded;
+		private final WordTable table;
+
+		private IndexTask(List<? extends CharSequence> paragraphs, int from, int to, boolean caseFolded,
+				WordTable table) {
+			this.paragraphs = paragraphs;
+			this.from = from;
+			this.to = to;
+			this.caseFolded = caseFolded;
+			this.table = table;
+		}
+
+		@Override
+		protected RangeIndex compute() {
+			if (to - from <= rangeSize) {
+				return indexRange();
+			}
+			int middle = (from + to) >>> 1;
+			IndexTask right = new IndexTask(paragraphs, middle, to, caseFolded, table);
+			right.fork();
+			RangeIndex leftWords = new IndexTask(paragraphs, from, middle, caseFolded, table).compute();
+			leftWords.appendAll(right.join());
+			return leftWords;
+		}
+
+		private RangeIndex indexRange() {
+			TextProcessor textProcessor = new TextProcessor(table);
+			Document document = paragraphs instanceof Document ? (Document) paragraphs : null;
+			RangeIndex words = new RangeIndex();
+			for (int paragraphNumber = from; paragraphNumber < to; paragraphNumber++) {
+				CharSequence paragraph = document != null ? document.getText(paragraphNumber)
+						: paragraphs.get(paragraphNumber);
+				for (int id : textProcessor.getIndexWordIds(paragraph, caseFolded)) {
+					words.getPostingList(id).append(paragraphNumber);
+				}
+			}
+			return words;
+		}
+	}
+
+	/**
+	 * The posting lists of the words of a range. An open addressing hash table
+	 * maps the id of a word to its position plus one, 0 marks an empty slot.
+	 */
+	private static class RangeIndex {
+		private int[] slots = new int[64];
+		private int[] ids = new int[32];
+		private PostingList[] postingLists = new PostingList[32];
+		private int count;
+
+		private PostingList getPostingList(int id) {
+			int slot = find(id);
+			return slots[slot] == 0 ? add(id, new PostingList()) : postingLists[slots[slot] - 1];
+		}
+
+		/**
+		 * Appends the postings of a range which follows this range.
+		 */
+		private void appendAll(RangeIndex next) {
+			for (int i = 0; i < next.count; i++) {
+				int slot = find(next.ids[i]);
+				if (slots[slot] == 0) {
+					add(next.ids[i], next.postingLists[i]);
+				} else {
+					postingLists[slots[slot] - 1].appendAll(next.postingLists[i]);
+				}
+			}
+		}
+
+		/**
+		 * @param size number of ids
+		 * @return posting list of every id, null for ids without paragraphs
+		 */
+		private PostingList[] toPostingLists(int size) {
+			PostingList[] words = new PostingList[size];
+			for (int i = 0; i < count; i++) {
+				words[ids[i]] = postingLists[i];
+			}
+			return words;
+		}
+
+		private PostingList add(int id, PostingList postingList) {
+			if (count == ids.length) {
+				grow();
+			}
+			ids[count] = id;
+			postingLists[count] = postingList;
+			count++;
+			slots[find(id)] = count;
+			return postingList;
+		}
+
+		private int find(int id) {
+			int mask = slots.length - 1;
+			int hash = id * 0x9E3779B9;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (slots[slot] != 0 && ids[slots[slot] - 1] != id) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private void grow() {
+			slots = new int[slots.length * 2];
+			ids = Arrays.copyOf(ids, count * 2);
+			postingLists = Arrays.copyOf(postingLists, count * 2);
+			for (int i = 0; i < count; i++) {
+				slots[find(ids[i])] = i + 1;
+			}
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package texteditor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The PatternCache class keeps the most recently used compiled regular
+ * expressions, so a pattern which is used again is not compiled again. When
+ * the cache is full, the pattern which was not used for the longest time is
+ * dropped.
+ */
+public class PatternCache {
+	private final LinkedHashMap<String, Pattern> patterns;
+
+	/**
+	 * Constructor with the number of patterns which are kept.
+	 *
+	 * @param capacity
+	 */
+	public PatternCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		patterns = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the compiled pattern of a regular expression.
+	 *
+	 * @param regex
+	 * @return compiled pattern
+	 * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+	 */
+	public Pattern get(String regex) {
+		Pattern pattern = patterns.get(regex);
+		if (pattern == null) {
+			pattern = Pattern.compile(regex);
+			patterns.put(regex, pattern);
+		}
+		return pattern;
+	}
+
+	/**
+	 * @return number of cached patterns
+	 */
+	public int size() {
+		return patterns.size();
+	}
+}
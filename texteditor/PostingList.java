@@ -0,0 +1,203 @@
+package texteditor;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+
+/**
+ * The PostingList class stores the ascending paragraph numbers of one word in
+ * the word index. While the list is built the numbers are kept in an int array.
+ * After sealing, the differences between following numbers are stored as
+ * variable length bytes, which needs one or two bytes per paragraph number
+ * instead of a boxed Integer and a reference.
+ * The list can be compared with every other list of Integers, reading it
+ * without boxing is possible with the primitive iterator.
+ */
+public class PostingList extends AbstractList<Integer> {
+	private int[] paragraphNumbers;
+	private byte[] encoded;
+	private int size;
+
+	/**
+	 * Default constructor which creates an empty, open posting list.
+	 */
+	public PostingList() {
+		paragraphNumbers = new int[4];
+		size = 0;
+	}
+
+	/**
+	 * Appends a paragraph number. The number has to be greater than the last one.
+	 *
+	 * @param paragraphNumber
+	 */
+	public void append(int paragraphNumber) {
+		if (isSealed()) {
+			throw new IllegalStateException("PostingList is sealed");
+		}
+		if (paragraphNumber < 0 || (size > 0 && paragraphNumber <= paragraphNumbers[size - 1])) {
+			throw new IllegalArgumentException("Paragraph number " + paragraphNumber + " is not ascending");
+		}
+		if (size == paragraphNumbers.length) {
+			paragraphNumbers = Arrays.copyOf(paragraphNumbers, size * 2);
+		}
+		paragraphNumbers[size++] = paragraphNumber;
+	}
+
+	/**
+	 * Appends all paragraph numbers of another open list. Its first number has to
+	 * be greater than the last one of this list.
+	 *
+	 * @param postingList
+	 */
+	public void appendAll(PostingList postingList) {
+		if (isSealed() || postingList.isSealed()) {
+			throw new IllegalStateException("PostingList is sealed");
+		}
+		if (postingList.size == 0) {
+			return;
+		}
+		if (size > 0 && postingList.paragraphNumbers[0] <= paragraphNumbers[size - 1]) {
+			throw new IllegalArgumentException(
+					"Paragraph number " + postingList.paragraphNumbers[0] + " is not ascending");
+		}
+		if (size + postingList.size > paragraphNumbers.length) {
+			paragraphNumbers = Arrays.copyOf(paragraphNumbers, Math.max(size * 2, size + postingList.size));
+		}
+		System.arraycopy(postingList.paragraphNumbers, 0, paragraphNumbers, size, postingList.size);
+		size += postingList.size;
+	}
+
+	/**
+	 * Encodes the paragraph numbers. Afterwards no number can be appended.
+	 */
+	public void seal() {
+		if (isSealed()) {
+			return;
+		}
+		byte[] bytes = new byte[size * 5];
+		int length = 0;
+		int previous = 0;
+		for (int i = 0; i < size; i++) {
+			int delta = paragraphNumbers[i] - previous;
+			previous = paragraphNumbers[i];
+			while ((delta & ~0x7F) != 0) {
+				bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+				delta >>>= 7;
+			}
+			bytes[length++] = (byte) delta;
+		}
+		encoded = Arrays.copyOf(bytes, length);
+		paragraphNumbers = null;
+	}
+
+	/**
+	 * @return true if the list is encoded
+	 */
+	public boolean isSealed() {
+		return encoded != null;
+	}
+
+	/**
+	 * Returns the number of bytes used for the paragraph numbers.
+	 *
+	 * @return size of the encoded bytes or of the int array
+	 */
+	public int getStorageSize() {
+		return isSealed() ? encoded.length : paragraphNumbers.length * Integer.BYTES;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the paragraph number at a position. On a sealed list this decodes
+	 * all numbers before it, iterate the list to read all numbers.
+	 */
+	@Override
+	public Integer get(int index) {
+		Objects.checkIndex(index, size);
+		if (!isSealed()) {
+			return paragraphNumbers[index];
+		}
+		PrimitiveIterator.OfInt iterator = iterator();
+		for (int i = 0; i < index; i++) {
+			iterator.nextInt();
+		}
+		return iterator.nextInt();
+	}
+
+	/**
+	 * Compares the paragraph numbers with another list in one pass, also when
+	 * this list is sealed.
+	 */
+	@Override
+	public boolean equals(Object object) {
+		if (object == this) {
+			return true;
+		}
+		if (!(object instanceof List) || ((List<?>) object).size() != size) {
+			return false;
+		}
+		Iterator<?> otherIterator = ((List<?>) object).iterator();
+		PrimitiveIterator.OfInt iterator = iterator();
+		while (iterator.hasNext()) {
+			Object other = otherIterator.next();
+			if (!(other instanceof Integer) || (Integer) other != iterator.nextInt()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	/**
+	 * Iterates over the paragraph numbers without boxing them.
+	 */
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			private final int[] numbers = paragraphNumbers;
+			private final byte[] bytes = encoded;
+			private int index = 0;
+			private int position = 0;
+			private int previous = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public int nextInt() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				if (bytes == null) {
+					return numbers[index++];
+				}
+				int delta = 0;
+				int shift = 0;
+				byte current;
+				do {
+					current = bytes[position++];
+					delta |= (current & 0x7F) << shift;
+					shift += 7;
+				} while (current < 0);
+				index++;
+				previous += delta;
+				return previous;
+			}
+		};
+	}
+}
@@ -0,0 +1,276 @@
+package texteditor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The RegexProcessor class finds and replaces regular expressions in the
+ * paragraphs of a document. The paragraphs are processed in parallel ranges
+ * in a ForkJoinPool, every range reuses one Matcher and reads the paragraphs
+ * through a view, so loaded paragraphs are not turned into Strings.
+ * The view counts how often the matcher reads a character. When a pattern
+ * reads more characters of a paragraph than the step budget allows, like a
+ * pattern with catastrophic backtracking, the search is stopped with a
+ * StepBudgetExceededException and no paragraph is changed.
+ */
+public class RegexProcessor {
+	private static final int DEFAULT_RANGE_SIZE = 4096;
+	private final long stepBudget;
+	private final ForkJoinPool pool;
+	private final int rangeSize;
+
+	/**
+	 * Constructor with the step budget, which uses the common pool.
+	 *
+	 * @param stepBudget number of characters a pattern may read per paragraph
+	 */
+	public RegexProcessor(long stepBudget) {
+		this(stepBudget, ForkJoinPool.commonPool(), DEFAULT_RANGE_SIZE);
+	}
+
+	/**
+	 * Constructor with the step budget, the pool and the number of paragraphs
+	 * which are processed by one task.
+	 *
+	 * @param stepBudget number of characters a pattern may read per paragraph
+	 * @param pool
+	 * @param rangeSize
+	 */
+	public RegexProcessor(long stepBudget, ForkJoinPool pool, int rangeSize) {
+		if (stepBudget <= 0 || rangeSize <= 0) {
+			throw new IllegalArgumentException("stepBudget and rangeSize must be positive");
+		}
+		this.stepBudget = stepBudget;
+		this.pool = pool;
+		this.rangeSize = rangeSize;
+	}
+
+	/**
+	 * Searches a pattern in all paragraphs.
+	 *
+	 * @param paragraphs
+	 * @param pattern
+	 * @return paragraph numbers starting at 0 with the ascending character
+	 *         offsets of the matches, empty if nothing was found
+	 * @throws StepBudgetExceededException if the pattern needs too many steps
+	 */
+	public TreeMap<Integer, int[]> find(List<? extends CharSequence> paragraphs, Pattern pattern) {
+		return pool.invoke(new FindTask(paragraphs, pattern, 0, paragraphs.size(), new AtomicBoolean()));
+	}
+
+	/**
+	 * Replaces all matches of a pattern in all paragraphs. The replacement may
+	 * refer to groups like Matcher.appendReplacement. The paragraphs are not
+	 * changed, the new texts are returned together with their positions.
+	 *
+	 * @param paragraphs
+	 * @param pattern
+	 * @param replacement
+	 * @return the changed paragraphs and the number of replacements
+	 * @throws StepBudgetExceededException if the pattern needs too many steps
+	 * @throws IllegalArgumentException    if the replacement refers to a missing group
+	 */
+	public ReplaceResult replaceAll(List<? extends CharSequence> paragraphs, Pattern pattern, String replacement) {
+		return replaceRange(paragraphs, 0, paragraphs.size(), pattern, replacement);
+	}
+
+	/**
+	 * Replaces all matches of a pattern in the paragraphs from a position to
+	 * another one.
+	 *
+	 * @param paragraphs
+	 * @param from        first paragraph
+	 * @param to          position after the last paragraph
+	 * @param pattern
+	 * @param replacement
+	 * @return the changed paragraphs and the number of replacements
+	 * @throws StepBudgetExceededException if the pattern needs too many steps
+	 * @throws IllegalArgumentException    if the replacement refers to a missing group
+	 */
+	public ReplaceResult replaceRange(List<? extends CharSequence> paragraphs, int from, int to, Pattern pattern,
+			String replacement) {
+		return pool.invoke(new ReplaceTask(paragraphs, pattern, replacement, from, to, new AtomicBoolean()));
+	}
+
+	private static CharSequence getParagraph(List<? extends CharSequence> paragraphs, int paragraphNumber) {
+		if (paragraphs instanceof Document) {
+			return ((Document) paragraphs).getText(paragraphNumber);
+		}
+		return paragraphs.get(paragraphNumber);
+	}
+
+	private class FindTask extends RecursiveTask<TreeMap<Integer, int[]>> {
+		private static final long serialVersionUID = 1L;
+		private final List<? extends CharSequence> paragraphs;
+		private final Pattern pattern;
+		private final int from;
+		private final int to;
+		private final AtomicBoolean aborted;
+
+		private FindTask(List<? extends CharSequence> paragraphs, Pattern pattern, int from, int to,
+				AtomicBoolean aborted) {
+			this.paragraphs = paragraphs;
+			this.pattern = pattern;
+			this.from = from;
+			this.to = to;
+			this.aborted = aborted;
+		}
+
+		@Override
+		protected TreeMap<Integer, int[]> compute() {
+			if (to - from <= rangeSize) {
+				return findRange();
+			}
+			int middle = (from + to) >>> 1;
+			FindTask right = new FindTask(paragraphs, pattern, middle, to, aborted);
+			right.fork();
+			TreeMap<Integer, int[]> leftMatches = new FindTask(paragraphs, pattern, from, middle, aborted).compute();
+			leftMatches.putAll(right.join());
+			return leftMatches;
+		}
+
+		private TreeMap<Integer, int[]> findRange() {
+			TreeMap<Integer, int[]> matches = new TreeMap<>();
+			StepCountingText text = new StepCountingText(stepBudget, aborted);
+			Matcher matcher = pattern.matcher(text);
+			int[] offsets = new int[16];
+			for (int paragraphNumber = from; paragraphNumber < to && !aborted.get(); paragraphNumber++) {
+				matcher.reset(text.reset(getParagraph(paragraphs, paragraphNumber)));
+				int count = 0;
+				while (matcher.find()) {
+					if (count == offsets.length) {
+						offsets = Arrays.copyOf(offsets, count * 2);
+					}
+					offsets[count++] = matcher.start();
+				}
+				if (count > 0) {
+					matches.put(paragraphNumber, Arrays.copyOf(offsets, count));
+				}
+			}
+			return matches;
+		}
+	}
+
+	private class ReplaceTask extends RecursiveTask<ReplaceResult> {
+		private static final long serialVersionUID = 1L;
+		private final List<? extends CharSequence> paragraphs;
+		private final Pattern pattern;
+		private final String replacement;
+		private final int from;
+		private final int to;
+		private final AtomicBoolean aborted;
+
+		private ReplaceTask(List<? extends CharSequence> paragraphs, Pattern pattern, String replacement, int from,
+				int to, AtomicBoolean aborted) {
+			this.paragraphs = paragraphs;
+			this.pattern = pattern;
+			this.replacement = replacement;
+			this.from = from;
+			this.to = to;
+			this.aborted = aborted;
+		}
+
+		@Override
+		protected ReplaceResult compute() {
+			if (to - from <= rangeSize) {
+				return replaceParagraphs();
+			}
+			int middle = (from + to) >>> 1;
+			ReplaceTask right = new ReplaceTask(paragraphs, pattern, replacement, middle, to, aborted);
+			right.fork();
+			ReplaceResult leftResult = new ReplaceTask(paragraphs, pattern, replacement, from, middle, aborted)
+					.compute();
+			return leftResult.append(right.join());
+		}
+
+		private ReplaceResult replaceParagraphs() {
+			ReplaceResult result = new ReplaceResult(new long[1]);
+			StepCountingText text = new StepCountingText(stepBudget, aborted);
+			Matcher matcher = pattern.matcher(text);
+			StringBuilder replaced = new StringBuilder();
+			for (int paragraphNumber = from; paragraphNumber < to && !aborted.get(); paragraphNumber++) {
+				CharSequence paragraph = getParagraph(paragraphs, paragraphNumber);
+				matcher.reset(text.reset(paragraph));
+				replaced.setLength(0);
+				int count = 0;
+				while (matcher.find()) {
+					matcher.appendReplacement(replaced, replacement);
+					count++;
+				}
+				if (count > 0) {
+					matcher.appendTail(replaced);
+					result.getCountArray()[0] += count;
+					if (!text.contentEquals(replaced)) {
+						result.add(paragraphNumber, replaced.toString());
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A view of a paragraph which counts the characters read by the matcher.
+	 * When the budget is exceeded, all tasks of the search are stopped.
+	 */
+	private static class StepCountingText implements CharSequence {
+		private final long stepBudget;
+		private final AtomicBoolean aborted;
+		private CharSequence text;
+		private long steps;
+
+		private StepCountingText(long stepBudget, AtomicBoolean aborted) {
+			this.stepBudget = stepBudget;
+			this.aborted = aborted;
+			this.text = "";
+		}
+
+		private StepCountingText reset(CharSequence text) {
+			this.text = text;
+			steps = 0;
+			return this;
+		}
+
+		private boolean contentEquals(CharSequence other) {
+			if (text.length() != other.length()) {
+				return false;
+			}
+			for (int i = 0; i < other.length(); i++) {
+				if (text.charAt(i) != other.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (++steps > stepBudget) {
+				aborted.set(true);
+				throw new StepBudgetExceededException();
+			}
+			return text.charAt(index);
+		}
+
+		@Override
+		public int length() {
+			return text.length();
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return text.subSequence(start, end);
+		}
+
+		@Override
+		public String toString() {
+			return text.toString();
+		}
+	}
+}
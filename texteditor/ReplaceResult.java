@@ -0,0 +1,90 @@
+package texteditor;
+
+import java.util.Arrays;
+
+/**
+ * The ReplaceResult class contains the paragraphs which were changed by a
+ * replacement in several paragraphs, together with the number of
+ * replacements per search string. The paragraphs of the document are not
+ * changed yet, so the result can be computed in parallel and applied
+ * afterwards.
+ */
+public class ReplaceResult {
+	private int[] paragraphNumbers;
+	private String[] paragraphs;
+	private int size;
+	private final long[] counts;
+
+	/**
+	 * Constructor with the array in which the replacements per search string
+	 * are counted.
+	 *
+	 * @param counts
+	 */
+	ReplaceResult(long[] counts) {
+		paragraphNumbers = new int[8];
+		paragraphs = new String[8];
+		this.counts = counts;
+	}
+
+	/**
+	 * Adds a changed paragraph. The paragraphs must be added in ascending order.
+	 *
+	 * @param paragraphNumber
+	 * @param paragraph       new text of the paragraph
+	 */
+	void add(int paragraphNumber, String paragraph) {
+		if (size == paragraphNumbers.length) {
+			paragraphNumbers = Arrays.copyOf(paragraphNumbers, size * 2);
+			paragraphs = Arrays.copyOf(paragraphs, size * 2);
+		}
+		paragraphNumbers[size] = paragraphNumber;
+		paragraphs[size] = paragraph;
+		size++;
+	}
+
+	/**
+	 * Appends the result of the following paragraphs.
+	 *
+	 * @param other
+	 * @return this result
+	 */
+	ReplaceResult append(ReplaceResult other) {
+		for (int i = 0; i < other.size; i++) {
+			add(other.paragraphNumbers[i], other.paragraphs[i]);
+		}
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		return this;
+	}
+
+	/**
+	 * @return array in which the replacements are counted
+	 */
+	long[] getCountArray() {
+		return counts;
+	}
+
+	/**
+	 * @return ascending positions of the changed paragraphs
+	 */
+	public int[] getParagraphNumbers() {
+		return Arrays.copyOf(paragraphNumbers, size);
+	}
+
+	/**
+	 * @param index position in the changed paragraphs
+	 * @return new text of the changed paragraph
+	 */
+	public String getParagraph(int index) {
+		return paragraphs[index];
+	}
+
+	/**
+	 * @return number of replacements per search string
+	 */
+	public long[] getCounts() {
+		return counts.clone();
+	}
+}
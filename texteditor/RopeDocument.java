@@ -0,0 +1,641 @@
+package texteditor;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The RopeDocument class stores the paragraphs of a text in a balanced tree.
+ * Every node knows the number of paragraphs in its subtree, so a paragraph
+ * number can be found by walking down from the root. Inserting, deleting and
+ * looking up a paragraph therefore runs in O(log n) instead of shifting all
+ * following paragraphs like an ArrayList does.
+ * The nodes are never changed after creation, an edit copies only the path
+ * from the root to the changed paragraph.
+ * A node stores its paragraph as CharSequence, so paragraphs which are not
+ * held as String, like the lines of a loaded file, are only turned into a
+ * String when they are read.
+ * Because the nodes are never changed, every root is a complete version of
+ * the document. The root is published through an atomic reference and
+ * replaced with compareAndSet, so readers on other threads can take a
+ * snapshot without a lock and read it while the document is edited. Writers
+ * which change the document at the same time retry with the new root, but
+ * the listeners are only notified in the right order if the writers hold a
+ * common lock.
+ * With a ParagraphArena the texts are stored outside of the heap. Removed
+ * texts are released to the arena, and compact moves the remaining texts out
+ * of mostly unused segments.
+ * Every node can remember the sum of a ParagraphMeasure over its subtree,
+ * like the number of formatted lines. After an edit only the new nodes on the
+ * changed path are measured again, so finding the paragraph of a formatted
+ * line stays O(log n) while the document is edited.
+ */
+public class RopeDocument extends AbstractList<String> implements Document {
+	private final AtomicReference<Node> root = new AtomicReference<>();
+	private final ArrayList<DocumentListener> listeners = new ArrayList<>();
+	private final ParagraphArena arena;
+
+	/**
+	 * Default constructor which creates an empty document.
+	 */
+	public RopeDocument() {
+		this.arena = null;
+	}
+
+	/**
+	 * Constructor which creates an empty document storing its texts in an
+	 * arena.
+	 *
+	 * @param arena
+	 */
+	public RopeDocument(ParagraphArena arena) {
+		this.arena = Objects.requireNonNull(arena);
+	}
+
+	/**
+	 * Constructor which creates a document with the given paragraphs.
+	 *
+	 * @param paragraphs
+	 */
+	public RopeDocument(Collection<String> paragraphs) {
+		this.arena = null;
+		root.set(build(toArray(paragraphs), 0, paragraphs.size()));
+	}
+
+	@Override
+	public int size() {
+		return size(root.get());
+	}
+
+	@Override
+	public String get(int index) {
+		return getText(index).toString();
+	}
+
+	@Override
+	public CharSequence getText(int index) {
+		Node current = root.get();
+		Objects.checkIndex(index, size(current));
+		return find(current, index).text;
+	}
+
+	@Override
+	public Iterable<CharSequence> texts() {
+		Node current = root.get();
+		return () -> textIterator(current);
+	}
+
+	@Override
+	public Document snapshot() {
+		return new Snapshot(root.get());
+	}
+
+	@Override
+	public long measureBefore(int index, ParagraphMeasure measure) {
+		return measureBefore(root.get(), index, measure);
+	}
+
+	@Override
+	public int findMeasure(long offset, ParagraphMeasure measure) {
+		return findMeasure(root.get(), offset, measure);
+	}
+
+	@Override
+	public String set(int index, String paragraph) {
+		Objects.requireNonNull(paragraph);
+		CharSequence text = store(paragraph);
+		Node current;
+		CharSequence oldText;
+		do {
+			current = root.get();
+			Objects.checkIndex(index, size(current));
+			oldText = find(current, index).text;
+		} while (!root.compareAndSet(current, replace(current, index, text)));
+		String oldParagraph = oldText.toString();
+		release(oldText);
+		for (DocumentListener listener : listeners) {
+			listener.paragraphReplaced(index, oldParagraph, paragraph);
+		}
+		return oldParagraph;
+	}
+
+	@Override
+	public void add(int index, String paragraph) {
+		Objects.requireNonNull(paragraph);
+		CharSequence text = store(paragraph);
+		Node current;
+		do {
+			current = root.get();
+			Objects.checkIndex(index, size(current) + 1);
+		} while (!root.compareAndSet(current, insert(current, index, text)));
+		modCount++;
+		for (DocumentListener listener : listeners) {
+			listener.paragraphInserted(index, paragraph);
+		}
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends String> paragraphs) {
+		insertParagraphs(index, new ArrayList<>(paragraphs));
+		return !paragraphs.isEmpty();
+	}
+
+	@Override
+	public void insertParagraphs(int index, List<? extends CharSequence> paragraphs) {
+		Objects.checkIndex(index, size() + 1);
+		if (paragraphs.isEmpty()) {
+			return;
+		}
+		CharSequence[] texts = toArray(paragraphs);
+		if (arena != null) {
+			for (int i = 0; i < texts.length; i++) {
+				texts[i] = arena.store(texts[i]);
+			}
+		}
+		Node inserted = build(texts, 0, texts.length);
+		Node current;
+		Node[] parts;
+		do {
+			current = root.get();
+			Objects.checkIndex(index, size(current) + 1);
+			parts = split(current, index);
+		} while (!root.compareAndSet(current, concat(concat(parts[0], inserted), parts[1])));
+		modCount++;
+		for (DocumentListener listener : listeners) {
+			listener.paragraphsInserted(index, paragraphs);
+		}
+	}
+
+	@Override
+	public String remove(int index) {
+		Node current;
+		CharSequence oldText;
+		do {
+			current = root.get();
+			Objects.checkIndex(index, size(current));
+			oldText = find(current, index).text;
+		} while (!root.compareAndSet(current, delete(current, index)));
+		String oldParagraph = oldText.toString();
+		release(oldText);
+		modCount++;
+		for (DocumentListener listener : listeners) {
+			listener.paragraphRemoved(index, oldParagraph);
+		}
+		return oldParagraph;
+	}
+
+	@Override
+	public List<CharSequence> removeParagraphs(int index, int count) {
+		Node current;
+		Node[] parts;
+		Node[] removed;
+		do {
+			current = root.get();
+			Objects.checkFromIndexSize(index, count, size(current));
+			parts = split(current, index);
+			removed = split(parts[1], count);
+		} while (!root.compareAndSet(current, concat(parts[0], removed[1])));
+		ArrayList<CharSequence> paragraphs = new ArrayList<>(count);
+		for (Iterator<Node> iterator = new NodeIterator(removed[0]); iterator.hasNext();) {
+			CharSequence text = iterator.next().text;
+			paragraphs.add(text);
+			release(text);
+		}
+		modCount++;
+		if (count > 0) {
+			for (DocumentListener listener : listeners) {
+				listener.paragraphsRemoved(index, paragraphs);
+			}
+		}
+		return paragraphs;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		removeParagraphs(fromIndex, toIndex - fromIndex);
+	}
+
+	@Override
+	public void addDocumentListener(DocumentListener listener) {
+		listeners.add(Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Moves the texts out of arena segments which are mostly unused, so the
+	 * segments can be freed. The paragraphs do not change, so the listeners are
+	 * not notified. Like an edit it must not run at the same time as other
+	 * writers.
+	 *
+	 * @return true if texts were moved
+	 */
+	public boolean compact() {
+		if (arena == null || !arena.beginCompaction()) {
+			return false;
+		}
+		Node current;
+		do {
+			current = root.get();
+		} while (!root.compareAndSet(current, relocate(current)));
+		arena.finishCompaction();
+		return true;
+	}
+
+	/**
+	 * Getter for arena.
+	 *
+	 * @return the arena of the texts, or null if they are stored on the heap
+	 */
+	public ParagraphArena getArena() {
+		return arena;
+	}
+
+	/**
+	 * Iterates over the paragraphs in order in O(n). Because nodes are never
+	 * changed, the iterator keeps working on the state it was created from.
+	 */
+	@Override
+	public Iterator<String> iterator() {
+		return iterator(root.get());
+	}
+
+	private static Iterator<String> iterator(Node root) {
+		NodeIterator nodes = new NodeIterator(root);
+		return new Iterator<String>() {
+			@Override
+			public boolean hasNext() {
+				return nodes.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return nodes.next().text.toString();
+			}
+		};
+	}
+
+	private CharSequence store(CharSequence text) {
+		return arena == null ? text : arena.store(text);
+	}
+
+	private void release(CharSequence text) {
+		if (arena != null) {
+			arena.release(text);
+		}
+	}
+
+	private Node relocate(Node node) {
+		if (node == null) {
+			return null;
+		}
+		Node left = relocate(node.left);
+		Node right = relocate(node.right);
+		CharSequence text = arena.relocate(node.text);
+		if (left == node.left && right == node.right && text == node.text) {
+			return node;
+		}
+		return new Node(text, left, right);
+	}
+
+	private static Iterator<CharSequence> textIterator(Node root) {
+		NodeIterator nodes = new NodeIterator(root);
+		return new Iterator<CharSequence>() {
+			@Override
+			public boolean hasNext() {
+				return nodes.hasNext();
+			}
+
+			@Override
+			public CharSequence next() {
+				return nodes.next().text;
+			}
+		};
+	}
+
+	private static long measureBefore(Node root, int index, ParagraphMeasure measure) {
+		Objects.checkIndex(index, size(root) + 1);
+		long sum = 0;
+		Node node = root;
+		while (node != null) {
+			int leftSize = size(node.left);
+			if (index <= leftSize) {
+				node = node.left;
+			} else {
+				sum += measure(node.left, measure) + measure.measure(node.text);
+				index -= leftSize + 1;
+				node = node.right;
+			}
+		}
+		return sum;
+	}
+
+	private static int findMeasure(Node root, long offset, ParagraphMeasure measure) {
+		if (offset < 0) {
+			throw new IllegalArgumentException("offset " + offset + " is negative");
+		} else if (offset >= measure(root, measure)) {
+			return size(root);
+		}
+		int index = 0;
+		Node node = root;
+		while (true) {
+			long leftSum = measure(node.left, measure);
+			if (offset < leftSum) {
+				node = node.left;
+				continue;
+			}
+			offset -= leftSum;
+			int own = measure.measure(node.text);
+			if (offset < own) {
+				return index + size(node.left);
+			}
+			offset -= own;
+			index += size(node.left) + 1;
+			node = node.right;
+		}
+	}
+
+	/**
+	 * Returns the sum of a measure over a subtree. The sum is kept in the node
+	 * for the last measure it was computed with.
+	 */
+	private static long measure(Node node, ParagraphMeasure measure) {
+		if (node == null) {
+			return 0;
+		}
+		Measured measured = node.measured;
+		if (measured != null && measured.measure.equals(measure)) {
+			return measured.sum;
+		}
+		long sum = measure(node.left, measure) + measure.measure(node.text) + measure(node.right, measure);
+		node.measured = new Measured(measure, sum);
+		return sum;
+	}
+
+	private static CharSequence[] toArray(Collection<? extends CharSequence> paragraphs) {
+		CharSequence[] texts = paragraphs.toArray(new CharSequence[0]);
+		for (CharSequence text : texts) {
+			Objects.requireNonNull(text);
+		}
+		return texts;
+	}
+
+	private static Node find(Node node, int index) {
+		while (true) {
+			int leftSize = size(node.left);
+			if (index < leftSize) {
+				node = node.left;
+			} else if (index == leftSize) {
+				return node;
+			} else {
+				index -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	private static Node build(CharSequence[] texts, int from, int to) {
+		if (from >= to) {
+			return null;
+		}
+		int middle = (from + to) >>> 1;
+		return new Node(texts[middle], build(texts, from, middle), build(texts, middle + 1, to));
+	}
+
+	private static Node replace(Node node, int index, CharSequence text) {
+		int leftSize = size(node.left);
+		if (index < leftSize) {
+			return new Node(node.text, replace(node.left, index, text), node.right);
+		} else if (index == leftSize) {
+			return new Node(text, node.left, node.right);
+		} else {
+			return new Node(node.text, node.left, replace(node.right, index - leftSize - 1, text));
+		}
+	}
+
+	private static Node insert(Node node, int index, CharSequence text) {
+		if (node == null) {
+			return new Node(text, null, null);
+		}
+		int leftSize = size(node.left);
+		if (index <= leftSize) {
+			return balance(node.text, insert(node.left, index, text), node.right);
+		} else {
+			return balance(node.text, node.left, insert(node.right, index - leftSize - 1, text));
+		}
+	}
+
+	private static Node delete(Node node, int index) {
+		int leftSize = size(node.left);
+		if (index < leftSize) {
+			return balance(node.text, delete(node.left, index), node.right);
+		} else if (index > leftSize) {
+			return balance(node.text, node.left, delete(node.right, index - leftSize - 1));
+		} else if (node.left == null) {
+			return node.right;
+		} else if (node.right == null) {
+			return node.left;
+		} else {
+			return balance(find(node.right, 0).text, node.left, delete(node.right, 0));
+		}
+	}
+
+	private static Node[] split(Node node, int count) {
+		if (node == null) {
+			return new Node[2];
+		}
+		int leftSize = size(node.left);
+		if (count <= leftSize) {
+			Node[] parts = split(node.left, count);
+			parts[1] = join(parts[1], node.text, node.right);
+			return parts;
+		} else {
+			Node[] parts = split(node.right, count - leftSize - 1);
+			parts[0] = join(node.left, node.text, parts[0]);
+			return parts;
+		}
+	}
+
+	private static Node concat(Node left, Node right) {
+		if (left == null) {
+			return right;
+		} else if (right == null) {
+			return left;
+		}
+		CharSequence last = find(left, left.size - 1).text;
+		return join(delete(left, left.size - 1), last, right);
+	}
+
+	private static Node join(Node left, CharSequence text, Node right) {
+		if (height(left) > height(right) + 1) {
+			return balance(left.text, left.left, join(left.right, text, right));
+		} else if (height(right) > height(left) + 1) {
+			return balance(right.text, join(left, text, right.left), right.right);
+		}
+		return new Node(text, left, right);
+	}
+
+	private static Node balance(CharSequence text, Node left, Node right) {
+		int difference = height(left) - height(right);
+		if (difference > 1) {
+			if (height(left.left) < height(left.right)) {
+				left = rotateLeft(left.text, left.left, left.right);
+			}
+			return rotateRight(text, left, right);
+		} else if (difference < -1) {
+			if (height(right.right) < height(right.left)) {
+				right = rotateRight(right.text, right.left, right.right);
+			}
+			return rotateLeft(text, left, right);
+		}
+		return new Node(text, left, right);
+	}
+
+	private static Node rotateRight(CharSequence text, Node left, Node right) {
+		return new Node(left.text, left.left, new Node(text, left.right, right));
+	}
+
+	private static Node rotateLeft(CharSequence text, Node left, Node right) {
+		return new Node(right.text, new Node(text, left, right.left), right.right);
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	private static int height(Node node) {
+		return node == null ? 0 : node.height;
+	}
+
+	private static class Node {
+		private final CharSequence text;
+		private final Node left;
+		private final Node right;
+		private final int size;
+		private final int height;
+		private Measured measured;
+
+		private Node(CharSequence text, Node left, Node right) {
+			this.text = text;
+			this.left = left;
+			this.right = right;
+			this.size = size(left) + size(right) + 1;
+			this.height = Math.max(height(left), height(right)) + 1;
+		}
+	}
+
+	/**
+	 * The sum of a measure over a subtree. It is never changed, so a node can
+	 * be measured by several threads without a lock.
+	 */
+	private static class Measured {
+		private final ParagraphMeasure measure;
+		private final long sum;
+
+		private Measured(ParagraphMeasure measure, long sum) {
+			this.measure = measure;
+			this.sum = sum;
+		}
+	}
+
+	/**
+	 * A version of the document which is never changed.
+	 */
+	private static class Snapshot extends AbstractList<String> implements Document {
+		private final Node root;
+
+		private Snapshot(Node root) {
+			this.root = root;
+		}
+
+		@Override
+		public int size() {
+			return RopeDocument.size(root);
+		}
+
+		@Override
+		public String get(int index) {
+			return getText(index).toString();
+		}
+
+		@Override
+		public CharSequence getText(int index) {
+			Objects.checkIndex(index, size());
+			return find(root, index).text;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return RopeDocument.iterator(root);
+		}
+
+		@Override
+		public Iterable<CharSequence> texts() {
+			return () -> textIterator(root);
+		}
+
+		@Override
+		public Document snapshot() {
+			return this;
+		}
+
+		@Override
+		public long measureBefore(int index, ParagraphMeasure measure) {
+			return RopeDocument.measureBefore(root, index, measure);
+		}
+
+		@Override
+		public int findMeasure(long offset, ParagraphMeasure measure) {
+			return RopeDocument.findMeasure(root, offset, measure);
+		}
+
+		@Override
+		public void insertParagraphs(int index, List<? extends CharSequence> paragraphs) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<CharSequence> removeParagraphs(int index, int count) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void addDocumentListener(DocumentListener listener) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static class NodeIterator implements Iterator<Node> {
+		private final ArrayDeque<Node> path = new ArrayDeque<>();
+
+		private NodeIterator(Node root) {
+			pushLeft(root);
+		}
+
+		private void pushLeft(Node node) {
+			while (node != null) {
+				path.push(node);
+				node = node.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !path.isEmpty();
+		}
+
+		@Override
+		public Node next() {
+			if (path.isEmpty()) {
+				throw new NoSuchElementException();
+			}
+			Node node = path.pop();
+			pushLeft(node.right);
+			return node;
+		}
+	}
+}
@@ -0,0 +1,327 @@
+package texteditor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * The SearchIndex class finds words and phrases in a document without
+ * reading the paragraphs. A term is a sequence of letters and digits, terms
+ * are compared with their case.
+ * Every term knows the paragraphs it occurs in, and every paragraph stores
+ * its terms in order together with their character offsets. A search starts
+ * with the paragraphs of the rarest term of the query and only checks their
+ * stored terms, so it takes time proportional to these paragraphs and not to
+ * the document.
+ * Like the WordIndex, the index listens to the changes of the document and
+ * refers to paragraphs by their entry in a ParagraphOrder. When a lot of
+ * paragraphs are inserted or removed at once, the index is dropped and built
+ * again by the next search.
+ */
+public class SearchIndex implements DocumentListener {
+	private final int maxBulkEditCount = 100_000;
+	private final Document document;
+	private ParagraphOrder<IndexedParagraph> order = new ParagraphOrder<>();
+	private final HashMap<String, Term> terms = new HashMap<>();
+	private boolean stale;
+
+	/**
+	 * Constructor which indexes the current paragraphs of the document and
+	 * registers the index as listener of the document.
+	 *
+	 * @param document
+	 */
+	public SearchIndex(Document document) {
+		this.document = document;
+		indexDocument();
+		document.addDocumentListener(this);
+	}
+
+	private void indexDocument() {
+		for (int paragraphNumber = 0; paragraphNumber < document.size(); paragraphNumber++) {
+			insert(paragraphNumber, document.getText(paragraphNumber));
+		}
+	}
+
+	/**
+	 * Searches a word or a phrase of several words. The words of a phrase must
+	 * follow each other in a paragraph, other characters than letters and
+	 * digits between them are ignored.
+	 *
+	 * @param query
+	 * @return paragraph numbers starting at 0 with the ascending character
+	 *         offsets of the matches, empty if nothing was found
+	 */
+	public TreeMap<Integer, int[]> find(CharSequence query) {
+		if (stale) {
+			stale = false;
+			indexDocument();
+		}
+		TreeMap<Integer, int[]> matches = new TreeMap<>();
+		List<String> queryTexts = new ArrayList<>();
+		tokenize(query, queryTexts, null);
+		if (queryTexts.isEmpty()) {
+			return matches;
+		}
+		Term[] queryTerms = new Term[queryTexts.size()];
+		Term rarestTerm = null;
+		for (int i = 0; i < queryTerms.length; i++) {
+			queryTerms[i] = terms.get(queryTexts.get(i));
+			if (queryTerms[i] == null) {
+				return matches;
+			}
+			if (rarestTerm == null || queryTerms[i].paragraphs.size() < rarestTerm.paragraphs.size()) {
+				rarestTerm = queryTerms[i];
+			}
+		}
+		for (ParagraphOrder.Entry<IndexedParagraph> entry : rarestTerm.paragraphs) {
+			int[] offsets = entry.getValue().find(queryTerms);
+			if (offsets != null) {
+				matches.put(order.paragraphNumberOf(entry), offsets);
+			}
+		}
+		return matches;
+	}
+
+	@Override
+	public void paragraphsInserted(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		if (stale || paragraphs.size() > maxBulkEditCount) {
+			markStale();
+		} else {
+			for (int i = 0; i < paragraphs.size(); i++) {
+				insert(paragraphNumber + i, paragraphs.get(i));
+			}
+		}
+	}
+
+	@Override
+	public void paragraphsRemoved(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		if (stale || paragraphs.size() > maxBulkEditCount) {
+			markStale();
+		} else {
+			DocumentListener.super.paragraphsRemoved(paragraphNumber, paragraphs);
+		}
+	}
+
+	@Override
+	public void paragraphInserted(int paragraphNumber, String paragraph) {
+		if (!stale) {
+			insert(paragraphNumber, paragraph);
+		}
+	}
+
+	@Override
+	public void paragraphRemoved(int paragraphNumber, String paragraph) {
+		if (!stale) {
+			removePostings(order.get(paragraphNumber));
+			order.remove(paragraphNumber);
+		}
+	}
+
+	@Override
+	public void paragraphReplaced(int paragraphNumber, String oldParagraph, String newParagraph) {
+		if (!stale) {
+			ParagraphOrder.Entry<IndexedParagraph> entry = order.get(paragraphNumber);
+			removePostings(entry);
+			entry.setValue(indexParagraph(newParagraph));
+			addPostings(entry);
+		}
+	}
+
+	private void markStale() {
+		stale = true;
+		order = new ParagraphOrder<>();
+		terms.clear();
+	}
+
+	private void insert(int paragraphNumber, CharSequence paragraph) {
+		addPostings(order.insert(paragraphNumber, indexParagraph(paragraph)));
+	}
+
+	private IndexedParagraph indexParagraph(CharSequence paragraph) {
+		List<String> texts = new ArrayList<>();
+		IntList offsets = new IntList();
+		tokenize(paragraph, texts, offsets);
+		Term[] paragraphTerms = new Term[texts.size()];
+		IdentityHashMap<Term, Integer> termIndexes = new IdentityHashMap<>();
+		int[] tokens = new int[texts.size() * 2];
+		for (int i = 0; i < texts.size(); i++) {
+			Term term = terms.computeIfAbsent(texts.get(i), Term::new);
+			Integer termIndex = termIndexes.putIfAbsent(term, termIndexes.size());
+			if (termIndex == null) {
+				termIndex = termIndexes.size() - 1;
+				paragraphTerms[termIndex] = term;
+			}
+			tokens[2 * i] = termIndex;
+			tokens[2 * i + 1] = offsets.get(i);
+		}
+		return new IndexedParagraph(Arrays.copyOf(paragraphTerms, termIndexes.size()), tokens);
+	}
+
+	private void addPostings(ParagraphOrder.Entry<IndexedParagraph> entry) {
+		IndexedParagraph paragraph = entry.getValue();
+		for (int i = 0; i < paragraph.terms.length; i++) {
+			paragraph.slots[i] = paragraph.terms[i].paragraphs.size();
+			paragraph.terms[i].paragraphs.add(entry);
+			paragraph.terms[i].termIndexes.add(i);
+		}
+	}
+
+	/**
+	 * Removes a paragraph from the paragraphs of its terms. The last paragraph
+	 * of a term is moved into the free slot, so this does not depend on the
+	 * number of paragraphs of the term. The term knows its index in the terms
+	 * of the moved paragraph, so the slot of the moved paragraph is updated
+	 * without searching.
+	 */
+	private void removePostings(ParagraphOrder.Entry<IndexedParagraph> entry) {
+		IndexedParagraph paragraph = entry.getValue();
+		for (int i = 0; i < paragraph.terms.length; i++) {
+			Term term = paragraph.terms[i];
+			ParagraphOrder.Entry<IndexedParagraph> last = term.paragraphs.remove(term.paragraphs.size() - 1);
+			int lastTermIndex = term.termIndexes.removeLast();
+			if (last != entry) {
+				term.paragraphs.set(paragraph.slots[i], last);
+				term.termIndexes.set(paragraph.slots[i], lastTermIndex);
+				last.getValue().slots[lastTermIndex] = paragraph.slots[i];
+			} else if (term.paragraphs.isEmpty()) {
+				terms.remove(term.text);
+			}
+		}
+	}
+
+	/**
+	 * Splits a text into terms of letters and digits.
+	 *
+	 * @param text
+	 * @param texts   receives the terms
+	 * @param offsets receives the offsets of the terms, may be null
+	 */
+	private static void tokenize(CharSequence text, List<String> texts, IntList offsets) {
+		int length = text.length();
+		int position = 0;
+		while (position < length) {
+			while (position < length && !isTermChar(text.charAt(position))) {
+				position++;
+			}
+			int start = position;
+			while (position < length && isTermChar(text.charAt(position))) {
+				position++;
+			}
+			if (start < position) {
+				texts.add(text.subSequence(start, position).toString());
+				if (offsets != null) {
+					offsets.add(start);
+				}
+			}
+		}
+	}
+
+	private static boolean isTermChar(char character) {
+		return Tokenizer.isLetter(character) || (character >= '0' && character <= '9');
+	}
+
+	/**
+	 * A term with its paragraphs and, for every paragraph, the index of the
+	 * term in the distinct terms of the paragraph.
+	 */
+	private static class Term {
+		private final String text;
+		private final ArrayList<ParagraphOrder.Entry<IndexedParagraph>> paragraphs = new ArrayList<>(1);
+		private final IntList termIndexes = new IntList(1);
+
+		private Term(String text) {
+			this.text = text;
+		}
+	}
+
+	/**
+	 * The distinct terms of a paragraph with their slots in the paragraphs of
+	 * the term, and the terms in order as pairs of term and character offset.
+	 */
+	private static class IndexedParagraph {
+		private final Term[] terms;
+		private final int[] slots;
+		private final int[] tokens;
+
+		private IndexedParagraph(Term[] terms, int[] tokens) {
+			this.terms = terms;
+			this.slots = new int[terms.length];
+			this.tokens = tokens;
+		}
+
+		private int indexOf(Term term) {
+			for (int i = 0; i < terms.length; i++) {
+				if (terms[i] == term) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private int[] find(Term[] queryTerms) {
+			int[] termIndexes = new int[queryTerms.length];
+			for (int i = 0; i < queryTerms.length; i++) {
+				termIndexes[i] = indexOf(queryTerms[i]);
+				if (termIndexes[i] < 0) {
+					return null;
+				}
+			}
+			IntList offsets = new IntList();
+			int tokenCount = tokens.length / 2;
+			for (int start = 0; start + termIndexes.length <= tokenCount; start++) {
+				int i = 0;
+				while (i < termIndexes.length && tokens[2 * (start + i)] == termIndexes[i]) {
+					i++;
+				}
+				if (i == termIndexes.length) {
+					offsets.add(tokens[2 * start + 1]);
+				}
+			}
+			return offsets.size() > 0 ? offsets.toArray() : null;
+		}
+	}
+
+	private static class IntList {
+		private int[] values;
+		private int size;
+
+		private IntList() {
+			this(16);
+		}
+
+		private IntList(int capacity) {
+			values = new int[capacity];
+		}
+
+		private void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		private int get(int index) {
+			return values[index];
+		}
+
+		private void set(int index, int value) {
+			values[index] = value;
+		}
+
+		private int removeLast() {
+			return values[--size];
+		}
+
+		private int size() {
+			return size;
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
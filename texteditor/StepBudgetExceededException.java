@@ -0,0 +1,16 @@
+package texteditor;
+
+/**
+ * Thrown when a regular expression needs more steps for a paragraph than
+ * allowed, like a pattern with catastrophic backtracking.
+ */
+public class StepBudgetExceededException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Default constructor.
+	 */
+	public StepBudgetExceededException() {
+		super("The regular expression needs too many steps");
+	}
+}
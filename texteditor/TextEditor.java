@@ -1,6 +1,20 @@
 package texteditor;
 
-import java.util.ArrayList;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * The TextEditor class is the core of the application. It contains the main
@@ -8,52 +22,295 @@ import java.util.ArrayList;
  * functions of the different classes by processing the commands of user inputs.
  */
 public class TextEditor {
-	private ArrayList<String> paragraphs;
+	private static final String DEFAULT_DOCUMENT_NAME = "default";
+	private static final int SESSION_BUFFER_SIZE = 4096;
+	private Document paragraphs;
 	private InputManager inputManager;
 	private OutputManager outputManager;
 	private TextProcessor textProcessor;
 	private TextFormatter textFormatter;
+	private TextFileLoader textFileLoader;
+	private DocumentStore documentStore;
+	private EditJournal editJournal;
+	private WordIndex wordIndex;
+	private SearchIndex searchIndex;
+	private PatternCache patternCache;
+	private RegexProcessor regexProcessor;
+	private ParallelIndexBuilder parallelIndexBuilder;
+	private FormattingPipeline formattingPipeline;
+	private WriteAheadLog writeAheadLog;
+	private EditorDocument document;
+	private DocumentRegistry documentRegistry;
+	private CommandStatistics commandStatistics;
+	private Path statisticsFile;
+	private long statisticsIntervalNanos;
+	private long nextStatisticsDump;
+	private boolean batchMode;
+	private boolean running;
+	private long commandCount;
 
 	/**
-	 * Default constructor which creates a new paragraphs list and an object for
+	 * Default constructor which creates a new paragraphs document and an object for
 	 * every data field.
 	 */
 	public TextEditor() {
-		paragraphs = new ArrayList<>();
-		inputManager = new InputManager();
-		outputManager = new OutputManager();
+		this(System.in, false);
+	}
+
+	/**
+	 * Constructor which reads the commands from an input stream. In batch mode
+	 * no input requests are printed and a summary of the processed commands is
+	 * printed at the end.
+	 *
+	 * @param input
+	 * @param batchMode
+	 */
+	public TextEditor(InputStream input, boolean batchMode) {
+		this(new InputManager(input), new OutputManager(), null, batchMode);
+	}
+
+	/**
+	 * Constructor for a session of a server, which reads the commands from a
+	 * channel and writes the output to another one. The session starts with
+	 * the document "default" of the registry, OPEN switches to another
+	 * document. The text lines of ADD and REPLACE are read together with the
+	 * command, also if the command is invalid, so a client can send them at
+	 * once.
+	 *
+	 * @param input
+	 * @param output
+	 * @param documentRegistry documents shared with the other sessions
+	 */
+	public TextEditor(ReadableByteChannel input, WritableByteChannel output, DocumentRegistry documentRegistry) {
+		this(new InputManager(input, SESSION_BUFFER_SIZE), new OutputManager(output, output, SESSION_BUFFER_SIZE),
+				documentRegistry, false);
+	}
+
+	private TextEditor(InputManager inputManager, OutputManager outputManager, DocumentRegistry documentRegistry,
+			boolean batchMode) {
+		this.inputManager = inputManager;
+		this.outputManager = outputManager;
+		this.documentRegistry = documentRegistry;
 		textProcessor = new TextProcessor();
 		textFormatter = new TextFormatter();
+		textFileLoader = new TextFileLoader();
+		patternCache = new PatternCache(64);
+		regexProcessor = new RegexProcessor(Long.getLong("texteditor.regexStepBudget", 10_000_000L));
+		parallelIndexBuilder = new ParallelIndexBuilder();
+		formattingPipeline = new FormattingPipeline();
+		commandStatistics = new CommandStatistics();
+		useDocument(documentRegistry != null ? documentRegistry.open(DEFAULT_DOCUMENT_NAME) : new EditorDocument());
+		this.batchMode = batchMode;
+		outputManager.setInputRequestsEnabled(!batchMode);
+	}
+
+	private void useDocument(EditorDocument document) {
+		this.document = document;
+		paragraphs = document.getParagraphs();
+		wordIndex = document.getWordIndex();
+		searchIndex = document.getSearchIndex();
+		documentStore = document.getDocumentStore();
+		editJournal = document.getEditJournal();
 	}
 
 	/**
-	 * Main method to start the application
+	 * Main method to start the application.
+	 * With "--script <file>" the commands are read from a file, with "--batch"
+	 * they are read from the standard input without input requests. With
+	 * "--session <directory>" the text of the last session in the directory is
+	 * recovered and every change is logged there. With "--stats <file>" the
+	 * command statistics are appended to a file every
+	 * texteditor.statsInterval seconds and at the end. With
+	 * "--server <port>" or "--server <socket file>" the editor accepts sessions
+	 * on a local TCP or Unix domain socket instead.
 	 *
 	 * @param args
 	 */
 	public static void main(String[] args) {
-		TextEditor editor = new TextEditor();
+		InputStream input = System.in;
+		boolean batchMode = false;
+		Path sessionDirectory = null;
+		Path statisticsFile = null;
+		String serverAddress = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--script") && i + 1 < args.length) {
+				try {
+					input = new FileInputStream(args[++i]);
+				} catch (FileNotFoundException e) {
+					System.err.println("Script " + args[i] + " not found");
+					return;
+				}
+				batchMode = true;
+			} else if (args[i].equals("--batch")) {
+				batchMode = true;
+			} else if (args[i].equals("--session") && i + 1 < args.length) {
+				sessionDirectory = Path.of(args[++i]);
+			} else if (args[i].equals("--stats") && i + 1 < args.length) {
+				statisticsFile = Path.of(args[++i]);
+			} else if (args[i].equals("--server") && i + 1 < args.length) {
+				serverAddress = args[++i];
+			}
+		}
+		if (serverAddress != null) {
+			try (EditorServer server = new EditorServer(EditorServer.parseAddress(serverAddress))) {
+				System.err.println("Listening on " + server.getLocalAddress());
+				server.run();
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("Server on " + serverAddress + " could not be started");
+			}
+			return;
+		}
+		TextEditor editor = new TextEditor(input, batchMode);
+		if (statisticsFile != null) {
+			editor.setStatisticsFile(statisticsFile, Long.getLong("texteditor.statsInterval", 60L) * 1000);
+		}
+		if (sessionDirectory != null) {
+			try {
+				editor.openSession(sessionDirectory);
+			} catch (IOException | InvalidPathException e) {
+				System.err.println("Session " + sessionDirectory + " could not be recovered");
+				return;
+			}
+		}
 		editor.start();
 	}
 
-	private void start() {
+	/**
+	 * Recovers the text and format of the session in a directory and logs every
+	 * following change there. Must be called before the first command.
+	 *
+	 * @param directory
+	 * @throws IOException if the session can not be read
+	 */
+	public void openSession(Path directory) throws IOException {
+		writeAheadLog = new WriteAheadLog(directory, paragraphs, textFormatter,
+				Long.getLong("texteditor.snapshotSize", 64L << 20), 20);
+		writeAheadLog.recover();
+	}
+
+	/**
+	 * Appends the command statistics to a file after a command when the
+	 * interval has passed since the last time, and at the end. The statistics
+	 * are written by the thread which processes the commands, so measuring a
+	 * command needs no synchronization.
+	 *
+	 * @param file
+	 * @param intervalMillis
+	 */
+	public void setStatisticsFile(Path file, long intervalMillis) {
+		statisticsFile = file;
+		statisticsIntervalNanos = intervalMillis * 1_000_000;
+		nextStatisticsDump = System.nanoTime() + statisticsIntervalNanos;
+	}
+
+	/**
+	 * Processes commands until EXIT is entered or the input ends.
+	 */
+	public void start() {
+		long startTime = System.nanoTime();
 		outputManager.printGreeting();
-		handleInput();
+		running = true;
+		while (running) {
+			handleInput();
+		}
+		if (batchMode) {
+			outputManager.printBatchSummary(commandCount, System.nanoTime() - startTime);
+		}
+		if (statisticsFile != null) {
+			dumpStatistics();
+		}
+		outputManager.flush();
 	}
 
 	private void handleInput() {
 		outputManager.printInputRequest();
-		processInput(inputManager.getCommandInput());
+		commandStatistics.start(inputManager.getWaitNanos(), getByteCount());
+		UserInput userInput = inputManager.getCommandInput();
+		if (documentRegistry != null) {
+			inputManager.prefetchLines(getTextLineCount(userInput.getCommand()));
+		}
+		if (readsSnapshot(userInput.getCommand())) {
+			processInput(userInput);
+		} else {
+			Lock lock = document.getLock();
+			if (documentRegistry != null) {
+				outputManager.holdOutput();
+			}
+			lock.lock();
+			try {
+				processInput(userInput);
+			} finally {
+				lock.unlock();
+				if (documentRegistry != null) {
+					outputManager.releaseOutput();
+				}
+			}
+		}
+		inputManager.clearPrefetchedLines();
+		outputManager.flush();
+		commandStatistics.stop(userInput.getCommand(), inputManager.getWaitNanos(), getByteCount());
+		commandCount++;
+		if (statisticsFile != null && running && System.nanoTime() - nextStatisticsDump >= 0) {
+			nextStatisticsDump = System.nanoTime() + statisticsIntervalNanos;
+			dumpStatistics();
+		}
+	}
+
+	/**
+	 * Commands of a session which only read the paragraphs work on a snapshot
+	 * of the document and do not take its lock, so a long PRINT does not stop
+	 * the other sessions from editing. INDEX is then generated from the
+	 * snapshot, because the word index of the document changes with every edit.
+	 * The output of the other commands of a session is held until the lock is
+	 * released, so a client which reads slowly does not stop the other sessions
+	 * either.
+	 */
+	private boolean readsSnapshot(Command command) {
+		return documentRegistry != null
+				&& (command == Command.PRINT || command == Command.PRINT_RANGE || command == Command.PRINT_LINES
+						|| command == Command.INDEX || command == Command.FIND_REGEX);
+	}
+
+	private int getTextLineCount(Command command) {
+		switch (command) {
+		case ADD:
+			return 1;
+		case REPLACE:
+		case REPLACE_ALL:
+		case REPLACE_REGEX:
+		case REPLACE_REGEX_ALL:
+			return 2;
+		default:
+			return 0;
+		}
+	}
+
+	private long getByteCount() {
+		return inputManager.getCharCount() + outputManager.getByteCount();
+	}
+
+	private void dumpStatistics() {
+		try (FileChannel channel = FileChannel.open(statisticsFile, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			OutputManager fileOutput = new OutputManager(channel, channel);
+			fileOutput.printStatisticsTime(Instant.now());
+			fileOutput.printCommandStatistics(commandStatistics);
+			fileOutput.flush();
+		} catch (IOException | UncheckedIOException e) {
+			outputManager.printStatisticsError();
+		}
 	}
 
 	private void processInput(UserInput userInput) {
 		switch (userInput.getCommand()) {
 		case PRINT:
-			if (textFormatter.isTextFormatRaw()) {
-				outputManager.printParagraphsRaw(this.paragraphs);
-			} else {
-				outputManager.printParagraphsFixed(textFormatter.formatParagraphs(paragraphs));
-			}
+			printParagraphs(paragraphs.snapshot());
+			break;
+		case PRINT_RANGE:
+			printRange(userInput);
+			break;
+		case PRINT_LINES:
+			printLines(userInput);
 			break;
 		case DEL:
 			deleteParagraph(userInput);
@@ -66,16 +323,57 @@ public class TextEditor {
 			break;
 		case FORMAT_RAW:
 			textFormatter.formatRaw();
+			logFormat();
 			break;
 		case FORMAT_FIX:
 			setFormatting(userInput);
 			break;
 		case INDEX:
-			outputManager.printIndex(textProcessor.getWordIndex(paragraphs));
+			printWordIndex(userInput);
 			break;
 		case REPLACE:
 			replaceWord(userInput);
 			break;
+		case REPLACE_ALL:
+			replaceWordEverywhere();
+			break;
+		case REPLACE_MAP:
+			replaceDictionary(userInput);
+			break;
+		case FIND:
+			findText(userInput);
+			break;
+		case FIND_REGEX:
+			findPattern(userInput);
+			break;
+		case REPLACE_REGEX:
+			replacePattern(userInput, false);
+			break;
+		case REPLACE_REGEX_ALL:
+			replacePattern(userInput, true);
+			break;
+		case LOAD:
+			loadFile(userInput);
+			break;
+		case SAVE:
+			saveFile(userInput);
+			break;
+		case UNDO:
+			if (!editJournal.undo()) {
+				outputManager.printNothingToUndoError();
+			}
+			break;
+		case REDO:
+			if (!editJournal.redo()) {
+				outputManager.printNothingToRedoError();
+			}
+			break;
+		case STATS:
+			outputManager.printCommandStatistics(commandStatistics);
+			break;
+		case OPEN:
+			openDocument(userInput);
+			break;
 		case ERROR:
 			outputManager.printInvalidCommandError();
 			break;
@@ -86,7 +384,23 @@ public class TextEditor {
 			outputManager.printInvalidCommandError();
 			break;
 		}
-		handleInput();
+		commitSession();
+	}
+
+	private void logFormat() {
+		if (writeAheadLog != null) {
+			writeAheadLog.logFormat();
+		}
+	}
+
+	private void commitSession() {
+		if (writeAheadLog != null && running) {
+			try {
+				writeAheadLog.commit();
+			} catch (IOException e) {
+				outputManager.printSessionError();
+			}
+		}
 	}
 
 	private void replaceWord(UserInput userInput) {
@@ -97,8 +411,75 @@ public class TextEditor {
 				if (!replacee.isEmpty()) {
 					outputManager.printReplacementRequest();
 					String replacement = inputManager.getPlainTextInput();
-					textProcessor.replaceString(paragraphs, getValidProcessingNumber(userInput.getArgumentNumber()),
-							replacee, replacement);
+					int paragraphNumber = getValidProcessingNumber(userInput.getArgumentNumber());
+					editJournal.recordReplace(paragraphNumber, paragraphs.get(paragraphNumber), replacee,
+							replacement);
+					textProcessor.replaceString(paragraphs, paragraphNumber, replacee, replacement);
+				} else {
+					outputManager.printInvalidArgumentError();
+				}
+			} else {
+				outputManager.printInvalidArgumentError();
+			}
+		} else {
+			outputManager.printNothingToReplaceError();
+		}
+	}
+
+	private void replaceWordEverywhere() {
+		if (paragraphs.size() > 0) {
+			outputManager.printReplaceeRequest();
+			String replacee = inputManager.getPlainTextInput();
+			if (!replacee.isEmpty()) {
+				outputManager.printReplacementRequest();
+				String replacement = inputManager.getPlainTextInput();
+				DictionaryReplacer replacer = new DictionaryReplacer(List.of(replacee), List.of(replacement));
+				applyReplacements(replacer.getReplacees(), replacer.replaceAll(paragraphs));
+			} else {
+				outputManager.printInvalidArgumentError();
+			}
+		} else {
+			outputManager.printNothingToReplaceError();
+		}
+	}
+
+	private void replaceDictionary(UserInput userInput) {
+		if (paragraphs.size() > 0) {
+			if (userInput.getArgumentText() != null) {
+				try {
+					DictionaryReplacer replacer = DictionaryReplacer.load(Path.of(userInput.getArgumentText()));
+					applyReplacements(replacer.getReplacees(), replacer.replaceAll(paragraphs));
+				} catch (IOException | InvalidPathException e) {
+					outputManager.printLoadError();
+				}
+			} else {
+				outputManager.printInvalidArgumentError();
+			}
+		} else {
+			outputManager.printNothingToReplaceError();
+		}
+	}
+
+	private void replacePattern(UserInput userInput, boolean everywhere) {
+		if (paragraphs.size() > 0) {
+			if (everywhere || isProcessingNumberValid(userInput.getArgumentNumber())) {
+				outputManager.printReplaceeRequest();
+				String regex = inputManager.getRawTextInput();
+				if (!regex.isEmpty()) {
+					outputManager.printReplacementRequest();
+					String replacement = inputManager.getPlainTextInput();
+					int from = everywhere ? 0 : getValidProcessingNumber(userInput.getArgumentNumber());
+					int to = everywhere ? paragraphs.size() : from + 1;
+					try {
+						applyReplacements(List.of(regex), regexProcessor.replaceRange(paragraphs, from, to,
+								patternCache.get(regex), replacement));
+					} catch (PatternSyntaxException e) {
+						outputManager.printInvalidPatternError();
+					} catch (StepBudgetExceededException e) {
+						outputManager.printStepBudgetError();
+					} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+						outputManager.printInvalidArgumentError();
+					}
 				} else {
 					outputManager.printInvalidArgumentError();
 				}
@@ -110,9 +491,184 @@ public class TextEditor {
 		}
 	}
 
+	private void applyReplacements(List<String> replacees, ReplaceResult result) {
+		int[] paragraphNumbers = result.getParagraphNumbers();
+		CharSequence[] oldParagraphs = new CharSequence[paragraphNumbers.length];
+		for (int i = 0; i < paragraphNumbers.length; i++) {
+			oldParagraphs[i] = paragraphs.getText(paragraphNumbers[i]);
+			paragraphs.set(paragraphNumbers[i], result.getParagraph(i));
+		}
+		editJournal.recordReplaceAll(paragraphNumbers, oldParagraphs);
+		outputManager.printReplacementCounts(replacees, result.getCounts(), paragraphNumbers.length);
+	}
+
+	/**
+	 * Prints the word index. The default index of a single session is kept up
+	 * to date by the WordIndex, the other variants are generated from a
+	 * snapshot of the paragraphs.
+	 */
+	private void printWordIndex(UserInput userInput) {
+		IndexOptions options = userInput.getIndexOptions();
+		if (options == null) {
+			outputManager.printInvalidArgumentError();
+		} else if (options.isApproximate()) {
+			HeavyHitters heavyHitters = textProcessor.getApproximateWordIndex(paragraphs.snapshot().texts(), options);
+			outputManager.printApproximateIndex(
+					heavyHitters.getTop(options.getTopCount(), options.getMinParagraphCount()), heavyHitters);
+		} else if (!options.isDefault()) {
+			outputManager.printIndex(parallelIndexBuilder.getWordIndex(paragraphs.snapshot(), options));
+		} else if (documentRegistry != null) {
+			outputManager.printIndex(parallelIndexBuilder.getWordIndex(paragraphs.snapshot()));
+		} else {
+			outputManager.printIndex(wordIndex.getWordIndex());
+		}
+	}
+
+	private void findText(UserInput userInput) {
+		String query = userInput.getArgumentText();
+		if (query != null && query.length() > 1 && query.startsWith("\"") && query.endsWith("\"")) {
+			query = query.substring(1, query.length() - 1);
+		}
+		if (query != null) {
+			outputManager.printFindResults(searchIndex.find(query));
+		} else {
+			outputManager.printInvalidArgumentError();
+		}
+	}
+
+	/**
+	 * Prints the whole document. In the fixed format every paragraph is
+	 * printed as soon as it is formatted, so the lines of the document are
+	 * never held at once. A document of more than one chunk is formatted in
+	 * parallel by the formatting pipeline.
+	 */
+	private void printParagraphs(Document document) {
+		if (textFormatter.isTextFormatRaw()) {
+			outputManager.printParagraphsRaw(document);
+		} else if (document.size() > formattingPipeline.getChunkSize()) {
+			formattingPipeline.print(document.texts(), textFormatter.getMaxLineLength(), outputManager);
+		} else {
+			for (CharSequence paragraph : document.texts()) {
+				LineLayout layout = textFormatter.getLineLayout(paragraph);
+				outputManager.printLines(paragraph, layout, 0, layout.getLineCount());
+			}
+		}
+	}
+
+	/**
+	 * Prints the paragraphs from the first to the last given number. A last
+	 * number after the end of the document prints up to the end.
+	 */
+	private void printRange(UserInput userInput) {
+		Document document = paragraphs.snapshot();
+		Integer from = userInput.getArgumentNumber();
+		Integer to = userInput.getSecondArgumentNumber();
+		if (from == null || to == null || from < 0 || from >= document.size() || to < from) {
+			outputManager.printInvalidArgumentError();
+		} else if (textFormatter.isTextFormatRaw()) {
+			outputManager.printParagraphsRaw(document, from, Math.min(to + 1, document.size()));
+		} else {
+			printFormattedLines(document, from, 0, Math.min(to + 1, document.size()), Long.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Prints a number of lines starting at a line of the output. In the raw
+	 * format every paragraph is one line. In the fixed format the paragraph of
+	 * the first line is found with the line counts the document keeps for the
+	 * current maxLineLength, so only the printed paragraphs are formatted.
+	 */
+	private void printLines(UserInput userInput) {
+		Document document = paragraphs.snapshot();
+		Integer from = userInput.getArgumentNumber();
+		Integer count = userInput.getSecondArgumentNumber();
+		if (from == null || count == null || from < 0 || count <= 0) {
+			outputManager.printInvalidArgumentError();
+		} else if (textFormatter.isTextFormatRaw()) {
+			if (from < document.size()) {
+				outputManager.printParagraphsRaw(document, from, (int) Math.min((long) from + count, document.size()));
+			} else {
+				outputManager.printInvalidArgumentError();
+			}
+		} else {
+			ParagraphMeasure lineMeasure = textFormatter.getLineMeasure();
+			int paragraphNumber = document.findMeasure(from, lineMeasure);
+			if (paragraphNumber < document.size()) {
+				int line = (int) (from - document.measureBefore(paragraphNumber, lineMeasure));
+				printFormattedLines(document, paragraphNumber, line, document.size(), count);
+			} else {
+				outputManager.printInvalidArgumentError();
+			}
+		}
+	}
+
+	private void printFormattedLines(Document document, int paragraphNumber, int line, int endParagraphNumber,
+			long lineCount) {
+		while (lineCount > 0 && paragraphNumber < endParagraphNumber) {
+			CharSequence paragraph = document.getText(paragraphNumber++);
+			LineLayout layout = textFormatter.getLineLayout(paragraph);
+			int endLine = (int) Math.min(layout.getLineCount(), line + lineCount);
+			outputManager.printLines(paragraph, layout, line, endLine);
+			lineCount -= endLine - line;
+			line = 0;
+		}
+	}
+
+	private void findPattern(UserInput userInput) {
+		if (userInput.getArgumentText() != null) {
+			try {
+				outputManager.printFindResults(regexProcessor.find(paragraphs.snapshot(),
+						patternCache.get(userInput.getArgumentText())));
+			} catch (PatternSyntaxException e) {
+				outputManager.printInvalidPatternError();
+			} catch (StepBudgetExceededException e) {
+				outputManager.printStepBudgetError();
+			}
+		} else {
+			outputManager.printInvalidArgumentError();
+		}
+	}
+
+	private void openDocument(UserInput userInput) {
+		if (documentRegistry == null) {
+			outputManager.printInvalidCommandError();
+		} else if (userInput.getArgumentText() != null) {
+			useDocument(documentRegistry.open(userInput.getArgumentText()));
+		} else {
+			outputManager.printInvalidArgumentError();
+		}
+	}
+
+	private void loadFile(UserInput userInput) {
+		if (userInput.getArgumentText() != null) {
+			try {
+				List<CharSequence> loadedParagraphs = textFileLoader.load(Path.of(userInput.getArgumentText()));
+				editJournal.recordInsert(paragraphs.size(), loadedParagraphs.size());
+				paragraphs.insertParagraphs(paragraphs.size(), loadedParagraphs);
+			} catch (IOException | InvalidPathException e) {
+				outputManager.printLoadError();
+			}
+		} else {
+			outputManager.printInvalidArgumentError();
+		}
+	}
+
+	private void saveFile(UserInput userInput) {
+		if (userInput.getArgumentText() != null) {
+			try {
+				documentStore.save(Path.of(userInput.getArgumentText()));
+			} catch (IOException | InvalidPathException e) {
+				outputManager.printSaveError();
+			}
+		} else {
+			outputManager.printInvalidArgumentError();
+		}
+	}
+
 	private void setFormatting(UserInput userInput) {
 		if (userInput.getArgumentNumber() != null && userInput.getArgumentNumber() > 0) {
 			textFormatter.setMaxLineLength(userInput.getArgumentNumber());
+			logFormat();
 		} else {
 			outputManager.printInvalidArgumentError();
 		}
@@ -120,8 +676,9 @@ public class TextEditor {
 
 	private void deleteParagraph(UserInput userInput) {
 		if (isProcessingNumberValid(userInput.getArgumentNumber())) {
-			paragraphs = textProcessor.deleteParagraph(paragraphs,
-					getValidProcessingNumber(userInput.getArgumentNumber()));
+			int paragraphNumber = getValidProcessingNumber(userInput.getArgumentNumber());
+			editJournal.recordDelete(paragraphNumber, paragraphs.getText(paragraphNumber));
+			paragraphs = textProcessor.deleteParagraph(paragraphs, paragraphNumber);
 		} else {
 			outputManager.printInvalidArgumentError();
 		}
@@ -130,8 +687,9 @@ public class TextEditor {
 	private void addParagraph(UserInput userInput) {
 		if (isInsertionNumberValid(userInput.getArgumentNumber())) {
 			outputManager.printArgumentRequest();
-			textProcessor.addParagraph(paragraphs, getValidInsertionNumber(userInput.getArgumentNumber()),
-					inputManager.getPlainTextInput());
+			int paragraphNumber = getValidInsertionNumber(userInput.getArgumentNumber());
+			textProcessor.addParagraph(paragraphs, paragraphNumber, inputManager.getPlainTextInput());
+			editJournal.recordInsert(paragraphNumber, 1);
 		} else {
 			outputManager.printInvalidArgumentError();
 		}
@@ -139,7 +697,9 @@ public class TextEditor {
 
 	private void addDummyText(UserInput userInput) {
 		if (isInsertionNumberValid(userInput.getArgumentNumber())) {
-			textProcessor.addDummyParagraph(paragraphs, getValidInsertionNumber(userInput.getArgumentNumber()));
+			int paragraphNumber = getValidInsertionNumber(userInput.getArgumentNumber());
+			textProcessor.addDummyParagraph(paragraphs, paragraphNumber);
+			editJournal.recordInsert(paragraphNumber, 1);
 		} else {
 			outputManager.printInvalidArgumentError();
 		}
@@ -167,7 +727,14 @@ public class TextEditor {
 
 	private void quitProgram() {
 		outputManager.printExitMessage();
-		inputManager.closeScanner();
-		System.exit(0);
+		inputManager.closeInput();
+		running = false;
+		if (writeAheadLog != null) {
+			try {
+				writeAheadLog.close();
+			} catch (IOException e) {
+				outputManager.printSessionError();
+			}
+		}
 	}
 }
@@ -0,0 +1,106 @@
+package texteditor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The TextFileLoader class reads the paragraphs of a text file. Every line
+ * which is not blank is one paragraph. The file is read as UTF-8.
+ * The file is memory-mapped in windows of at most 1 GB. Lines which only
+ * contain allowed ASCII characters are returned as MappedParagraph and stay in
+ * the mapped file, only the other lines are decoded and filtered like the
+ * input of ADD. The file should not be changed while its paragraphs are used.
+ * Files which were written by a DocumentStore are read with their paragraph
+ * tables instead of line by line.
+ */
+public class TextFileLoader {
+	private static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+	private final int windowSize;
+
+	/**
+	 * Default constructor.
+	 */
+	public TextFileLoader() {
+		this(DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructor with the size of the mapped windows.
+	 *
+	 * @param windowSize in bytes
+	 */
+	public TextFileLoader(int windowSize) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("windowSize must be positive");
+		}
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Reads the paragraphs of a file.
+	 *
+	 * @param path
+	 * @return paragraphs in the order of the file
+	 * @throws IOException if the file can not be read
+	 */
+	public List<CharSequence> load(Path path) throws IOException {
+		ArrayList<CharSequence> paragraphs = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (DocumentStore.isStoreFile(channel)) {
+				return DocumentStore.readParagraphs(channel, windowSize);
+			}
+			long fileSize = channel.size();
+			long windowStart = 0;
+			while (windowStart < fileSize) {
+				int size = (int) Math.min(windowSize, fileSize - windowStart);
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+				boolean lastWindow = windowStart + size == fileSize;
+				int lineStart = 0;
+				for (int i = 0; i < size; i++) {
+					byte character = window.get(i);
+					if (character == '\n' || character == '\r') {
+						addParagraph(paragraphs, window, lineStart, i);
+						lineStart = i + 1;
+					}
+				}
+				if (lastWindow || lineStart == 0) {
+					addParagraph(paragraphs, window, lineStart, size);
+					lineStart = size;
+				}
+				windowStart += lineStart;
+			}
+		}
+		return paragraphs;
+	}
+
+	private void addParagraph(List<CharSequence> paragraphs, MappedByteBuffer window, int start, int end) {
+		boolean ascii = true;
+		boolean blank = true;
+		for (int i = start; i < end; i++) {
+			byte character = window.get(i);
+			if (character < 0 || !Tokenizer.isLegalTextChar((char) character)) {
+				ascii = false;
+			} else if (character != ' ') {
+				blank = false;
+			}
+		}
+		if (ascii) {
+			if (!blank) {
+				paragraphs.add(new MappedParagraph(window, start, end - start));
+			}
+		} else {
+			byte[] bytes = new byte[end - start];
+			window.get(start, bytes);
+			String paragraph = Tokenizer.filterIllegalChars(new String(bytes, StandardCharsets.UTF_8));
+			if (!paragraph.isBlank()) {
+				paragraphs.add(paragraph);
+			}
+		}
+	}
+}
@@ -5,11 +5,14 @@
  */
 package texteditor;
 
-import java.util.ArrayList;
+import java.util.WeakHashMap;
 
 public class TextFormatter {
 
 	private int maxLineLength;
+	private final Tokenizer tokenizer = new Tokenizer();
+	private final WeakHashMap<CharSequence, LineLayout> layoutCache = new WeakHashMap<>();
+	private LineMeasure lineMeasure;
 
 	/**
 	 * Default constructor to set maxLineLength wo 0.
@@ -51,6 +54,15 @@ public class TextFormatter {
 		}
 	}
 	
+	/**
+	 * Getter for maxLineLength, 0 if the text is not formatted.
+	 *
+	 * @return
+	 */
+	public int getMaxLineLength() {
+		return maxLineLength;
+	}
+
 	public boolean isTextFormatRaw() {
 		if(maxLineLength == 0) {
 			return true;
@@ -60,48 +72,67 @@ public class TextFormatter {
 	}
 
 	/**
-	 * Format Paragraphs with maxLineLength or return the given paragraphs.
+	 * Returns the lines of a paragraph for the current maxLineLength.
+	 * Layouts are cached per paragraph, a paragraph is only broken into lines
+	 * again after it was changed or maxLineLength was set to another value.
+	 * Texts which are not a String are cached by identity.
 	 *
-	 * @param paragraphs
-	 * @return ArrayList<String>
+	 * @param paragraph
+	 * @return layout of the paragraph
 	 */
-	public ArrayList<String> formatParagraphs(ArrayList<String> paragraphs) {
-		if (this.maxLineLength != 0) {
-			return this.generateFormattedParagraphs(paragraphs);
-		}else 
-
-		return paragraphs;
+	public LineLayout getLineLayout(CharSequence paragraph) {
+		LineLayout layout = layoutCache.get(paragraph);
+		if (layout == null || layout.getMaxLineLength() != this.maxLineLength) {
+			layout = LineLayout.create(paragraph, this.maxLineLength, tokenizer);
+			layoutCache.put(paragraph, layout);
+		}
+		return layout;
 	}
 
-	private ArrayList<String> generateFormattedParagraphs(ArrayList<String> paragraphs) {
-		ArrayList<String> formattedParagraphs = new ArrayList<>();
-		for (String paragraph : paragraphs) {
-			formattedParagraphs.addAll(this.generateLines(paragraph));
+	/**
+	 * Returns a measure of the number of lines of a paragraph for the current
+	 * maxLineLength. Measures for the same maxLineLength are equal, so a
+	 * document can keep the line counts which were summed by another formatter.
+	 * The lines are only counted and not cached like getLineLayout does.
+	 *
+	 * @return measure of the formatted lines, maxLineLength must not be 0
+	 */
+	public ParagraphMeasure getLineMeasure() {
+		if (lineMeasure == null || lineMeasure.maxLineLength != this.maxLineLength) {
+			lineMeasure = new LineMeasure(this.maxLineLength);
 		}
-		return formattedParagraphs;
+		return lineMeasure;
 	}
 
-	private ArrayList<String> generateLines(String paragraph) {
-		ArrayList<String> lines = new ArrayList<>();
-		String[] words = paragraph.split(" ");
-		String newLine = "";
-
-		for (String word : words) {
-			if (newLine.length() + word.length() > this.maxLineLength) {
-				if (!newLine.isEmpty()) {
-					lines.add(newLine.substring(0, newLine.length() - 1));
-					newLine = "";
-				}
-				while (word.length() > this.maxLineLength) {
-					lines.add(word.substring(0, this.maxLineLength));
-					word = word.substring(this.maxLineLength);
-				}
+	/**
+	 * Counts the lines of paragraphs for one maxLineLength. It has its own
+	 * tokenizer, so it does not disturb a layout which is being created.
+	 */
+	private static class LineMeasure implements ParagraphMeasure {
+		private final int maxLineLength;
+		private final Tokenizer tokenizer = new Tokenizer();
+
+		private LineMeasure(int maxLineLength) {
+			if (maxLineLength <= 0) {
+				throw new IllegalStateException("The text is not formatted");
 			}
-			newLine += word + " ";
+			this.maxLineLength = maxLineLength;
 		}
-		lines.add(newLine.substring(0, newLine.length() - 1));
 
-		return lines;
+		@Override
+		public int measure(CharSequence paragraph) {
+			return LineLayout.countLines(paragraph, maxLineLength, tokenizer);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof LineMeasure && ((LineMeasure) other).maxLineLength == maxLineLength;
+		}
+
+		@Override
+		public int hashCode() {
+			return maxLineLength;
+		}
 	}
 
 }
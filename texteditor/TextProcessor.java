@@ -15,6 +15,35 @@ public class TextProcessor {
 			+ "The descendants of Deep Thought's creators are upset by the numeric nature of the answer, "
 			+ "not understanding what to do with it or what to tell the people who had commissioned "
 			+ "the 7.5-million year project.";
+	private final Tokenizer tokenizer = new Tokenizer();
+	private final WordTable wordTable;
+	private int[] wordIds = new int[16];
+	private long[] paragraphWordHashes = new long[64];
+
+	/**
+	 * Default constructor which uses a new word table.
+	 */
+	public TextProcessor() {
+		this(new WordTable());
+	}
+
+	/**
+	 * Constructor with the table which gives the words of the index their ids.
+	 *
+	 * @param wordTable
+	 */
+	public TextProcessor(WordTable wordTable) {
+		this.wordTable = wordTable;
+	}
+
+	/**
+	 * Getter for wordTable.
+	 *
+	 * @return
+	 */
+	public WordTable getWordTable() {
+		return wordTable;
+	}
 
 	/**
 	 * Adds a new paragraph at the specific paragraph number.
@@ -24,7 +53,7 @@ public class TextProcessor {
 	 * @param newParagraph
 	 * @return paragraph list with new added paragraph
 	 */
-	public ArrayList<String> addParagraph(ArrayList<String> paragraphs, Integer paragraphNumber, String newParagraph) {
+	public Document addParagraph(Document paragraphs, Integer paragraphNumber, String newParagraph) {
 		paragraphs.add(paragraphNumber, newParagraph);
 		return paragraphs;
 	}
@@ -36,7 +65,7 @@ public class TextProcessor {
 	 * @param paragraphNumber
 	 * @return paragraph list with new added dummy paragraph
 	 */
-	public ArrayList<String> addDummyParagraph(ArrayList<String> paragraphs, Integer paragraphNumber) {
+	public Document addDummyParagraph(Document paragraphs, Integer paragraphNumber) {
 		paragraphs.add(paragraphNumber, dummyParagraph);
 		return paragraphs;
 	}
@@ -48,7 +77,7 @@ public class TextProcessor {
 	 * @param paragraphNumber
 	 * @return paragraph list without deleted paragraph
 	 */
-	public ArrayList<String> deleteParagraph(ArrayList<String> paragraphs, Integer paragraphNumber) {
+	public Document deleteParagraph(Document paragraphs, Integer paragraphNumber) {
 		paragraphs.remove((int) paragraphNumber);
 		return paragraphs;
 	}
@@ -56,54 +85,133 @@ public class TextProcessor {
 	/**
 	 * Generates a collection of word index, in which paragraphs the word occur.
 	 * Only words, which occur more than three times will be listed.
+	 * The paragraph numbers of the returned words are sealed posting lists.
+	 * The posting lists are collected by word id and only the listed words are
+	 * put into the tree map, in the alphabetical order of the word table.
 	 *
 	 * @param paragraphs
 	 * @return tree map with word index
 	 */
-	public TreeMap<String, ArrayList<Integer>> getWordIndex(ArrayList<String> paragraphs) {
-		TreeMap<String, ArrayList<Integer>> wordIndexList = new TreeMap<>();
-		for (int i = 0; i < paragraphs.size(); i++) {
-			String[] words = paragraphs.get(i).split(" ");
-			wordIndexList = appendIndex(validateWords(words), wordIndexList, i);
+	public TreeMap<String, PostingList> getWordIndex(List<String> paragraphs) {
+		PostingList[] postingLists = new PostingList[wordTable.size()];
+		int paragraphNumber = 0;
+		for (String paragraph : paragraphs) {
+			for (int id : getIndexWordIds(paragraph)) {
+				if (id >= postingLists.length) {
+					postingLists = Arrays.copyOf(postingLists, Math.max(id + 1, postingLists.length * 2));
+				}
+				if (postingLists[id] == null) {
+					postingLists[id] = new PostingList();
+				}
+				postingLists[id].append(paragraphNumber);
+			}
+			paragraphNumber++;
+		}
+		return wordTable.createWordIndex(postingLists, 4);
+	}
+
+	/**
+	 * Estimates the words which occur in the most paragraphs in one pass over
+	 * the paragraphs. The memory used does not depend on the number of
+	 * distinct words: every word of a paragraph is counted once in a
+	 * CountMinSketch, and HeavyHitters keeps counters for eight times as many
+	 * words as requested, but at least 256.
+	 *
+	 * @param paragraphs
+	 * @param options    which words are counted and how many are requested
+	 * @return counters of the most frequent words
+	 */
+	public HeavyHitters getApproximateWordIndex(Iterable<? extends CharSequence> paragraphs, IndexOptions options) {
+		boolean caseFolded = options.isCaseFolded();
+		HeavyHitters heavyHitters = new HeavyHitters(Math.max(256, options.getTopCount() * 8), new CountMinSketch());
+		for (CharSequence paragraph : paragraphs) {
+			tokenizer.reset(paragraph);
+			int mask = Integer.highestOneBit(Math.max(paragraph.length(), 16)) * 2 - 1;
+			if (mask >= paragraphWordHashes.length) {
+				paragraphWordHashes = new long[mask + 1];
+			}
+			Arrays.fill(paragraphWordHashes, 0, mask + 1, 0);
+			while (tokenizer.nextToken()) {
+				int start = getIndexWordStart(paragraph, tokenizer.start(), tokenizer.end(), caseFolded);
+				if (start >= 0) {
+					long hash = HeavyHitters.hash(paragraph, start, tokenizer.end(), caseFolded);
+					if (addParagraphWordHash(hash == 0 ? 1 : hash, mask)) {
+						heavyHitters.add(hash, paragraph, start, tokenizer.end(), caseFolded);
+					}
+				}
+			}
 		}
-		wordIndexList = removeRareWords(wordIndexList);
-		return wordIndexList;
+		return heavyHitters;
 	}
 
-	private ArrayList<String> validateWords(String[] words) {
-		ArrayList<String> validWords = new ArrayList<>();
-		for (int i = 0; i < words.length; i++) {
-			words[i] = words[i].replaceAll("[^a-zöäüA-ZÖÄÜ]", "");
-			if (!words[i].isBlank() && Character.isUpperCase(words[i].charAt(0))) {
-				validWords.add(words[i]);
+	/**
+	 * Adds the hash of a word to the words of the current paragraph, so every
+	 * word is counted once per paragraph. A paragraph has fewer words than
+	 * half of the slots.
+	 */
+	private boolean addParagraphWordHash(long hash, int mask) {
+		for (int slot = (int) hash & mask;; slot = (slot + 1) & mask) {
+			if (paragraphWordHashes[slot] == hash) {
+				return false;
+			}
+			if (paragraphWordHashes[slot] == 0) {
+				paragraphWordHashes[slot] = hash;
+				return true;
 			}
 		}
-		return validWords;
+	}
 
+	/**
+	 * Returns the ids of the distinct words of a paragraph which are part of the
+	 * word index. No String is created for words which are already in the word
+	 * table.
+	 *
+	 * @param paragraph
+	 * @return ascending ids of the words starting with an uppercase letter
+	 */
+	int[] getIndexWordIds(CharSequence paragraph) {
+		return getIndexWordIds(paragraph, false);
 	}
 
-	private TreeMap<String, ArrayList<Integer>> appendIndex(ArrayList<String> words, TreeMap<String, ArrayList<Integer>> wordIndexList, int paragraphNumber) {
-		HashSet<String> uniqueWords = new HashSet<>(words);
-		for (String word : uniqueWords) {
-			if (wordIndexList.containsKey(word)) {
-				wordIndexList.get(word).add(paragraphNumber);
-			} else {
-				wordIndexList.put(word, new ArrayList<Integer>());
-				wordIndexList.get(word).add(paragraphNumber);
+	/**
+	 * Returns the ids of the distinct words of a paragraph which are part of the
+	 * word index, or of all its words in lowercase if the index is case folded.
+	 *
+	 * @param paragraph
+	 * @param caseFolded
+	 * @return ascending ids of the words
+	 */
+	int[] getIndexWordIds(CharSequence paragraph, boolean caseFolded) {
+		int count = 0;
+		tokenizer.reset(paragraph);
+		while (tokenizer.nextToken()) {
+			int start = getIndexWordStart(paragraph, tokenizer.start(), tokenizer.end(), caseFolded);
+			int id = start >= 0 ? wordTable.intern(paragraph, start, tokenizer.end(), caseFolded) : -1;
+			if (id >= 0) {
+				if (count == wordIds.length) {
+					wordIds = Arrays.copyOf(wordIds, count * 2);
+				}
+				wordIds[count++] = id;
 			}
 		}
-		return wordIndexList;
+		Arrays.sort(wordIds, 0, count);
+		int distinctCount = 0;
+		for (int i = 0; i < count; i++) {
+			if (distinctCount == 0 || wordIds[i] != wordIds[distinctCount - 1]) {
+				wordIds[distinctCount++] = wordIds[i];
+			}
+		}
+		return Arrays.copyOf(wordIds, distinctCount);
 	}
 
-	private TreeMap<String, ArrayList<Integer>> removeRareWords(TreeMap<String, ArrayList<Integer>> wordIndexList) {
-		Set<String> allWords = wordIndexList.keySet();
-		Iterator<String> iterator = allWords.iterator();
-		while (iterator.hasNext()) {
-			if (wordIndexList.get(iterator.next()).size() <= 3) {
-				iterator.remove();
-			}
+	private static int getIndexWordStart(CharSequence paragraph, int start, int end, boolean caseFolded) {
+		while (start < end && !Tokenizer.isLetter(paragraph.charAt(start))) {
+			start++;
+		}
+		if (start == end || !(caseFolded || Tokenizer.isUppercaseLetter(paragraph.charAt(start)))) {
+			return -1;
 		}
-		return wordIndexList;
+		return start;
 	}
 
 	/**
@@ -115,9 +223,9 @@ public class TextProcessor {
 	 * @param replacementText
 	 * @return paragraph list with replaced strings.
 	 */
-	public ArrayList<String> replaceString(ArrayList<String> paragraphs, int paragraphNumber, String textToBeRemoved, String replacementText) {
+	public Document replaceString(Document paragraphs, int paragraphNumber, String textToBeRemoved, String replacementText) {
 		paragraphs.set(paragraphNumber, paragraphs.get(paragraphNumber).replace(textToBeRemoved, replacementText));
 		return paragraphs;
 	}
 
-}
\ No newline at end of file
+}
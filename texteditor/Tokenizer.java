@@ -0,0 +1,160 @@
+package texteditor;
+
+/**
+ * The Tokenizer class splits a text into words without regular expressions.
+ * Every character up to 255 is classified once in a lookup table, so the
+ * input filter, the word index and the formatter only need a table lookup per
+ * character. The tokens are returned as start and end offsets into the text,
+ * no String is created while tokenizing.
+ * Words are separated by single spaces, like String.split(" "): two spaces in
+ * a row give an empty word and spaces at the end of the text are ignored.
+ * A tokenizer object keeps the position in the text and must therefore only
+ * be used by one thread at a time.
+ */
+public class Tokenizer {
+	private static final byte LETTER = 1;
+	private static final byte UPPERCASE = 2;
+	private static final byte LEGAL = 4;
+	private static final byte[] CHARACTER_CLASSES = new byte[256];
+	private static final char APOSTROPHE = '’';
+
+	static {
+		String letters = "abcdefghijklmnopqrstuvwxyzäöü";
+		String uppercaseLetters = "ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÜ";
+		String legalCharacters = "0123456789.,:;-!?()\"%@+*[]{}/&#$ ";
+		for (char character : letters.toCharArray()) {
+			CHARACTER_CLASSES[character] = LETTER | LEGAL;
+		}
+		for (char character : uppercaseLetters.toCharArray()) {
+			CHARACTER_CLASSES[character] = LETTER | UPPERCASE | LEGAL;
+		}
+		for (char character : legalCharacters.toCharArray()) {
+			CHARACTER_CLASSES[character] = LEGAL;
+		}
+	}
+
+	private CharSequence text;
+	private int limit;
+	private int position;
+	private int tokenStart;
+	private int tokenEnd;
+
+	/**
+	 * Starts tokenizing a new text.
+	 *
+	 * @param text
+	 * @return this tokenizer
+	 */
+	public Tokenizer reset(CharSequence text) {
+		this.text = text;
+		int end = text.length();
+		while (end > 0 && text.charAt(end - 1) == ' ') {
+			end--;
+		}
+		this.limit = end;
+		this.position = text.length() == 0 ? 0 : (end == 0 ? 1 : 0);
+		this.tokenStart = 0;
+		this.tokenEnd = 0;
+		return this;
+	}
+
+	/**
+	 * Moves to the next word of the text.
+	 *
+	 * @return false if there are no more words
+	 */
+	public boolean nextToken() {
+		if (position > limit) {
+			return false;
+		}
+		int end = position;
+		while (end < limit && text.charAt(end) != ' ') {
+			end++;
+		}
+		tokenStart = position;
+		tokenEnd = end;
+		position = end + 1;
+		return true;
+	}
+
+	/**
+	 * @return offset of the first character of the current word
+	 */
+	public int start() {
+		return tokenStart;
+	}
+
+	/**
+	 * @return offset after the last character of the current word
+	 */
+	public int end() {
+		return tokenEnd;
+	}
+
+	/**
+	 * @return number of characters of the current word
+	 */
+	public int length() {
+		return tokenEnd - tokenStart;
+	}
+
+	/**
+	 * Checks if a character is one of the letters a-z, A-Z or an umlaut.
+	 *
+	 * @param character
+	 * @return true if it is a letter
+	 */
+	public static boolean isLetter(char character) {
+		return character < CHARACTER_CLASSES.length && (CHARACTER_CLASSES[character] & LETTER) != 0;
+	}
+
+	/**
+	 * Checks if a character is one of the letters A-Z or an uppercase umlaut.
+	 *
+	 * @param character
+	 * @return true if it is an uppercase letter
+	 */
+	public static boolean isUppercaseLetter(char character) {
+		return character < CHARACTER_CLASSES.length && (CHARACTER_CLASSES[character] & UPPERCASE) != 0;
+	}
+
+	/**
+	 * Checks if a character is allowed in the text of a paragraph.
+	 *
+	 * @param character
+	 * @return true if the character is allowed
+	 */
+	public static boolean isLegalTextChar(char character) {
+		if (character < CHARACTER_CLASSES.length) {
+			return (CHARACTER_CLASSES[character] & LEGAL) != 0;
+		}
+		return character == APOSTROPHE;
+	}
+
+	/**
+	 * Removes all characters which are not allowed in a paragraph. If the text
+	 * only contains allowed characters, no new String is created.
+	 *
+	 * @param text
+	 * @return text without illegal characters
+	 */
+	public static String filterIllegalChars(CharSequence text) {
+		int length = text.length();
+		int firstIllegal = 0;
+		while (firstIllegal < length && isLegalTextChar(text.charAt(firstIllegal))) {
+			firstIllegal++;
+		}
+		if (firstIllegal == length) {
+			return text.toString();
+		}
+		StringBuilder filtered = new StringBuilder(length - 1);
+		filtered.append(text, 0, firstIllegal);
+		for (int i = firstIllegal + 1; i < length; i++) {
+			char character = text.charAt(i);
+			if (isLegalTextChar(character)) {
+				filtered.append(character);
+			}
+		}
+		return filtered.toString();
+	}
+}
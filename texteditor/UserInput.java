@@ -8,6 +8,9 @@ public class UserInput {
 	private Command command;
 	private Integer argumentNumber;
 	private String paragraph;
+	private String argumentText;
+	private Integer secondArgumentNumber;
+	private IndexOptions indexOptions;
 
 	/**
 	 * Constructor with command and paragraphNumber as parameters.
@@ -44,6 +47,45 @@ public class UserInput {
 		this.argumentNumber = paragraphNumber;
 	}
 
+	/**
+	 * Constructor with command, paragraphNumber and a text argument, like a
+	 * file path, as parameters.
+	 *
+	 * @param command
+	 * @param paragraphNumber
+	 * @param argumentText
+	 */
+	public UserInput(Command command, Integer paragraphNumber, String argumentText) {
+		this.command = command;
+		this.argumentNumber = paragraphNumber;
+		this.argumentText = argumentText;
+	}
+
+	/**
+	 * Constructor with command and two numbers, like the first and the last
+	 * paragraph of a range, as parameters.
+	 *
+	 * @param command
+	 * @param argumentNumber
+	 * @param secondArgumentNumber
+	 */
+	public UserInput(Command command, Integer argumentNumber, Integer secondArgumentNumber) {
+		this.command = command;
+		this.argumentNumber = argumentNumber;
+		this.secondArgumentNumber = secondArgumentNumber;
+	}
+
+	/**
+	 * Constructor with command and the options of a word index as parameters.
+	 *
+	 * @param command
+	 * @param indexOptions
+	 */
+	public UserInput(Command command, IndexOptions indexOptions) {
+		this.command = command;
+		this.indexOptions = indexOptions;
+	}
+
 	/**
 	 * Constructor with command as parameter.
 	 *
@@ -79,4 +121,31 @@ public class UserInput {
 	public String getParagraph() {
 		return paragraph;
 	}
+
+	/**
+	 * Getter for argumentText.
+	 *
+	 * @return
+	 */
+	public String getArgumentText() {
+		return argumentText;
+	}
+
+	/**
+	 * Getter for secondArgumentNumber.
+	 *
+	 * @return
+	 */
+	public Integer getSecondArgumentNumber() {
+		return secondArgumentNumber;
+	}
+
+	/**
+	 * Getter for indexOptions.
+	 *
+	 * @return
+	 */
+	public IndexOptions getIndexOptions() {
+		return indexOptions;
+	}
 }
@@ -0,0 +1,290 @@
+package texteditor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The WordIndex class keeps the word index of a document up to date.
+ * It listens to the changes of the document and only tokenizes the paragraph
+ * which was added, removed or replaced. Paragraphs are referred to by their
+ * entry in a ParagraphOrder, so inserting or deleting a paragraph does not
+ * require renumbering the paragraphs of every word.
+ * Words are referred to by their id in the WordTable of the TextProcessor.
+ * The paragraphs of a word are found by its id. The words which occur in
+ * enough paragraphs are also kept in alphabetical order, so generating the
+ * index only visits these words. The TextProcessor is owned by the index: when
+ * most words of its table no longer occur in the document, the remaining words
+ * are added to a new table in the order of their old ids, so the words of every
+ * paragraph stay sorted by id and only have to be renumbered.
+ * A word keeps its paragraphs in an unordered array, and every paragraph keeps
+ * the slot it has in the array of each of its words. So a posting costs a
+ * reference and an int, and is removed in constant time by moving the last
+ * paragraph of the word into its slot. The paragraph numbers change with every
+ * insert before them and are therefore only computed, sorted and compressed
+ * into a PostingList when the index is requested.
+ * When a lot of paragraphs are inserted or removed at once, like by LOAD, the
+ * index is dropped and built again by the next request, like the SearchIndex
+ * does. Afterwards it is kept up to date again.
+ */
+public class WordIndex implements DocumentListener {
+	private final int minParagraphCount = 4;
+	private final int maxBulkEditCount = 100_000;
+	private final int minUnusedWordCount = 1024;
+	private final Document document;
+	private TextProcessor textProcessor;
+	private ParagraphOrder<IndexedParagraph> order = new ParagraphOrder<>();
+	private final ArrayList<WordPostings> allWords = new ArrayList<>();
+	private final TreeMap<String, WordPostings> frequentWords = new TreeMap<>();
+	private int usedWordCount;
+	private boolean stale;
+
+	/**
+	 * Constructor which indexes the current paragraphs of the document and
+	 * registers the index as listener of the document.
+	 *
+	 * @param paragraphs
+	 * @param textProcessor used to extract the words of a paragraph, replaced
+	 *                      by one with a smaller word table when most words are
+	 *                      no longer used
+	 */
+	public WordIndex(Document paragraphs, TextProcessor textProcessor) {
+		this.document = paragraphs;
+		this.textProcessor = textProcessor;
+		indexDocument();
+		paragraphs.addDocumentListener(this);
+	}
+
+	private void indexDocument() {
+		int paragraphNumber = 0;
+		for (String paragraph : document) {
+			paragraphInserted(paragraphNumber++, paragraph);
+		}
+	}
+
+	/**
+	 * Returns the word index in the same form as TextProcessor.getWordIndex.
+	 * Only words which occur in at least four paragraphs are listed.
+	 *
+	 * @return tree map with word index
+	 */
+	public TreeMap<String, PostingList> getWordIndex() {
+		if (stale) {
+			stale = false;
+			indexDocument();
+		}
+		TreeMap<String, PostingList> wordIndexList = new TreeMap<>();
+		for (Map.Entry<String, WordPostings> word : frequentWords.entrySet()) {
+			wordIndexList.put(word.getKey(), word.getValue().toPostingList());
+		}
+		return wordIndexList;
+	}
+
+	@Override
+	public void paragraphsInserted(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		if (stale || paragraphs.size() > maxBulkEditCount) {
+			markStale();
+		} else {
+			DocumentListener.super.paragraphsInserted(paragraphNumber, paragraphs);
+		}
+	}
+
+	@Override
+	public void paragraphsRemoved(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		if (stale || paragraphs.size() > maxBulkEditCount) {
+			markStale();
+		} else {
+			DocumentListener.super.paragraphsRemoved(paragraphNumber, paragraphs);
+		}
+	}
+
+	@Override
+	public void paragraphInserted(int paragraphNumber, String paragraph) {
+		if (stale) {
+			return;
+		}
+		IndexedParagraph indexedParagraph = new IndexedParagraph(textProcessor.getIndexWordIds(paragraph));
+		ParagraphOrder.Entry<IndexedParagraph> entry = order.insert(paragraphNumber, indexedParagraph);
+		for (int i = 0; i < indexedParagraph.words.length; i++) {
+			indexedParagraph.slots[i] = addOccurrence(indexedParagraph.words[i], entry);
+		}
+	}
+
+	@Override
+	public void paragraphRemoved(int paragraphNumber, String paragraph) {
+		if (stale) {
+			return;
+		}
+		IndexedParagraph indexedParagraph = order.get(paragraphNumber).getValue();
+		for (int i = 0; i < indexedParagraph.words.length; i++) {
+			removeOccurrence(indexedParagraph.words[i], indexedParagraph.slots[i]);
+		}
+		order.remove(paragraphNumber);
+		reclaimUnusedWords();
+	}
+
+	@Override
+	public void paragraphReplaced(int paragraphNumber, String oldParagraph, String newParagraph) {
+		if (stale) {
+			return;
+		}
+		ParagraphOrder.Entry<IndexedParagraph> entry = order.get(paragraphNumber);
+		IndexedParagraph oldWords = entry.getValue();
+		IndexedParagraph newWords = new IndexedParagraph(textProcessor.getIndexWordIds(newParagraph));
+		int oldIndex = 0;
+		int newIndex = 0;
+		while (oldIndex < oldWords.words.length || newIndex < newWords.words.length) {
+			if (newIndex == newWords.words.length || (oldIndex < oldWords.words.length
+					&& oldWords.words[oldIndex] < newWords.words[newIndex])) {
+				removeOccurrence(oldWords.words[oldIndex], oldWords.slots[oldIndex]);
+				oldIndex++;
+			} else if (oldIndex == oldWords.words.length || newWords.words[newIndex] < oldWords.words[oldIndex]) {
+				newWords.slots[newIndex] = addOccurrence(newWords.words[newIndex], entry);
+				newIndex++;
+			} else {
+				newWords.slots[newIndex++] = oldWords.slots[oldIndex++];
+			}
+		}
+		entry.setValue(newWords);
+		reclaimUnusedWords();
+	}
+
+	private void markStale() {
+		stale = true;
+		order = new ParagraphOrder<>();
+		allWords.clear();
+		frequentWords.clear();
+		usedWordCount = 0;
+		textProcessor = new TextProcessor();
+	}
+
+	/**
+	 * Moves the words which still occur into a new word table once there are
+	 * more unused words than used words and paragraphs. The words are added in
+	 * the order of their old ids, so the new ids keep the order of the old ids.
+	 */
+	private void reclaimUnusedWords() {
+		WordTable wordTable = textProcessor.getWordTable();
+		int unusedWordCount = wordTable.size() - usedWordCount;
+		if (unusedWordCount <= Math.max(usedWordCount, order.size()) + minUnusedWordCount) {
+			return;
+		}
+		WordTable newWordTable = new WordTable();
+		int[] newIds = new int[wordTable.size()];
+		for (int id = 0; id < allWords.size(); id++) {
+			if (allWords.get(id) != null) {
+				newIds[id] = newWordTable.intern(wordTable.getWord(id));
+				allWords.set(newIds[id], allWords.get(id));
+			}
+		}
+		allWords.subList(usedWordCount, allWords.size()).clear();
+		for (int paragraphNumber = 0; paragraphNumber < order.size(); paragraphNumber++) {
+			int[] words = order.get(paragraphNumber).getValue().words;
+			for (int i = 0; i < words.length; i++) {
+				words[i] = newIds[words[i]];
+			}
+		}
+		textProcessor = new TextProcessor(newWordTable);
+	}
+
+	/**
+	 * @return slot of the paragraph in the paragraphs of the word
+	 */
+	private int addOccurrence(int word, ParagraphOrder.Entry<IndexedParagraph> entry) {
+		while (allWords.size() <= word) {
+			allWords.add(null);
+		}
+		WordPostings paragraphs = allWords.get(word);
+		if (paragraphs == null) {
+			paragraphs = new WordPostings();
+			allWords.set(word, paragraphs);
+			usedWordCount++;
+		}
+		int slot = paragraphs.add(entry);
+		if (paragraphs.size == minParagraphCount) {
+			frequentWords.put(textProcessor.getWordTable().getWord(word), paragraphs);
+		}
+		return slot;
+	}
+
+	/**
+	 * Removes the paragraph in a slot of a word. The last paragraph of the
+	 * word is moved into the slot, its slot is found by a binary search in its
+	 * sorted words.
+	 */
+	private void removeOccurrence(int word, int slot) {
+		WordPostings paragraphs = allWords.get(word);
+		ParagraphOrder.Entry<IndexedParagraph> moved = paragraphs.remove(slot);
+		if (moved != null) {
+			IndexedParagraph movedParagraph = moved.getValue();
+			movedParagraph.slots[Arrays.binarySearch(movedParagraph.words, word)] = slot;
+		}
+		if (paragraphs.size == minParagraphCount - 1) {
+			frequentWords.remove(textProcessor.getWordTable().getWord(word));
+		} else if (paragraphs.size == 0) {
+			allWords.set(word, null);
+			usedWordCount--;
+		}
+	}
+
+	/**
+	 * The ascending ids of the words of a paragraph and the slot of the
+	 * paragraph in the paragraphs of each word.
+	 */
+	private static class IndexedParagraph {
+		private final int[] words;
+		private final int[] slots;
+
+		private IndexedParagraph(int[] words) {
+			this.words = words;
+			this.slots = new int[words.length];
+		}
+	}
+
+	/**
+	 * The paragraphs of one word in no particular order.
+	 */
+	private class WordPostings {
+		private ParagraphOrder.Entry<?>[] paragraphs = new ParagraphOrder.Entry<?>[2];
+		private int size;
+
+		private int add(ParagraphOrder.Entry<IndexedParagraph> entry) {
+			if (size == paragraphs.length) {
+				paragraphs = Arrays.copyOf(paragraphs, size * 2);
+			}
+			paragraphs[size] = entry;
+			return size++;
+		}
+
+		/**
+		 * @return the paragraph which was moved into the slot, or null
+		 */
+		@SuppressWarnings("unchecked")
+		private ParagraphOrder.Entry<IndexedParagraph> remove(int slot) {
+			ParagraphOrder.Entry<IndexedParagraph> last = (ParagraphOrder.Entry<IndexedParagraph>) paragraphs[--size];
+			paragraphs[size] = null;
+			if (slot == size) {
+				return null;
+			}
+			paragraphs[slot] = last;
+			return last;
+		}
+
+		@SuppressWarnings("unchecked")
+		private PostingList toPostingList() {
+			int[] paragraphNumbers = new int[size];
+			for (int i = 0; i < size; i++) {
+				paragraphNumbers[i] = order.paragraphNumberOf((ParagraphOrder.Entry<IndexedParagraph>) paragraphs[i]);
+			}
+			Arrays.sort(paragraphNumbers);
+			PostingList postingList = new PostingList();
+			for (int paragraphNumber : paragraphNumbers) {
+				postingList.append(paragraphNumber);
+			}
+			postingList.seal();
+			return postingList;
+		}
+	}
+}
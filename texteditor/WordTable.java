@@ -0,0 +1,284 @@
+package texteditor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * The WordTable class gives every distinct word of the word index an int id.
+ * A word is looked up by the letters of a range of a text, so a word which was
+ * seen before is found without creating a String. Ids are assigned in the
+ * order the words are first seen. The alphabetical order of the ids is kept
+ * as well, and only the words added since it was last requested are sorted
+ * and merged into it.
+ * Looking up a known word does not take a lock, so the ranges of a
+ * ParallelIndexBuilder can share one table. New words are added while holding
+ * the lock of the table. Words are never removed. Every document and every
+ * index build has its own table, so the table only holds the capitalized
+ * words of one document, or its words in lowercase for a case folded index.
+ * A WordIndex replaces its table by a smaller one when most of the words no
+ * longer occur in the document.
+ */
+public class WordTable {
+	private volatile Table table = new Table(1024);
+	private int[] sortedIds = new int[0];
+
+	/**
+	 * Returns the id of the word which is formed by the letters of a range of a
+	 * text. Other characters in the range are skipped. The word is added if it
+	 * is not known yet.
+	 *
+	 * @param text
+	 * @param start offset of the first character of the range
+	 * @param end   offset after the last character of the range
+	 * @return id of the word
+	 */
+	public int intern(CharSequence text, int start, int end) {
+		return intern(text, start, end, false);
+	}
+
+	/**
+	 * Returns the id of the word which is formed by the letters of a range of a
+	 * text, optionally converted to lowercase.
+	 *
+	 * @param text
+	 * @param start      offset of the first character of the range
+	 * @param end        offset after the last character of the range
+	 * @param caseFolded true to look up the word in lowercase
+	 * @return id of the word
+	 */
+	public int intern(CharSequence text, int start, int end, boolean caseFolded) {
+		int hash = hash(text, start, end, caseFolded);
+		Table current = table;
+		int id = current.find(text, start, end, caseFolded, hash);
+		return id >= 0 ? id : add(text, start, end, caseFolded, hash);
+	}
+
+	/**
+	 * Returns the id of a word and adds it if it is not known yet.
+	 *
+	 * @param word consisting of letters
+	 * @return id of the word
+	 */
+	public int intern(String word) {
+		return intern(word, 0, word.length());
+	}
+
+	/**
+	 * @param id
+	 * @return the word with this id
+	 */
+	public String getWord(int id) {
+		Table current = table;
+		return current.words[Objects.checkIndex(id, current.count)];
+	}
+
+	/**
+	 * @return number of words in the table
+	 */
+	public int size() {
+		return table.count;
+	}
+
+	/**
+	 * Returns the ids of all words in alphabetical order of the words. The
+	 * returned array must not be changed.
+	 *
+	 * @return sorted ids
+	 */
+	public synchronized int[] getSortedIds() {
+		Table current = table;
+		int sortedCount = sortedIds.length;
+		if (sortedCount == current.count) {
+			return sortedIds;
+		}
+		Integer[] newIds = new Integer[current.count - sortedCount];
+		for (int i = 0; i < newIds.length; i++) {
+			newIds[i] = sortedCount + i;
+		}
+		Arrays.sort(newIds, (first, second) -> current.words[first].compareTo(current.words[second]));
+		int[] merged = new int[current.count];
+		int left = 0;
+		int right = 0;
+		for (int i = 0; i < merged.length; i++) {
+			if (right == newIds.length || (left < sortedCount
+					&& current.words[sortedIds[left]].compareTo(current.words[newIds[right]]) < 0)) {
+				merged[i] = sortedIds[left++];
+			} else {
+				merged[i] = newIds[right++];
+			}
+		}
+		sortedIds = merged;
+		return merged;
+	}
+
+	/**
+	 * Creates a word index from posting lists which are indexed by word id.
+	 * Words with fewer paragraphs than minParagraphCount are left out, the
+	 * posting lists of the other words are sealed.
+	 *
+	 * @param postingLists posting list of every id, null for ids without paragraphs
+	 * @param minParagraphCount
+	 * @return tree map with word index
+	 */
+	public TreeMap<String, PostingList> createWordIndex(PostingList[] postingLists, int minParagraphCount) {
+		TreeMap<String, PostingList> wordIndexList = new TreeMap<>();
+		for (int id : getSortedIds()) {
+			if (id < postingLists.length && postingLists[id] != null
+					&& postingLists[id].size() >= minParagraphCount) {
+				postingLists[id].seal();
+				wordIndexList.put(getWord(id), postingLists[id]);
+			}
+		}
+		return wordIndexList;
+	}
+
+	/**
+	 * Creates a word index of the words which occur in the most paragraphs.
+	 * Words with fewer paragraphs than minParagraphCount are left out. The
+	 * words are ordered by their number of paragraphs, words with the same
+	 * number in alphabetical order.
+	 *
+	 * @param postingLists      posting list of every id, null for ids without paragraphs
+	 * @param minParagraphCount
+	 * @param topCount          number of words to list at most
+	 * @return map with word index in the order of the words
+	 */
+	public LinkedHashMap<String, PostingList> createTopWordIndex(PostingList[] postingLists, int minParagraphCount,
+			int topCount) {
+		ArrayList<Integer> ids = new ArrayList<>();
+		for (int id : getSortedIds()) {
+			if (id < postingLists.length && postingLists[id] != null
+					&& postingLists[id].size() >= minParagraphCount) {
+				ids.add(id);
+			}
+		}
+		ids.sort((first, second) -> Integer.compare(postingLists[second].size(), postingLists[first].size()));
+		LinkedHashMap<String, PostingList> wordIndexList = new LinkedHashMap<>();
+		for (int id : ids.subList(0, Math.min(topCount, ids.size()))) {
+			postingLists[id].seal();
+			wordIndexList.put(getWord(id), postingLists[id]);
+		}
+		return wordIndexList;
+	}
+
+	private synchronized int add(CharSequence text, int start, int end, boolean caseFolded, int hash) {
+		Table current = table;
+		int id = current.find(text, start, end, caseFolded, hash);
+		if (id >= 0) {
+			return id;
+		}
+		if ((current.count + 1) * 2 > current.slots.length) {
+			current = current.grow();
+			table = current;
+		}
+		id = current.count;
+		current.words[id] = toWord(text, start, end, caseFolded);
+		current.hashes[id] = hash;
+		current.insert(id, hash);
+		current.count++;
+		return id;
+	}
+
+	private static int hash(CharSequence text, int start, int end, boolean caseFolded) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			char character = text.charAt(i);
+			if (Tokenizer.isLetter(character)) {
+				hash = 31 * hash + fold(character, caseFolded);
+			}
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Creates the word which is formed by the letters of a range of a text.
+	 *
+	 * @param text
+	 * @param start      offset of the first character of the range
+	 * @param end        offset after the last character of the range
+	 * @param caseFolded true to convert the letters to lowercase
+	 * @return the word
+	 */
+	static String toWord(CharSequence text, int start, int end, boolean caseFolded) {
+		StringBuilder word = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			char character = text.charAt(i);
+			if (Tokenizer.isLetter(character)) {
+				word.append(fold(character, caseFolded));
+			}
+		}
+		return word.toString();
+	}
+
+	static char fold(char character, boolean caseFolded) {
+		return caseFolded ? Character.toLowerCase(character) : character;
+	}
+
+	/**
+	 * Open addressing hash table from words to ids. A slot holds the id plus
+	 * one, 0 marks an empty slot. The count is written after the word, so a
+	 * reader without the lock which sees a slot of an id not below the count
+	 * looks the word up again with the lock.
+	 */
+	private static class Table {
+		private final int[] slots;
+		private final String[] words;
+		private final int[] hashes;
+		private volatile int count;
+
+		private Table(int slotCount) {
+			slots = new int[slotCount];
+			words = new String[slotCount / 2];
+			hashes = new int[slotCount / 2];
+		}
+
+		private int find(CharSequence text, int start, int end, boolean caseFolded, int hash) {
+			int mask = slots.length - 1;
+			for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+				int id = slots[slot] - 1;
+				if (id < 0 || id >= count) {
+					return -1;
+				}
+				if (hashes[id] == hash && matches(words[id], text, start, end, caseFolded)) {
+					return id;
+				}
+			}
+		}
+
+		private void insert(int id, int hash) {
+			int mask = slots.length - 1;
+			int slot = hash & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = id + 1;
+		}
+
+		private Table grow() {
+			Table grown = new Table(slots.length * 2);
+			System.arraycopy(words, 0, grown.words, 0, count);
+			System.arraycopy(hashes, 0, grown.hashes, 0, count);
+			for (int id = 0; id < count; id++) {
+				grown.insert(id, hashes[id]);
+			}
+			grown.count = count;
+			return grown;
+		}
+
+		private static boolean matches(String word, CharSequence text, int start, int end, boolean caseFolded) {
+			int position = 0;
+			for (int i = start; i < end; i++) {
+				char character = text.charAt(i);
+				if (Tokenizer.isLetter(character)) {
+					if (position == word.length() || word.charAt(position++) != fold(character, caseFolded)) {
+						return false;
+					}
+				}
+			}
+			return position == word.length();
+		}
+	}
+}
@@ -0,0 +1,405 @@
+package texteditor;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * The WriteAheadLog class keeps an editing session in a directory, so the
+ * text can be recovered after the program was stopped or killed.
+ * It listens to the changes of the document and appends every change and
+ * every change of the format as a record to the file "wal.log". Records are
+ * written to the file when a command is finished, so they survive the end of
+ * the process. The file is synced to the disk at most once per sync interval
+ * by a background thread, so several commands share one sync.
+ * When the log is larger than the snapshot size, the whole document is saved
+ * with a DocumentStore as "snapshot-[number].txed", where the number is the
+ * last record which is contained in the snapshot, and a new log is started.
+ * Recovery loads the newest snapshot and replays the records after it. A
+ * record which was only partly written is detected by its checksum and
+ * removed.
+ */
+public class WriteAheadLog implements DocumentListener {
+	private static final String LOG_NAME = "wal.log";
+	private static final String SNAPSHOT_PREFIX = "snapshot-";
+	private static final String SNAPSHOT_SUFFIX = ".txed";
+	private static final byte INSERT = 1;
+	private static final byte REMOVE = 2;
+	private static final byte REPLACE = 3;
+	private static final byte FORMAT = 4;
+	private static final int HEADER_SIZE = 8;
+	private static final int MAX_RECORD_SIZE = 1 << 20;
+	private static final int MAX_INSERT_COUNT = 4096;
+	private final Path directory;
+	private final Document document;
+	private final TextFormatter textFormatter;
+	private final long snapshotSize;
+	private final long syncMillis;
+	private final DocumentStore snapshotStore;
+	private final CRC32 checksum = new CRC32();
+	private final AtomicBoolean syncScheduled = new AtomicBoolean();
+	private final ScheduledThreadPoolExecutor syncExecutor;
+	private ByteBuffer records = ByteBuffer.allocate(1 << 16);
+	private volatile FileChannel channel;
+	private volatile IOException syncError;
+	private long logSize;
+	private long lastRecordNumber;
+	private int recordStart = -1;
+
+	/**
+	 * Constructor with the session directory. The session is only used after
+	 * recover was called.
+	 *
+	 * @param directory     directory of the log and the snapshots
+	 * @param document      empty document which is recovered and then logged
+	 * @param textFormatter formatter whose format is recovered and logged
+	 * @param snapshotSize  size of the log in bytes after which a snapshot is written
+	 * @param syncMillis    longest time in milliseconds until a record is synced
+	 */
+	public WriteAheadLog(Path directory, Document document, TextFormatter textFormatter, long snapshotSize,
+			long syncMillis) {
+		this.directory = directory;
+		this.document = document;
+		this.textFormatter = textFormatter;
+		this.snapshotSize = snapshotSize;
+		this.syncMillis = syncMillis;
+		this.snapshotStore = new DocumentStore(document);
+		this.syncExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "wal-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		syncExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+	}
+
+	/**
+	 * Loads the newest snapshot and replays the log after it. Afterwards every
+	 * change of the document is logged.
+	 *
+	 * @throws IOException if the session can not be read or the log can not be opened
+	 */
+	public void recover() throws IOException {
+		Files.createDirectories(directory);
+		List<Path> snapshots = getSnapshots();
+		long snapshotRecordNumber = 0;
+		for (int i = snapshots.size() - 1; i >= 0; i--) {
+			try {
+				List<CharSequence> paragraphs = new TextFileLoader().load(snapshots.get(i));
+				document.insertParagraphs(0, paragraphs);
+				snapshotRecordNumber = getRecordNumber(snapshots.get(i));
+				break;
+			} catch (IOException e) {
+				// an older snapshot is still valid if the newest one is damaged
+			}
+		}
+		lastRecordNumber = snapshotRecordNumber;
+		Path log = directory.resolve(LOG_NAME);
+		long validSize = Files.exists(log) ? replay(log, snapshotRecordNumber) : 0;
+		channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		channel.truncate(validSize);
+		channel.position(validSize);
+		logSize = validSize;
+		document.addDocumentListener(this);
+	}
+
+	/**
+	 * Logs the current format of the text formatter.
+	 */
+	public void logFormat() {
+		startRecord(FORMAT, 0);
+		records.putInt(textFormatter.getMaxLineLength());
+		endRecord();
+	}
+
+	/**
+	 * Writes the records of the finished command to the log and makes sure they
+	 * are synced within the sync interval. Writes a snapshot when the log is too
+	 * large.
+	 *
+	 * @throws IOException if the log or the snapshot can not be written
+	 */
+	public void commit() throws IOException {
+		if (syncError != null) {
+			throw syncError;
+		}
+		writeRecords();
+		if (logSize > snapshotSize) {
+			snapshot();
+		} else if (!syncScheduled.getAndSet(true)) {
+			syncExecutor.schedule(this::sync, syncMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Saves the whole document as snapshot and starts a new log, which only
+	 * contains the current format. Older snapshots are deleted.
+	 *
+	 * @throws IOException if the snapshot or the new log can not be written
+	 */
+	public void snapshot() throws IOException {
+		writeRecords();
+		Path snapshot = directory.resolve(SNAPSHOT_PREFIX + lastRecordNumber + SNAPSHOT_SUFFIX);
+		snapshotStore.save(snapshot);
+		Path log = directory.resolve(LOG_NAME);
+		Path temporary = directory.resolve(LOG_NAME + ".tmp");
+		FileChannel oldChannel = channel;
+		channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		logSize = 0;
+		logFormat();
+		writeRecords();
+		channel.force(false);
+		Files.move(temporary, log, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		oldChannel.close();
+		for (Path oldSnapshot : getSnapshots()) {
+			if (!oldSnapshot.equals(snapshot)) {
+				try {
+					Files.deleteIfExists(oldSnapshot);
+				} catch (IOException e) {
+					// deleted with the next snapshot
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes and syncs all records and closes the log.
+	 *
+	 * @throws IOException if the log can not be written
+	 */
+	public void close() throws IOException {
+		// shutdownNow would interrupt a running sync, which closes the channel
+		syncExecutor.shutdown();
+		writeRecords();
+		channel.force(false);
+		channel.close();
+	}
+
+	@Override
+	public void paragraphInserted(int paragraphNumber, String paragraph) {
+		paragraphsInserted(paragraphNumber, List.of(paragraph));
+	}
+
+	@Override
+	public void paragraphsInserted(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		int first = 0;
+		while (first < paragraphs.size()) {
+			startRecord(INSERT, paragraphNumber + first);
+			int countPosition = records.position();
+			records.putInt(0);
+			int count = 0;
+			while (first + count < paragraphs.size() && count < MAX_INSERT_COUNT
+					&& records.position() - recordStart < MAX_RECORD_SIZE) {
+				putText(paragraphs.get(first + count));
+				count++;
+			}
+			records.putInt(countPosition, count);
+			endRecord();
+			first += count;
+			if (records.position() > MAX_RECORD_SIZE) {
+				writeRecordsUnchecked();
+			}
+		}
+	}
+
+	@Override
+	public void paragraphRemoved(int paragraphNumber, String paragraph) {
+		startRecord(REMOVE, paragraphNumber);
+		records.putInt(1);
+		endRecord();
+	}
+
+	@Override
+	public void paragraphsRemoved(int paragraphNumber, List<? extends CharSequence> paragraphs) {
+		startRecord(REMOVE, paragraphNumber);
+		records.putInt(paragraphs.size());
+		endRecord();
+	}
+
+	@Override
+	public void paragraphReplaced(int paragraphNumber, String oldParagraph, String newParagraph) {
+		int prefix = 0;
+		int maxLength = Math.min(oldParagraph.length(), newParagraph.length());
+		while (prefix < maxLength && oldParagraph.charAt(prefix) == newParagraph.charAt(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < maxLength - prefix && oldParagraph.charAt(oldParagraph.length() - 1 - suffix) == newParagraph
+				.charAt(newParagraph.length() - 1 - suffix)) {
+			suffix++;
+		}
+		startRecord(REPLACE, paragraphNumber);
+		records.putInt(prefix);
+		records.putInt(oldParagraph.length() - prefix - suffix);
+		putText(newParagraph.substring(prefix, newParagraph.length() - suffix));
+		endRecord();
+	}
+
+	private long replay(Path log, long snapshotRecordNumber) throws IOException {
+		long validSize = 0;
+		long fileSize = Files.size(log);
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(log), 1 << 16))) {
+			while (true) {
+				int length = input.readInt();
+				int expectedChecksum = input.readInt();
+				if (length <= 0 || validSize + HEADER_SIZE + length > fileSize) {
+					break;
+				}
+				byte[] payload = new byte[length];
+				input.readFully(payload);
+				checksum.reset();
+				checksum.update(payload);
+				if ((int) checksum.getValue() != expectedChecksum) {
+					break;
+				}
+				apply(ByteBuffer.wrap(payload), snapshotRecordNumber);
+				validSize += HEADER_SIZE + length;
+			}
+		} catch (EOFException e) {
+			// the last record was not written completely
+		}
+		return validSize;
+	}
+
+	private void apply(ByteBuffer record, long snapshotRecordNumber) {
+		long recordNumber = record.getLong();
+		byte type = record.get();
+		int paragraphNumber = record.getInt();
+		lastRecordNumber = Math.max(lastRecordNumber, recordNumber);
+		if (type == FORMAT) {
+			textFormatter.setMaxLineLength(record.getInt());
+			return;
+		} else if (recordNumber <= snapshotRecordNumber) {
+			return;
+		}
+		switch (type) {
+		case INSERT:
+			int count = record.getInt();
+			ArrayList<CharSequence> paragraphs = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				paragraphs.add(getText(record));
+			}
+			document.insertParagraphs(paragraphNumber, paragraphs);
+			break;
+		case REMOVE:
+			document.removeParagraphs(paragraphNumber, record.getInt());
+			break;
+		case REPLACE:
+			int offset = record.getInt();
+			int removedLength = record.getInt();
+			String oldParagraph = document.get(paragraphNumber);
+			document.set(paragraphNumber, oldParagraph.substring(0, offset) + getText(record)
+					+ oldParagraph.substring(offset + removedLength));
+			break;
+		default:
+			throw new IllegalStateException("Unknown record type " + type);
+		}
+	}
+
+	private List<Path> getSnapshots() throws IOException {
+		ArrayList<Path> snapshots = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+				SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+			for (Path file : files) {
+				if (getRecordNumber(file) >= 0) {
+					snapshots.add(file);
+				}
+			}
+		}
+		snapshots.sort((first, second) -> Long.compare(getRecordNumber(first), getRecordNumber(second)));
+		return snapshots;
+	}
+
+	private static long getRecordNumber(Path snapshot) {
+		String name = snapshot.getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private void startRecord(byte type, int paragraphNumber) {
+		ensureCapacity(64);
+		recordStart = records.position();
+		records.position(recordStart + HEADER_SIZE);
+		records.putLong(++lastRecordNumber);
+		records.put(type);
+		records.putInt(paragraphNumber);
+	}
+
+	private void endRecord() {
+		int length = records.position() - recordStart - HEADER_SIZE;
+		checksum.reset();
+		checksum.update(records.array(), recordStart + HEADER_SIZE, length);
+		records.putInt(recordStart, length);
+		records.putInt(recordStart + 4, (int) checksum.getValue());
+	}
+
+	private void putText(CharSequence text) {
+		byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+		ensureCapacity(4 + bytes.length);
+		records.putInt(bytes.length);
+		records.put(bytes);
+	}
+
+	private static String getText(ByteBuffer record) {
+		int length = record.getInt();
+		String text = new String(record.array(), record.position(), length, StandardCharsets.UTF_8);
+		record.position(record.position() + length);
+		return text;
+	}
+
+	private void ensureCapacity(int size) {
+		if (records.remaining() < size) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(records.capacity() * 2, records.position() + size));
+			records.flip();
+			larger.put(records);
+			records = larger;
+		}
+	}
+
+	private void writeRecords() throws IOException {
+		records.flip();
+		while (records.hasRemaining()) {
+			logSize += channel.write(records);
+		}
+		records.clear();
+	}
+
+	private void writeRecordsUnchecked() {
+		try {
+			writeRecords();
+		} catch (IOException e) {
+			syncError = e;
+		}
+	}
+
+	private void sync() {
+		syncScheduled.set(false);
+		try {
+			channel.force(false);
+		} catch (ClosedChannelException e) {
+			// the log was replaced by a new log, which was synced
+		} catch (IOException e) {
+			syncError = e;
+		}
+	}
+}